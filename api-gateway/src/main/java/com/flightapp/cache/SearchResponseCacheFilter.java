@@ -0,0 +1,255 @@
+package com.flightapp.cache;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Answers repeated flight searches from the gateway. A POST to
+ * {@code .../api/flight/search} is keyed on its body normalized the way
+ * flight-service reads it (sort upper-cased, limit defaulting to 20, a blank
+ * cursor dropped), so identical queries share one entry however the client
+ * spells them. A 200 is kept for {@code gateway.search-cache.ttl} and
+ * answered with {@code X-Cache: HIT}; for {@code stale-while-revalidate}
+ * after that it is still answered, as {@code STALE}, while one background
+ * request to the instance that produced it fetches a fresh copy. Anything
+ * older, errors and bodies that do not parse go to flight-service as before.
+ * A client sending {@code Cache-Control: no-cache} skips the lookup but
+ * refreshes the entry.
+ * <p>
+ * Seat counts in a cached page can lag a booking by up to ttl plus the stale
+ * window; flight-service re-checks seats on every booking, so keep both short.
+ */
+@Component
+@ConditionalOnProperty(name = "gateway.search-cache.enabled", havingValue = "true", matchIfMissing = true)
+public class SearchResponseCacheFilter implements GlobalFilter, Ordered {
+
+	private static final Logger log = LoggerFactory.getLogger(SearchResponseCacheFilter.class);
+
+	public static final String CACHE_STATUS = "X-Cache";
+	static final String SEARCH_PATH = "/api/flight/search";
+	private static final List<String> KEPT_HEADERS = List.of(HttpHeaders.CONTENT_TYPE, "X-Next-Cursor");
+	private static final int DEFAULT_LIMIT = 20;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final WebClient client;
+	private final long ttlMillis;
+	private final long staleMillis;
+	private final int maxBodyBytes;
+	private final LongSupplier clock;
+	private final Cache<SearchKey, Entry> cache;
+
+	public SearchResponseCacheFilter(WebClient.Builder webClients,
+			@Value("${gateway.search-cache.ttl:5s}") Duration ttl,
+			@Value("${gateway.search-cache.stale-while-revalidate:30s}") Duration stale,
+			@Value("${gateway.search-cache.max-entries:10000}") long maxEntries,
+			@Value("${gateway.search-cache.max-body-bytes:262144}") int maxBodyBytes) {
+		this(webClients.build(), ttl, stale, maxEntries, maxBodyBytes, System::currentTimeMillis);
+	}
+
+	SearchResponseCacheFilter(WebClient client, Duration ttl, Duration stale, long maxEntries, int maxBodyBytes,
+			LongSupplier clock) {
+		this.client = client;
+		this.ttlMillis = ttl.toMillis();
+		this.staleMillis = stale.toMillis();
+		this.maxBodyBytes = maxBodyBytes;
+		this.clock = clock;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maxEntries)
+				.expireAfterWrite(ttlMillis + staleMillis, TimeUnit.MILLISECONDS)
+				.ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.getAsLong()))
+				.build();
+	}
+
+	/** Ahead of the route's own filters, so a hit never reaches the load balancer. */
+	@Override
+	public int getOrder() {
+		return -1;
+	}
+
+	@Override
+	public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+		ServerHttpRequest request = exchange.getRequest();
+		if (request.getMethod() != HttpMethod.POST || !request.getURI().getPath().endsWith(SEARCH_PATH)) {
+			return chain.filter(exchange);
+		}
+		return ServerWebExchangeUtils.cacheRequestBody(exchange, cached -> {
+			ServerWebExchange withBody = exchange.mutate().request(cached).build();
+			DataBuffer buffer = withBody.getAttribute(ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR);
+			byte[] body = buffer == null ? new byte[0] : copy(buffer);
+			SearchKey key = keyOf(body);
+			if (key == null) {
+				return chain.filter(withBody);
+			}
+
+			Entry entry = noCache(request) ? null : cache.getIfPresent(key);
+			long age = entry == null ? -1 : clock.getAsLong() - entry.storedAt();
+			if (entry != null && age < ttlMillis) {
+				return serve(withBody, entry, "HIT", age);
+			}
+			if (entry != null && entry.origin() != null) {
+				revalidate(key, entry, body);
+				return serve(withBody, entry, "STALE", age);
+			}
+			return forward(withBody, chain, key);
+		});
+	}
+
+	public long size() {
+		cache.cleanUp();
+		return cache.estimatedSize();
+	}
+
+	private Mono<Void> serve(ServerWebExchange exchange, Entry entry, String status, long ageMillis) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.setStatusCode(HttpStatus.OK);
+		response.getHeaders().putAll(entry.headers());
+		response.getHeaders().set(CACHE_STATUS, status);
+		response.getHeaders().set(HttpHeaders.AGE, Long.toString(ageMillis / 1000));
+		return response.writeWith(Mono.just(response.bufferFactory().wrap(entry.body())));
+	}
+
+	/** Routes as usual and keeps a copy of a 200 on its way back to the client. */
+	private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, SearchKey key) {
+		ServerHttpResponse response = exchange.getResponse();
+		response.beforeCommit(() -> {
+			response.getHeaders().set(CACHE_STATUS, "MISS");
+			return Mono.empty();
+		});
+		ServerHttpResponseDecorator recording = new ServerHttpResponseDecorator(response) {
+			@Override
+			public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+				if (!HttpStatus.OK.equals(getStatusCode())) {
+					return super.writeWith(body);
+				}
+				return DataBufferUtils.join(Flux.from(body)).map(joined -> {
+					byte[] bytes = copy(joined);
+					DataBufferUtils.release(joined);
+					return bytes;
+				}).defaultIfEmpty(new byte[0]).flatMap(bytes -> {
+					if (bytes.length > 0) {
+						URI origin = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR);
+						store(key, bytes, getHeaders(), origin);
+					}
+					return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+				});
+			}
+		};
+		return chain.filter(exchange.mutate().response(recording).build());
+	}
+
+	/**
+	 * One refresh per stale entry at a time, straight to the instance that
+	 * answered last; if it fails the entry stays stale until it ages out and
+	 * the next search goes through the route again.
+	 */
+	private void revalidate(SearchKey key, Entry entry, byte[] body) {
+		if (!entry.revalidating().compareAndSet(false, true)) {
+			return;
+		}
+		client.post()
+				.uri(entry.origin())
+				.contentType(MediaType.APPLICATION_JSON)
+				.bodyValue(body)
+				.exchangeToMono(r -> HttpStatus.OK.equals(r.statusCode()) ? r.toEntity(byte[].class)
+						: r.releaseBody().then(Mono.empty()))
+				.doFinally(signal -> entry.revalidating().set(false))
+				.subscribe(fresh -> store(key, fresh.getBody(), fresh.getHeaders(), entry.origin()),
+						e -> log.debug("Revalidating {} against {} failed: {}", key, entry.origin(), e.getMessage()));
+	}
+
+	private void store(SearchKey key, byte[] body, HttpHeaders headers, URI origin) {
+		if (body == null || body.length > maxBodyBytes) {
+			return;
+		}
+		HttpHeaders kept = new HttpHeaders();
+		for (String name : KEPT_HEADERS) {
+			List<String> values = headers.get(name);
+			if (values != null) {
+				kept.put(name, values);
+			}
+		}
+		cache.put(key, new Entry(body, HttpHeaders.readOnlyHttpHeaders(kept), clock.getAsLong(), origin,
+				new AtomicBoolean()));
+	}
+
+	/** Null when the body is not a search flight-service would accept as such. */
+	SearchKey keyOf(byte[] body) {
+		JsonNode json;
+		try {
+			json = mapper.readTree(body);
+		} catch (Exception e) {
+			return null;
+		}
+		if (json == null || !json.isObject()) {
+			return null;
+		}
+		JsonNode limit = json.path("limit");
+		if (!limit.isMissingNode() && !limit.isNull() && !limit.isIntegralNumber()) {
+			return null;
+		}
+		String sort = text(json, "sort");
+		String cursor = text(json, "cursor");
+		return new SearchKey(text(json, "from"), text(json, "to"), text(json, "departureFrom"),
+				text(json, "departureTo"), sort == null ? "ASC" : sort.toUpperCase(),
+				limit.isIntegralNumber() ? limit.asInt() : DEFAULT_LIMIT,
+				cursor == null || cursor.isBlank() ? null : cursor);
+	}
+
+	private static String text(JsonNode json, String field) {
+		JsonNode node = json.get(field);
+		return node == null || node.isNull() ? null : node.asText();
+	}
+
+	private static boolean noCache(ServerHttpRequest request) {
+		String cacheControl = request.getHeaders().getCacheControl();
+		return cacheControl != null && cacheControl.contains("no-cache");
+	}
+
+	private static byte[] copy(DataBuffer buffer) {
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.toByteBuffer(buffer.readPosition(), ByteBuffer.wrap(bytes), 0, bytes.length);
+		return bytes;
+	}
+
+	record SearchKey(String from, String to, String departureFrom, String departureTo, String sort, int limit,
+			String cursor) {
+	}
+
+	private record Entry(byte[] body, HttpHeaders headers, long storedAt, URI origin, AtomicBoolean revalidating) {
+	}
+}
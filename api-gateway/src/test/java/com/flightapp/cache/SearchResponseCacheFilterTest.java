@@ -0,0 +1,166 @@
+package com.flightapp.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import reactor.core.publisher.Mono;
+
+class SearchResponseCacheFilterTest {
+
+	private static final String PATH = "/FLIGHT-SERVICE/api/flight/search";
+	private static final String BODY = "{\"from\":\"HYD\",\"to\":\"BLR\"}";
+	private static final URI ORIGIN = URI.create("http://flight-service:8081/api/flight/search");
+
+	private final AtomicLong now = new AtomicLong(1_000_000);
+	private final AtomicInteger routed = new AtomicInteger();
+	private final AtomicInteger revalidated = new AtomicInteger();
+	private HttpStatus backendStatus = HttpStatus.OK;
+
+	private final WebClient client = WebClient.builder().exchangeFunction(request -> {
+		revalidated.incrementAndGet();
+		return Mono.just(ClientResponse.create(HttpStatus.OK)
+				.header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+				.body("[\"fresh\"]").build());
+	}).build();
+
+	private final SearchResponseCacheFilter filter = new SearchResponseCacheFilter(client, Duration.ofSeconds(5),
+			Duration.ofSeconds(30), 100, 1024, now::get);
+
+	/** Stands in for the route: answers the search as flight-service would. */
+	private final GatewayFilterChain chain = exchange -> {
+		int n = routed.incrementAndGet();
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR, ORIGIN);
+		exchange.getResponse().setStatusCode(backendStatus);
+		exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+		exchange.getResponse().getHeaders().set("X-Next-Cursor", "c" + n);
+		exchange.getResponse().getHeaders().set("Set-Cookie", "route=" + n);
+		byte[] body = ("[\"page " + n + "\"]").getBytes(StandardCharsets.UTF_8);
+		return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+	};
+
+	@Test
+	void testRepeatedSearchIsServedFromTheGateway() {
+		MockServerWebExchange miss = search(BODY);
+		assertEquals("MISS", miss.getResponse().getHeaders().getFirst(SearchResponseCacheFilter.CACHE_STATUS));
+		assertEquals("[\"page 1\"]", miss.getResponse().getBodyAsString().block());
+
+		now.addAndGet(2000);
+		MockServerWebExchange hit = search(BODY);
+		assertEquals(HttpStatus.OK, hit.getResponse().getStatusCode());
+		assertEquals("HIT", hit.getResponse().getHeaders().getFirst(SearchResponseCacheFilter.CACHE_STATUS));
+		assertEquals("2", hit.getResponse().getHeaders().getFirst(HttpHeaders.AGE));
+		assertEquals("c1", hit.getResponse().getHeaders().getFirst("X-Next-Cursor"));
+		assertNull(hit.getResponse().getHeaders().getFirst("Set-Cookie"));
+		assertEquals("[\"page 1\"]", hit.getResponse().getBodyAsString().block());
+		assertEquals(1, routed.get());
+	}
+
+	@Test
+	void testEquivalentBodiesShareAnEntry() {
+		search("{\"from\":\"HYD\",\"to\":\"BLR\",\"sort\":\"ASC\",\"limit\":20}");
+		assertEquals("HIT", status(search("{ \"to\": \"BLR\", \"from\": \"HYD\", \"sort\": \"asc\", \"cursor\": \"\" }")));
+		assertEquals("MISS", status(search("{\"from\":\"HYD\",\"to\":\"BLR\",\"sort\":\"desc\"}")));
+		assertEquals("MISS", status(search("{\"from\":\"HYD\",\"to\":\"BLR\",\"limit\":5}")));
+		assertEquals("MISS", status(search("{\"from\":\"HYD\",\"to\":\"DEL\"}")));
+		assertEquals(4, routed.get());
+	}
+
+	@Test
+	void testStaleEntryIsServedWhileOneRefreshRuns() {
+		search(BODY);
+		now.addAndGet(6000);
+
+		MockServerWebExchange stale = search(BODY);
+		assertEquals("STALE", status(stale));
+		assertEquals("[\"page 1\"]", stale.getResponse().getBodyAsString().block());
+		assertEquals(1, revalidated.get());
+
+		MockServerWebExchange refreshed = search(BODY);
+		assertEquals("HIT", status(refreshed));
+		assertEquals("[\"fresh\"]", refreshed.getResponse().getBodyAsString().block());
+		assertEquals(1, routed.get());
+	}
+
+	@Test
+	void testEntryPastTheStaleWindowGoesBackToTheRoute() {
+		search(BODY);
+		now.addAndGet(36_000);
+
+		assertEquals("MISS", status(search(BODY)));
+		assertEquals(2, routed.get());
+		assertEquals(0, revalidated.get());
+	}
+
+	@Test
+	void testErrorsAreNotCached() {
+		backendStatus = HttpStatus.BAD_REQUEST;
+		search(BODY);
+		search(BODY);
+		assertEquals(2, routed.get());
+		assertEquals(0, filter.size());
+	}
+
+	@Test
+	void testNoCacheRefreshesTheEntry() {
+		search(BODY);
+		MockServerWebExchange forced = filter(MockServerHttpRequest.post(PATH)
+				.header(HttpHeaders.CACHE_CONTROL, "no-cache")
+				.contentType(MediaType.APPLICATION_JSON).body(BODY));
+		assertEquals("MISS", status(forced));
+
+		MockServerWebExchange hit = search(BODY);
+		assertEquals("[\"page 2\"]", hit.getResponse().getBodyAsString().block());
+		assertEquals(2, routed.get());
+	}
+
+	@Test
+	void testOtherRequestsPassThrough() {
+		search("not json");
+		search("[1, 2]");
+		search("{\"from\":\"HYD\",\"to\":\"BLR\",\"limit\":\"ten\"}");
+		filter(MockServerHttpRequest.get(PATH).build());
+		filter(MockServerHttpRequest.post("/BOOKING-SERVICE/api/booking/1")
+				.contentType(MediaType.APPLICATION_JSON).body(BODY));
+
+		assertEquals(5, routed.get());
+		assertEquals(0, filter.size());
+	}
+
+	@Test
+	void testSizeIsBounded() {
+		for (int i = 0; i < 500; i++) {
+			search("{\"from\":\"HYD\",\"to\":\"X" + i + "\"}");
+		}
+		assertTrue(filter.size() <= 100, filter.size() + " entries");
+	}
+
+	private MockServerWebExchange search(String body) {
+		return filter(MockServerHttpRequest.post(PATH).contentType(MediaType.APPLICATION_JSON).body(body));
+	}
+
+	private MockServerWebExchange filter(MockServerHttpRequest request) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		filter.filter(exchange, chain).block();
+		return exchange;
+	}
+
+	private static String status(MockServerWebExchange exchange) {
+		return exchange.getResponse().getHeaders().getFirst(SearchResponseCacheFilter.CACHE_STATUS);
+	}
+}
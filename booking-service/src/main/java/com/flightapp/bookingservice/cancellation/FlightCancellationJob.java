@@ -0,0 +1,132 @@
+package com.flightapp.bookingservice.cancellation;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Cancels every open booking of a flight the airline has cancelled.
+ * <p>
+ * Bookings are read a page of open ids at a time over
+ * idx_booking_flight_status and each page is cancelled with one JDBC batch in
+ * its own transaction, so locks are short and progress is visible while the
+ * job runs. The flight is gone, so no seats are handed back: there is no
+ * RELEASE_SEATS step per booking, and seat steps still pending for the flight
+ * are closed. The flight's load totals are recounted once at the end.
+ * <p>
+ * Updates are guarded on the open statuses, so a booking cancelled or failed
+ * meanwhile is left alone, and running the job again only picks up what is
+ * still open. Progress is kept in memory on the replica that runs the job.
+ */
+@Component
+public class FlightCancellationJob {
+
+	private static final Logger log = LoggerFactory.getLogger(FlightCancellationJob.class);
+
+	private static final String OPEN = "status IN ('PENDING', 'BOOKED')";
+
+	private final JdbcTemplate jdbc;
+	private final FlightLoadTracker loads;
+	private final TransactionTemplate tx;
+	private final int batchSize;
+	private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> new Thread(r, "flight-cancellation"));
+	private final Map<Long, FlightCancellationProgress> jobs = new ConcurrentHashMap<>();
+
+	public FlightCancellationJob(JdbcTemplate jdbc, FlightLoadTracker loads, PlatformTransactionManager txManager,
+			@Value("${booking.flight-cancellation.batch-size:1000}") int batchSize) {
+		this.jdbc = jdbc;
+		this.loads = loads;
+		this.tx = new TransactionTemplate(txManager);
+		this.batchSize = batchSize;
+	}
+
+	/** Starts cancelling the flight's bookings, or returns the job already doing so. */
+	public FlightCancellationProgress start(Long flightId) {
+		FlightCancellationProgress[] started = new FlightCancellationProgress[1];
+		FlightCancellationProgress progress = jobs.compute(flightId, (id, current) -> {
+			if (current != null && current.isRunning()) {
+				return current;
+			}
+			started[0] = new FlightCancellationProgress(id);
+			return started[0];
+		});
+		if (started[0] != null) {
+			runner.execute(() -> run(started[0]));
+		}
+		return progress;
+	}
+
+	/** The last job for the flight on this replica, or null. */
+	public FlightCancellationProgress progress(Long flightId) {
+		return jobs.get(flightId);
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		runner.shutdownNow();
+	}
+
+	/** Runs the job on the calling thread. Package-private for tests. */
+	void run(FlightCancellationProgress progress) {
+		Long flightId = progress.getFlightId();
+		long began = System.nanoTime();
+		try {
+			Integer open = jdbc.queryForObject("SELECT COUNT(*) FROM bookings WHERE flight_id = ? AND " + OPEN,
+					Integer.class, flightId);
+			progress.started(open == null ? 0 : open);
+
+			// every page leaves the open set once cancelled, so the next one simply
+			// takes the first open rows again: no offset, no keyset and no sort
+			List<Long> ids;
+			do {
+				ids = jdbc.queryForList("SELECT id FROM bookings WHERE flight_id = ? AND " + OPEN + " LIMIT ?",
+						Long.class, flightId, batchSize);
+				if (!ids.isEmpty()) {
+					progress.cancelled(cancel(ids));
+				}
+			} while (ids.size() == batchSize);
+
+			tx.executeWithoutResult(status -> jdbc.update("UPDATE booking_outbox SET status = 'DONE', "
+					+ "last_error = 'Flight cancelled', locked_until = NULL WHERE flight_id = ? AND status = 'PENDING'",
+					flightId));
+			loads.rebuild(flightId);
+			progress.finished();
+			log.info("Cancelled {} bookings of flight {} in {} ms", progress.getCancelled(), flightId,
+					(System.nanoTime() - began) / 1_000_000);
+		} catch (RuntimeException e) {
+			progress.failed(e.getMessage());
+			log.error("Cancelling the bookings of flight {} stopped after {}: {}", flightId, progress.getCancelled(),
+					e.getMessage(), e);
+		}
+	}
+
+	private int cancel(List<Long> ids) {
+		int[][] counts = tx.execute(status -> jdbc.batchUpdate(
+				"UPDATE bookings SET status = 'CANCELLED' WHERE id = ? AND " + OPEN, ids, ids.size(),
+				(ps, id) -> ps.setLong(1, id)));
+		int cancelled = 0;
+		for (int[] batch : counts) {
+			for (int count : batch) {
+				// a rewritten MySQL batch reports success without a row count
+				cancelled += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+			}
+		}
+		return cancelled;
+	}
+}
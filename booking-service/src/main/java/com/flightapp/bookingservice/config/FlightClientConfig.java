@@ -0,0 +1,98 @@
+package com.flightapp.bookingservice.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import feign.Request;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * The HTTP client behind {@link com.flightapp.bookingservice.feign.FlightClient}:
+ * Apache HttpClient 5 with a pool of kept-alive connections in place of a new
+ * HttpURLConnection per call, sized and timed by {@code booking.flight-service.*}.
+ * These beans take the place of the ones Spring Cloud OpenFeign would make.
+ * The pool shows up on /actuator/metrics as httpcomponents.httpclient.pool.*.
+ */
+@Configuration
+public class FlightClientConfig {
+
+	static final String POOL_NAME = "flight-service";
+
+	@Bean
+	public PoolingHttpClientConnectionManager flightServiceConnections(
+			@Value("${booking.flight-service.max-connections:200}") int maxConnections,
+			@Value("${booking.flight-service.max-connections-per-route:100}") int maxPerRoute,
+			@Value("${booking.flight-service.connect-timeout:2s}") Duration connectTimeout,
+			@Value("${booking.flight-service.read-timeout:5s}") Duration readTimeout,
+			@Value("${booking.flight-service.time-to-live:5m}") Duration timeToLive,
+			@Value("${booking.flight-service.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+		return PoolingHttpClientConnectionManagerBuilder.create()
+				.setMaxConnTotal(maxConnections)
+				.setMaxConnPerRoute(maxPerRoute)
+				.setDefaultSocketConfig(SocketConfig.custom().setTcpNoDelay(true).setSoKeepAlive(true).build())
+				.setDefaultConnectionConfig(ConnectionConfig.custom()
+						.setConnectTimeout(timeout(connectTimeout))
+						.setSocketTimeout(timeout(readTimeout))
+						.setTimeToLive(TimeValue.ofMilliseconds(timeToLive.toMillis()))
+						.setValidateAfterInactivity(TimeValue.ofMilliseconds(validateAfterInactivity.toMillis()))
+						.build())
+				.build();
+	}
+
+	/**
+	 * Connections are kept for {@code keep-alive} when flight-service does not
+	 * say otherwise, which stays under Tomcat's own idle timeout. Automatic
+	 * retries are off: the outbox already retries seat calls with their
+	 * Idempotency-Key, and a second silent attempt underneath it would only
+	 * stretch the wait.
+	 */
+	@Bean
+	public CloseableHttpClient flightServiceHttpClient(PoolingHttpClientConnectionManager flightServiceConnections,
+			@Value("${booking.flight-service.pool-acquire-timeout:2s}") Duration acquireTimeout,
+			@Value("${booking.flight-service.keep-alive:20s}") Duration keepAlive) {
+		TimeValue idle = TimeValue.ofMilliseconds(keepAlive.toMillis());
+		return HttpClients.custom()
+				.setConnectionManager(flightServiceConnections)
+				.setDefaultRequestConfig(RequestConfig.custom()
+						.setConnectionRequestTimeout(timeout(acquireTimeout))
+						.setConnectionKeepAlive(idle)
+						.build())
+				.evictExpiredConnections()
+				.evictIdleConnections(idle)
+				.disableAutomaticRetries()
+				.disableCookieManagement()
+				.build();
+	}
+
+	/** Feign sets these on every request, so they are the timeouts that apply. */
+	@Bean
+	public Request.Options flightServiceRequestOptions(
+			@Value("${booking.flight-service.connect-timeout:2s}") Duration connectTimeout,
+			@Value("${booking.flight-service.read-timeout:5s}") Duration readTimeout) {
+		return new Request.Options(connectTimeout.toMillis(), TimeUnit.MILLISECONDS, readTimeout.toMillis(),
+				TimeUnit.MILLISECONDS, true);
+	}
+
+	@Bean
+	public MeterBinder flightServicePoolMetrics(PoolingHttpClientConnectionManager flightServiceConnections) {
+		return new PoolingHttpClientConnectionManagerMetricsBinder(flightServiceConnections, POOL_NAME);
+	}
+
+	private static Timeout timeout(Duration duration) {
+		return Timeout.ofMilliseconds(duration.toMillis());
+	}
+}
@@ -0,0 +1,65 @@
+package com.flightapp.bookingservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+/**
+ * Beans of the reactive mode (profile {@code reactive}, which also switches
+ * the application to WebFlux on Netty).
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+	/**
+	 * Resolves http://flight-service through discovery. Reactor Netty's default
+	 * pool of 16 connections would queue most in-flight calls, so it is sized by
+	 * {@code booking.reactive.flight-service.max-connections}.
+	 */
+	@Bean
+	@LoadBalanced
+	public WebClient.Builder flightServiceWebClient(
+			@Value("${booking.reactive.flight-service.max-connections:500}") int maxConnections) {
+		ConnectionProvider pool = ConnectionProvider.builder("flight-service").maxConnections(maxConnections)
+				.pendingAcquireMaxCount(-1).build();
+		return WebClient.builder().clientConnector(new ReactorClientHttpConnector(HttpClient.create(pool)));
+	}
+
+	/**
+	 * The R2DBC pool behind the reactive booking endpoints, sized by
+	 * {@code booking.reactive.r2dbc.pool-size}. Connections are opened on demand.
+	 */
+	@Bean
+	public ReactiveDatabase reactiveDatabase(@Value("${spring.r2dbc.url}") String url,
+			@Value("${spring.r2dbc.username:}") String username, @Value("${spring.r2dbc.password:}") String password,
+			@Value("${booking.reactive.r2dbc.pool-size:20}") int poolSize) {
+		ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+		if (!username.isEmpty()) {
+			options.option(ConnectionFactoryOptions.USER, username).option(ConnectionFactoryOptions.PASSWORD, password);
+		}
+		return new ReactiveDatabase(new ConnectionPool(ConnectionPoolConfiguration
+				.builder(ConnectionFactories.get(options.build())).initialSize(0).maxSize(poolSize).build()));
+	}
+
+	/**
+	 * Feign decodes with HttpMessageConverters, which Boot only provides to
+	 * servlet applications; the OutboxRelay still calls flight-service through it.
+	 */
+	@Bean
+	public HttpMessageConverters feignHttpMessageConverters() {
+		return new HttpMessageConverters();
+	}
+}
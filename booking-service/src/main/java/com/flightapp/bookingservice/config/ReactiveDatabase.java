@@ -0,0 +1,40 @@
+package com.flightapp.bookingservice.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import io.r2dbc.pool.ConnectionPool;
+
+/**
+ * The R2DBC connection pool of the reactive mode, with the client and the
+ * transactions that run on it; the pool is closed with the context. Not a
+ * ConnectionFactory bean itself: Boot drops the JDBC DataSource as soon as one
+ * exists, and JPA and the OutboxRelay still need it.
+ */
+public class ReactiveDatabase implements DisposableBean {
+
+	private final ConnectionPool pool;
+	private final DatabaseClient client;
+	private final TransactionalOperator tx;
+
+	public ReactiveDatabase(ConnectionPool pool) {
+		this.pool = pool;
+		this.client = DatabaseClient.create(pool);
+		this.tx = TransactionalOperator.create(new R2dbcTransactionManager(pool));
+	}
+
+	public DatabaseClient client() {
+		return client;
+	}
+
+	public TransactionalOperator tx() {
+		return tx;
+	}
+
+	@Override
+	public void destroy() {
+		pool.dispose();
+	}
+}
@@ -1,18 +1,28 @@
 package com.flightapp.bookingservice.controller;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
 import com.flightapp.bookingservice.dto.BookingRequest;
-import com.flightapp.bookingservice.dto.TicketResponse;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
 import com.flightapp.bookingservice.service.BookingService;
 
 import jakarta.validation.Valid;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("/api/flight/booking")
 public class BookingController {
 
@@ -23,9 +33,10 @@ public class BookingController {
 	}
 
 	@PostMapping("/{flightId}")
-	public ResponseEntity<String> book(@PathVariable Long flightId, @Valid @RequestBody BookingRequest req) {
+	public ResponseEntity<String> book(@PathVariable Long flightId, @Valid @RequestBody BookingRequest req,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
 		try {
-			Booking booking = service.bookTicket(flightId, req);
+			Booking booking = service.bookTicket(flightId, req, idempotencyKey);
 			return ResponseEntity.status(201).body(booking.getPnr());
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().body(e.getMessage());
@@ -33,20 +44,60 @@ public class BookingController {
 	}
 
 	@GetMapping("/history/{email}")
-	public ResponseEntity<List<Booking>> history(@PathVariable String email) {
-		return ResponseEntity.ok(service.getHistory(email));
+	public ResponseEntity<List<BookingSummary>> history(@PathVariable String email,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+		BookingHistoryResult result = service.getHistory(email, limit, cursor);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (result.getNextCursor() != null) {
+			response.header("X-Next-Cursor", result.getNextCursor());
+		}
+		return response.body(result.getBookings());
+	}
+
+	/** The whole history in one response, written as it is read. */
+	@GetMapping(value = "/history/{email}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<StreamingResponseBody> streamHistory(@PathVariable String email) {
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON)
+				.body(out -> service.streamHistory(email, out));
 	}
 
 	@GetMapping("/ticket/{pnr}")
-	public ResponseEntity<String> getTicket(@PathVariable String pnr) {
+	public ResponseEntity<byte[]> getTicket(@PathVariable String pnr) {
 		try {
-			String ticketJson = service.getTicketJson(pnr);
-			return ResponseEntity.ok(ticketJson);
+			return rendered(service.getTicket(pnr));
 		} catch (Exception e) {
-			return ResponseEntity.badRequest().body(e.getMessage());
+			return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+					.body(String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
 		}
 	}
 
+	@GetMapping("/manifest/{flightId}")
+	public ResponseEntity<List<ManifestEntry>> manifest(@PathVariable Long flightId) {
+		return ResponseEntity.ok(service.getManifest(flightId));
+	}
+
+	@GetMapping("/load/{flightId}")
+	public ResponseEntity<FlightLoadReport> load(@PathVariable Long flightId) {
+		return ResponseEntity.ok(service.getFlightLoad(flightId));
+	}
+
+	/** Recounts the flight from its bookings, for when the running totals are in doubt. */
+	@PostMapping("/load/{flightId}/rebuild")
+	public ResponseEntity<FlightLoadReport> rebuildLoad(@PathVariable Long flightId) {
+		return ResponseEntity.ok(service.rebuildFlightLoad(flightId));
+	}
+
+	/** Cancels every open booking of a flight the airline has cancelled; answers at once with the job's progress. */
+	@PostMapping("/cancellation/{flightId}")
+	public ResponseEntity<FlightCancellationProgress> cancelFlight(@PathVariable Long flightId) {
+		return ResponseEntity.accepted().body(service.cancelFlight(flightId));
+	}
+
+	@GetMapping("/cancellation/{flightId}")
+	public ResponseEntity<FlightCancellationProgress> flightCancellation(@PathVariable Long flightId) {
+		return ResponseEntity.ok(service.getFlightCancellation(flightId));
+	}
+
 	@DeleteMapping("/cancel/{pnr}")
 	public ResponseEntity<Void> cancel(@PathVariable String pnr) {
 		try {
@@ -58,12 +109,19 @@ public class BookingController {
 	}
 
 	@GetMapping("/download/{pnr}")
-	public ResponseEntity<TicketResponse> download(@PathVariable String pnr) {
+	public ResponseEntity<byte[]> download(@PathVariable String pnr) {
 		try {
-			TicketResponse resp = service.downloadTicket(pnr);
-			return ResponseEntity.ok(resp);
+			return rendered(service.getDownload(pnr));
 		} catch (Exception e) {
 			return ResponseEntity.badRequest().build();
 		}
 	}
+
+	/**
+	 * Stored tickets go out as they are. With the ETag set, Spring MVC answers
+	 * a matching If-None-Match with 304 and no body.
+	 */
+	static ResponseEntity<byte[]> rendered(RenderedTicket ticket) {
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).eTag(ticket.etag()).body(ticket.body());
+	}
 }
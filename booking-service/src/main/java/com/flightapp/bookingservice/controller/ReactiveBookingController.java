@@ -0,0 +1,102 @@
+package com.flightapp.bookingservice.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.service.ReactiveBookingService;
+
+import jakarta.validation.Valid;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** {@link BookingController}'s API, served by WebFlux in the reactive mode. */
+@RestController
+@Profile("reactive")
+@RequestMapping("/api/flight/booking")
+public class ReactiveBookingController {
+
+	private final ReactiveBookingService service;
+
+	public ReactiveBookingController(ReactiveBookingService service) {
+		this.service = service;
+	}
+
+	@PostMapping("/{flightId}")
+	public Mono<ResponseEntity<String>> book(@PathVariable Long flightId, @Valid @RequestBody BookingRequest req,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+		return service.bookTicket(flightId, req, idempotencyKey)
+				.map(booking -> ResponseEntity.status(201).body(booking.getPnr()))
+				.onErrorResume(e -> Mono.just(ResponseEntity.badRequest().body(e.getMessage())));
+	}
+
+	@GetMapping("/history/{email}")
+	public Mono<ResponseEntity<List<BookingSummary>>> history(@PathVariable String email,
+			@RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor) {
+		return service.getHistory(email, limit, cursor).map(result -> {
+			ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+			if (result.getNextCursor() != null) {
+				response.header("X-Next-Cursor", result.getNextCursor());
+			}
+			return response.body(result.getBookings());
+		});
+	}
+
+	@GetMapping(value = "/history/{email}", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public Flux<BookingSummary> streamHistory(@PathVariable String email) {
+		return service.streamHistory(email);
+	}
+
+	@GetMapping("/ticket/{pnr}")
+	public Mono<ResponseEntity<byte[]>> getTicket(@PathVariable String pnr) {
+		return service.getTicket(pnr).map(BookingController::rendered)
+				.onErrorResume(e -> Mono.just(ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN)
+						.body(String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8))));
+	}
+
+	@GetMapping("/manifest/{flightId}")
+	public ResponseEntity<Flux<ManifestEntry>> manifest(@PathVariable Long flightId) {
+		return ResponseEntity.ok(service.getManifest(flightId));
+	}
+
+	@GetMapping("/load/{flightId}")
+	public Mono<ResponseEntity<FlightLoadReport>> load(@PathVariable Long flightId) {
+		return service.getFlightLoad(flightId).map(ResponseEntity::ok);
+	}
+
+	@PostMapping("/load/{flightId}/rebuild")
+	public Mono<ResponseEntity<FlightLoadReport>> rebuildLoad(@PathVariable Long flightId) {
+		return service.rebuildFlightLoad(flightId).map(ResponseEntity::ok);
+	}
+
+	@PostMapping("/cancellation/{flightId}")
+	public Mono<ResponseEntity<FlightCancellationProgress>> cancelFlight(@PathVariable Long flightId) {
+		return service.cancelFlight(flightId).map(progress -> ResponseEntity.accepted().body(progress));
+	}
+
+	@GetMapping("/cancellation/{flightId}")
+	public Mono<ResponseEntity<FlightCancellationProgress>> flightCancellation(@PathVariable Long flightId) {
+		return service.getFlightCancellation(flightId).map(ResponseEntity::ok);
+	}
+
+	@DeleteMapping("/cancel/{pnr}")
+	public Mono<ResponseEntity<Void>> cancel(@PathVariable String pnr) {
+		return service.cancelBooking(pnr).map(res -> ResponseEntity.noContent().<Void>build())
+				.onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
+	}
+
+	@GetMapping("/download/{pnr}")
+	public Mono<ResponseEntity<byte[]>> download(@PathVariable String pnr) {
+		return service.getDownload(pnr).map(BookingController::rendered)
+				.onErrorResume(e -> Mono.just(ResponseEntity.badRequest().build()));
+	}
+}
@@ -7,7 +7,10 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name="bookings")
+@Table(name="bookings", indexes={
+        @Index(name="uk_booking_pnr", columnList="pnr", unique=true),
+        @Index(name="idx_booking_email_id", columnList="email, id"),
+        @Index(name="idx_booking_flight_status", columnList="flightId, status")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -17,6 +20,7 @@ public class Booking{
     @GeneratedValue(strategy=GenerationType.IDENTITY)
     private Long id;
 
+    @Column(length=20)
     private String pnr; 
     private String email;
     private String passengerDetails; 
@@ -27,4 +31,8 @@ public class Booking{
     private Double amount;
     private String ticketJson; 
     private LocalDate journeyDate;
+
+    /** The seat type or seats asked for, if any; seatNumbers holds the assigned seats once BOOKED. */
+    private String seatType;
+    private String seatNumbers;
 }
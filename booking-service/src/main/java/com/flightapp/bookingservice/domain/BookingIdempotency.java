@@ -0,0 +1,32 @@
+package com.flightapp.bookingservice.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Idempotency-Key of a booking request, stored in the booking's own
+ * transaction. {@code requestHash} fingerprints the request body so the key
+ * cannot be replayed for a different booking.
+ */
+@Entity
+@Table(name = "booking_idempotency_keys", indexes = @Index(name = "idx_booking_idempotency_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingIdempotency {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    @Column(length = 64)
+    private String requestHash;
+
+    private Long bookingId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
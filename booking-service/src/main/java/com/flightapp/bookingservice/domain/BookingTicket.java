@@ -0,0 +1,37 @@
+package com.flightapp.bookingservice.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * A booking's tickets as served, rendered once and kept apart from the
+ * Booking so history queries do not carry them. {@code ticket} is written with
+ * the booking; {@code download}, which embeds the flight, on the first
+ * download that gets the flight from flight-service.
+ */
+@Entity
+@Table(name = "booking_tickets", indexes = @Index(name = "uk_booking_tickets_pnr", columnList = "pnr", unique = true))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingTicket {
+
+    @Id
+    private Long bookingId;
+
+    @Column(length = 20)
+    private String pnr;
+
+    @Column(length = 2000)
+    private byte[] ticket;
+
+    @Column(length = 34)
+    private String ticketEtag;
+
+    @Column(length = 4000)
+    private byte[] download;
+
+    @Column(length = 34)
+    private String downloadEtag;
+}
@@ -0,0 +1,55 @@
+package com.flightapp.bookingservice.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One slot of a flight's running booking totals. Every status change moves
+ * one slot, picked at random, so concurrent bookings on a busy flight do not
+ * all queue on the same row; a flight's totals are the sum of its
+ * {@link #SLOTS} rows. Maintained by
+ * {@link com.flightapp.bookingservice.load.FlightLoadTracker}.
+ */
+@Entity
+@Table(name = "flight_loads")
+@IdClass(FlightLoad.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightLoad {
+
+    /** Fixed: every slot row is created with the flight, and a write to a missing one would be lost. */
+    public static final int SLOTS = 8;
+
+    @Id
+    private Long flightId;
+
+    @Id
+    private Integer slot;
+
+    /** Seats of bookings still waiting for flight-service. */
+    private Integer pendingSeats;
+
+    private Integer bookedSeats;
+
+    /** Bookings currently BOOKED. */
+    private Integer bookings;
+
+    private Integer cancelledSeats;
+
+    private LocalDateTime updatedAt;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long flightId;
+        private Integer slot;
+    }
+}
@@ -0,0 +1,91 @@
+package com.flightapp.bookingservice.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A seat step of the booking saga, written in the same transaction as the
+ * Booking it belongs to and carried out against flight-service by the
+ * OutboxRelay. The idempotency key is fixed when the row is written, so every
+ * retry of the step is the same request as far as flight-service is concerned.
+ */
+@Entity
+@Table(name = "booking_outbox", indexes = @Index(name = "idx_outbox_due", columnList = "status, next_attempt_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    public static final String RESERVE_SEATS = "RESERVE_SEATS";
+    public static final String RELEASE_SEATS = "RELEASE_SEATS";
+
+    public static final String PENDING = "PENDING";
+    public static final String DONE = "DONE";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long bookingId;
+    private String type;
+    private Long flightId;
+    private Integer seats;
+    // set when the booking asked for particular seats or a seat type
+    private String seatType;
+    private String seatNumbers;
+    private String idempotencyKey;
+    private String status;
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    private LocalDateTime lockedUntil;
+    private String lastError;
+    private LocalDateTime createdAt;
+
+    public static OutboxEvent reserve(Booking b) {
+        return of(RESERVE_SEATS, b.getId(), b.getFlightId(), b.getSeats(), b.getSeatType(), b.getSeatNumbers(),
+                UUID.randomUUID().toString());
+    }
+
+    public static OutboxEvent release(Booking b) {
+        return of(RELEASE_SEATS, b.getId(), b.getFlightId(), b.getSeats(), b.getSeatType(), b.getSeatNumbers(),
+                UUID.randomUUID().toString());
+    }
+
+    /**
+     * Hands back the seats taken by a reservation whose booking is gone.
+     * {@code assigned} are the seat numbers flight-service gave it, if any.
+     */
+    public static OutboxEvent compensate(OutboxEvent reserve, String assigned) {
+        return of(RELEASE_SEATS, reserve.getBookingId(), reserve.getFlightId(), reserve.getSeats(),
+                reserve.getSeatType(), assigned, reserve.getIdempotencyKey() + ":release");
+    }
+
+    /** Whether the step works on particular seats rather than just the flight's seat count. */
+    public boolean bySeat() {
+        return seatType != null || seatNumbers != null;
+    }
+
+    private static OutboxEvent of(String type, Long bookingId, Long flightId, Integer seats, String seatType,
+            String seatNumbers, String key) {
+        OutboxEvent e = new OutboxEvent();
+        e.setBookingId(bookingId);
+        e.setType(type);
+        e.setFlightId(flightId);
+        e.setSeats(seats);
+        e.setSeatType(seatType);
+        e.setSeatNumbers(seatNumbers);
+        e.setIdempotencyKey(key);
+        e.setStatus(PENDING);
+        e.setAttempts(0);
+        e.setCreatedAt(LocalDateTime.now());
+        e.setNextAttemptAt(e.getCreatedAt());
+        return e;
+    }
+}
@@ -0,0 +1,38 @@
+package com.flightapp.bookingservice.domain;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One traveller of a booking, in the order they were given. The flight id is
+ * copied from the booking so a flight's manifest is read from
+ * idx_passenger_flight alone.
+ */
+@Entity
+@Table(name = "booking_passengers", indexes = @Index(name = "idx_passenger_flight", columnList = "flight_id, booking_id, position"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class Passenger {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "booking_id")
+    private Long bookingId;
+
+    @Column(name = "flight_id")
+    private Long flightId;
+
+    private Integer position;
+
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 1)
+    private String gender;
+
+    private Integer age;
+}
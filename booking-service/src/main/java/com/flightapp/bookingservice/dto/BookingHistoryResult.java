@@ -0,0 +1,14 @@
+package com.flightapp.bookingservice.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class BookingHistoryResult {
+	private List<BookingSummary> bookings;
+
+	/** Cursor for the next (older) page, or {@code null} on the last page. */
+	private String nextCursor;
+}
@@ -4,6 +4,7 @@ import lombok.*;
 
 import jakarta.validation.constraints.*;
 import java.time.LocalDate;
+import java.util.List;
 
 @Getter
 @Setter
@@ -20,8 +21,8 @@ public class BookingRequest {
 	@Max(value = 10, message = "You cannot book more than 10 seats at once")
 	private Integer seats;
 
+	/** NAME:GENDER:AGE, separated by semicolons; read by PassengerParser when the booking is made. */
 	@NotBlank(message = "Passenger details are required")
-	@Pattern(regexp = "([A-Za-z ]+:[MF]:\\d{1,3})(;[A-Za-z ]+:[MF]:\\d{1,3})*", message = "Passenger details must follow NAME:GENDER:AGE format, separated by semicolons")
 	private String passengerDetails;
 
 	@NotNull(message = "Amount is required")
@@ -31,4 +32,11 @@ public class BookingRequest {
 	@NotNull(message = "Journey date is required")
 	@Future(message = "Journey date must be in the future")
 	private LocalDate journeyDate;
+
+	/** Optional: seats of this type are assigned by flight-service, e.g. BUSINESS. */
+	private String seatType;
+
+	/** Optional: exactly these seats, one per passenger, e.g. 12A. */
+	@Size(max = 10, message = "You cannot book more than 10 seats at once")
+	private List<String> seatNumbers;
 }
@@ -0,0 +1,22 @@
+package com.flightapp.bookingservice.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+/** A booking as listed in history, without passengers or the ticket. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSummary {
+	private Long id;
+	private String pnr;
+	private Long flightId;
+	private Integer seats;
+	private String status;
+	private Double amount;
+	private LocalDate journeyDate;
+	private LocalDateTime bookedAt;
+}
@@ -0,0 +1,13 @@
+package com.flightapp.bookingservice.dto;
+
+import lombok.*;
+
+/** The seat count of a flight as served by flight-service's /api/flight/get endpoint; other fields are ignored. */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightAvailability {
+	private Long id;
+	private Integer availableSeats;
+}
@@ -0,0 +1,60 @@
+package com.flightapp.bookingservice.dto;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Where the cancellation of a flight's bookings stands. Written by the job's
+ * thread and read by requests, hence the volatile fields.
+ */
+@Getter
+public class FlightCancellationProgress {
+
+	public static final String RUNNING = "RUNNING";
+	public static final String DONE = "DONE";
+	public static final String FAILED = "FAILED";
+
+	private final Long flightId;
+	private final LocalDateTime startedAt = LocalDateTime.now();
+	private volatile String status = RUNNING;
+	/** Open bookings on the flight when the job started. */
+	private volatile int total;
+	@Getter(AccessLevel.NONE)
+	private final AtomicInteger cancelled = new AtomicInteger();
+	private volatile LocalDateTime finishedAt;
+	private volatile String error;
+
+	public FlightCancellationProgress(Long flightId) {
+		this.flightId = flightId;
+	}
+
+	public int getCancelled() {
+		return cancelled.get();
+	}
+
+	public boolean isRunning() {
+		return RUNNING.equals(status);
+	}
+
+	public void started(int total) {
+		this.total = total;
+	}
+
+	public void cancelled(int count) {
+		cancelled.addAndGet(count);
+	}
+
+	public void finished() {
+		finishedAt = LocalDateTime.now();
+		status = DONE;
+	}
+
+	public void failed(String error) {
+		this.error = error;
+		finishedAt = LocalDateTime.now();
+		status = FAILED;
+	}
+}
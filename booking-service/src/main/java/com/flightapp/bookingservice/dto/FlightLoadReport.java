@@ -0,0 +1,27 @@
+package com.flightapp.bookingservice.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+/**
+ * A flight's booking totals and load factor: booked seats over booked plus
+ * available seats. Pending seats are left out, they are either still counted
+ * as available by flight-service or about to become booked.
+ * {@code availableSeats} and {@code loadFactor} are null when flight-service
+ * could not be asked.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightLoadReport {
+	private Long flightId;
+	private Integer bookings;
+	private Integer bookedSeats;
+	private Integer pendingSeats;
+	private Integer cancelledSeats;
+	private Integer availableSeats;
+	private Double loadFactor;
+	private LocalDateTime updatedAt;
+}
@@ -0,0 +1,23 @@
+package com.flightapp.bookingservice.dto;
+
+import lombok.*;
+
+/**
+ * The flight details a ticket carries, as served by flight-service's
+ * /api/flight/snapshot endpoint. Unknown fields are ignored, so flight-service
+ * can add to the snapshot without breaking older booking-service builds.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSnapshot {
+	private Long id;
+	private String airlineName;
+	private String airlineCode;
+	private String fromPlace;
+	private String toPlace;
+	private String departureDateTime;
+	private String arrivalDateTime;
+	private Double price;
+}
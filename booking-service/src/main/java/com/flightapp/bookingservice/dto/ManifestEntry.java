@@ -0,0 +1,14 @@
+package com.flightapp.bookingservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManifestEntry {
+	private String pnr;
+	private String name;
+	private String gender;
+	private Integer age;
+}
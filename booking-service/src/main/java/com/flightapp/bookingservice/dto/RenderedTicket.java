@@ -0,0 +1,5 @@
+package com.flightapp.bookingservice.dto;
+
+/** A ticket as the JSON bytes to send, with the ETag that identifies them. */
+public record RenderedTicket(byte[] body, String etag) {
+}
@@ -0,0 +1,13 @@
+package com.flightapp.bookingservice.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBatchRequest {
+	private List<SeatUpdate> updates;
+}
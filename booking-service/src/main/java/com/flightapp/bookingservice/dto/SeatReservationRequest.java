@@ -0,0 +1,15 @@
+package com.flightapp.bookingservice.dto;
+
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReservationRequest {
+	private String seatType;
+	private Integer count;
+	private List<String> seatNumbers;
+}
@@ -0,0 +1,14 @@
+package com.flightapp.bookingservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatResponse {
+	private Long id;
+	private String seatNumber;
+	private String seatType;
+	private boolean booked;
+}
@@ -0,0 +1,12 @@
+package com.flightapp.bookingservice.dto;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatUpdate {
+	private Long flightId;
+	private Integer delta;
+}
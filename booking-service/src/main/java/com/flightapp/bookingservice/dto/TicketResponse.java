@@ -12,6 +12,6 @@ public class TicketResponse {
 	private String passengerDetails;
 	private Integer seats;
 	private Long flightId;
-	private Object flightDetails;
+	private FlightSnapshot flightDetails;
 	private String ticketJson;
 }
@@ -5,6 +5,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.*;
 
@@ -22,6 +23,17 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
 	}
 
+	/** The reactive mode's counterpart of MethodArgumentNotValidException. */
+	@ExceptionHandler(WebExchangeBindException.class)
+	public ResponseEntity<Map<String, String>> handleReactiveValidationErrors(WebExchangeBindException ex) {
+
+		Map<String, String> errors = new HashMap<>();
+
+		ex.getFieldErrors().forEach(error -> errors.put(error.getField(), error.getDefaultMessage()));
+
+		return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errors);
+	}
+
 	@ExceptionHandler(RuntimeException.class)
 	public ResponseEntity<String> handleRuntimeErrors(RuntimeException ex) {
 		return ResponseEntity.badRequest().body(ex.getMessage());
@@ -1,18 +1,50 @@
 package com.flightapp.bookingservice.feign;
 
+import java.util.List;
+
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import com.flightapp.bookingservice.dto.FlightAvailability;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+import com.flightapp.bookingservice.dto.SeatBatchRequest;
+import com.flightapp.bookingservice.dto.SeatReservationRequest;
+import com.flightapp.bookingservice.dto.SeatResponse;
+
 @FeignClient(name = "flight-service")
 public interface FlightClient {
 
+	@GetMapping("/api/flight/snapshot/{id}")
+	FlightSnapshot getFlight(@PathVariable("id") Long id);
+
 	@GetMapping("/api/flight/get/{id}")
-	Object getFlight(@PathVariable("id") Long id);
+	FlightAvailability getAvailability(@PathVariable("id") Long id);
 
 	@PutMapping("/api/flight/update-seats/{flightId}/{count}")
 	String updateSeats(@PathVariable("flightId") Long flightId, @PathVariable("count") Integer count);
 
+	@PutMapping("/api/flight/update-seats/{flightId}/{count}")
+	String updateSeats(@PathVariable("flightId") Long flightId, @PathVariable("count") Integer count,
+			@RequestHeader("Idempotency-Key") String idempotencyKey);
+
+	@PutMapping("/api/flight/update-seats/batch")
+	String updateSeats(@RequestBody SeatBatchRequest req);
+
 	@PutMapping("/api/flight/rollback-seats/{flightId}/{count}")
 	String rollbackSeats(@PathVariable("flightId") Long flightId, @PathVariable("count") Integer count);
 
+	@PutMapping("/api/flight/rollback-seats/{flightId}/{count}")
+	String rollbackSeats(@PathVariable("flightId") Long flightId, @PathVariable("count") Integer count,
+			@RequestHeader("Idempotency-Key") String idempotencyKey);
+
+	@PostMapping("/api/flight/{flightId}/seats/reserve")
+	List<SeatResponse> reserveSeats(@PathVariable("flightId") Long flightId, @RequestBody SeatReservationRequest req);
+
+	@PostMapping("/api/flight/{flightId}/seats/reserve")
+	List<SeatResponse> reserveSeats(@PathVariable("flightId") Long flightId, @RequestBody SeatReservationRequest req,
+			@RequestHeader("Idempotency-Key") String idempotencyKey);
+
+	@PutMapping("/api/flight/{flightId}/seats/release")
+	String releaseSeats(@PathVariable("flightId") Long flightId, @RequestBody SeatReservationRequest req);
+
 }
\ No newline at end of file
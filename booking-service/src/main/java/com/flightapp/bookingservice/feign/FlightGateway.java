@@ -0,0 +1,51 @@
+package com.flightapp.bookingservice.feign;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.flightapp.bookingservice.dto.FlightAvailability;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+
+/**
+ * The reads booking-service makes of flight-service where an answer of
+ * {@code null} is better than an error: a ticket without flight details, a
+ * load report without availability. Kept out of the services that use it so
+ * every call goes through the circuit breaker's proxy. Concurrent reads of
+ * one flight share a single call.
+ */
+@Component
+public class FlightGateway {
+
+	private static final Logger log = LoggerFactory.getLogger(FlightGateway.class);
+
+	private final FlightClient flightClient;
+	private final SingleFlight flightReads;
+
+	public FlightGateway(FlightClient flightClient, SingleFlight flightReads) {
+		this.flightClient = flightClient;
+		this.flightReads = flightReads;
+	}
+
+	@CircuitBreaker(name = "flightService", fallbackMethod = "flightFallback")
+	public FlightSnapshot getFlight(Long flightId) {
+		return flightReads.execute("snapshot:" + flightId, () -> flightClient.getFlight(flightId));
+	}
+
+	public FlightSnapshot flightFallback(Long id, Throwable t) {
+		log.error("Flight service unavailable for flightId={}, error={}", id, t.getMessage());
+		return null;
+	}
+
+	@CircuitBreaker(name = "flightService", fallbackMethod = "availabilityFallback")
+	public FlightAvailability getAvailability(Long flightId) {
+		return flightReads.execute("availability:" + flightId, () -> flightClient.getAvailability(flightId));
+	}
+
+	public FlightAvailability availabilityFallback(Long id, Throwable t) {
+		log.error("Flight service unavailable for flightId={}, error={}", id, t.getMessage());
+		return null;
+	}
+}
@@ -0,0 +1,92 @@
+package com.flightapp.bookingservice.feign;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Collapses concurrent calls for the same key into one: the first caller makes
+ * the call, callers arriving while it runs wait for its result (or its
+ * exception) instead of making their own. {@link FlightGateway} puts it in
+ * front of the {@link FlightClient} reads, so a sale on one flight sends
+ * flight-service one request at a time per flight rather than one per
+ * booking. Nothing is kept once the call returns.
+ * <p>
+ * flight-service has the same class in front of its database reads. The
+ * services are built and deployed separately and share no module, so each
+ * keeps its own copy rather than taking on a library for one class.
+ * <p>
+ * Counts show up on /actuator/metrics as {@code singleflight.calls}, tagged
+ * {@code result=loaded} for callers that made the call and {@code shared} for
+ * those that joined one; calls over loads is the collapse ratio.
+ */
+@Component
+public class SingleFlight implements MeterBinder {
+
+	private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+	private final LongAdder loaded = new LongAdder();
+	private final LongAdder shared = new LongAdder();
+
+	@SuppressWarnings("unchecked")
+	public <V> V execute(String key, Supplier<V> load) {
+		CompletableFuture<Object> mine = new CompletableFuture<>();
+		CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+		if (running != null) {
+			shared.increment();
+			return (V) await(running);
+		}
+
+		loaded.increment();
+		try {
+			V value = load.get();
+			mine.complete(value);
+			return value;
+		} catch (RuntimeException | Error e) {
+			mine.completeExceptionally(e);
+			throw e;
+		} finally {
+			inFlight.remove(key, mine);
+		}
+	}
+
+	public long calls() {
+		return loaded.sum() + shared.sum();
+	}
+
+	public long loads() {
+		return loaded.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("singleflight.calls", loaded, LongAdder::sum).tag("result", "loaded")
+				.description("Reads that ran their own load").register(registry);
+		FunctionCounter.builder("singleflight.calls", shared, LongAdder::sum).tag("result", "shared")
+				.description("Reads that waited on a load already running").register(registry);
+		Gauge.builder("singleflight.in.flight", inFlight, ConcurrentHashMap::size)
+				.description("Loads running now").register(registry);
+	}
+
+	private static Object await(CompletableFuture<Object> running) {
+		try {
+			return running.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException r) {
+				throw r;
+			}
+			if (e.getCause() instanceof Error err) {
+				throw err;
+			}
+			throw e;
+		}
+	}
+}
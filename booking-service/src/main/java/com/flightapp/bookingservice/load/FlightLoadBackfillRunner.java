@@ -0,0 +1,54 @@
+package com.flightapp.bookingservice.load;
+
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+
+/**
+ * Counts the flights booked before load rows existed, so their reports do
+ * not fall back to counting bookings. Flights that already have a row are
+ * left alone; a single flight can be recounted with
+ * {@link FlightLoadTracker#rebuild}.
+ */
+@Component
+public class FlightLoadBackfillRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(FlightLoadBackfillRunner.class);
+	private static final int BATCH = 500;
+
+	private final FlightLoadRepository loads;
+	private final FlightLoadTracker tracker;
+
+	public FlightLoadBackfillRunner(FlightLoadRepository loads, FlightLoadTracker tracker) {
+		this.loads = loads;
+		this.tracker = tracker;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		long afterId = 0;
+		int filled = 0;
+		List<Long> batch;
+		do {
+			batch = loads.findUntracked(afterId, PageRequest.of(0, BATCH));
+			for (Long flightId : batch) {
+				tracker.track(flightId);
+				filled++;
+			}
+			if (!batch.isEmpty()) {
+				afterId = batch.get(batch.size() - 1);
+			}
+		} while (batch.size() == BATCH);
+
+		if (filled > 0) {
+			log.info("Backfilled load rows for {} flights", filled);
+		}
+	}
+}
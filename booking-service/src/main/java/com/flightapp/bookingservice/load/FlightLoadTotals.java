@@ -0,0 +1,37 @@
+package com.flightapp.bookingservice.load;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import com.flightapp.bookingservice.domain.FlightLoad;
+
+/**
+ * A flight's booking totals, summed over its slots or counted from its
+ * bookings. {@code updatedAt} is the last change to any slot, null when
+ * counted.
+ */
+public record FlightLoadTotals(Long pendingSeats, Long bookedSeats, Long bookings, Long cancelledSeats,
+		LocalDateTime updatedAt) {
+
+	public FlightLoadTotals(Long pendingSeats, Long bookedSeats, Long bookings, Long cancelledSeats) {
+		this(pendingSeats, bookedSeats, bookings, cancelledSeats, null);
+	}
+
+	public static FlightLoadTotals sum(List<FlightLoad> slots) {
+		long pending = 0;
+		long booked = 0;
+		long bookings = 0;
+		long cancelled = 0;
+		LocalDateTime updatedAt = null;
+		for (FlightLoad slot : slots) {
+			pending += slot.getPendingSeats();
+			booked += slot.getBookedSeats();
+			bookings += slot.getBookings();
+			cancelled += slot.getCancelledSeats();
+			if (updatedAt == null || (slot.getUpdatedAt() != null && slot.getUpdatedAt().isAfter(updatedAt))) {
+				updatedAt = slot.getUpdatedAt();
+			}
+		}
+		return new FlightLoadTotals(pending, booked, bookings, cancelled, updatedAt);
+	}
+}
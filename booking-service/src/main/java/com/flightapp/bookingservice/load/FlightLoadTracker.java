@@ -0,0 +1,128 @@
+package com.flightapp.bookingservice.load;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.bookingservice.domain.FlightLoad;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+
+/**
+ * Keeps each flight's {@link FlightLoad} rows in step with its bookings.
+ * <p>
+ * A flight gets its rows before its first booking under this code is written
+ * ({@link #track}), counted from whatever bookings it already has. From then
+ * on every status change moves the totals by a delta, in the transaction that
+ * changes the status:
+ * <pre>
+ *   booked       pending + seats
+ *   confirmed    pending - seats, booked + seats, bookings + 1
+ *   refused      pending - seats
+ *   cancelled    booked - seats, bookings - 1, cancelled + seats
+ * </pre>
+ * A delta is a single UPDATE of one random slot, so concurrent bookings
+ * never overwrite each other's counts and rarely wait on each other's row.
+ * Call them last in the transaction: the row stays locked until it commits.
+ * {@link #rebuild} recounts a flight with all its slots locked if the totals
+ * are ever in doubt.
+ */
+@Component
+public class FlightLoadTracker {
+
+	private static final Logger log = LoggerFactory.getLogger(FlightLoadTracker.class);
+
+	private final FlightLoadRepository loads;
+	private final TransactionTemplate tx;
+
+	public FlightLoadTracker(FlightLoadRepository loads, PlatformTransactionManager txManager) {
+		this.loads = loads;
+		this.tx = new TransactionTemplate(txManager);
+	}
+
+	/**
+	 * Creates the flight's rows if it has none, in a transaction of its own:
+	 * must be called before, not inside, the transaction that books.
+	 */
+	public void track(Long flightId) {
+		if (loads.existsByFlightId(flightId)) {
+			return;
+		}
+		try {
+			tx.executeWithoutResult(status -> {
+				LocalDateTime now = LocalDateTime.now();
+				loads.insertFromBookings(flightId, now);
+				for (int slot = 1; slot < FlightLoad.SLOTS; slot++) {
+					loads.insertEmpty(flightId, slot, now);
+				}
+			});
+		} catch (DataIntegrityViolationException e) {
+			// created by a concurrent booking or the backfill in the meantime
+		}
+	}
+
+	public void booked(Long flightId, int seats) {
+		adjust(flightId, seats, 0, 0, 0);
+	}
+
+	public void confirmed(Long flightId, int seats) {
+		adjust(flightId, -seats, seats, 1, 0);
+	}
+
+	public void refused(Long flightId, int seats) {
+		adjust(flightId, -seats, 0, 0, 0);
+	}
+
+	public void cancelled(Long flightId, int seats) {
+		adjust(flightId, 0, -seats, -1, seats);
+	}
+
+	/** The stored totals, or a count of the bookings for a flight that has no rows. */
+	public FlightLoadTotals get(Long flightId) {
+		List<FlightLoad> slots = loads.findByFlightId(flightId);
+		return slots.isEmpty() ? loads.countBookings(flightId) : FlightLoadTotals.sum(slots);
+	}
+
+	/**
+	 * Recounts the flight from its bookings into slot 0 and clears the others.
+	 * The slots are locked first, so a booking either moved its slot before
+	 * the count (and the count sees it committed) or moves it after.
+	 */
+	public FlightLoadTotals rebuild(Long flightId) {
+		track(flightId);
+		return tx.execute(status -> {
+			List<FlightLoad> slots = loads.findForUpdate(flightId);
+			FlightLoadTotals counted = loads.countBookings(flightId);
+			LocalDateTime now = LocalDateTime.now();
+			for (FlightLoad slot : slots) {
+				boolean first = slot.getSlot() == 0;
+				slot.setPendingSeats(first ? counted.pendingSeats().intValue() : 0);
+				slot.setBookedSeats(first ? counted.bookedSeats().intValue() : 0);
+				slot.setBookings(first ? counted.bookings().intValue() : 0);
+				slot.setCancelledSeats(first ? counted.cancelledSeats().intValue() : 0);
+				slot.setUpdatedAt(now);
+			}
+			loads.saveAll(slots);
+			return FlightLoadTotals.sum(slots);
+		});
+	}
+
+	/** The slot a status change moves. */
+	public static int slot() {
+		return ThreadLocalRandom.current().nextInt(FlightLoad.SLOTS);
+	}
+
+	private void adjust(Long flightId, int pendingSeats, int bookedSeats, int bookings, int cancelledSeats) {
+		int updated = loads.adjust(flightId, slot(), pendingSeats, bookedSeats, bookings, cancelledSeats,
+				LocalDateTime.now());
+		if (updated == 0) {
+			log.warn("Flight {} has no load rows yet; it will be counted when tracked or rebuilt", flightId);
+		}
+	}
+}
@@ -0,0 +1,8 @@
+package com.flightapp.bookingservice.outbox;
+
+/**
+ * Raised when an outbox row is written, so the relay can run it as soon as
+ * the surrounding transaction commits instead of waiting for the next poll.
+ */
+public record OutboxEventCreated(Long eventId) {
+}
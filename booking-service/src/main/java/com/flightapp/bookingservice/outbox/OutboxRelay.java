@@ -0,0 +1,280 @@
+package com.flightapp.bookingservice.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.dto.SeatReservationRequest;
+import com.flightapp.bookingservice.dto.SeatResponse;
+import com.flightapp.bookingservice.feign.FlightClient;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+
+import feign.FeignException;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Drives the booking saga from the outbox:
+ * <ul>
+ * <li>RESERVE_SEATS takes the seats on flight-service, then confirms the
+ * booking locally (PENDING to BOOKED). A refusal from flight-service fails the
+ * booking; if the booking is no longer PENDING when the seats come through,
+ * they are handed back with a RELEASE_SEATS step.</li>
+ * <li>RELEASE_SEATS gives seats back, for cancellations and compensation.</li>
+ * </ul>
+ * A booking that names its seats, or a seat type, reserves them through
+ * flight-service's seat map; the seat numbers it is given are stored on the
+ * booking and released by number.
+ * <p>
+ * Anything that is not a definite answer (timeouts, 5xx, flight-service down)
+ * is retried with exponential backoff, always with the event's idempotency
+ * key. A step runs right after its transaction commits and is otherwise
+ * picked up by the poller; the lease taken with {@link OutboxRepository#claim}
+ * keeps workers and replicas from running the same step twice at once.
+ * <p>
+ * Workers spend nearly all their time waiting on flight-service, so the pool
+ * is sized for in-flight calls rather than CPUs ({@code booking.outbox.workers}).
+ */
+@Component
+public class OutboxRelay {
+
+	private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+	private final OutboxRepository outbox;
+	private final BookingRepository bookings;
+	private final FlightClient flightClient;
+	private final FlightLoadTracker loads;
+	private final TransactionTemplate tx;
+	private final ExecutorService workers;
+	private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+	private final int batchSize;
+	private final Duration lease;
+	private final Duration initialBackoff;
+	private final Duration maxBackoff;
+
+	public OutboxRelay(OutboxRepository outbox, BookingRepository bookings, FlightClient flightClient,
+			FlightLoadTracker loads, PlatformTransactionManager txManager,
+			@Value("${booking.outbox.workers:16}") int workers,
+			@Value("${booking.outbox.batch-size:100}") int batchSize,
+			@Value("${booking.outbox.lease:30s}") Duration lease,
+			@Value("${booking.outbox.initial-backoff:1s}") Duration initialBackoff,
+			@Value("${booking.outbox.max-backoff:5m}") Duration maxBackoff) {
+		this.outbox = outbox;
+		this.bookings = bookings;
+		this.flightClient = flightClient;
+		this.loads = loads;
+		this.tx = new TransactionTemplate(txManager);
+		AtomicInteger threads = new AtomicInteger();
+		this.workers = Executors.newFixedThreadPool(workers,
+				r -> new Thread(r, "outbox-relay-" + threads.incrementAndGet()));
+		this.batchSize = batchSize;
+		this.lease = lease;
+		this.initialBackoff = initialBackoff;
+		this.maxBackoff = maxBackoff;
+	}
+
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onCreated(OutboxEventCreated created) {
+		submit(created.eventId());
+	}
+
+	@Scheduled(fixedDelayString = "${booking.outbox.poll-interval-ms:1000}")
+	public void poll() {
+		List<Long> due = outbox.findDue(LocalDateTime.now(), PageRequest.of(0, batchSize));
+		due.forEach(this::submit);
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		workers.shutdown();
+		workers.awaitTermination(10, TimeUnit.SECONDS);
+	}
+
+	/** A step already waiting for a worker is not queued again by the next poll. */
+	private void submit(Long eventId) {
+		if (!queued.add(eventId)) {
+			return;
+		}
+		try {
+			workers.execute(() -> {
+				try {
+					run(eventId);
+				} finally {
+					queued.remove(eventId);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// shutting down; the poller of the next start picks it up
+			queued.remove(eventId);
+		}
+	}
+
+	/** Runs one step if its lease can be taken. Package-private for tests. */
+	void run(Long eventId) {
+		LocalDateTime now = LocalDateTime.now();
+		Integer claimed = tx.execute(status -> outbox.claim(eventId, now, now.plus(lease)));
+		if (claimed == null || claimed == 0) {
+			return;
+		}
+
+		OutboxEvent event = outbox.findById(eventId).orElse(null);
+		if (event == null) {
+			return;
+		}
+
+		try {
+			if (OutboxEvent.RESERVE_SEATS.equals(event.getType())) {
+				reserve(event);
+			} else {
+				release(event);
+			}
+		} catch (RuntimeException e) {
+			retryLater(event, e);
+		}
+	}
+
+	private void reserve(OutboxEvent event) {
+		String refusal = null;
+		String assigned = null;
+		try {
+			if (event.bySeat()) {
+				assigned = seatNumbers(flightClient.reserveSeats(event.getFlightId(), seatRequest(event),
+						event.getIdempotencyKey()));
+			} else {
+				String result = flightClient.updateSeats(event.getFlightId(), event.getSeats(),
+						event.getIdempotencyKey());
+				if (!"Seats Updated".equals(result)) {
+					refusal = result;
+				}
+			}
+		} catch (FeignException e) {
+			if (!isRefusal(e)) {
+				throw e;
+			}
+			refusal = e.contentUTF8().isBlank() ? "Flight Not Found" : e.contentUTF8();
+		}
+
+		String reason = refusal;
+		String seats = assigned;
+		tx.executeWithoutResult(status -> {
+			Booking b = bookings.findById(event.getBookingId()).orElse(null);
+			boolean pending = b != null && "PENDING".equals(b.getStatus());
+			if (reason != null) {
+				if (pending) {
+					b.setStatus("FAILED");
+					bookings.save(b);
+				}
+				log.info("Seats refused for booking {} on flight {}: {}", event.getBookingId(), event.getFlightId(),
+						reason);
+			} else if (pending) {
+				b.setStatus("BOOKED");
+				if (seats != null) {
+					b.setSeatNumbers(seats);
+				}
+				bookings.save(b);
+			} else {
+				// the booking went away while the seats were being taken, give them back
+				outbox.save(OutboxEvent.compensate(event, seats));
+				log.info("Booking {} is no longer pending, releasing {} seats on flight {}", event.getBookingId(),
+						event.getSeats(), event.getFlightId());
+			}
+			complete(event);
+			// the flight's row last, so it stays locked only until the commit
+			if (pending && reason == null) {
+				loads.confirmed(b.getFlightId(), b.getSeats());
+			} else if (pending) {
+				loads.refused(b.getFlightId(), b.getSeats());
+			}
+		});
+	}
+
+	/**
+	 * Seats given out by number are handed back by number, which flight-service
+	 * only frees while they are booked, so a repeat is harmless without a key.
+	 */
+	private void release(OutboxEvent event) {
+		try {
+			if (event.getSeatNumbers() != null) {
+				flightClient.releaseSeats(event.getFlightId(),
+						new SeatReservationRequest(null, null, List.of(event.getSeatNumbers().split(","))));
+			} else if (event.getSeatType() == null) {
+				flightClient.rollbackSeats(event.getFlightId(), event.getSeats(), event.getIdempotencyKey());
+			} else {
+				// a seat type that was never assigned seats has nothing to give back
+				log.warn("No seats to release for booking {} on flight {}", event.getBookingId(), event.getFlightId());
+			}
+		} catch (FeignException e) {
+			if (!isRefusal(e)) {
+				throw e;
+			}
+			log.warn("Seat release for booking {} refused by flight-service: {}", event.getBookingId(),
+					e.contentUTF8());
+		}
+		tx.executeWithoutResult(status -> complete(event));
+	}
+
+	private static SeatReservationRequest seatRequest(OutboxEvent event) {
+		if (event.getSeatNumbers() != null) {
+			return new SeatReservationRequest(null, null, List.of(event.getSeatNumbers().split(",")));
+		}
+		return new SeatReservationRequest(event.getSeatType(), event.getSeats(), null);
+	}
+
+	private static String seatNumbers(List<SeatResponse> seats) {
+		return seats.stream().map(SeatResponse::getSeatNumber).collect(Collectors.joining(","));
+	}
+
+	private void complete(OutboxEvent event) {
+		event.setStatus(OutboxEvent.DONE);
+		event.setAttempts(event.getAttempts() + 1);
+		event.setLockedUntil(null);
+		event.setLastError(null);
+		outbox.save(event);
+	}
+
+	private void retryLater(OutboxEvent event, RuntimeException e) {
+		int attempts = event.getAttempts() + 1;
+		Duration backoff = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+		if (backoff.compareTo(maxBackoff) > 0) {
+			backoff = maxBackoff;
+		}
+
+		event.setAttempts(attempts);
+		event.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+		event.setLockedUntil(null);
+		String error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+		event.setLastError(error.length() > 255 ? error.substring(0, 255) : error);
+		tx.executeWithoutResult(status -> outbox.save(event));
+
+		log.warn("{} for booking {} failed (attempt {}), retrying in {}: {}", event.getType(), event.getBookingId(),
+				attempts, backoff, error);
+	}
+
+	/** 4xx other than timeouts and throttling is flight-service's final word on the step. */
+	private static boolean isRefusal(FeignException e) {
+		int status = e.status();
+		return status >= 400 && status < 500 && status != 408 && status != 429;
+	}
+}
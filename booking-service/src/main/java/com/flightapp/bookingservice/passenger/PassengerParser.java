@@ -0,0 +1,86 @@
+package com.flightapp.bookingservice.passenger;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.exception.BookingException;
+
+/**
+ * Reads "NAME:GENDER:AGE;NAME:GENDER:AGE..." in one pass over the string,
+ * checking the format and the age as it goes, so a request is parsed once
+ * rather than matched by a regex and then split apart again. Names are
+ * letters and spaces, gender is M or F, age is 1 to 120.
+ */
+public final class PassengerParser {
+
+	public static final String FORMAT_MESSAGE = "Passenger details must follow NAME:GENDER:AGE format, separated by semicolons";
+
+	private static final int MAX_AGE = 120;
+	private static final int MAX_NAME_LENGTH = 100;
+
+	private PassengerParser() {
+	}
+
+	/** Passengers in the order given, without booking or flight. */
+	public static List<Passenger> parse(String details) {
+		if (details == null || details.isEmpty()) {
+			throw new BookingException(FORMAT_MESSAGE);
+		}
+
+		List<Passenger> passengers = new ArrayList<>(4);
+		int length = details.length();
+		int i = 0;
+		while (true) {
+			int start = i;
+			while (i < length && isNameChar(details.charAt(i))) {
+				i++;
+			}
+			if (i == start || i + 2 >= length || details.charAt(i) != ':') {
+				throw new BookingException(FORMAT_MESSAGE);
+			}
+			if (i - start > MAX_NAME_LENGTH) {
+				throw new BookingException("Passenger names must be at most " + MAX_NAME_LENGTH + " characters");
+			}
+			String name = details.substring(start, i);
+
+			char gender = details.charAt(i + 1);
+			if ((gender != 'M' && gender != 'F') || details.charAt(i + 2) != ':') {
+				throw new BookingException(FORMAT_MESSAGE);
+			}
+			i += 3;
+
+			int digits = 0;
+			int age = 0;
+			while (i < length && digits < 4 && isDigit(details.charAt(i))) {
+				age = age * 10 + (details.charAt(i) - '0');
+				digits++;
+				i++;
+			}
+			if (digits == 0 || digits > 3) {
+				throw new BookingException(FORMAT_MESSAGE);
+			}
+			if (age <= 0 || age > MAX_AGE) {
+				throw new BookingException("Invalid age: " + details.substring(start, i));
+			}
+
+			passengers.add(new Passenger(null, null, null, passengers.size() + 1, name, gender == 'M' ? "M" : "F", age));
+
+			if (i == length) {
+				return passengers;
+			}
+			if (details.charAt(i) != ';') {
+				throw new BookingException(FORMAT_MESSAGE);
+			}
+			i++;
+		}
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static boolean isNameChar(char c) {
+		return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || c == ' ';
+	}
+}
@@ -0,0 +1,95 @@
+package com.flightapp.bookingservice.pnr;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hands out PNRs without asking the database. A PNR packs 63 bits:
+ * <pre>
+ *   41 bits  milliseconds since 2024-01-01 (good until 2093)
+ *   10 bits  node id, unique per replica ({@code booking.pnr.node-id}, required)
+ *   12 bits  sequence within the millisecond
+ * </pre>
+ * written as 13 Crockford base32 characters after "PNR-", so PNRs sort by
+ * the time they were made and read back unambiguously (no I, L, O or U).
+ * <p>
+ * Time and sequence advance together in one atomic value that only ever
+ * grows, so a node never repeats itself: past 4096 PNRs in a millisecond, or
+ * when the clock steps back, it borrows the following milliseconds instead
+ * of waiting. Replicas differ in the node bits, so the service refuses to
+ * start without a node id rather than guess one. The unique index on
+ * bookings.pnr still backs this up if two replicas are given the same id.
+ */
+@Component
+public class PnrGenerator {
+
+	static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+	static final int NODE_BITS = 10;
+	static final int SEQUENCE_BITS = 12;
+	static final int MAX_NODE = (1 << NODE_BITS) - 1;
+
+	private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+	private static final int LENGTH = 13;
+	private static final String PREFIX = "PNR-";
+
+	private final long node;
+	private final LongSupplier clock;
+
+	/** Milliseconds since EPOCH shifted left by SEQUENCE_BITS, plus the sequence. */
+	private final AtomicLong last = new AtomicLong();
+
+	@Autowired
+	public PnrGenerator(@Value("${booking.pnr.node-id:#{null}}") Integer nodeId) {
+		this(required(nodeId), System::currentTimeMillis);
+	}
+
+	PnrGenerator(int nodeId, LongSupplier clock) {
+		if (nodeId < 0 || nodeId > MAX_NODE) {
+			throw new IllegalArgumentException("booking.pnr.node-id must be between 0 and " + MAX_NODE);
+		}
+		this.node = nodeId;
+		this.clock = clock;
+	}
+
+	public String next() {
+		return encode(nextId());
+	}
+
+	/** The 63-bit value behind the next PNR; strictly increasing on this node. */
+	long nextId() {
+		long now = (clock.getAsLong() - EPOCH) << SEQUENCE_BITS;
+		long prev;
+		long next;
+		do {
+			prev = last.get();
+			next = now > prev ? now : prev + 1;
+		} while (!last.compareAndSet(prev, next));
+
+		long millis = next >>> SEQUENCE_BITS;
+		long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+		return millis << (NODE_BITS + SEQUENCE_BITS) | node << SEQUENCE_BITS | sequence;
+	}
+
+	static String encode(long id) {
+		char[] pnr = new char[PREFIX.length() + LENGTH];
+		PREFIX.getChars(0, PREFIX.length(), pnr, 0);
+		for (int i = pnr.length - 1; i >= PREFIX.length(); i--) {
+			pnr[i] = ALPHABET[(int) (id & 31)];
+			id >>>= 5;
+		}
+		return new String(pnr);
+	}
+
+	private static int required(Integer nodeId) {
+		if (nodeId == null) {
+			throw new IllegalStateException(
+					"booking.pnr.node-id is not set; give every replica its own id between 0 and " + MAX_NODE);
+		}
+		return nodeId;
+	}
+}
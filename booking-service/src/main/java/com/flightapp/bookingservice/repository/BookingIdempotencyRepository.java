@@ -0,0 +1,30 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.domain.BookingIdempotency;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface BookingIdempotencyRepository extends JpaRepository<BookingIdempotency, String> {
+
+    /** Shared with the reactive service, which runs the same statement over R2DBC. */
+    String INSERT = "INSERT INTO booking_idempotency_keys (idempotency_key, request_hash, booking_id, created_at) "
+            + "VALUES (:key, :hash, :bookingId, :createdAt)";
+
+    /** findById in SQL, for the reactive service. */
+    String FIND = "SELECT request_hash, booking_id FROM booking_idempotency_keys WHERE idempotency_key = :key";
+
+    /** A plain INSERT, so a concurrent duplicate fails on the key instead of merging into it. */
+    @Modifying
+    @Query(value = INSERT, nativeQuery = true)
+    int insert(@Param("key") String key, @Param("hash") String hash, @Param("bookingId") Long bookingId,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query("DELETE FROM BookingIdempotency k WHERE k.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
@@ -1,12 +1,72 @@
 package com.flightapp.bookingservice.repository;
 
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking,Long>{
+
+    /**
+     * The statements of this table in SQL, for the reactive service, which runs
+     * them over R2DBC; CANCEL is run by both services.
+     */
+    String COLUMNS = "id, pnr, email, passenger_details, seats, flight_id, booked_at, status, amount, ticket_json, "
+            + "journey_date, seat_type, seat_numbers";
+
+    String SUMMARY_COLUMNS = "id, pnr, flight_id, seats, status, amount, journey_date, booked_at";
+
+    String FIND_BY_ID = "SELECT " + COLUMNS + " FROM bookings WHERE id = :id";
+
+    String FIND_BY_PNR = "SELECT " + COLUMNS + " FROM bookings WHERE pnr = :pnr";
+
+    String INSERT = "INSERT INTO bookings (pnr, email, passenger_details, seats, flight_id, booked_at, status, amount, "
+            + "ticket_json, journey_date, seat_type, seat_numbers) VALUES (:pnr, :email, :passengers, :seats, "
+            + ":flightId, :bookedAt, :status, :amount, :ticketJson, :journeyDate, :seatType, :seatNumbers)";
+
+    /** As findHistory, with the page size as {@code :limit}. */
+    String HISTORY_PAGE = "SELECT " + SUMMARY_COLUMNS + " FROM bookings WHERE email = :email AND id < :beforeId "
+            + "ORDER BY id DESC LIMIT :limit";
+
+    String HISTORY = "SELECT " + SUMMARY_COLUMNS + " FROM bookings WHERE email = :email ORDER BY id DESC";
+
+    String CANCEL = "UPDATE bookings SET status = 'CANCELLED' WHERE id = :id AND status = 'BOOKED'";
+
     List<Booking> findByEmail(String email);
     Booking findByPnr(String pnr);
+
+    /**
+     * One page of an email's history, newest first, starting strictly before
+     * the id the previous page ended on. Served by idx_booking_email_id.
+     */
+    @Query("SELECT new com.flightapp.bookingservice.dto.BookingSummary(b.id, b.pnr, b.flightId, b.seats, b.status, "
+            + "b.amount, b.journeyDate, b.bookedAt) FROM Booking b WHERE b.email = :email AND b.id < :beforeId "
+            + "ORDER BY b.id DESC")
+    List<BookingSummary> findHistory(@Param("email") String email, @Param("beforeId") Long beforeId, Pageable page);
+
+    /**
+     * The whole history as it is read. Rows are DTOs, not managed entities, so
+     * nothing piles up in the persistence context; MySQL fetches them 500 at
+     * a time because application.properties sets useCursorFetch=true on the
+     * connection. Must be consumed inside a transaction.
+     */
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT new com.flightapp.bookingservice.dto.BookingSummary(b.id, b.pnr, b.flightId, b.seats, b.status, "
+            + "b.amount, b.journeyDate, b.bookedAt) FROM Booking b WHERE b.email = :email ORDER BY b.id DESC")
+    Stream<BookingSummary> streamHistory(@Param("email") String email);
+
+    /** Cancels a BOOKED booking; 0 when it is not, or no longer, booked. */
+    @Modifying(clearAutomatically = true)
+    @Query(value = CANCEL, nativeQuery = true)
+    int cancel(@Param("id") Long id);
 }
@@ -0,0 +1,21 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.domain.BookingTicket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookingTicketRepository extends JpaRepository<BookingTicket, Long> {
+
+    /** The statements of this table in SQL, for the reactive service, which runs them over R2DBC. */
+    String FIND_BY_PNR = "SELECT booking_id, pnr, ticket, ticket_etag, download, download_etag FROM booking_tickets "
+            + "WHERE pnr = :pnr";
+
+    String INSERT = "INSERT INTO booking_tickets (booking_id, pnr, ticket, ticket_etag) "
+            + "VALUES (:bookingId, :pnr, :ticket, :etag)";
+
+    String STORE_DOWNLOAD = "UPDATE booking_tickets SET download = :download, download_etag = :etag "
+            + "WHERE booking_id = :bookingId";
+
+    BookingTicket findByPnr(String pnr);
+}
@@ -0,0 +1,81 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.domain.FlightLoad;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface FlightLoadRepository extends JpaRepository<FlightLoad, FlightLoad.Key> {
+
+    /** Shared with the reactive service, which runs the same statements over R2DBC. */
+    String ADJUST = "UPDATE flight_loads SET pending_seats = pending_seats + :pendingSeats, "
+            + "booked_seats = booked_seats + :bookedSeats, bookings = bookings + :bookings, "
+            + "cancelled_seats = cancelled_seats + :cancelledSeats, updated_at = :now "
+            + "WHERE flight_id = :flightId AND slot = :slot";
+
+    /** Slot 0, counted from the flight's bookings. */
+    String INSERT_FROM_BOOKINGS = "INSERT INTO flight_loads "
+            + "(flight_id, slot, pending_seats, booked_seats, bookings, cancelled_seats, updated_at) "
+            + "SELECT :flightId, 0, COALESCE(SUM(CASE WHEN status = 'PENDING' THEN seats END), 0), "
+            + "COALESCE(SUM(CASE WHEN status = 'BOOKED' THEN seats END), 0), "
+            + "COUNT(CASE WHEN status = 'BOOKED' THEN 1 END), "
+            + "COALESCE(SUM(CASE WHEN status = 'CANCELLED' THEN seats END), 0), :now "
+            + "FROM bookings WHERE flight_id = :flightId";
+
+    String INSERT_EMPTY = "INSERT INTO flight_loads "
+            + "(flight_id, slot, pending_seats, booked_seats, bookings, cancelled_seats, updated_at) "
+            + "VALUES (:flightId, :slot, 0, 0, 0, 0, :now)";
+
+    /** findByFlightId and existsByFlightId in SQL, for the reactive service. */
+    String FIND_BY_FLIGHT = "SELECT flight_id, slot, pending_seats, booked_seats, bookings, cancelled_seats, updated_at "
+            + "FROM flight_loads WHERE flight_id = :flightId";
+
+    String EXISTS = "SELECT flight_id FROM flight_loads WHERE flight_id = :flightId AND slot = 0";
+
+    /** Moves one slot by the given amounts in one statement; 0 when the flight has no rows yet. */
+    @Modifying
+    @Query(value = ADJUST, nativeQuery = true)
+    int adjust(@Param("flightId") Long flightId, @Param("slot") int slot, @Param("pendingSeats") int pendingSeats,
+            @Param("bookedSeats") int bookedSeats, @Param("bookings") int bookings,
+            @Param("cancelledSeats") int cancelledSeats, @Param("now") LocalDateTime now);
+
+    /** Fails on the key if the flight already has its rows. */
+    @Modifying
+    @Query(value = INSERT_FROM_BOOKINGS, nativeQuery = true)
+    int insertFromBookings(@Param("flightId") Long flightId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query(value = INSERT_EMPTY, nativeQuery = true)
+    int insertEmpty(@Param("flightId") Long flightId, @Param("slot") int slot, @Param("now") LocalDateTime now);
+
+    boolean existsByFlightId(Long flightId);
+
+    List<FlightLoad> findByFlightId(Long flightId);
+
+    /** Every slot of the flight, locked in slot order. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM FlightLoad f WHERE f.flightId = :flightId ORDER BY f.slot")
+    List<FlightLoad> findForUpdate(@Param("flightId") Long flightId);
+
+    @Query("SELECT new com.flightapp.bookingservice.load.FlightLoadTotals("
+            + "COALESCE(SUM(CASE WHEN b.status = 'PENDING' THEN b.seats ELSE 0 END), 0L), "
+            + "COALESCE(SUM(CASE WHEN b.status = 'BOOKED' THEN b.seats ELSE 0 END), 0L), "
+            + "COUNT(CASE WHEN b.status = 'BOOKED' THEN 1 END), "
+            + "COALESCE(SUM(CASE WHEN b.status = 'CANCELLED' THEN b.seats ELSE 0 END), 0L)) "
+            + "FROM Booking b WHERE b.flightId = :flightId")
+    FlightLoadTotals countBookings(@Param("flightId") Long flightId);
+
+    /** Flights with bookings but no rows, in id order, for the backfill. */
+    @Query("SELECT DISTINCT b.flightId FROM Booking b WHERE b.flightId > :afterId "
+            + "AND NOT EXISTS (SELECT f.flightId FROM FlightLoad f WHERE f.flightId = b.flightId) ORDER BY b.flightId")
+    List<Long> findUntracked(@Param("afterId") Long afterId, Pageable page);
+}
@@ -0,0 +1,32 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /** For the reactive service, which writes its steps over R2DBC. */
+    String INSERT = "INSERT INTO booking_outbox (booking_id, type, flight_id, seats, seat_type, seat_numbers, "
+            + "idempotency_key, status, attempts, next_attempt_at, created_at) VALUES (:bookingId, :type, :flightId, "
+            + ":seats, :seatType, :seatNumbers, :key, :status, :attempts, :nextAttemptAt, :createdAt)";
+
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.nextAttemptAt <= :now ORDER BY e.id")
+    List<Long> findDue(@Param("now") LocalDateTime now, Pageable page);
+
+    /**
+     * Leases a pending event until {@code until}. Returns 0 when it is done or
+     * another worker (or replica) holds an unexpired lease on it.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE OutboxEvent e SET e.lockedUntil = :until WHERE e.id = :id AND e.status = 'PENDING' "
+            + "AND (e.lockedUntil IS NULL OR e.lockedUntil < :now)")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+}
@@ -0,0 +1,33 @@
+package com.flightapp.bookingservice.repository;
+
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface PassengerRepository extends JpaRepository<Passenger, Long> {
+
+    /** The statements of this table in SQL, for the reactive service, which runs them over R2DBC. */
+    String INSERT = "INSERT INTO booking_passengers (booking_id, flight_id, position, name, gender, age) "
+            + "VALUES (:bookingId, :flightId, :position, :name, :gender, :age)";
+
+    /** findManifest in SQL. */
+    String MANIFEST = "SELECT b.pnr, p.name, p.gender, p.age FROM booking_passengers p "
+            + "JOIN bookings b ON b.id = p.booking_id "
+            + "WHERE p.flight_id = :flightId AND b.status = 'BOOKED' ORDER BY p.booking_id, p.position";
+
+    List<Passenger> findByBookingIdOrderByPosition(Long bookingId);
+
+    /**
+     * Confirmed travellers of a flight in booking order. Passengers come off
+     * idx_passenger_flight already sorted; each joins its booking by key.
+     */
+    @Query("SELECT new com.flightapp.bookingservice.dto.ManifestEntry(b.pnr, p.name, p.gender, p.age) "
+            + "FROM Passenger p JOIN Booking b ON b.id = p.bookingId "
+            + "WHERE p.flightId = :flightId AND b.status = 'BOOKED' ORDER BY p.bookingId, p.position")
+    List<ManifestEntry> findManifest(@Param("flightId") Long flightId);
+}
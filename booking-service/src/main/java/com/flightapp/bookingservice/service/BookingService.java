@@ -1,20 +1,45 @@
 package com.flightapp.bookingservice.service;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
 import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
 import com.flightapp.bookingservice.dto.TicketResponse;
 
 public interface BookingService {
 
     Booking bookTicket(Long flightId, BookingRequest req);
 
-    List<Booking> getHistory(String email);
+    Booking bookTicket(Long flightId, BookingRequest req, String idempotencyKey);
+
+    BookingHistoryResult getHistory(String email, Integer limit, String cursor);
+
+    void streamHistory(String email, OutputStream out) throws IOException;
 
     String cancelBooking(String pnr);
 
     String getTicketJson(String pnr);
 
     TicketResponse downloadTicket(String pnr);
+
+    RenderedTicket getTicket(String pnr);
+
+    RenderedTicket getDownload(String pnr);
+
+    List<ManifestEntry> getManifest(Long flightId);
+
+    FlightLoadReport getFlightLoad(Long flightId);
+
+    FlightLoadReport rebuildFlightLoad(Long flightId);
+
+    FlightCancellationProgress cancelFlight(Long flightId);
+
+    FlightCancellationProgress getFlightCancellation(Long flightId);
 }
@@ -0,0 +1,44 @@
+package com.flightapp.bookingservice.service;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
+import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
+import com.flightapp.bookingservice.dto.TicketResponse;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/** {@link BookingService} for the reactive mode, with the same rules and results. */
+public interface ReactiveBookingService {
+
+    Mono<Booking> bookTicket(Long flightId, BookingRequest req, String idempotencyKey);
+
+    Mono<BookingHistoryResult> getHistory(String email, Integer limit, String cursor);
+
+    Flux<BookingSummary> streamHistory(String email);
+
+    Mono<String> cancelBooking(String pnr);
+
+    Mono<String> getTicketJson(String pnr);
+
+    Mono<TicketResponse> downloadTicket(String pnr);
+
+    Mono<RenderedTicket> getTicket(String pnr);
+
+    Mono<RenderedTicket> getDownload(String pnr);
+
+    Flux<ManifestEntry> getManifest(Long flightId);
+
+    Mono<FlightLoadReport> getFlightLoad(Long flightId);
+
+    Mono<FlightLoadReport> rebuildFlightLoad(Long flightId);
+
+    Mono<FlightCancellationProgress> cancelFlight(Long flightId);
+
+    Mono<FlightCancellationProgress> getFlightCancellation(Long flightId);
+}
@@ -0,0 +1,215 @@
+package com.flightapp.bookingservice.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.BookingTicket;
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
+import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightAvailability;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+import com.flightapp.bookingservice.dto.TicketResponse;
+import com.flightapp.bookingservice.exception.BookingException;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import com.flightapp.bookingservice.passenger.PassengerParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * The booking rules both {@link BookingServiceImpl} and
+ * {@link ReactiveBookingServiceImpl} apply: checking requests, building
+ * bookings and tickets, paging history. Nothing here touches the database or
+ * flight-service, so each service only adds its own way of reaching them.
+ */
+final class BookingRules {
+
+	private static final int MAX_IDEMPOTENCY_KEY_LENGTH = 100;
+	private static final int DEFAULT_HISTORY_LIMIT = 20;
+	private static final int MAX_HISTORY_LIMIT = 100;
+
+	// tickets and streamed history are rendered the way Boot's converters render a response, dates as ISO strings
+	private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json()
+			.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+	private BookingRules() {
+	}
+
+	/** The request's passengers, parsed once; the booking's rules are checked on the way. */
+	static List<Passenger> validatePassengers(BookingRequest req) {
+		List<Passenger> travellers = PassengerParser.parse(req.getPassengerDetails());
+		if (travellers.size() != req.getSeats()) {
+			throw new BookingException("Number of passengers must match number of seats booked");
+		}
+		if (req.getSeatNumbers() != null && !req.getSeatNumbers().isEmpty()
+				&& req.getSeatNumbers().stream().distinct().count() != req.getSeats()) {
+			throw new BookingException("Number of seat numbers must match number of seats booked");
+		}
+		return travellers;
+	}
+
+	static List<Passenger> ofBooking(List<Passenger> travellers, Long bookingId, Long flightId) {
+		for (Passenger p : travellers) {
+			p.setBookingId(bookingId);
+			p.setFlightId(flightId);
+		}
+		return travellers;
+	}
+
+	static void checkIdempotencyKey(String idempotencyKey) {
+		if (idempotencyKey.length() > MAX_IDEMPOTENCY_KEY_LENGTH) {
+			throw new BookingException("Idempotency-Key must be at most " + MAX_IDEMPOTENCY_KEY_LENGTH + " characters");
+		}
+	}
+
+	/** A new PENDING booking with its PNR and ticket, not yet stored. */
+	static Booking newBooking(String pnr, Long flightId, BookingRequest req) {
+		Booking booking = new Booking();
+		booking.setEmail(req.getEmail());
+		booking.setSeats(req.getSeats());
+		booking.setPassengerDetails(req.getPassengerDetails());
+		booking.setAmount(req.getAmount());
+		booking.setJourneyDate(req.getJourneyDate());
+		booking.setPnr(pnr);
+		booking.setFlightId(flightId);
+		booking.setBookedAt(LocalDateTime.now());
+		booking.setStatus("PENDING");
+		if (req.getSeatNumbers() != null && !req.getSeatNumbers().isEmpty()) {
+			booking.setSeatNumbers(String.join(",", req.getSeatNumbers()));
+		} else if (req.getSeatType() != null && !req.getSeatType().isBlank()) {
+			booking.setSeatType(req.getSeatType());
+		}
+
+		booking.setTicketJson(new String(ticketJson(booking), StandardCharsets.UTF_8));
+
+		return booking;
+	}
+
+	/** The stored form of a booking's ticket, ready to be served as it is. */
+	static BookingTicket bookingTicket(Long bookingId, Booking b) {
+		byte[] ticket = b.getTicketJson() == null ? ticketJson(b) : b.getTicketJson().getBytes(StandardCharsets.UTF_8);
+		return new BookingTicket(bookingId, b.getPnr(), ticket, etag(ticket), null, null);
+	}
+
+	private static byte[] ticketJson(Booking b) {
+		return render(new TicketJson(b.getPnr(), b.getFlightId(), b.getJourneyDate(), b.getPassengerDetails()));
+	}
+
+	static byte[] render(Object value) {
+		try {
+			return MAPPER.writeValueAsBytes(value);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/** A strong ETag over the rendered bytes, so equal tickets get equal tags on every replica. */
+	static String etag(byte[] body) {
+		return "\"" + sha256(body).substring(0, 32) + "\"";
+	}
+
+	static String requestHash(Long flightId, BookingRequest req) {
+		String request = flightId + "|" + req.getEmail() + "|" + req.getSeats() + "|" + req.getPassengerDetails() + "|"
+				+ req.getAmount() + "|" + req.getJourneyDate();
+		if (req.getSeatType() != null || req.getSeatNumbers() != null) {
+			request += "|" + req.getSeatType() + "|" + req.getSeatNumbers();
+		}
+		return sha256(request.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static FlightLoadReport loadReport(Long flightId, FlightLoadTotals load, FlightAvailability flight) {
+		int bookedSeats = load.bookedSeats().intValue();
+		FlightLoadReport report = new FlightLoadReport(flightId, load.bookings().intValue(), bookedSeats,
+				load.pendingSeats().intValue(), load.cancelledSeats().intValue(), null, null, load.updatedAt());
+		if (flight != null && flight.getAvailableSeats() != null) {
+			report.setAvailableSeats(flight.getAvailableSeats());
+			int capacity = bookedSeats + flight.getAvailableSeats();
+			report.setLoadFactor(capacity == 0 ? 0.0 : (double) bookedSeats / capacity);
+		}
+		return report;
+	}
+
+	static int historyLimit(Integer limit) {
+		if (limit == null) {
+			return DEFAULT_HISTORY_LIMIT;
+		}
+		if (limit < 1 || limit > MAX_HISTORY_LIMIT) {
+			throw new BookingException("History limit must be between 1 and " + MAX_HISTORY_LIMIT);
+		}
+		return limit;
+	}
+
+	/** The id the previous page ended on; the first page starts above every id. */
+	static Long historyCursor(String cursor) {
+		if (cursor == null || cursor.isBlank()) {
+			return Long.MAX_VALUE;
+		}
+		try {
+			return Long.valueOf(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+		} catch (IllegalArgumentException e) {
+			throw new BookingException("Invalid history cursor");
+		}
+	}
+
+	/** Trims the one extra row fetched to tell whether another page follows. */
+	static BookingHistoryResult historyPage(List<BookingSummary> rows, int pageSize) {
+		if (rows.size() <= pageSize) {
+			return new BookingHistoryResult(rows, null);
+		}
+		List<BookingSummary> page = new ArrayList<>(rows.subList(0, pageSize));
+		String last = String.valueOf(page.get(pageSize - 1).getId());
+		return new BookingHistoryResult(page,
+				Base64.getUrlEncoder().withoutPadding().encodeToString(last.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	static void checkCancellable(Booking b) {
+		if (!b.getStatus().equals("BOOKED"))
+			throw new BookingException("Only booked tickets can be cancelled");
+
+		if (b.getJourneyDate() == null)
+			throw new BookingException("Journey date missing");
+
+		long hours = Duration.between(LocalDateTime.now(), b.getJourneyDate().atStartOfDay()).toHours();
+		if (hours < 24)
+			throw new BookingException("Cancellation allowed only 24 hours before journey");
+	}
+
+	static TicketResponse ticket(Booking b, FlightSnapshot flight) {
+		TicketResponse resp = new TicketResponse();
+		resp.setPnr(b.getPnr());
+		resp.setEmail(b.getEmail());
+		resp.setPassengerDetails(b.getPassengerDetails());
+		resp.setSeats(b.getSeats());
+		resp.setFlightId(b.getFlightId());
+		resp.setFlightDetails(flight);
+		resp.setTicketJson(b.getTicketJson());
+
+		return resp;
+	}
+
+	/** The ticket written with the booking; rendered by Jackson so passenger data is escaped. */
+	private record TicketJson(String pnr, Long flightId, LocalDate journeyDate, String passengers) {
+	}
+}
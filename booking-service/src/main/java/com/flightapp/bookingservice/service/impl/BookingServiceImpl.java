@@ -1,117 +1,201 @@
 package com.flightapp.bookingservice.service.impl;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
+import java.util.stream.Stream;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.flightapp.bookingservice.cancellation.FlightCancellationJob;
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.BookingIdempotency;
+import com.flightapp.bookingservice.domain.BookingTicket;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
 import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
 import com.flightapp.bookingservice.dto.TicketResponse;
 import com.flightapp.bookingservice.exception.BookingException;
-import com.flightapp.bookingservice.feign.FlightClient;
+import com.flightapp.bookingservice.feign.FlightGateway;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.outbox.OutboxEventCreated;
+import com.flightapp.bookingservice.pnr.PnrGenerator;
+import com.flightapp.bookingservice.repository.BookingIdempotencyRepository;
 import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.BookingTicketRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+import com.flightapp.bookingservice.repository.PassengerRepository;
 import com.flightapp.bookingservice.service.BookingService;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-
 @Service
 public class BookingServiceImpl implements BookingService {
 
-	private static final Logger log = LoggerFactory.getLogger(BookingServiceImpl.class);
-
 	private final BookingRepository repo;
-	private final FlightClient flightClient;
-
-	public BookingServiceImpl(BookingRepository repo, FlightClient flightClient) {
+	private final FlightGateway flights;
+	private final OutboxRepository outbox;
+	private final BookingIdempotencyRepository idempotencyKeys;
+	private final BookingTicketRepository tickets;
+	private final PassengerRepository passengers;
+	private final FlightLoadTracker loads;
+	private final FlightCancellationJob flightCancellations;
+	private final ApplicationEventPublisher events;
+	private final PnrGenerator pnrs;
+	private final TransactionTemplate tx;
+
+	public BookingServiceImpl(BookingRepository repo, FlightGateway flights, OutboxRepository outbox,
+			BookingIdempotencyRepository idempotencyKeys, BookingTicketRepository tickets,
+			PassengerRepository passengers, FlightLoadTracker loads, FlightCancellationJob flightCancellations,
+			ApplicationEventPublisher events, PnrGenerator pnrs, PlatformTransactionManager txManager) {
 		this.repo = repo;
-		this.flightClient = flightClient;
+		this.flights = flights;
+		this.outbox = outbox;
+		this.idempotencyKeys = idempotencyKeys;
+		this.tickets = tickets;
+		this.passengers = passengers;
+		this.loads = loads;
+		this.flightCancellations = flightCancellations;
+		this.events = events;
+		this.pnrs = pnrs;
+		this.tx = new TransactionTemplate(txManager);
 	}
 
-	@CircuitBreaker(name = "flightService", fallbackMethod = "flightFallback")
-	public Object safeGetFlight(Long flightId) {
-		return flightClient.getFlight(flightId);
+	@Override
+	public Booking bookTicket(Long flightId, BookingRequest req) {
+		return bookTicket(flightId, req, null);
 	}
 
-	@CircuitBreaker(name = "flightService", fallbackMethod = "seatUpdateFallback")
-	@Retry(name = "flightRetry")
-	public String safeUpdateSeats(Long flightId, Integer seats) {
-		return flightClient.updateSeats(flightId, seats);
-	}
+	/**
+	 * Stores the booking as PENDING together with a RESERVE_SEATS outbox step
+	 * and returns without calling flight-service; the OutboxRelay takes the
+	 * seats and moves the booking to BOOKED or FAILED.
+	 *
+	 * With an Idempotency-Key the key is stored in the same transaction, and a
+	 * repeat of the request (including one racing the first) gets the booking
+	 * the first one created.
+	 */
+	@Override
+	public Booking bookTicket(Long flightId, BookingRequest req, String idempotencyKey) {
 
-	@CircuitBreaker(name = "flightService", fallbackMethod = "rollbackFallback")
-	@Retry(name = "flightRetry")
-	public String safeRollbackSeats(Long flightId, Integer seats) {
-		return flightClient.rollbackSeats(flightId, seats);
-	}
+		List<Passenger> travellers = BookingRules.validatePassengers(req);
+		loads.track(flightId);
 
-	public Object flightFallback(Long id, Throwable t) {
-		log.error("Flight service unavailable for flightId={}, error={}", id, t.getMessage());
-		return null;
-	}
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			return tx.execute(status -> createBooking(flightId, req, travellers));
+		}
+		BookingRules.checkIdempotencyKey(idempotencyKey);
 
-	public String seatUpdateFallback(Long id, Integer seatCount, Throwable t) {
-		log.error("Seat update failed for flightId={}, seats={}, error={}", id, seatCount, t.getMessage());
-		return "Flight Service Down - Cannot Update Seats";
-	}
+		String requestHash = BookingRules.requestHash(flightId, req);
+		Booking first = replay(idempotencyKey, requestHash);
+		if (first != null) {
+			return first;
+		}
 
-	public String rollbackFallback(Long id, Integer seatCount, Throwable t) {
-		log.error("Rollback failed for flightId={}, seats={}, error={}", id, seatCount, t.getMessage());
-		return "Flight Service Down - Rollback Pending";
+		try {
+			return tx.execute(status -> {
+				Booking saved = createBooking(flightId, req, travellers);
+				idempotencyKeys.insert(idempotencyKey, requestHash, saved.getId(), LocalDateTime.now());
+				return saved;
+			});
+		} catch (DataIntegrityViolationException e) {
+			first = replay(idempotencyKey, requestHash);
+			if (first == null) {
+				throw e;
+			}
+			return first;
+		}
 	}
 
-	@Override
-	public Booking bookTicket(Long flightId, BookingRequest req) {
+	private Booking createBooking(Long flightId, BookingRequest req, List<Passenger> travellers) {
+		Booking booking = BookingRules.newBooking(pnrs.next(), flightId, req);
+		Booking saved = repo.save(booking);
+		tickets.save(BookingRules.bookingTicket(saved.getId(), booking));
+		passengers.saveAll(BookingRules.ofBooking(travellers, saved.getId(), flightId));
+		enqueue(OutboxEvent.reserve(saved));
+		// last, so the flight's row is locked only until the commit that follows
+		loads.booked(flightId, req.getSeats());
+		return saved;
+	}
 
-		String[] passengers = req.getPassengerDetails().split(";");
-		if (passengers.length != req.getSeats()) {
-			throw new BookingException("Number of passengers must match number of seats booked");
+	private Booking replay(String idempotencyKey, String requestHash) {
+		BookingIdempotency key = idempotencyKeys.findById(idempotencyKey).orElse(null);
+		if (key == null) {
+			return null;
 		}
-
-		for (String p : passengers) {
-			String[] parts = p.split(":");
-			int age = Integer.parseInt(parts[2]);
-			if (age <= 0 || age > 120) {
-				throw new BookingException("Invalid age: " + p);
-			}
+		if (!key.getRequestHash().equals(requestHash)) {
+			throw new BookingException("Idempotency-Key was already used for a different booking");
 		}
+		return repo.findById(key.getBookingId())
+				.orElseThrow(() -> new BookingException("Booking for this Idempotency-Key no longer exists"));
+	}
 
-		Object flight = safeGetFlight(flightId);
-		if (flight == null)
-			throw new BookingException("Flight service unavailable. Try later.");
+	@Override
+	public List<ManifestEntry> getManifest(Long flightId) {
+		return passengers.findManifest(flightId);
+	}
 
-		String seatUpdate = safeUpdateSeats(flightId, req.getSeats());
-		if (!"Seats Updated".equals(seatUpdate))
-			throw new BookingException(seatUpdate);
+	@Override
+	public FlightLoadReport getFlightLoad(Long flightId) {
+		return BookingRules.loadReport(flightId, loads.get(flightId), flights.getAvailability(flightId));
+	}
 
-		Booking booking = new Booking();
-		booking.setEmail(req.getEmail());
-		booking.setSeats(req.getSeats());
-		booking.setPassengerDetails(req.getPassengerDetails());
-		booking.setAmount(req.getAmount());
-		booking.setJourneyDate(req.getJourneyDate());
-		booking.setPnr("PNR-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase());
-		booking.setFlightId(flightId);
-		booking.setBookedAt(LocalDateTime.now());
-		booking.setStatus("BOOKED");
+	@Override
+	public FlightLoadReport rebuildFlightLoad(Long flightId) {
+		return BookingRules.loadReport(flightId, loads.rebuild(flightId), flights.getAvailability(flightId));
+	}
 
-		String ticketJson = String.format(
-				"{\"pnr\":\"%s\",\"flightId\":%d,\"journeyDate\":\"%s\",\"passengers\":\"%s\"}", booking.getPnr(),
-				flightId, req.getJourneyDate(), req.getPassengerDetails());
+	/** Runs in the background; poll {@link #getFlightCancellation} for progress. */
+	@Override
+	public FlightCancellationProgress cancelFlight(Long flightId) {
+		return flightCancellations.start(flightId);
+	}
 
-		booking.setTicketJson(ticketJson);
+	@Override
+	public FlightCancellationProgress getFlightCancellation(Long flightId) {
+		FlightCancellationProgress progress = flightCancellations.progress(flightId);
+		if (progress == null)
+			throw new BookingException("No cancellation started for this flight");
+		return progress;
+	}
 
-		return repo.save(booking);
+	@Override
+	public BookingHistoryResult getHistory(String email, Integer limit, String cursor) {
+		int pageSize = BookingRules.historyLimit(limit);
+		List<BookingSummary> rows = repo.findHistory(email, BookingRules.historyCursor(cursor),
+				PageRequest.of(0, pageSize + 1));
+		return BookingRules.historyPage(rows, pageSize);
 	}
 
+	/** Writes the history as NDJSON, one summary per line, reading rows as they are written. */
 	@Override
-	public List<Booking> getHistory(String email) {
-		return repo.findByEmail(email);
+	@Transactional(readOnly = true)
+	public void streamHistory(String email, OutputStream out) throws IOException {
+		try (Stream<BookingSummary> rows = repo.streamHistory(email)) {
+			rows.forEach(summary -> {
+				try {
+					out.write(BookingRules.render(summary));
+					out.write('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
 	}
 
 	@Override
@@ -122,32 +206,34 @@ public class BookingServiceImpl implements BookingService {
 		return b.getTicketJson();
 	}
 
+	/**
+	 * The status change is guarded on BOOKED, so of two concurrent cancels only
+	 * one releases the seats.
+	 */
 	@Override
+	@Transactional
 	public String cancelBooking(String pnr) {
 
 		Booking b = repo.findByPnr(pnr);
 		if (b == null)
 			throw new BookingException("PNR not found");
 
-		if (!b.getStatus().equals("BOOKED"))
-			throw new BookingException("Only booked tickets can be cancelled");
-
-		if (b.getJourneyDate() == null)
-			throw new BookingException("Journey date missing");
-
-		long hours = Duration.between(LocalDateTime.now(), b.getJourneyDate().atStartOfDay()).toHours();
-		if (hours < 24)
-			throw new BookingException("Cancellation allowed only 24 hours before journey");
+		BookingRules.checkCancellable(b);
 
+		if (repo.cancel(b.getId()) == 0)
+			throw new BookingException("Only booked tickets can be cancelled");
 		b.setStatus("CANCELLED");
-		repo.save(b);
-
-		String rollback = safeRollbackSeats(b.getFlightId(), b.getSeats());
-		log.info("Rollback response for pnr {}: {}", pnr, rollback);
+		loads.cancelled(b.getFlightId(), b.getSeats());
+		enqueue(OutboxEvent.release(b));
 
 		return "Cancelled: " + pnr;
 	}
 
+	private void enqueue(OutboxEvent event) {
+		OutboxEvent saved = outbox.save(event);
+		events.publishEvent(new OutboxEventCreated(saved.getId()));
+	}
+
 	@Override
 	public TicketResponse downloadTicket(String pnr) {
 
@@ -155,17 +241,55 @@ public class BookingServiceImpl implements BookingService {
 		if (b == null)
 			throw new BookingException("PNR not found");
 
-		Object flight = safeGetFlight(b.getFlightId());
+		return BookingRules.ticket(b, flights.getFlight(b.getFlightId()));
+	}
 
-		TicketResponse resp = new TicketResponse();
-		resp.setPnr(b.getPnr());
-		resp.setEmail(b.getEmail());
-		resp.setPassengerDetails(b.getPassengerDetails());
-		resp.setSeats(b.getSeats());
-		resp.setFlightId(b.getFlightId());
-		resp.setFlightDetails(flight);
-		resp.setTicketJson(b.getTicketJson());
+	@Override
+	public RenderedTicket getTicket(String pnr) {
+		BookingTicket stored = storedTicket(pnr);
+		return new RenderedTicket(stored.getTicket(), stored.getTicketEtag());
+	}
 
-		return resp;
+	/**
+	 * The first download that gets the flight from flight-service renders and
+	 * keeps the ticket; every later one is served from the stored bytes without
+	 * a remote call. Without the flight the ticket is sent but not kept.
+	 */
+	@Override
+	public RenderedTicket getDownload(String pnr) {
+		BookingTicket stored = storedTicket(pnr);
+		if (stored.getDownload() != null) {
+			return new RenderedTicket(stored.getDownload(), stored.getDownloadEtag());
+		}
+
+		Booking b = repo.findById(stored.getBookingId()).orElseThrow(() -> new BookingException("PNR not found"));
+		FlightSnapshot flight = flights.getFlight(b.getFlightId());
+		byte[] download = BookingRules.render(BookingRules.ticket(b, flight));
+		String etag = BookingRules.etag(download);
+		if (flight != null) {
+			stored.setDownload(download);
+			stored.setDownloadEtag(etag);
+			tickets.save(stored);
+		}
+		return new RenderedTicket(download, etag);
+	}
+
+	/** Bookings made before tickets were stored get theirs on first use. */
+	private BookingTicket storedTicket(String pnr) {
+		BookingTicket stored = tickets.findByPnr(pnr);
+		if (stored != null) {
+			return stored;
+		}
+
+		Booking b = repo.findByPnr(pnr);
+		if (b == null)
+			throw new BookingException("PNR not found");
+
+		try {
+			return tickets.save(BookingRules.bookingTicket(b.getId(), b));
+		} catch (DataIntegrityViolationException e) {
+			// stored by a concurrent request in the meantime
+			return tickets.findByPnr(pnr);
+		}
 	}
 }
@@ -0,0 +1,37 @@
+package com.flightapp.bookingservice.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.bookingservice.repository.BookingIdempotencyRepository;
+
+/** Forgets booking Idempotency-Keys once they are older than {@code booking.idempotency.ttl}. */
+@Component
+public class IdempotencyKeyPurger {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyKeyPurger.class);
+
+	private final BookingIdempotencyRepository repo;
+	private final Duration ttl;
+
+	public IdempotencyKeyPurger(BookingIdempotencyRepository repo, @Value("${booking.idempotency.ttl:24h}") Duration ttl) {
+		this.repo = repo;
+		this.ttl = ttl;
+	}
+
+	@Scheduled(fixedDelayString = "${booking.idempotency.purge-interval-ms:600000}")
+	@Transactional
+	public void purge() {
+		int removed = repo.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+		if (removed > 0) {
+			log.debug("Purged {} expired booking idempotency keys", removed);
+		}
+	}
+}
@@ -0,0 +1,403 @@
+package com.flightapp.bookingservice.service.impl;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.r2dbc.core.DatabaseClient.GenericExecuteSpec;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.flightapp.bookingservice.cancellation.FlightCancellationJob;
+import com.flightapp.bookingservice.config.ReactiveDatabase;
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.BookingIdempotency;
+import com.flightapp.bookingservice.domain.BookingTicket;
+import com.flightapp.bookingservice.domain.FlightLoad;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
+import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightAvailability;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
+import com.flightapp.bookingservice.dto.TicketResponse;
+import com.flightapp.bookingservice.exception.BookingException;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.outbox.OutboxEventCreated;
+import com.flightapp.bookingservice.pnr.PnrGenerator;
+import com.flightapp.bookingservice.repository.BookingIdempotencyRepository;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.BookingTicketRepository;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+import com.flightapp.bookingservice.repository.PassengerRepository;
+import com.flightapp.bookingservice.service.ReactiveBookingService;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * {@link BookingServiceImpl} on R2DBC and WebClient, so no thread waits on
+ * MySQL or flight-service. The rules come from {@link BookingRules} and the SQL
+ * from the repositories of the servlet path. Writes go to the same tables,
+ * including the outbox, which the OutboxRelay carries out as usual.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveBookingServiceImpl implements ReactiveBookingService {
+
+	private static final Logger log = LoggerFactory.getLogger(ReactiveBookingServiceImpl.class);
+
+	private final DatabaseClient db;
+	private final TransactionalOperator tx;
+	private final WebClient flightService;
+	private final ApplicationEventPublisher events;
+	private final PnrGenerator pnrs;
+	private final FlightLoadTracker loads;
+	private final FlightCancellationJob flightCancellations;
+
+	public ReactiveBookingServiceImpl(ReactiveDatabase database, WebClient.Builder webClient,
+			ApplicationEventPublisher events, PnrGenerator pnrs, FlightLoadTracker loads,
+			FlightCancellationJob flightCancellations,
+			@Value("${booking.reactive.flight-service-url:http://flight-service}") String flightServiceUrl) {
+		this.db = database.client();
+		this.tx = database.tx();
+		this.flightService = webClient.baseUrl(flightServiceUrl).build();
+		this.events = events;
+		this.pnrs = pnrs;
+		this.loads = loads;
+		this.flightCancellations = flightCancellations;
+	}
+
+	@Override
+	public Mono<Booking> bookTicket(Long flightId, BookingRequest req, String idempotencyKey) {
+		return Mono.defer(() -> {
+			List<Passenger> travellers = BookingRules.validatePassengers(req);
+
+			if (idempotencyKey == null || idempotencyKey.isBlank()) {
+				return createBooking(flightId, req, travellers, null, null);
+			}
+			BookingRules.checkIdempotencyKey(idempotencyKey);
+
+			String requestHash = BookingRules.requestHash(flightId, req);
+			return replay(idempotencyKey, requestHash)
+					.switchIfEmpty(Mono.defer(() -> createBooking(flightId, req, travellers, idempotencyKey, requestHash)))
+					.onErrorResume(DataIntegrityViolationException.class,
+							e -> replay(idempotencyKey, requestHash).switchIfEmpty(Mono.error(e)));
+		});
+	}
+
+	private Mono<Booking> createBooking(Long flightId, BookingRequest req, List<Passenger> travellers,
+			String idempotencyKey, String requestHash) {
+		Booking booking = BookingRules.newBooking(pnrs.next(), flightId, req);
+
+		Mono<Long> write = insertBooking(booking).flatMap(id -> {
+			booking.setId(id);
+			Mono<Long> reserve = insertTicket(BookingRules.bookingTicket(id, booking))
+					.thenMany(Flux.fromIterable(BookingRules.ofBooking(travellers, id, flightId))
+							.concatMap(this::insertPassenger))
+					.then(insertOutbox(OutboxEvent.reserve(booking)))
+					.flatMap(eventId -> adjustLoad(flightId, req.getSeats(), 0, 0, 0).thenReturn(eventId));
+			if (idempotencyKey == null) {
+				return reserve;
+			}
+			return reserve.flatMap(eventId -> db.sql(BookingIdempotencyRepository.INSERT)
+					.bind("key", idempotencyKey).bind("hash", requestHash).bind("bookingId", id)
+					.bind("createdAt", LocalDateTime.now()).then().thenReturn(eventId));
+		});
+
+		return trackLoad(flightId).then(tx.transactional(write)).doOnNext(this::relay).thenReturn(booking);
+	}
+
+	private Mono<Booking> replay(String idempotencyKey, String requestHash) {
+		return db.sql(BookingIdempotencyRepository.FIND)
+				.bind("key", idempotencyKey)
+				.map(row -> new BookingIdempotency(idempotencyKey, row.get("request_hash", String.class),
+						row.get("booking_id", Long.class), null))
+				.one()
+				.flatMap(key -> {
+					if (!key.getRequestHash().equals(requestHash)) {
+						return Mono.error(new BookingException("Idempotency-Key was already used for a different booking"));
+					}
+					return db.sql(BookingRepository.FIND_BY_ID)
+							.bind("id", key.getBookingId()).map(ReactiveBookingServiceImpl::booking).one()
+							.switchIfEmpty(Mono.error(
+									new BookingException("Booking for this Idempotency-Key no longer exists")));
+				});
+	}
+
+	@Override
+	public Flux<ManifestEntry> getManifest(Long flightId) {
+		return db.sql(PassengerRepository.MANIFEST).bind("flightId", flightId)
+				.map(row -> new ManifestEntry(row.get("pnr", String.class), row.get("name", String.class),
+						row.get("gender", String.class), row.get("age", Integer.class)))
+				.all();
+	}
+
+	/**
+	 * Reads the row over R2DBC. A flight without one is counted, and a rebuild
+	 * recounted, by the FlightLoadTracker on JDBC; both are rare and run on the
+	 * bounded elastic scheduler rather than an event loop.
+	 */
+	@Override
+	public Mono<FlightLoadReport> getFlightLoad(Long flightId) {
+		return db.sql(FlightLoadRepository.FIND_BY_FLIGHT).bind("flightId", flightId)
+				.map(row -> new FlightLoad(row.get("flight_id", Long.class), row.get("slot", Integer.class),
+						row.get("pending_seats", Integer.class), row.get("booked_seats", Integer.class),
+						row.get("bookings", Integer.class), row.get("cancelled_seats", Integer.class),
+						row.get("updated_at", LocalDateTime.class)))
+				.all().collectList()
+				.flatMap(slots -> slots.isEmpty()
+						? Mono.fromCallable(() -> loads.get(flightId)).subscribeOn(Schedulers.boundedElastic())
+						: Mono.just(FlightLoadTotals.sum(slots)))
+				.flatMap(totals -> loadReport(flightId, totals));
+	}
+
+	@Override
+	public Mono<FlightLoadReport> rebuildFlightLoad(Long flightId) {
+		return Mono.fromCallable(() -> loads.rebuild(flightId)).subscribeOn(Schedulers.boundedElastic())
+				.flatMap(totals -> loadReport(flightId, totals));
+	}
+
+	/** The job runs on its own thread either way; starting it and reading progress do not block. */
+	@Override
+	public Mono<FlightCancellationProgress> cancelFlight(Long flightId) {
+		return Mono.fromSupplier(() -> flightCancellations.start(flightId));
+	}
+
+	@Override
+	public Mono<FlightCancellationProgress> getFlightCancellation(Long flightId) {
+		return Mono.justOrEmpty(flightCancellations.progress(flightId))
+				.switchIfEmpty(Mono.error(new BookingException("No cancellation started for this flight")));
+	}
+
+	private Mono<FlightLoadReport> loadReport(Long flightId, FlightLoadTotals totals) {
+		return getAvailability(flightId).map(flight -> BookingRules.loadReport(flightId, totals, flight))
+				.switchIfEmpty(Mono.fromSupplier(() -> BookingRules.loadReport(flightId, totals, null)));
+	}
+
+	/** As FlightLoadTracker.track: the flight's rows exist before the booking's transaction begins. */
+	private Mono<Void> trackLoad(Long flightId) {
+		return db.sql(FlightLoadRepository.EXISTS)
+				.bind("flightId", flightId).map(row -> flightId).one().hasElement()
+				.flatMap(exists -> {
+					if (exists) {
+						return Mono.<Void>empty();
+					}
+					LocalDateTime now = LocalDateTime.now();
+					Mono<Void> insert = db.sql(FlightLoadRepository.INSERT_FROM_BOOKINGS).bind("flightId", flightId)
+							.bind("now", now).then()
+							.thenMany(Flux.range(1, FlightLoad.SLOTS - 1)
+									.concatMap(slot -> db.sql(FlightLoadRepository.INSERT_EMPTY)
+											.bind("flightId", flightId).bind("slot", slot).bind("now", now).then()))
+							.then();
+					return tx.transactional(insert)
+							.onErrorResume(DataIntegrityViolationException.class, e -> Mono.empty());
+				});
+	}
+
+	private Mono<Void> adjustLoad(Long flightId, int pendingSeats, int bookedSeats, int bookings, int cancelledSeats) {
+		return db.sql(FlightLoadRepository.ADJUST).bind("flightId", flightId).bind("slot", FlightLoadTracker.slot())
+				.bind("pendingSeats", pendingSeats).bind("bookedSeats", bookedSeats).bind("bookings", bookings)
+				.bind("cancelledSeats", cancelledSeats).bind("now", LocalDateTime.now()).fetch().rowsUpdated()
+				.doOnNext(updated -> {
+					if (updated == 0) {
+						log.warn("Flight {} has no load rows yet; it will be counted when tracked or rebuilt", flightId);
+					}
+				}).then();
+	}
+
+	@Override
+	public Mono<BookingHistoryResult> getHistory(String email, Integer limit, String cursor) {
+		return Mono.defer(() -> {
+			int pageSize = BookingRules.historyLimit(limit);
+			return db.sql(BookingRepository.HISTORY_PAGE).bind("email", email)
+					.bind("beforeId", BookingRules.historyCursor(cursor)).bind("limit", pageSize + 1)
+					.map(ReactiveBookingServiceImpl::summary).all().collectList()
+					.map(rows -> BookingRules.historyPage(rows, pageSize));
+		});
+	}
+
+	/** Rows are emitted as the driver reads them, so demand from the client paces the query. */
+	@Override
+	public Flux<BookingSummary> streamHistory(String email) {
+		return db.sql(BookingRepository.HISTORY).bind("email", email).map(ReactiveBookingServiceImpl::summary).all();
+	}
+
+	@Override
+	public Mono<String> getTicketJson(String pnr) {
+		return findByPnr(pnr).map(Booking::getTicketJson);
+	}
+
+	/** As in BookingServiceImpl, of two concurrent cancels only one releases the seats. */
+	@Override
+	public Mono<String> cancelBooking(String pnr) {
+		return findByPnr(pnr).flatMap(b -> {
+			BookingRules.checkCancellable(b);
+
+			Mono<Long> write = db.sql(BookingRepository.CANCEL).bind("id", b.getId()).fetch().rowsUpdated()
+					.flatMap(updated -> updated == 0
+							? Mono.error(new BookingException("Only booked tickets can be cancelled"))
+							: insertOutbox(OutboxEvent.release(b)).flatMap(eventId -> adjustLoad(b.getFlightId(), 0,
+									-b.getSeats(), -1, b.getSeats()).thenReturn(eventId)));
+			return tx.transactional(write).doOnNext(this::relay).thenReturn("Cancelled: " + pnr);
+		});
+	}
+
+	@Override
+	public Mono<TicketResponse> downloadTicket(String pnr) {
+		return findByPnr(pnr).flatMap(b -> getFlight(b.getFlightId())
+				.map(flight -> BookingRules.ticket(b, flight))
+				.switchIfEmpty(Mono.fromSupplier(() -> BookingRules.ticket(b, null))));
+	}
+
+	@Override
+	public Mono<RenderedTicket> getTicket(String pnr) {
+		return storedTicket(pnr).map(t -> new RenderedTicket(t.getTicket(), t.getTicketEtag()));
+	}
+
+	/** As in BookingServiceImpl: rendered and kept by the first download that gets the flight. */
+	@Override
+	public Mono<RenderedTicket> getDownload(String pnr) {
+		return storedTicket(pnr).flatMap(stored -> {
+			if (stored.getDownload() != null) {
+				return Mono.just(new RenderedTicket(stored.getDownload(), stored.getDownloadEtag()));
+			}
+			return findByPnr(pnr).flatMap(b -> getFlight(b.getFlightId())
+					.flatMap(flight -> {
+						byte[] download = BookingRules.render(BookingRules.ticket(b, flight));
+						String etag = BookingRules.etag(download);
+						return db.sql(BookingTicketRepository.STORE_DOWNLOAD).bind("download", download)
+								.bind("etag", etag).bind("bookingId", stored.getBookingId()).then()
+								.thenReturn(new RenderedTicket(download, etag));
+					})
+					.switchIfEmpty(Mono.fromSupplier(() -> {
+						byte[] download = BookingRules.render(BookingRules.ticket(b, null));
+						return new RenderedTicket(download, BookingRules.etag(download));
+					})));
+		});
+	}
+
+	/** Bookings made before tickets were stored get theirs on first use. */
+	private Mono<BookingTicket> storedTicket(String pnr) {
+		Mono<BookingTicket> backfill = findByPnr(pnr).flatMap(b -> {
+			BookingTicket ticket = BookingRules.bookingTicket(b.getId(), b);
+			return insertTicket(ticket).thenReturn(ticket)
+					.onErrorResume(DataIntegrityViolationException.class, e -> findTicket(pnr));
+		});
+		return findTicket(pnr).switchIfEmpty(backfill);
+	}
+
+	private Mono<BookingTicket> findTicket(String pnr) {
+		return db.sql(BookingTicketRepository.FIND_BY_PNR).bind("pnr", pnr)
+				.map(row -> new BookingTicket(row.get("booking_id", Long.class), row.get("pnr", String.class),
+						row.get("ticket", byte[].class), row.get("ticket_etag", String.class),
+						row.get("download", byte[].class), row.get("download_etag", String.class)))
+				.one();
+	}
+
+	private Mono<Void> insertTicket(BookingTicket t) {
+		return db.sql(BookingTicketRepository.INSERT).bind("bookingId", t.getBookingId())
+				.bind("pnr", t.getPnr()).bind("ticket", t.getTicket()).bind("etag", t.getTicketEtag()).then();
+	}
+
+	/** Like FlightGateway.getFlight: a ticket without flight details beats no ticket. */
+	private Mono<FlightSnapshot> getFlight(Long flightId) {
+		return flightService.get().uri("/api/flight/snapshot/{id}", flightId).retrieve()
+				.bodyToMono(FlightSnapshot.class)
+				.onErrorResume(e -> {
+					log.error("Flight service unavailable for flightId={}, error={}", flightId, e.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	private Mono<FlightAvailability> getAvailability(Long flightId) {
+		return flightService.get().uri("/api/flight/get/{id}", flightId).retrieve()
+				.bodyToMono(FlightAvailability.class)
+				.onErrorResume(e -> {
+					log.error("Flight service unavailable for flightId={}, error={}", flightId, e.getMessage());
+					return Mono.empty();
+				});
+	}
+
+	private Mono<Booking> findByPnr(String pnr) {
+		return db.sql(BookingRepository.FIND_BY_PNR).bind("pnr", pnr)
+				.map(ReactiveBookingServiceImpl::booking).first()
+				.switchIfEmpty(Mono.error(new BookingException("PNR not found")));
+	}
+
+	private Mono<Long> insertBooking(Booking b) {
+		GenericExecuteSpec insert = db.sql(BookingRepository.INSERT);
+		insert = bind(insert, "pnr", b.getPnr(), String.class);
+		insert = bind(insert, "email", b.getEmail(), String.class);
+		insert = bind(insert, "passengers", b.getPassengerDetails(), String.class);
+		insert = bind(insert, "seats", b.getSeats(), Integer.class);
+		insert = bind(insert, "flightId", b.getFlightId(), Long.class);
+		insert = bind(insert, "bookedAt", b.getBookedAt(), LocalDateTime.class);
+		insert = bind(insert, "status", b.getStatus(), String.class);
+		insert = bind(insert, "amount", b.getAmount(), Double.class);
+		insert = bind(insert, "ticketJson", b.getTicketJson(), String.class);
+		insert = bind(insert, "journeyDate", b.getJourneyDate(), LocalDate.class);
+		insert = bind(insert, "seatType", b.getSeatType(), String.class);
+		insert = bind(insert, "seatNumbers", b.getSeatNumbers(), String.class);
+		return insert.filter(s -> s.returnGeneratedValues("id")).map(row -> row.get(0, Long.class)).one();
+	}
+
+	private Mono<Void> insertPassenger(Passenger p) {
+		return db.sql(PassengerRepository.INSERT).bind("bookingId", p.getBookingId())
+				.bind("flightId", p.getFlightId()).bind("position", p.getPosition()).bind("name", p.getName())
+				.bind("gender", p.getGender()).bind("age", p.getAge()).then();
+	}
+
+	private Mono<Long> insertOutbox(OutboxEvent e) {
+		GenericExecuteSpec insert = db.sql(OutboxRepository.INSERT)
+				.bind("bookingId", e.getBookingId()).bind("type", e.getType()).bind("flightId", e.getFlightId())
+				.bind("seats", e.getSeats()).bind("key", e.getIdempotencyKey()).bind("status", e.getStatus())
+				.bind("attempts", e.getAttempts()).bind("nextAttemptAt", e.getNextAttemptAt())
+				.bind("createdAt", e.getCreatedAt());
+		insert = bind(insert, "seatType", e.getSeatType(), String.class);
+		insert = bind(insert, "seatNumbers", e.getSeatNumbers(), String.class);
+		return insert.filter(s -> s.returnGeneratedValues("id")).map(row -> row.get(0, Long.class)).one();
+	}
+
+	/** Hands a committed outbox step to the relay; without a transaction the listener runs at once. */
+	private void relay(Long eventId) {
+		events.publishEvent(new OutboxEventCreated(eventId));
+	}
+
+	private static <T> GenericExecuteSpec bind(GenericExecuteSpec spec, String name, T value, Class<T> type) {
+		return value == null ? spec.bindNull(name, type) : spec.bind(name, value);
+	}
+
+	private static BookingSummary summary(Readable row) {
+		return new BookingSummary(row.get("id", Long.class), row.get("pnr", String.class),
+				row.get("flight_id", Long.class), row.get("seats", Integer.class), row.get("status", String.class),
+				row.get("amount", Double.class), row.get("journey_date", LocalDate.class),
+				row.get("booked_at", LocalDateTime.class));
+	}
+
+	private static Booking booking(Readable row) {
+		return new Booking(row.get("id", Long.class), row.get("pnr", String.class), row.get("email", String.class),
+				row.get("passenger_details", String.class), row.get("seats", Integer.class),
+				row.get("flight_id", Long.class), row.get("booked_at", LocalDateTime.class),
+				row.get("status", String.class), row.get("amount", Double.class), row.get("ticket_json", String.class),
+				row.get("journey_date", LocalDate.class), row.get("seat_type", String.class),
+				row.get("seat_numbers", String.class));
+	}
+}
@@ -0,0 +1,170 @@
+package com.flightapp.bookingservice.cancellation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({ FlightCancellationJob.class, FlightLoadTracker.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightCancellationJobTest {
+
+	private static final long FLIGHT = 1L;
+
+	@Autowired
+	private FlightCancellationJob job;
+
+	@Autowired
+	private FlightLoadTracker tracker;
+
+	@Autowired
+	private JdbcTemplate jdbc;
+
+	@Autowired
+	private BookingRepository bookings;
+
+	@Autowired
+	private OutboxRepository outbox;
+
+	@Autowired
+	private FlightLoadRepository loads;
+
+	@AfterEach
+	void cleanup() {
+		outbox.deleteAll();
+		jdbc.update("DELETE FROM bookings");
+		loads.deleteAll();
+	}
+
+	@Test
+	void testCancelsEveryBookingAcrossBatches() {
+		cancelAll(2_500);
+	}
+
+	/** Run with {@code mvn test -Pbenchmark}. */
+	@Test
+	@Tag("benchmark")
+	void testCancelsAHundredThousandBookingsInSeconds() {
+		Duration took = cancelAll(100_000);
+
+		// a few seconds on a laptop; the bound leaves room for a busy single-CPU build agent
+		assertTrue(took.compareTo(Duration.ofSeconds(45)) < 0, "took " + took);
+	}
+
+	@Test
+	void testLeavesClosedBookingsAndClosesPendingSeatSteps() {
+		Booking pending = booking("P1", "PENDING");
+		booking("P2", "BOOKED");
+		booking("P3", "FAILED");
+		booking("P4", "CANCELLED");
+		outbox.save(OutboxEvent.reserve(pending));
+
+		FlightCancellationProgress progress = new FlightCancellationProgress(FLIGHT);
+		job.run(progress);
+
+		assertEquals(2, progress.getTotal());
+		assertEquals(2, progress.getCancelled());
+		assertNotNull(progress.getFinishedAt());
+		assertEquals("FAILED", bookings.findByPnr("P3").getStatus());
+		OutboxEvent event = outbox.findAll().get(0);
+		assertEquals("DONE", event.getStatus());
+		assertEquals("Flight cancelled", event.getLastError());
+		// no RELEASE_SEATS step is queued for a flight that no longer flies
+		assertEquals(1, outbox.count());
+	}
+
+	@Test
+	void testStartRunsInTheBackgroundAndIsNotStartedTwice() throws Exception {
+		insert(FLIGHT, 5_000, "BOOKED");
+
+		FlightCancellationProgress progress = job.start(FLIGHT);
+		FlightCancellationProgress again = job.start(FLIGHT);
+		if (progress.isRunning()) {
+			assertSame(progress, again);
+		}
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (job.progress(FLIGHT).isRunning() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(20);
+		}
+
+		assertEquals(FlightCancellationProgress.DONE, job.progress(FLIGHT).getStatus());
+		assertEquals(0, open(FLIGHT));
+		assertEquals(null, job.progress(3L));
+	}
+
+	private Duration cancelAll(int count) {
+		insert(FLIGHT, count, "BOOKED");
+		insert(2L, 10, "BOOKED");
+		tracker.track(FLIGHT);
+
+		FlightCancellationProgress progress = new FlightCancellationProgress(FLIGHT);
+		long began = System.nanoTime();
+		job.run(progress);
+		Duration took = Duration.ofNanos(System.nanoTime() - began);
+
+		assertEquals(FlightCancellationProgress.DONE, progress.getStatus());
+		assertEquals(count, progress.getTotal());
+		assertEquals(count, progress.getCancelled());
+		assertEquals(0, open(FLIGHT));
+		assertEquals(10, open(2L));
+
+		FlightLoadTotals load = tracker.get(FLIGHT);
+		assertEquals(0, load.bookings());
+		assertEquals(0, load.bookedSeats());
+		assertEquals(count, load.cancelledSeats());
+		return took;
+	}
+
+	private Booking booking(String pnr, String status) {
+		Booking b = new Booking();
+		b.setPnr(pnr);
+		b.setEmail("cancel@gmail.com");
+		b.setFlightId(FLIGHT);
+		b.setSeats(1);
+		b.setStatus(status);
+		return bookings.save(b);
+	}
+
+	private void insert(long flightId, int count, String status) {
+		List<Object[]> rows = new ArrayList<>(count);
+		LocalDateTime now = LocalDateTime.now();
+		for (int i = 0; i < count; i++) {
+			rows.add(new Object[] { "PNR-" + flightId + "-" + i, "cancel@gmail.com", 1, flightId, status, now });
+		}
+		jdbc.batchUpdate("INSERT INTO bookings (pnr, email, seats, flight_id, status, booked_at) VALUES (?, ?, ?, ?, ?, ?)",
+				rows);
+	}
+
+	private int open(long flightId) {
+		return jdbc.queryForObject(
+				"SELECT COUNT(*) FROM bookings WHERE flight_id = ? AND status IN ('PENDING', 'BOOKED')", Integer.class,
+				flightId);
+	}
+}
@@ -1,20 +1,34 @@
 package com.flightapp.bookingservice.controller;
 
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
 import com.flightapp.bookingservice.dto.BookingRequest;
-import com.flightapp.bookingservice.dto.TicketResponse;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
 import com.flightapp.bookingservice.service.BookingService;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingControllerTest {
@@ -27,44 +41,120 @@ class BookingControllerTest {
 
 	@Test
 	void testBookSuccess() {
-		BookingRequest req = new BookingRequest("a@gmail.com", 1, "John:M:20", 100.0, LocalDate.now().plusDays(1));
+		BookingRequest req = new BookingRequest("a@gmail.com", 1, "John:M:20", 100.0, LocalDate.now().plusDays(1), null, null);
 		Booking booking = new Booking();
 		booking.setPnr("PNR1");
-		when(service.bookTicket(1L, req)).thenReturn(booking);
-		ResponseEntity<String> resp = controller.book(1L, req);
+		when(service.bookTicket(1L, req, null)).thenReturn(booking);
+		ResponseEntity<String> resp = controller.book(1L, req, null);
 		assertEquals(201, resp.getStatusCode().value());
 		assertEquals("PNR1", resp.getBody());
 	}
 
 	@Test
 	void testBookFailure() {
-		BookingRequest req = new BookingRequest("a@gmail.com", 1, "John:M:20", 100.0, LocalDate.now().plusDays(1));
-		when(service.bookTicket(1L, req)).thenThrow(new RuntimeException("err"));
-		ResponseEntity<String> resp = controller.book(1L, req);
+		BookingRequest req = new BookingRequest("a@gmail.com", 1, "John:M:20", 100.0, LocalDate.now().plusDays(1), null, null);
+		when(service.bookTicket(1L, req, null)).thenThrow(new RuntimeException("err"));
+		ResponseEntity<String> resp = controller.book(1L, req, null);
 		assertEquals(400, resp.getStatusCode().value());
 		assertEquals("err", resp.getBody());
 	}
 
+	@Test
+	void testBookPassesIdempotencyKey() {
+		BookingRequest req = new BookingRequest("a@gmail.com", 1, "John:M:20", 100.0, LocalDate.now().plusDays(1), null, null);
+		Booking booking = new Booking();
+		booking.setPnr("PNR1");
+		when(service.bookTicket(1L, req, "key-1")).thenReturn(booking);
+		ResponseEntity<String> resp = controller.book(1L, req, "key-1");
+		assertEquals(201, resp.getStatusCode().value());
+		assertEquals("PNR1", resp.getBody());
+	}
+
 	@Test
 	void testHistory() {
-		when(service.getHistory("a@gmail.com")).thenReturn(List.of(new Booking()));
-		ResponseEntity<List<Booking>> resp = controller.history("a@gmail.com");
+		when(service.getHistory("a@gmail.com", null, null))
+				.thenReturn(new BookingHistoryResult(List.of(new BookingSummary()), "next"));
+		ResponseEntity<List<BookingSummary>> resp = controller.history("a@gmail.com", null, null);
 		assertEquals(1, resp.getBody().size());
+		assertEquals("next", resp.getHeaders().getFirst("X-Next-Cursor"));
+	}
+
+	@Test
+	void testHistoryLastPageHasNoCursor() {
+		when(service.getHistory("a@gmail.com", 5, "c1")).thenReturn(new BookingHistoryResult(List.of(), null));
+		ResponseEntity<List<BookingSummary>> resp = controller.history("a@gmail.com", 5, "c1");
+		assertFalse(resp.getHeaders().containsKey("X-Next-Cursor"));
+	}
+
+	@Test
+	void testStreamHistory() throws Exception {
+		doAnswer(inv -> {
+			inv.<OutputStream>getArgument(1).write(bytes("{}\n"));
+			return null;
+		}).when(service).streamHistory(eq("a@gmail.com"), any());
+		ResponseEntity<StreamingResponseBody> resp = controller.streamHistory("a@gmail.com");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		resp.getBody().writeTo(out);
+		assertEquals(MediaType.APPLICATION_NDJSON, resp.getHeaders().getContentType());
+		assertEquals("{}\n", out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testManifest() {
+		when(service.getManifest(1L)).thenReturn(List.of(new ManifestEntry("PNR1", "John", "M", 20)));
+		ResponseEntity<List<ManifestEntry>> resp = controller.manifest(1L);
+		assertEquals(200, resp.getStatusCode().value());
+		assertEquals("John", resp.getBody().get(0).getName());
+	}
+
+	@Test
+	void testLoad() {
+		FlightLoadReport report = new FlightLoadReport(1L, 3, 6, 0, 0, 18, 0.25, null);
+		when(service.getFlightLoad(1L)).thenReturn(report);
+		when(service.rebuildFlightLoad(1L)).thenReturn(report);
+		assertSame(report, controller.load(1L).getBody());
+		assertSame(report, controller.rebuildLoad(1L).getBody());
+	}
+
+	@Test
+	void testCancelFlight() {
+		FlightCancellationProgress progress = new FlightCancellationProgress(1L);
+		when(service.cancelFlight(1L)).thenReturn(progress);
+		when(service.getFlightCancellation(1L)).thenReturn(progress);
+		ResponseEntity<FlightCancellationProgress> resp = controller.cancelFlight(1L);
+		assertEquals(202, resp.getStatusCode().value());
+		assertSame(progress, resp.getBody());
+		assertSame(progress, controller.flightCancellation(1L).getBody());
 	}
 
 	@Test
 	void testGetTicketSuccess() {
-		when(service.getTicketJson("PNR1")).thenReturn("json");
-		ResponseEntity<String> resp = controller.getTicket("PNR1");
-		assertEquals("json", resp.getBody());
+		when(service.getTicket("PNR1")).thenReturn(new RenderedTicket(bytes("{}"), "\"t1\""));
+		ResponseEntity<byte[]> resp = controller.getTicket("PNR1");
+		assertEquals("{}", new String(resp.getBody(), StandardCharsets.UTF_8));
+		assertEquals("\"t1\"", resp.getHeaders().getETag());
+		assertEquals(MediaType.APPLICATION_JSON, resp.getHeaders().getContentType());
 	}
 
 	@Test
 	void testGetTicketFailure() {
-		when(service.getTicketJson("PNR1")).thenThrow(new RuntimeException("not found"));
-		ResponseEntity<String> resp = controller.getTicket("PNR1");
+		when(service.getTicket("PNR1")).thenThrow(new RuntimeException("not found"));
+		ResponseEntity<byte[]> resp = controller.getTicket("PNR1");
 		assertEquals(400, resp.getStatusCode().value());
-		assertEquals("not found", resp.getBody());
+		assertEquals("not found", new String(resp.getBody(), StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testGetTicketNotModified() throws Exception {
+		when(service.getTicket("PNR1")).thenReturn(new RenderedTicket(bytes("{}"), "\"t1\""));
+		MockMvc mvc = MockMvcBuilders.standaloneSetup(controller).build();
+
+		mvc.perform(get("/api/flight/booking/ticket/PNR1")).andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"t1\"")).andExpect(content().string("{}"));
+		mvc.perform(get("/api/flight/booking/ticket/PNR1").header("If-None-Match", "\"t1\""))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+		mvc.perform(get("/api/flight/booking/ticket/PNR1").header("If-None-Match", "\"t0\""))
+				.andExpect(status().isOk());
 	}
 
 	@Test
@@ -82,16 +172,20 @@ class BookingControllerTest {
 
 	@Test
 	void testDownloadSuccess() {
-		TicketResponse t = new TicketResponse("P", "e", "d", 1, 1L, new Object(), "j");
-		when(service.downloadTicket("P")).thenReturn(t);
-		ResponseEntity<TicketResponse> resp = controller.download("P");
-		assertEquals("P", resp.getBody().getPnr());
+		when(service.getDownload("P")).thenReturn(new RenderedTicket(bytes("{\"pnr\":\"P\"}"), "\"d1\""));
+		ResponseEntity<byte[]> resp = controller.download("P");
+		assertEquals("{\"pnr\":\"P\"}", new String(resp.getBody(), StandardCharsets.UTF_8));
+		assertEquals("\"d1\"", resp.getHeaders().getETag());
 	}
 
 	@Test
 	void testDownloadFailure() {
-		when(service.downloadTicket("P")).thenThrow(new RuntimeException());
-		ResponseEntity<TicketResponse> resp = controller.download("P");
+		when(service.getDownload("P")).thenThrow(new RuntimeException());
+		ResponseEntity<byte[]> resp = controller.download("P");
 		assertEquals(400, resp.getStatusCode().value());
 	}
+
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
 }
@@ -15,7 +15,7 @@ class BookingEntityConstructorTest {
 		LocalDateTime bt = LocalDateTime.now();
 
 		Booking b = new Booking(10L, "PNR-TEST12", "test@gmail.com", "John:M:25;Doe:F:22", 2, 7L, bt, "BOOKED", 5000.0,
-				"{\"x\":1}", jd);
+				"{\"x\":1}", jd, null, null);
 
 		assertEquals(10L, b.getId());
 		assertEquals("PNR-TEST12", b.getPnr());
@@ -0,0 +1,119 @@
+package com.flightapp.bookingservice.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.cloud.openfeign.support.SpringDecoder;
+import org.springframework.cloud.openfeign.support.SpringEncoder;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import com.flightapp.bookingservice.dto.SeatBatchRequest;
+import com.flightapp.bookingservice.dto.SeatUpdate;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Feign;
+
+/**
+ * Runs FlightClient against a stub flight-service that charges a fixed cost
+ * per request, standing in for one HTTP round trip plus one transaction, and
+ * compares N single-flight updates with one batch call. The comparison runs
+ * with {@code mvn test -Pbenchmark}.
+ */
+class FlightClientBatchBenchmarkTest {
+
+	private static final int LEGS = 8;
+	private static final int ITINERARIES = 25;
+	private static final long REQUEST_COST_MS = 2;
+
+	private HttpServer server;
+	private FlightClient client;
+	private final AtomicInteger requests = new AtomicInteger();
+	private volatile String lastBody;
+
+	@BeforeEach
+	void setup() throws IOException {
+		// without it delayed ACKs add ~40ms to every small exchange and swamp the comparison
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		server.createContext("/api/flight/update-seats", this::handle);
+		server.start();
+
+		HttpMessageConverters converters = new HttpMessageConverters();
+		client = Feign.builder().contract(new SpringMvcContract()).encoder(new SpringEncoder(() -> converters))
+				.decoder(new SpringDecoder(() -> converters))
+				.target(FlightClient.class, "http://localhost:" + server.getAddress().getPort());
+	}
+
+	@AfterEach
+	void cleanup() {
+		server.stop(0);
+	}
+
+	@Test
+	void testBatchIsOneRequest() {
+		SeatBatchRequest batch = new SeatBatchRequest(List.of(new SeatUpdate(1L, -2), new SeatUpdate(2L, 1)));
+
+		assertEquals("Seats Updated", client.updateSeats(batch));
+		assertEquals(1, requests.get());
+		assertTrue(lastBody.contains("\"flightId\":1") && lastBody.contains("\"flightId\":2"), lastBody);
+	}
+
+	@Test
+	@Tag("benchmark")
+	void testBatchCallBeatsSingleCalls() {
+		long began = System.nanoTime();
+		for (int i = 0; i < ITINERARIES; i++) {
+			for (long flightId = 1; flightId <= LEGS; flightId++) {
+				assertEquals("Seats Updated", client.updateSeats(flightId, 1));
+			}
+		}
+		long single = System.nanoTime() - began;
+		int singleRequests = requests.getAndSet(0);
+
+		began = System.nanoTime();
+		for (int i = 0; i < ITINERARIES; i++) {
+			List<SeatUpdate> updates = new ArrayList<>();
+			for (long flightId = 1; flightId <= LEGS; flightId++) {
+				updates.add(new SeatUpdate(flightId, -1));
+			}
+			assertEquals("Seats Updated", client.updateSeats(new SeatBatchRequest(updates)));
+		}
+		long batch = System.nanoTime() - began;
+		int batchRequests = requests.get();
+
+		assertEquals(LEGS * ITINERARIES, singleRequests);
+		assertEquals(ITINERARIES, batchRequests);
+		assertTrue(batch < single, "one round trip per itinerary must beat one per leg");
+	}
+
+	private void handle(HttpExchange exchange) throws IOException {
+		requests.incrementAndGet();
+		lastBody = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+		try {
+			Thread.sleep(REQUEST_COST_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+
+		byte[] body = "Seats Updated".getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", "text/plain");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
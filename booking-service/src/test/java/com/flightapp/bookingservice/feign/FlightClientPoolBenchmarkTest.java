@@ -0,0 +1,162 @@
+package com.flightapp.bookingservice.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import com.flightapp.bookingservice.config.FlightClientConfig;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import feign.Client;
+import feign.Feign;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Seat updates from many threads at once, through Feign's default client (an
+ * HttpURLConnection per call, of which the JDK keeps at most five idle per
+ * host) and through the pooled client. The stub counts the TCP connections it
+ * is opened, by client port. The JDK's own keep-alive already saves most
+ * connects at this concurrency, so what the pool adds is a hard bound, one
+ * connection per concurrent caller at most, and gauges for it. Time is not
+ * measured: loopback connects are cheap next to scheduling noise. The
+ * comparison runs with {@code mvn test -Pbenchmark}.
+ */
+class FlightClientPoolBenchmarkTest {
+
+	private static final int THREADS = 32;
+	private static final int CALLS_PER_THREAD = 50;
+	private static final long SERVICE_MS = 2;
+	private static final byte[] OK = "Seats updated".getBytes(StandardCharsets.UTF_8);
+
+	private static HttpServer flightService;
+	private static final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+
+	private final FlightClientConfig config = new FlightClientConfig();
+
+	@BeforeAll
+	static void startFlightService() throws IOException {
+		flightService = HttpServer.create(new InetSocketAddress("localhost", 0), 4 * THREADS);
+		flightService.setExecutor(Executors.newFixedThreadPool(THREADS));
+		flightService.createContext("/api/flight", FlightClientPoolBenchmarkTest::respond);
+		flightService.start();
+	}
+
+	@AfterAll
+	static void stopFlightService() {
+		flightService.stop(0);
+	}
+
+	@Test
+	void testPoolKeepsOneConnectionPerCaller() throws Exception {
+		PoolingHttpClientConnectionManager pool = pool();
+		try (CloseableHttpClient http = config.flightServiceHttpClient(pool, Duration.ofSeconds(2),
+				Duration.ofSeconds(20))) {
+			run(client(new ApacheHttp5Client(http)), 4, 10);
+			int pooledConnections = connections.size();
+
+			assertTrue(pooledConnections <= 4, "at most one connection per caller, got " + pooledConnections);
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			config.flightServicePoolMetrics(pool).bindTo(registry);
+			assertEquals(pooledConnections, registry.get("httpcomponents.httpclient.pool.total.connections")
+					.tag("state", "available").gauge().value());
+		}
+	}
+
+	@Test
+	@Tag("benchmark")
+	void testPooledClientReusesConnections() throws Exception {
+		FlightClient unpooled = client(new Client.Default(null, null));
+		run(unpooled, THREADS, CALLS_PER_THREAD);
+		int unpooledConnections = connections.size();
+
+		PoolingHttpClientConnectionManager pool = pool();
+		try (CloseableHttpClient http = config.flightServiceHttpClient(pool, Duration.ofSeconds(2),
+				Duration.ofSeconds(20))) {
+			FlightClient pooled = client(new ApacheHttp5Client(http));
+			run(pooled, THREADS, CALLS_PER_THREAD);
+			int pooledConnections = connections.size();
+
+			assertTrue(pooledConnections <= THREADS, "at most one connection per caller, got " + pooledConnections);
+			assertTrue(pooledConnections <= unpooledConnections,
+					"the pool must not open more connections than the default client");
+
+			SimpleMeterRegistry registry = new SimpleMeterRegistry();
+			config.flightServicePoolMetrics(pool).bindTo(registry);
+			assertEquals(200, registry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+			assertEquals(pooledConnections, registry.get("httpcomponents.httpclient.pool.total.connections")
+					.tag("state", "available").gauge().value());
+		}
+	}
+
+	private PoolingHttpClientConnectionManager pool() {
+		return config.flightServiceConnections(200, 100, Duration.ofSeconds(2), Duration.ofSeconds(5),
+				Duration.ofMinutes(5), Duration.ofSeconds(2));
+	}
+
+	/** Warms the client up, forgets those connections, then makes the calls. */
+	private static void run(FlightClient client, int threads, int perThread) throws Exception {
+		calls(client, threads, 1);
+		connections.clear();
+		calls(client, threads, perThread);
+	}
+
+	private static void calls(FlightClient client, int threads, int perThread) throws Exception {
+		ExecutorService callers = Executors.newFixedThreadPool(threads);
+		List<Future<?>> done = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			done.add(callers.submit(() -> {
+				for (int i = 0; i < perThread; i++) {
+					assertEquals("Seats updated", client.updateSeats(10L, 1));
+				}
+			}));
+		}
+		for (Future<?> f : done) {
+			f.get();
+		}
+		callers.shutdown();
+	}
+
+	private FlightClient client(Client http) {
+		String url = "http://localhost:" + flightService.getAddress().getPort();
+		return Feign.builder().client(http).contract(new SpringMvcContract())
+				.options(config.flightServiceRequestOptions(Duration.ofSeconds(2), Duration.ofSeconds(5)))
+				.target(FlightClient.class, url);
+	}
+
+	private static void respond(HttpExchange exchange) throws IOException {
+		connections.add(exchange.getRemoteAddress().getPort());
+		exchange.getRequestBody().readAllBytes();
+		try {
+			// long enough for the callers to overlap, as they do against a real flight-service
+			Thread.sleep(SERVICE_MS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		exchange.sendResponseHeaders(200, OK.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(OK);
+		}
+	}
+}
@@ -0,0 +1,82 @@
+package com.flightapp.bookingservice.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.aop.AopAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+
+import io.github.resilience4j.springboot3.circuitbreaker.autoconfigure.CircuitBreakerAutoConfiguration;
+
+class FlightGatewayTest {
+
+	private final FlightClient client = mock(FlightClient.class);
+	private final SingleFlight reads = new SingleFlight();
+
+	/** The call only returns once all eight callers have arrived, so they all share it. */
+	@Test
+	void testConcurrentLookupsOfOneFlightShareTheCall() throws Exception {
+		FlightGateway gateway = new FlightGateway(client, reads);
+		FlightSnapshot flight = new FlightSnapshot();
+		when(client.getFlight(10L)).thenAnswer(inv -> {
+			for (int i = 0; i < 500 && reads.calls() < 8; i++) {
+				Thread.sleep(10);
+			}
+			return flight;
+		});
+
+		ExecutorService callers = Executors.newFixedThreadPool(8);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<FlightSnapshot>> lookups = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			lookups.add(callers.submit(() -> {
+				go.await();
+				return gateway.getFlight(10L);
+			}));
+		}
+		go.countDown();
+		for (Future<FlightSnapshot> f : lookups) {
+			assertSame(flight, f.get());
+		}
+		callers.shutdown();
+
+		verify(client, times(1)).getFlight(10L);
+		assertEquals(8, reads.calls());
+		assertEquals(1, reads.loads());
+	}
+
+	/** Through the Spring proxy, as BookingServiceImpl calls it. */
+	@Test
+	void testFlightServiceErrorsFallBackToNull() {
+		when(client.getFlight(10L)).thenThrow(new IllegalStateException("connection refused"));
+		when(client.getAvailability(10L)).thenThrow(new IllegalStateException("connection refused"));
+
+		new ApplicationContextRunner()
+				.withConfiguration(AutoConfigurations.of(AopAutoConfiguration.class,
+						CircuitBreakerAutoConfiguration.class))
+				.withBean(FlightClient.class, () -> client)
+				.withBean(SingleFlight.class, () -> reads)
+				.withUserConfiguration(FlightGateway.class)
+				.run(context -> {
+					FlightGateway gateway = context.getBean(FlightGateway.class);
+					assertNull(gateway.getFlight(10L));
+					assertNull(gateway.getAvailability(10L));
+				});
+	}
+}
@@ -0,0 +1,115 @@
+package com.flightapp.bookingservice.feign;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+import com.flightapp.bookingservice.dto.TicketResponse;
+
+/**
+ * What a downloadTicket costs on the booking side: decode flight-service's
+ * answer, then serialize the ticket that embeds it. The old path decoded the
+ * whole Flight into a LinkedHashMap and wrote the map back out; the new one
+ * decodes the snapshot straight into its DTO. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FlightSnapshotBenchmarkTest {
+
+	private static final byte[] FLIGHT_JSON = ("{\"id\":10,\"airlineName\":\"Indigo\",\"airlineCode\":\"6E\","
+			+ "\"fromPlace\":\"HYD\",\"toPlace\":\"BLR\",\"departureDateTime\":\"2025-12-01T10:00:00\","
+			+ "\"arrivalDateTime\":\"2025-12-01T12:00:00\",\"price\":3000.0,\"availableSeats\":180}")
+			.getBytes(StandardCharsets.UTF_8);
+
+	private static final byte[] SNAPSHOT_JSON = ("{\"id\":10,\"airlineName\":\"Indigo\",\"airlineCode\":\"6E\","
+			+ "\"fromPlace\":\"HYD\",\"toPlace\":\"BLR\",\"departureDateTime\":\"2025-12-01T10:00:00\","
+			+ "\"arrivalDateTime\":\"2025-12-01T12:00:00\",\"price\":3000.0}").getBytes(StandardCharsets.UTF_8);
+
+	// same defaults as the converters Feign decodes with
+	private final ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+
+	@Benchmark
+	public byte[] untypedFlight() throws IOException {
+		Object flight = mapper.readValue(FLIGHT_JSON, Object.class);
+		return mapper.writeValueAsBytes(new UntypedTicket("PNR1", 10L, flight));
+	}
+
+	@Benchmark
+	public byte[] flightSnapshot() throws IOException {
+		FlightSnapshot flight = mapper.readValue(SNAPSHOT_JSON, FlightSnapshot.class);
+		TicketResponse ticket = new TicketResponse();
+		ticket.setPnr("PNR1");
+		ticket.setFlightId(10L);
+		ticket.setFlightDetails(flight);
+		return mapper.writeValueAsBytes(ticket);
+	}
+
+	@Test
+	void testSnapshotTicketCarriesTheFlight() throws IOException {
+		JsonNode ticket = mapper.readTree(flightSnapshot());
+
+		assertEquals("PNR1", ticket.get("pnr").asText());
+		assertEquals("6E", ticket.at("/flightDetails/airlineCode").asText());
+		assertEquals(3000.0, ticket.at("/flightDetails/price").asDouble());
+		assertEquals(mapper.readTree(untypedFlight()).at("/flightDetails/departureDateTime"),
+				ticket.at("/flightDetails/departureDateTime"));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void testSnapshotAllocatesLessPerTicket() throws RunnerException {
+		Options options = new OptionsBuilder().include(getClass().getName() + "\\.")
+				.forks(0)
+				.warmupIterations(2).warmupTime(TimeValue.milliseconds(300))
+				.measurementIterations(3).measurementTime(TimeValue.milliseconds(300))
+				.addProfiler(GCProfiler.class)
+				.verbosity(VerboseMode.SILENT)
+				.build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		double untypedBytes = allocated(results, "untypedFlight");
+		double snapshotBytes = allocated(results, "flightSnapshot");
+
+		assertTrue(snapshotBytes < untypedBytes, "the typed snapshot must allocate less per ticket");
+	}
+
+	private static RunResult result(Collection<RunResult> results, String benchmark) {
+		return results.stream().filter(r -> r.getParams().getBenchmark().endsWith("." + benchmark)).findFirst()
+				.orElseThrow();
+	}
+
+	private static double allocated(Collection<RunResult> results, String benchmark) {
+		return result(results, benchmark).getSecondaryResults().get("gc.alloc.rate.norm").getScore();
+	}
+
+	/** TicketResponse as it was, with the flight left as whatever Jackson made of it. */
+	public record UntypedTicket(String pnr, Long flightId, Object flightDetails) {
+	}
+}
@@ -0,0 +1,152 @@
+package com.flightapp.bookingservice.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.FlightLoad;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({ FlightLoadTracker.class, FlightLoadBackfillRunner.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightLoadTrackerTest {
+
+	@Autowired
+	private FlightLoadTracker tracker;
+
+	@Autowired
+	private FlightLoadBackfillRunner backfill;
+
+	@Autowired
+	private FlightLoadRepository loads;
+
+	@Autowired
+	private BookingRepository bookings;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@AfterEach
+	void cleanup() {
+		bookings.deleteAll();
+		loads.deleteAll();
+	}
+
+	@Test
+	void testTrackCountsExistingBookingsOnce() {
+		booking("P1", 1L, 2, "BOOKED");
+		booking("P2", 1L, 3, "PENDING");
+		booking("P3", 1L, 1, "CANCELLED");
+		booking("P4", 1L, 4, "FAILED");
+		booking("P5", 2L, 5, "BOOKED");
+
+		tracker.track(1L);
+		booking("P6", 1L, 1, "BOOKED");
+		tracker.track(1L);
+
+		assertEquals(FlightLoad.SLOTS, loads.findByFlightId(1L).size());
+		FlightLoadTotals load = tracker.get(1L);
+		assertEquals(3, load.pendingSeats());
+		assertEquals(2, load.bookedSeats());
+		assertEquals(1, load.bookings());
+		assertEquals(1, load.cancelledSeats());
+		assertFalse(loads.existsByFlightId(2L));
+	}
+
+	@Test
+	void testStatusChangesMoveTheTotals() {
+		tracker.track(1L);
+		inTransaction(() -> {
+			tracker.booked(1L, 2);
+			tracker.booked(1L, 3);
+		});
+		inTransaction(() -> tracker.confirmed(1L, 2));
+		inTransaction(() -> tracker.refused(1L, 3));
+		for (int i = 0; i < 20; i++) {
+			inTransaction(() -> tracker.booked(1L, 1));
+			inTransaction(() -> tracker.confirmed(1L, 1));
+		}
+		inTransaction(() -> tracker.cancelled(1L, 2));
+
+		FlightLoadTotals load = tracker.get(1L);
+		assertEquals(0, load.pendingSeats());
+		assertEquals(20, load.bookedSeats());
+		assertEquals(20, load.bookings());
+		assertEquals(2, load.cancelledSeats());
+		assertTrue(load.updatedAt() != null);
+		// spread over the slots rather than piled on one row
+		assertTrue(loads.findByFlightId(1L).stream().filter(s -> s.getBookings() != 0).count() > 1);
+	}
+
+	@Test
+	void testUntrackedFlightIsCountedWithoutRows() {
+		booking("P1", 3L, 2, "BOOKED");
+
+		assertEquals(2, tracker.get(3L).bookedSeats());
+		assertNull(tracker.get(3L).updatedAt());
+		assertEquals(0, tracker.get(4L).bookings());
+		assertFalse(loads.existsByFlightId(3L));
+	}
+
+	@Test
+	void testRebuildCorrectsDrift() {
+		booking("P1", 1L, 2, "BOOKED");
+		tracker.track(1L);
+		inTransaction(() -> tracker.booked(1L, 7));
+
+		FlightLoadTotals rebuilt = tracker.rebuild(1L);
+
+		assertEquals(0, rebuilt.pendingSeats());
+		assertEquals(2, rebuilt.bookedSeats());
+		List<FlightLoad> slots = loads.findByFlightId(1L);
+		assertEquals(2, slots.stream().mapToInt(FlightLoad::getBookedSeats).sum());
+		assertEquals(0, slots.stream().mapToInt(FlightLoad::getPendingSeats).sum());
+	}
+
+	@Test
+	void testBackfillTracksEveryBookedFlight() throws Exception {
+		booking("P1", 1L, 2, "BOOKED");
+		booking("P2", 2L, 1, "PENDING");
+		tracker.track(1L);
+		inTransaction(() -> tracker.booked(1L, 1));
+
+		backfill.run(null);
+
+		assertEquals(FlightLoad.SLOTS, loads.findByFlightId(2L).size());
+		assertEquals(1, tracker.get(2L).pendingSeats());
+		// flights already tracked are not recounted
+		assertEquals(1, tracker.get(1L).pendingSeats());
+	}
+
+	private void booking(String pnr, Long flightId, int seats, String status) {
+		Booking b = new Booking();
+		b.setPnr(pnr);
+		b.setEmail("load@gmail.com");
+		b.setFlightId(flightId);
+		b.setSeats(seats);
+		b.setStatus(status);
+		bookings.save(b);
+	}
+
+	private void inTransaction(Runnable work) {
+		new TransactionTemplate(txManager).executeWithoutResult(status -> work.run());
+	}
+}
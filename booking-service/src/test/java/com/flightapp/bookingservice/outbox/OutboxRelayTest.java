@@ -0,0 +1,240 @@
+package com.flightapp.bookingservice.outbox;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.dto.SeatReservationRequest;
+import com.flightapp.bookingservice.dto.SeatResponse;
+import com.flightapp.bookingservice.feign.FlightClient;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+
+@ActiveProfiles("test")
+// the tests drive the relay themselves; keep the poller from claiming their events first
+@DataJpaTest(properties = "booking.outbox.poll-interval-ms=3600000")
+@Import({ OutboxRelay.class, FlightLoadTracker.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+	@Autowired
+	private OutboxRelay relay;
+
+	@Autowired
+	private OutboxRepository outbox;
+
+	@Autowired
+	private BookingRepository bookings;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private FlightLoadTracker loads;
+
+	@Autowired
+	private FlightLoadRepository loadRows;
+
+	@MockBean
+	private FlightClient flightClient;
+
+	@AfterEach
+	void cleanup() {
+		outbox.deleteAll();
+		bookings.deleteAll();
+		loadRows.deleteAll();
+	}
+
+	@Test
+	void testReservedSeatsConfirmBooking() {
+		Booking b = pendingBooking();
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(b));
+		when(flightClient.updateSeats(10L, 2, e.getIdempotencyKey())).thenReturn("Seats Updated");
+
+		relay.run(e.getId());
+
+		assertEquals("BOOKED", bookings.findById(b.getId()).orElseThrow().getStatus());
+		OutboxEvent done = outbox.findById(e.getId()).orElseThrow();
+		assertEquals(OutboxEvent.DONE, done.getStatus());
+		assertEquals(1, done.getAttempts());
+
+		FlightLoadTotals load = loads.get(10L);
+		assertEquals(0, load.pendingSeats());
+		assertEquals(2, load.bookedSeats());
+		assertEquals(1, load.bookings());
+	}
+
+	@Test
+	void testRefusedSeatsFailBooking() {
+		Booking b = pendingBooking();
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(b));
+		when(flightClient.updateSeats(10L, 2, e.getIdempotencyKey())).thenThrow(error(400, "Not Enough Seats"));
+
+		relay.run(e.getId());
+
+		assertEquals("FAILED", bookings.findById(b.getId()).orElseThrow().getStatus());
+		assertEquals(OutboxEvent.DONE, outbox.findById(e.getId()).orElseThrow().getStatus());
+		assertEquals(0, loads.get(10L).pendingSeats());
+		assertEquals(0, loads.get(10L).bookedSeats());
+	}
+
+	@Test
+	void testFlightServiceDownBacksOff() {
+		Booking b = pendingBooking();
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(b));
+		when(flightClient.updateSeats(10L, 2, e.getIdempotencyKey())).thenThrow(error(503, "down"));
+
+		relay.run(e.getId());
+
+		OutboxEvent pending = outbox.findById(e.getId()).orElseThrow();
+		assertEquals(OutboxEvent.PENDING, pending.getStatus());
+		assertEquals(1, pending.getAttempts());
+		assertNotNull(pending.getLastError());
+		assertTrue(pending.getNextAttemptAt().isAfter(LocalDateTime.now()));
+		assertTrue(outbox.findDue(LocalDateTime.now(), PageRequest.of(0, 10)).isEmpty());
+		assertEquals("PENDING", bookings.findById(b.getId()).orElseThrow().getStatus());
+
+		reset(flightClient);
+		when(flightClient.updateSeats(10L, 2, e.getIdempotencyKey())).thenReturn("Seats Updated");
+		relay.run(e.getId());
+		assertEquals("BOOKED", bookings.findById(b.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void testSeatsForAVanishedBookingAreReleased() {
+		Booking b = pendingBooking();
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(b));
+		b.setStatus("CANCELLED");
+		bookings.save(b);
+		when(flightClient.updateSeats(10L, 2, e.getIdempotencyKey())).thenReturn("Seats Updated");
+
+		relay.run(e.getId());
+
+		List<Long> due = outbox.findDue(LocalDateTime.now(), PageRequest.of(0, 10));
+		assertEquals(1, due.size());
+		OutboxEvent compensation = outbox.findById(due.get(0)).orElseThrow();
+		assertEquals(OutboxEvent.RELEASE_SEATS, compensation.getType());
+		assertEquals(e.getIdempotencyKey() + ":release", compensation.getIdempotencyKey());
+
+		when(flightClient.rollbackSeats(10L, 2, compensation.getIdempotencyKey())).thenReturn("Seats Rolled Back");
+		relay.run(compensation.getId());
+		assertEquals(OutboxEvent.DONE, outbox.findById(compensation.getId()).orElseThrow().getStatus());
+		assertEquals("CANCELLED", bookings.findById(b.getId()).orElseThrow().getStatus());
+	}
+
+	@Test
+	void testBookingOfASeatTypeKeepsTheSeatsAssigned() {
+		Booking b = pendingBooking();
+		b.setSeatType("BUSINESS");
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(bookings.save(b)));
+		when(flightClient.reserveSeats(eq(10L), argThat(r -> "BUSINESS".equals(r.getSeatType()) && r.getCount() == 2),
+				eq(e.getIdempotencyKey()))).thenReturn(
+						List.of(new SeatResponse(1L, "1A", "BUSINESS", true), new SeatResponse(2L, "1B", "BUSINESS", true)));
+
+		relay.run(e.getId());
+
+		Booking booked = bookings.findById(b.getId()).orElseThrow();
+		assertEquals("BOOKED", booked.getStatus());
+		assertEquals("1A,1B", booked.getSeatNumbers());
+		verify(flightClient, never()).updateSeats(any(), any(), any(String.class));
+
+		OutboxEvent release = outbox.save(OutboxEvent.release(booked));
+		relay.run(release.getId());
+		verify(flightClient).releaseSeats(eq(10L), argThat(r -> List.of("1A", "1B").equals(r.getSeatNumbers())));
+		verify(flightClient, never()).rollbackSeats(any(), any(), any());
+	}
+
+	@Test
+	void testTakenSeatFailsBooking() {
+		Booking b = pendingBooking();
+		b.setSeatNumbers("3C,3D");
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(bookings.save(b)));
+		when(flightClient.reserveSeats(eq(10L), any(SeatReservationRequest.class), eq(e.getIdempotencyKey())))
+				.thenThrow(error(400, "Seats Not Available: 3C,3D"));
+
+		relay.run(e.getId());
+
+		assertEquals("FAILED", bookings.findById(b.getId()).orElseThrow().getStatus());
+		assertEquals(0, loads.get(10L).bookedSeats());
+	}
+
+	@Test
+	void testSeatsAssignedToAVanishedBookingAreReleasedByNumber() {
+		Booking b = pendingBooking();
+		b.setSeatType("REGULAR");
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(bookings.save(b)));
+		b.setStatus("CANCELLED");
+		bookings.save(b);
+		when(flightClient.reserveSeats(eq(10L), any(SeatReservationRequest.class), eq(e.getIdempotencyKey())))
+				.thenReturn(List.of(new SeatResponse(5L, "2E", "REGULAR", true), new SeatResponse(6L, "2F", "REGULAR", true)));
+
+		relay.run(e.getId());
+
+		OutboxEvent compensation = outbox.findById(outbox.findDue(LocalDateTime.now(), PageRequest.of(0, 10)).get(0))
+				.orElseThrow();
+		assertEquals("2E,2F", compensation.getSeatNumbers());
+		relay.run(compensation.getId());
+		verify(flightClient).releaseSeats(eq(10L), argThat(r -> List.of("2E", "2F").equals(r.getSeatNumbers())));
+	}
+
+	@Test
+	void testLeasedEventIsNotRunTwice() {
+		OutboxEvent e = outbox.save(OutboxEvent.reserve(pendingBooking()));
+		LocalDateTime now = LocalDateTime.now();
+		new TransactionTemplate(txManager).executeWithoutResult(
+				status -> outbox.claim(e.getId(), now, now.plusMinutes(1)));
+
+		relay.run(e.getId());
+
+		verifyNoInteractions(flightClient);
+		assertEquals(OutboxEvent.PENDING, outbox.findById(e.getId()).orElseThrow().getStatus());
+	}
+
+	private Booking pendingBooking() {
+		Booking b = new Booking();
+		b.setPnr("PNR-OUTBOX");
+		b.setEmail("a@gmail.com");
+		b.setSeats(2);
+		b.setFlightId(10L);
+		b.setStatus("PENDING");
+		b.setJourneyDate(LocalDate.now().plusDays(5));
+		Booking saved = bookings.save(b);
+		loads.track(10L);
+		return saved;
+	}
+
+	private static FeignException error(int status, String body) {
+		Request request = Request.create(Request.HttpMethod.PUT, "/api/flight/update-seats/10/2", Map.of(), null,
+				StandardCharsets.UTF_8, null);
+		return FeignException.errorStatus("FlightClient#updateSeats",
+				Response.builder().status(status).reason("error").request(request)
+						.body(body, StandardCharsets.UTF_8).headers(Map.of()).build());
+	}
+}
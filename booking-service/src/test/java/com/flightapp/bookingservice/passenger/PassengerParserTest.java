@@ -0,0 +1,55 @@
+package com.flightapp.bookingservice.passenger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.exception.BookingException;
+
+class PassengerParserTest {
+
+	@Test
+	void testParsesEachPassengerInOrder() {
+		List<Passenger> passengers = PassengerParser.parse("John Smith:M:30;Amy:F:7;Old Tom:M:120");
+
+		assertEquals(3, passengers.size());
+		Passenger john = passengers.get(0);
+		assertEquals(1, john.getPosition());
+		assertEquals("John Smith", john.getName());
+		assertEquals("M", john.getGender());
+		assertEquals(30, john.getAge());
+		assertEquals("F", passengers.get(1).getGender());
+		assertEquals(7, passengers.get(1).getAge());
+		assertEquals(3, passengers.get(2).getPosition());
+		assertEquals(120, passengers.get(2).getAge());
+	}
+
+	@Test
+	void testRejectsMalformedDetails() {
+		for (String details : new String[] { "", "John", "John:M", "John:M:", "John:X:30", "Jo\"hn:M:30",
+				":M:30", "John:M:30;", "John:M:30,Amy:F:20", "John:M:3a", "John:M:1000", "John:m:30" }) {
+			BookingException e = assertThrows(BookingException.class, () -> PassengerParser.parse(details), details);
+			assertEquals(PassengerParser.FORMAT_MESSAGE, e.getMessage(), details);
+		}
+		assertThrows(BookingException.class, () -> PassengerParser.parse(null));
+	}
+
+	@Test
+	void testRejectsAgeOutOfRange() {
+		assertEquals("Invalid age: John:M:0",
+				assertThrows(BookingException.class, () -> PassengerParser.parse("John:M:0")).getMessage());
+		assertEquals("Invalid age: Amy:F:121",
+				assertThrows(BookingException.class, () -> PassengerParser.parse("John:M:30;Amy:F:121")).getMessage());
+	}
+
+	@Test
+	void testRejectsLongNames() {
+		String name = "A".repeat(101);
+		assertThrows(BookingException.class, () -> PassengerParser.parse(name + ":M:30"));
+		assertEquals(100, PassengerParser.parse("A".repeat(100) + ":M:30").get(0).getName().length());
+	}
+}
@@ -0,0 +1,74 @@
+package com.flightapp.bookingservice.pnr;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+/**
+ * A PNR as it used to be made (a slice of a SecureRandom UUID) against the
+ * generator, which needs no randomness and no lock. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PnrGeneratorBenchmarkTest {
+
+	private final PnrGenerator pnrs = new PnrGenerator(1);
+
+	@Benchmark
+	public String uuidPnr() {
+		return "PNR-" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
+	}
+
+	@Benchmark
+	public String generatedPnr() {
+		return pnrs.next();
+	}
+
+	@Test
+	void testBothMakeWellFormedPnrs() {
+		assertTrue(uuidPnr().matches("PNR-[0-9A-F]{8}"));
+		assertTrue(generatedPnr().matches("PNR-[0-9A-HJKMNP-TV-Z]{13}"));
+	}
+
+	@Test
+	@Tag("benchmark")
+	void testGeneratorIsFasterThanUuid() throws RunnerException {
+		Options options = new OptionsBuilder().include(getClass().getName() + "\\.")
+				.forks(0)
+				.warmupIterations(2).warmupTime(TimeValue.milliseconds(300))
+				.measurementIterations(3).measurementTime(TimeValue.milliseconds(300))
+				.verbosity(VerboseMode.SILENT)
+				.build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		double uuid = time(results, "uuidPnr");
+		double generated = time(results, "generatedPnr");
+
+		assertTrue(generated < uuid, "the generator must be cheaper than a random UUID");
+	}
+
+	private static double time(Collection<RunResult> results, String benchmark) {
+		return results.stream().filter(r -> r.getParams().getBenchmark().endsWith("." + benchmark)).findFirst()
+				.orElseThrow().getPrimaryResult().getScore();
+	}
+}
@@ -0,0 +1,142 @@
+package com.flightapp.bookingservice.pnr;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class PnrGeneratorTest {
+
+	@Test
+	void testIdsKeepIncreasing() {
+		assertStrictlyIncreasing(1_000_000L);
+	}
+
+	/** Run with {@code mvn test -Pbenchmark}. */
+	@Test
+	@Tag("benchmark")
+	void testNoCollisionsOverHundredsOfMillions() {
+		assertStrictlyIncreasing(200_000_000L);
+	}
+
+	@Test
+	void testNoCollisionsAcrossThreads() throws Exception {
+		PnrGenerator pnrs = new PnrGenerator(7);
+		int threads = 4;
+		int perThread = 250_000;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<long[]>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			futures.add(pool.submit(() -> {
+				long[] ids = new long[perThread];
+				for (int i = 0; i < perThread; i++) {
+					ids[i] = pnrs.nextId();
+				}
+				return ids;
+			}));
+		}
+
+		long[] all = new long[threads * perThread];
+		for (int t = 0; t < threads; t++) {
+			System.arraycopy(futures.get(t).get(), 0, all, t * perThread, perThread);
+		}
+		pool.shutdown();
+
+		Arrays.sort(all);
+		for (int i = 1; i < all.length; i++) {
+			assertNotEquals(all[i - 1], all[i]);
+		}
+	}
+
+	@Test
+	void testNodesNeverCollideOnTheSameClock() {
+		PnrGenerator a = new PnrGenerator(1, () -> PnrGenerator.EPOCH + 1000);
+		PnrGenerator b = new PnrGenerator(2, () -> PnrGenerator.EPOCH + 1000);
+		for (int i = 0; i < 10_000; i++) {
+			long fromA = a.nextId();
+			long fromB = b.nextId();
+			assertEquals(1, node(fromA));
+			assertEquals(2, node(fromB));
+			assertNotEquals(PnrGenerator.encode(fromA), PnrGenerator.encode(fromB));
+		}
+	}
+
+	@Test
+	void testFullMillisecondBorrowsTheNext() {
+		PnrGenerator pnrs = new PnrGenerator(0, () -> PnrGenerator.EPOCH + 1000);
+		long prev = -1;
+		for (int i = 0; i < 3 * 4096; i++) {
+			long id = pnrs.nextId();
+			assertTrue(id > prev);
+			prev = id;
+		}
+		assertEquals(1002, millis(prev));
+	}
+
+	@Test
+	void testClockSteppingBackKeepsIncreasing() {
+		AtomicLong now = new AtomicLong(PnrGenerator.EPOCH + 5000);
+		PnrGenerator pnrs = new PnrGenerator(0, now::get);
+		long before = pnrs.nextId();
+		now.set(PnrGenerator.EPOCH + 1000);
+		long after = pnrs.nextId();
+
+		assertTrue(after > before);
+		assertEquals(5000, millis(after));
+	}
+
+	@Test
+	void testEncodingIsFixedWidthAndSortsLikeTheIds() {
+		PnrGenerator pnrs = new PnrGenerator(1023);
+		String prev = "";
+		for (int i = 0; i < 100_000; i++) {
+			String pnr = PnrGenerator.encode(pnrs.nextId());
+			assertEquals(17, pnr.length());
+			assertTrue(pnr.compareTo(prev) > 0);
+			prev = pnr;
+		}
+		assertTrue(pnrs.next().matches("PNR-[0-9A-HJKMNP-TV-Z]{13}"));
+		assertEquals("PNR-0000000000000", PnrGenerator.encode(0));
+		assertEquals("PNR-7ZZZZZZZZZZZZ", PnrGenerator.encode(Long.MAX_VALUE));
+	}
+
+	@Test
+	void testNodeIdOutOfRange() {
+		assertThrows(IllegalArgumentException.class, () -> new PnrGenerator(1024));
+		assertThrows(IllegalArgumentException.class, () -> new PnrGenerator(-2, System::currentTimeMillis));
+	}
+
+	@Test
+	void testNodeIdIsRequired() {
+		assertThrows(IllegalStateException.class, () -> new PnrGenerator((Integer) null));
+	}
+
+	/** Strictly increasing ids cannot repeat, so no set of every id is needed. */
+	private static void assertStrictlyIncreasing(long count) {
+		PnrGenerator pnrs = new PnrGenerator(7);
+		long prev = -1;
+		for (long i = 0; i < count; i++) {
+			long id = pnrs.nextId();
+			if (id <= prev) {
+				fail("PNR " + i + " (" + id + ") did not follow " + prev);
+			}
+			prev = id;
+		}
+	}
+
+	private static long node(long id) {
+		return (id >>> PnrGenerator.SEQUENCE_BITS) & PnrGenerator.MAX_NODE;
+	}
+
+	private static long millis(long id) {
+		return id >>> (PnrGenerator.NODE_BITS + PnrGenerator.SEQUENCE_BITS);
+	}
+}
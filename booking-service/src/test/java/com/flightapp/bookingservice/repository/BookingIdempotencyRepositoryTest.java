@@ -0,0 +1,37 @@
+package com.flightapp.bookingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class BookingIdempotencyRepositoryTest {
+
+    @Autowired
+    private BookingIdempotencyRepository repo;
+
+    @Test
+    void testDuplicateKeyIsRejected() {
+        repo.insert("key-1", "hash", 1L, LocalDateTime.now());
+
+        assertThrows(DataIntegrityViolationException.class, () -> repo.insert("key-1", "hash", 2L, LocalDateTime.now()));
+        assertEquals(1L, repo.findById("key-1").orElseThrow().getBookingId());
+    }
+
+    @Test
+    void testDeleteCreatedBefore() {
+        repo.insert("old", "hash", 1L, LocalDateTime.now().minusDays(2));
+        repo.insert("new", "hash", 2L, LocalDateTime.now());
+
+        assertEquals(1, repo.deleteCreatedBefore(LocalDateTime.now().minusDays(1)));
+        assertFalse(repo.existsById("old"));
+        assertTrue(repo.existsById("new"));
+    }
+}
@@ -3,21 +3,40 @@ package com.flightapp.bookingservice.repository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
 import org.springframework.test.context.ActiveProfiles;
 
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingSummary;
 
 @ActiveProfiles("test")
 @DataJpaTest
 class BookingRepositoryTest {
 
+    /** Fetch sizes set on the JDBC statements of the test. */
+    private static final List<Integer> fetchSizes = new CopyOnWriteArrayList<>();
+
     @Autowired
     private BookingRepository repo;
 
@@ -70,4 +89,92 @@ class BookingRepositoryTest {
         List<Booking> found = repo.findByEmail("multi@mail.com");
         assertEquals(2, found.size());
     }
+
+    @Test
+    void testFindHistoryPagesNewestFirst() {
+        Booking b1 = new Booking(); b1.setPnr("P1"); b1.setEmail("multi@mail.com"); b1.setSeats(1);
+        Booking b2 = new Booking(); b2.setPnr("P2"); b2.setEmail("multi@mail.com"); b2.setSeats(2);
+        Booking b3 = new Booking(); b3.setPnr("P3"); b3.setEmail("multi@mail.com"); b3.setSeats(3);
+        Booking other = new Booking(); other.setPnr("P4"); other.setEmail("other@mail.com"); other.setSeats(1);
+        repo.save(b1); repo.save(b2); repo.save(b3); repo.save(other);
+
+        List<BookingSummary> first = repo.findHistory("multi@mail.com", Long.MAX_VALUE, PageRequest.of(0, 2));
+        assertEquals(List.of("P3", "P2"), first.stream().map(BookingSummary::getPnr).toList());
+        assertEquals(3, first.get(0).getSeats());
+
+        List<BookingSummary> next = repo.findHistory("multi@mail.com", first.get(1).getId(), PageRequest.of(0, 2));
+        assertEquals(List.of("P1"), next.stream().map(BookingSummary::getPnr).toList());
+    }
+
+    @Test
+    void testStreamHistory() {
+        Booking b1 = new Booking(); b1.setPnr("P1"); b1.setEmail("multi@mail.com"); b1.setSeats(1);
+        Booking b2 = new Booking(); b2.setPnr("P2"); b2.setEmail("multi@mail.com"); b2.setSeats(2);
+        repo.save(b1); repo.save(b2);
+
+        fetchSizes.clear();
+        try (Stream<BookingSummary> rows = repo.streamHistory("multi@mail.com")) {
+            assertEquals(List.of("P2", "P1"), rows.map(BookingSummary::getPnr).toList());
+        }
+        assertEquals(List.of(500), fetchSizes);
+    }
+
+    @Test
+    void testCancelOnlyChangesBookedBookings() {
+        Booking b = new Booking(); b.setPnr("P1"); b.setEmail("a@gmail.com"); b.setSeats(1); b.setStatus("BOOKED");
+        Long id = repo.save(b).getId();
+
+        assertEquals(1, repo.cancel(id));
+        assertEquals("CANCELLED", repo.findByPnr("P1").getStatus());
+        assertEquals(0, repo.cancel(id));
+    }
+
+    /** Hands out connections whose statements record the fetch size Hibernate sets on them. */
+    @TestConfiguration
+    static class RecordFetchSizes {
+
+        @Bean
+        static BeanPostProcessor recordFetchSizes() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String name) {
+                    if (!(bean instanceof DataSource dataSource)) {
+                        return bean;
+                    }
+                    return new DelegatingDataSource(dataSource) {
+                        @Override
+                        public Connection getConnection() throws SQLException {
+                            return recording(super.getConnection());
+                        }
+                    };
+                }
+            };
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        return result instanceof PreparedStatement statement ? recording(statement) : result;
+                    });
+        }
+
+        private static PreparedStatement recording(PreparedStatement statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[] { PreparedStatement.class }, (proxy, method, args) -> {
+                        if (method.getName().equals("setFetchSize")) {
+                            fetchSizes.add((Integer) args[0]);
+                        }
+                        return invoke(statement, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
 }
@@ -0,0 +1,44 @@
+package com.flightapp.bookingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.flightapp.bookingservice.domain.BookingTicket;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class BookingTicketRepositoryTest {
+
+    @Autowired
+    private BookingTicketRepository repo;
+
+    @Test
+    void testSaveAndFindByPnr() {
+        byte[] ticket = "{\"pnr\":\"PNR-111\"}".getBytes(StandardCharsets.UTF_8);
+        repo.saveAndFlush(new BookingTicket(1L, "PNR-111", ticket, "\"t1\"", null, null));
+
+        BookingTicket found = repo.findByPnr("PNR-111");
+        assertArrayEquals(ticket, found.getTicket());
+        assertEquals("\"t1\"", found.getTicketEtag());
+        assertNull(found.getDownload());
+        assertNull(repo.findByPnr("PNR-000"));
+    }
+
+    @Test
+    void testPnrIsUnique() {
+        repo.saveAndFlush(new BookingTicket(1L, "PNR-111", new byte[0], "\"t1\"", null, null));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repo.saveAndFlush(new BookingTicket(2L, "PNR-111", new byte[0], "\"t2\"", null, null)));
+    }
+}
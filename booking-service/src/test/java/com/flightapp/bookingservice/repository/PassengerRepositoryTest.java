@@ -0,0 +1,66 @@
+package com.flightapp.bookingservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class PassengerRepositoryTest {
+
+    @Autowired
+    private PassengerRepository repo;
+
+    @Autowired
+    private BookingRepository bookings;
+
+    @Test
+    void testManifestListsBookedPassengersInOrder() {
+        Booking first = booking("P1", 1L, "BOOKED");
+        Booking cancelled = booking("P2", 1L, "CANCELLED");
+        Booking other = booking("P3", 2L, "BOOKED");
+        Booking second = booking("P4", 1L, "BOOKED");
+
+        repo.saveAll(List.of(
+                new Passenger(null, second.getId(), 1L, 1, "Cara", "F", 40),
+                new Passenger(null, first.getId(), 1L, 2, "Amy", "F", 20),
+                new Passenger(null, first.getId(), 1L, 1, "John", "M", 30),
+                new Passenger(null, cancelled.getId(), 1L, 1, "Gone", "M", 50),
+                new Passenger(null, other.getId(), 2L, 1, "Else", "M", 60)));
+
+        List<ManifestEntry> manifest = repo.findManifest(1L);
+        assertEquals(List.of("John", "Amy", "Cara"), manifest.stream().map(ManifestEntry::getName).toList());
+        assertEquals("P1", manifest.get(0).getPnr());
+        assertEquals(30, manifest.get(0).getAge());
+        assertEquals("P4", manifest.get(2).getPnr());
+    }
+
+    @Test
+    void testFindByBookingIdInPosition() {
+        repo.saveAll(List.of(new Passenger(null, 9L, 1L, 2, "Amy", "F", 20),
+                new Passenger(null, 9L, 1L, 1, "John", "M", 30)));
+
+        List<Passenger> found = repo.findByBookingIdOrderByPosition(9L);
+        assertEquals("John", found.get(0).getName());
+        assertEquals("Amy", found.get(1).getName());
+    }
+
+    private Booking booking(String pnr, Long flightId, String status) {
+        Booking b = new Booking();
+        b.setPnr(pnr);
+        b.setFlightId(flightId);
+        b.setEmail("m@mail.com");
+        b.setSeats(1);
+        b.setStatus(status);
+        return bookings.save(b);
+    }
+}
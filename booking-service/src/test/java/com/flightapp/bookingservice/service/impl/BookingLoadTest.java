@@ -0,0 +1,282 @@
+package com.flightapp.bookingservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.bookingservice.cancellation.FlightCancellationJob;
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.feign.FlightClient;
+import com.flightapp.bookingservice.feign.FlightGateway;
+import com.flightapp.bookingservice.feign.SingleFlight;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.outbox.OutboxRelay;
+import com.flightapp.bookingservice.pnr.PnrGenerator;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.BookingTicketRepository;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+import com.flightapp.bookingservice.repository.PassengerRepository;
+import com.flightapp.bookingservice.service.BookingService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Books through a fixed pool of request threads, standing in for Tomcat's,
+ * with the real Feign client against a stub flight-service that takes a fixed
+ * time per call, as it does when it is under load. The baseline is the old
+ * request path: getFlight, then updateSeats, then the insert, all on the
+ * request thread. The context is closed afterwards so its relay does not keep
+ * running against the shared database under the other tests. The comparison
+ * runs with {@code mvn test -Pbenchmark}.
+ */
+@ActiveProfiles("test")
+@DataJpaTest(showSql = false)
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, HttpMessageConvertersAutoConfiguration.class,
+		FeignAutoConfiguration.class })
+@Import({ BookingServiceImpl.class, OutboxRelay.class, PnrGenerator.class, FlightLoadTracker.class,
+		FlightCancellationJob.class, SingleFlight.class, FlightGateway.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class BookingLoadTest {
+
+	private static final int REQUEST_THREADS = 16;
+	private static final int BOOKINGS = 160;
+	private static final int WARMUP_BOOKINGS = 32;
+	private static final long FLIGHT_SERVICE_MS = 400;
+
+	@Autowired
+	private BookingService service;
+
+	@Autowired
+	private BookingRepository bookings;
+
+	@Autowired
+	private OutboxRepository outbox;
+
+	@Autowired
+	private BookingTicketRepository tickets;
+
+	@Autowired
+	private PassengerRepository passengers;
+
+	@Autowired
+	private FlightLoadRepository loadRows;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@Autowired
+	private FlightClient flightClient;
+
+	private static HttpServer flightService;
+	private static volatile long flightServiceMs;
+	private static final AtomicInteger LEGACY_PNRS = new AtomicInteger();
+
+	@BeforeAll
+	static void startFlightService() throws IOException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		flightService = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		flightService.setExecutor(Executors.newCachedThreadPool());
+		flightService.createContext("/api/flight", BookingLoadTest::respond);
+		flightService.start();
+	}
+
+	@AfterAll
+	static void stopFlightService() {
+		flightService.stop(0);
+	}
+
+	@DynamicPropertySource
+	static void flightServiceUrl(DynamicPropertyRegistry registry) {
+		registry.add("spring.cloud.openfeign.client.config.flight-service.url",
+				() -> "http://localhost:" + flightService.getAddress().getPort());
+	}
+
+	private static void respond(HttpExchange exchange) throws IOException {
+		try {
+			Thread.sleep(flightServiceMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		boolean get = "GET".equals(exchange.getRequestMethod());
+		byte[] body = (get ? "{\"id\":10,\"airlineCode\":\"6E\"}" : "Seats Updated").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", get ? "application/json" : "text/plain");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+
+	@AfterEach
+	void cleanup() {
+		outbox.deleteAll();
+		tickets.deleteAll();
+		passengers.deleteAll();
+		bookings.deleteAll();
+		loadRows.deleteAll();
+	}
+
+	@Test
+	void testConcurrentBookingsAreConfirmedAndCounted() throws Exception {
+		flightServiceMs = 0;
+
+		load(REQUEST_THREADS, () -> service.bookTicket(10L, request()).getPnr());
+		awaitBooked(REQUEST_THREADS);
+
+		assertEquals(REQUEST_THREADS, countBooked());
+		FlightLoadTotals kept = FlightLoadTotals.sum(loadRows.findByFlightId(10L));
+		assertEquals(0, kept.pendingSeats());
+		assertEquals(REQUEST_THREADS, kept.bookedSeats());
+		assertEquals(REQUEST_THREADS, service.rebuildFlightLoad(10L).getBookedSeats());
+	}
+
+	@Test
+	@Tag("benchmark")
+	void testBookingNoLongerWaitsOnFlightService() throws Exception {
+		flightServiceMs = FLIGHT_SERVICE_MS;
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		Callable<String> oldPath = () -> {
+			if (flightClient.getFlight(10L) == null) {
+				return "Flight Not Found";
+			}
+			String res = flightClient.updateSeats(10L, 1);
+			if (!"Seats Updated".equals(res)) {
+				return res;
+			}
+			return tx.execute(status -> bookings.save(booking()).getPnr());
+		};
+		Callable<String> outboxPath = () -> service.bookTicket(10L, request()).getPnr();
+
+		// both paths warm, so neither is measured against a cold JIT
+		load(WARMUP_BOOKINGS, oldPath);
+		bookings.deleteAll();
+		load(WARMUP_BOOKINGS, outboxPath);
+		awaitBooked(WARMUP_BOOKINGS);
+		outbox.deleteAll();
+		bookings.deleteAll();
+
+		Load legacy = load(BOOKINGS, oldPath);
+		bookings.deleteAll();
+		loadRows.deleteAll();
+
+		Load current = load(BOOKINGS, outboxPath);
+		awaitBooked(BOOKINGS);
+
+		assertEquals(BOOKINGS, countBooked());
+		// the running totals kept by concurrent bookings and the relay agree with a recount
+		FlightLoadTotals kept = FlightLoadTotals.sum(loadRows.findByFlightId(10L));
+		assertEquals(0, kept.pendingSeats());
+		assertEquals(BOOKINGS, kept.bookedSeats());
+		assertEquals(BOOKINGS, kept.bookings());
+		assertEquals(BOOKINGS, service.rebuildFlightLoad(10L).getBookedSeats());
+		assertTrue(current.p99Millis() < legacy.p99Millis(), "booking p99 must drop");
+		assertTrue(current.throughput() > legacy.throughput(), "request threads must accept more bookings");
+	}
+
+	private void awaitBooked(int count) throws InterruptedException {
+		long began = System.nanoTime();
+		while (countBooked() < count && System.nanoTime() - began < TimeUnit.SECONDS.toNanos(30)) {
+			Thread.sleep(20);
+		}
+	}
+
+	private long countBooked() {
+		return bookings.findAll().stream().filter(b -> "BOOKED".equals(b.getStatus())).count();
+	}
+
+	private static Load load(int count, Callable<String> booking) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(REQUEST_THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		long[] latencies = new long[count];
+		AtomicInteger next = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < count; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				long began = System.nanoTime();
+				booking.call();
+				latencies[next.getAndIncrement()] = System.nanoTime() - began;
+				return null;
+			}));
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		long elapsed = System.nanoTime() - began;
+		pool.shutdown();
+
+		Arrays.sort(latencies);
+		return new Load(latencies[(int) Math.ceil(count * 0.99) - 1], elapsed);
+	}
+
+	private static Booking booking() {
+		Booking b = new Booking();
+		b.setPnr("PNR-LOAD-" + LEGACY_PNRS.incrementAndGet());
+		b.setEmail("load@gmail.com");
+		b.setSeats(1);
+		b.setPassengerDetails("A:M:30");
+		b.setFlightId(10L);
+		b.setBookedAt(LocalDateTime.now());
+		b.setStatus("BOOKED");
+		b.setJourneyDate(LocalDate.now().plusDays(5));
+		return b;
+	}
+
+	private static BookingRequest request() {
+		return new BookingRequest("load@gmail.com", 1, "A:M:30", 1000.0, LocalDate.now().plusDays(5), null, null);
+	}
+
+	private record Load(long p99Nanos, long elapsedNanos) {
+		double p99Millis() {
+			return p99Nanos / 1_000_000.0;
+		}
+
+		double throughput() {
+			return BOOKINGS / (elapsedNanos / 1_000_000_000.0);
+		}
+	}
+}
@@ -1,28 +1,71 @@
 package com.flightapp.bookingservice.service.impl;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
 
+import com.flightapp.bookingservice.cancellation.FlightCancellationJob;
 import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.BookingIdempotency;
+import com.flightapp.bookingservice.domain.BookingTicket;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.domain.Passenger;
+import com.flightapp.bookingservice.dto.BookingHistoryResult;
 import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.BookingSummary;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightAvailability;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.FlightSnapshot;
+import com.flightapp.bookingservice.dto.ManifestEntry;
+import com.flightapp.bookingservice.dto.RenderedTicket;
 import com.flightapp.bookingservice.dto.TicketResponse;
 import com.flightapp.bookingservice.exception.BookingException;
-import com.flightapp.bookingservice.feign.FlightClient;
+import com.flightapp.bookingservice.feign.FlightGateway;
+import com.flightapp.bookingservice.load.FlightLoadTotals;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.outbox.OutboxEventCreated;
+import com.flightapp.bookingservice.pnr.PnrGenerator;
+import com.flightapp.bookingservice.repository.BookingIdempotencyRepository;
 import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.BookingTicketRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+import com.flightapp.bookingservice.repository.PassengerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
@@ -31,7 +74,34 @@ class BookingServiceImplTest {
 	private BookingRepository repo;
 
 	@Mock
-	private FlightClient flightClient;
+	private FlightGateway flights;
+
+	@Mock
+	private OutboxRepository outbox;
+
+	@Mock
+	private BookingIdempotencyRepository idempotencyKeys;
+
+	@Mock
+	private BookingTicketRepository tickets;
+
+	@Mock
+	private PassengerRepository passengers;
+
+	@Mock
+	private FlightLoadTracker loads;
+
+	@Mock
+	private FlightCancellationJob flightCancellations;
+
+	@Mock
+	private ApplicationEventPublisher events;
+
+	@Spy
+	private PnrGenerator pnrs = new PnrGenerator(1);
+
+	@Mock
+	private PlatformTransactionManager txManager;
 
 	@InjectMocks
 	private BookingServiceImpl service;
@@ -40,23 +110,108 @@ class BookingServiceImplTest {
 
 	@BeforeEach
 	void setup() {
-		req = new BookingRequest("abc@gmail.com", 2, "John:M:30;Amy:F:20", 5000.0, LocalDate.now().plusDays(5));
+		req = new BookingRequest("abc@gmail.com", 2, "John:M:30;Amy:F:20", 5000.0, LocalDate.now().plusDays(5), null, null);
 	}
 
 	@Test
 	void testBookTicketSuccess() {
-		when(flightClient.getFlight(1L)).thenReturn(new Object());
-		when(flightClient.updateSeats(1L, 2)).thenReturn("Seats Updated");
-
 		Booking saved = new Booking();
+		saved.setId(7L);
 		saved.setPnr("SUCCESS123");
+		saved.setFlightId(1L);
+		saved.setSeats(2);
 
 		when(repo.save(any())).thenReturn(saved);
+		when(outbox.save(any())).thenAnswer(inv -> {
+			OutboxEvent e = inv.getArgument(0);
+			e.setId(3L);
+			return e;
+		});
 
 		Booking result = service.bookTicket(1L, req);
 
 		assertEquals("SUCCESS123", result.getPnr());
-		verify(repo).save(any());
+		ArgumentCaptor<Booking> booking = ArgumentCaptor.forClass(Booking.class);
+		verify(repo).save(booking.capture());
+		assertEquals("PENDING", booking.getValue().getStatus());
+		assertTrue(booking.getValue().getPnr().matches("PNR-[0-9A-HJKMNP-TV-Z]{13}"));
+
+		ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+		verify(outbox).save(event.capture());
+		assertEquals(OutboxEvent.RESERVE_SEATS, event.getValue().getType());
+		assertEquals(7L, event.getValue().getBookingId());
+		assertEquals(2, event.getValue().getSeats());
+		assertNotNull(event.getValue().getIdempotencyKey());
+		verify(events).publishEvent(new OutboxEventCreated(3L));
+		verify(loads).track(1L);
+		verify(loads).booked(1L, 2);
+		verifyNoInteractions(flights);
+	}
+
+	@Test
+	void testBookTicketStoresRenderedTicket() throws Exception {
+		req.setPassengerDetails("John Smith:M:30;Amy:F:20");
+		Booking saved = new Booking();
+		saved.setId(7L);
+		when(repo.save(any())).thenAnswer(inv -> {
+			Booking b = inv.getArgument(0);
+			saved.setPnr(b.getPnr());
+			saved.setTicketJson(b.getTicketJson());
+			return saved;
+		});
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+		service.bookTicket(1L, req);
+
+		JsonNode json = new ObjectMapper().readTree(saved.getTicketJson());
+		assertEquals("John Smith:M:30;Amy:F:20", json.get("passengers").asText());
+		assertEquals(req.getJourneyDate().toString(), json.get("journeyDate").asText());
+
+		ArgumentCaptor<BookingTicket> ticket = ArgumentCaptor.forClass(BookingTicket.class);
+		verify(tickets).save(ticket.capture());
+		assertEquals(7L, ticket.getValue().getBookingId());
+		assertEquals(saved.getPnr(), ticket.getValue().getPnr());
+		assertEquals(saved.getTicketJson(), new String(ticket.getValue().getTicket(), StandardCharsets.UTF_8));
+		assertNotNull(ticket.getValue().getTicketEtag());
+		assertNull(ticket.getValue().getDownload());
+	}
+
+	@SuppressWarnings("unchecked")
+	@Test
+	void testBookTicketStoresPassengerRows() {
+		Booking saved = new Booking();
+		saved.setId(7L);
+		when(repo.save(any())).thenReturn(saved);
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+		service.bookTicket(1L, req);
+
+		ArgumentCaptor<List<Passenger>> rows = ArgumentCaptor.forClass(List.class);
+		verify(passengers).saveAll(rows.capture());
+		assertEquals(2, rows.getValue().size());
+		Passenger amy = rows.getValue().get(1);
+		assertEquals(7L, amy.getBookingId());
+		assertEquals(1L, amy.getFlightId());
+		assertEquals(2, amy.getPosition());
+		assertEquals("Amy", amy.getName());
+		assertEquals("F", amy.getGender());
+		assertEquals(20, amy.getAge());
+	}
+
+	@Test
+	void testBookTicketRejectsMalformedPassengers() {
+		req.setPassengerDetails("John:M:30;Amy:X:20");
+		BookingException e = assertThrows(BookingException.class, () -> service.bookTicket(1L, req));
+		assertTrue(e.getMessage().startsWith("Passenger details must follow"));
+		verifyNoInteractions(repo, passengers);
+	}
+
+	@Test
+	void testGetManifest() {
+		List<ManifestEntry> manifest = List.of(new ManifestEntry("PNR-1", "John", "M", 30));
+		when(passengers.findManifest(1L)).thenReturn(manifest);
+
+		assertEquals(manifest, service.getManifest(1L));
 	}
 
 	@Test
@@ -65,6 +220,31 @@ class BookingServiceImplTest {
 		assertThrows(BookingException.class, () -> service.bookTicket(1L, req));
 	}
 
+	@Test
+	void testBookTicketFailsSeatNumberMismatch() {
+		req.setSeatNumbers(List.of("1A"));
+		BookingException e = assertThrows(BookingException.class, () -> service.bookTicket(1L, req));
+		assertEquals("Number of seat numbers must match number of seats booked", e.getMessage());
+	}
+
+	@Test
+	void testBookTicketCarriesChosenSeatsToTheOutbox() {
+		req.setSeatNumbers(List.of("4A", "4B"));
+		when(repo.save(any())).thenAnswer(inv -> {
+			Booking b = inv.getArgument(0);
+			b.setId(7L);
+			return b;
+		});
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+		service.bookTicket(1L, req);
+
+		ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+		verify(outbox).save(event.capture());
+		assertEquals("4A,4B", event.getValue().getSeatNumbers());
+		assertTrue(event.getValue().bySeat());
+	}
+
 	@Test
 	void testBookTicketInvalidAge() {
 		req.setPassengerDetails("John:M:-5");
@@ -72,23 +252,114 @@ class BookingServiceImplTest {
 	}
 
 	@Test
-	void testBookTicketFlightServiceDown() {
-		when(flightClient.getFlight(1L)).thenThrow(new RuntimeException("down"));
-		assertThrows(RuntimeException.class, () -> service.bookTicket(1L, req));
+	void testBookTicketStoresIdempotencyKey() {
+		Booking saved = new Booking();
+		saved.setId(7L);
+		when(repo.save(any())).thenReturn(saved);
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+		service.bookTicket(1L, req, "key-1");
+
+		verify(idempotencyKeys).insert(eq("key-1"), anyString(), eq(7L), any());
+	}
+
+	@Test
+	void testBookTicketRetryReplaysFirstBooking() {
+		Booking first = new Booking();
+		first.setId(7L);
+		first.setPnr("PNR-FIRST");
+		when(idempotencyKeys.findById("key-1")).thenReturn(Optional.empty());
+		when(repo.save(any())).thenReturn(first);
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
+		ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+		service.bookTicket(1L, req, "key-1");
+		verify(idempotencyKeys).insert(eq("key-1"), hash.capture(), eq(7L), any());
+
+		when(idempotencyKeys.findById("key-1"))
+				.thenReturn(Optional.of(new BookingIdempotency("key-1", hash.getValue(), 7L, LocalDateTime.now())));
+		when(repo.findById(7L)).thenReturn(Optional.of(first));
+
+		assertEquals("PNR-FIRST", service.bookTicket(1L, req, "key-1").getPnr());
+		verify(repo, times(1)).save(any());
+	}
+
+	@Test
+	void testBookTicketKeyReusedForAnotherBooking() {
+		when(idempotencyKeys.findById("key-1"))
+				.thenReturn(Optional.of(new BookingIdempotency("key-1", "other", 7L, LocalDateTime.now())));
+
+		assertThrows(BookingException.class, () -> service.bookTicket(1L, req, "key-1"));
+		verify(repo, never()).save(any());
 	}
 
 	@Test
-	void testBookTicketSeatUpdateFailed() {
-		when(flightClient.getFlight(1L)).thenReturn(new Object());
-		when(flightClient.updateSeats(1L, 2)).thenReturn("Error");
+	void testBookTicketLosesRaceAndReplays() {
+		Booking mine = new Booking();
+		mine.setId(8L);
+		Booking winner = new Booking();
+		winner.setId(7L);
+		winner.setPnr("PNR-WINNER");
+		when(repo.save(any())).thenReturn(mine);
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
+		ArgumentCaptor<String> hash = ArgumentCaptor.forClass(String.class);
+		when(idempotencyKeys.insert(eq("key-1"), hash.capture(), eq(8L), any()))
+				.thenThrow(new DataIntegrityViolationException("duplicate key"));
+		when(idempotencyKeys.findById("key-1")).thenReturn(Optional.empty()).thenAnswer(
+				inv -> Optional.of(new BookingIdempotency("key-1", hash.getValue(), 7L, LocalDateTime.now())));
+		when(repo.findById(7L)).thenReturn(Optional.of(winner));
+
+		assertEquals("PNR-WINNER", service.bookTicket(1L, req, "key-1").getPnr());
+	}
+
+	@Test
+	void testBookTicketRejectedBeforeAnythingIsStored() {
+		req.setSeats(3);
 		assertThrows(BookingException.class, () -> service.bookTicket(1L, req));
+		verifyNoInteractions(repo, outbox, events, flights);
 	}
 
 	@Test
 	void testGetHistory() {
-		when(repo.findByEmail("abc@gmail.com")).thenReturn(List.of(new Booking()));
-		List<Booking> result = service.getHistory("abc@gmail.com");
-		assertEquals(1, result.size());
+		when(repo.findHistory("abc@gmail.com", Long.MAX_VALUE, PageRequest.of(0, 21)))
+				.thenReturn(List.of(summary(5L)));
+		BookingHistoryResult result = service.getHistory("abc@gmail.com", null, null);
+		assertEquals(1, result.getBookings().size());
+		assertNull(result.getNextCursor());
+	}
+
+	@Test
+	void testGetHistoryFollowsCursor() {
+		when(repo.findHistory("abc@gmail.com", Long.MAX_VALUE, PageRequest.of(0, 3)))
+				.thenReturn(List.of(summary(9L), summary(7L), summary(4L)));
+		BookingHistoryResult first = service.getHistory("abc@gmail.com", 2, null);
+		assertEquals(2, first.getBookings().size());
+		assertNotNull(first.getNextCursor());
+
+		when(repo.findHistory("abc@gmail.com", 7L, PageRequest.of(0, 3))).thenReturn(List.of(summary(4L)));
+		BookingHistoryResult second = service.getHistory("abc@gmail.com", 2, first.getNextCursor());
+		assertEquals(4L, second.getBookings().get(0).getId());
+		assertNull(second.getNextCursor());
+	}
+
+	@Test
+	void testGetHistoryRejectsBadLimitAndCursor() {
+		assertThrows(BookingException.class, () -> service.getHistory("abc@gmail.com", 0, null));
+		assertThrows(BookingException.class, () -> service.getHistory("abc@gmail.com", 101, null));
+		assertThrows(BookingException.class, () -> service.getHistory("abc@gmail.com", null, "not a cursor"));
+		verifyNoInteractions(repo);
+	}
+
+	@Test
+	void testStreamHistoryWritesOneLinePerBooking() throws Exception {
+		when(repo.streamHistory("abc@gmail.com")).thenReturn(Stream.of(summary(9L), summary(7L)));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+		service.streamHistory("abc@gmail.com", out);
+
+		String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+		assertEquals(2, lines.length);
+		assertEquals(9L, new ObjectMapper().readTree(lines[0]).get("id").asLong());
+		assertEquals("2025-12-01", new ObjectMapper().readTree(lines[1]).get("journeyDate").asText());
 	}
 
 	@Test
@@ -108,15 +379,77 @@ class BookingServiceImplTest {
 	@Test
 	void testCancelBookingSuccess() {
 		Booking b = new Booking(1L, "P123", "abc@gmail.com", "John:M:20", 2, 10L, LocalDateTime.now(), "BOOKED", 1000.0,
-				"{}", LocalDate.now().plusDays(3));
+				"{}", LocalDate.now().plusDays(3), null, null);
 
 		when(repo.findByPnr("P123")).thenReturn(b);
-		when(flightClient.rollbackSeats(10L, 2)).thenReturn("OK");
+		when(repo.cancel(1L)).thenReturn(1);
+		when(outbox.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
 		String result = service.cancelBooking("P123");
 
 		assertEquals("Cancelled: P123", result);
 		assertEquals("CANCELLED", b.getStatus());
+		ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+		verify(outbox).save(event.capture());
+		assertEquals(OutboxEvent.RELEASE_SEATS, event.getValue().getType());
+		assertEquals(10L, event.getValue().getFlightId());
+		assertEquals(2, event.getValue().getSeats());
+		verify(loads).cancelled(10L, 2);
+		verifyNoInteractions(flights);
+	}
+
+	/** Another cancel changed the row between the read and the update. */
+	@Test
+	void testCancelBookingLosesTheRace() {
+		Booking b = new Booking(1L, "P123", "abc@gmail.com", "John:M:20", 2, 10L, LocalDateTime.now(), "BOOKED", 1000.0,
+				"{}", LocalDate.now().plusDays(3), null, null);
+
+		when(repo.findByPnr("P123")).thenReturn(b);
+		when(repo.cancel(1L)).thenReturn(0);
+
+		assertThrows(BookingException.class, () -> service.cancelBooking("P123"));
+		verifyNoInteractions(loads, outbox);
+	}
+
+	@Test
+	void testGetFlightLoad() {
+		LocalDateTime updated = LocalDateTime.now();
+		when(loads.get(10L)).thenReturn(new FlightLoadTotals(2L, 30L, 12L, 4L, updated));
+		when(flights.getAvailability(10L)).thenReturn(new FlightAvailability(10L, 90));
+
+		FlightLoadReport report = service.getFlightLoad(10L);
+
+		assertEquals(12, report.getBookings());
+		assertEquals(30, report.getBookedSeats());
+		assertEquals(2, report.getPendingSeats());
+		assertEquals(4, report.getCancelledSeats());
+		assertEquals(90, report.getAvailableSeats());
+		assertEquals(0.25, report.getLoadFactor());
+		assertEquals(updated, report.getUpdatedAt());
+	}
+
+	@Test
+	void testFlightLoadWithoutFlightService() {
+		when(loads.rebuild(10L)).thenReturn(new FlightLoadTotals(0L, 0L, 0L, 0L));
+
+		FlightLoadReport report = service.rebuildFlightLoad(10L);
+
+		assertEquals(0, report.getBookedSeats());
+		assertNull(report.getAvailableSeats());
+		assertNull(report.getLoadFactor());
+		assertEquals(0.0, BookingRules.loadReport(10L, new FlightLoadTotals(0L, 0L, 0L, 0L),
+				new FlightAvailability(10L, 0)).getLoadFactor());
+	}
+
+	@Test
+	void testCancelFlight() {
+		FlightCancellationProgress progress = new FlightCancellationProgress(10L);
+		when(flightCancellations.start(10L)).thenReturn(progress);
+		when(flightCancellations.progress(10L)).thenReturn(progress);
+
+		assertSame(progress, service.cancelFlight(10L));
+		assertSame(progress, service.getFlightCancellation(10L));
+		assertThrows(BookingException.class, () -> service.getFlightCancellation(11L));
 	}
 
 	@Test
@@ -136,7 +469,7 @@ class BookingServiceImplTest {
 	@Test
 	void testCancelBookingTooLate() {
 		Booking b = new Booking(1L, "P123", "abc@gmail.com", "John:M:20", 1, 10L, LocalDateTime.now(), "BOOKED", 1000.0,
-				"json", LocalDate.now());
+				"json", LocalDate.now(), null, null);
 
 		when(repo.findByPnr("P123")).thenReturn(b);
 
@@ -146,14 +479,17 @@ class BookingServiceImplTest {
 	@Test
 	void testDownloadTicketSuccess() {
 		Booking b = new Booking(1L, "PNR1", "abc@gmail.com", "P", 1, 10L, LocalDateTime.now(), "BOOKED", 1000.0, "{}",
-				LocalDate.now().plusDays(1));
+				LocalDate.now().plusDays(1), null, null);
 
 		when(repo.findByPnr("PNR1")).thenReturn(b);
-		when(flightClient.getFlight(10L)).thenReturn(new Object());
+		FlightSnapshot flight = new FlightSnapshot(10L, "Indigo", "6E", "HYD", "BLR", "2025-12-01T10:00:00",
+				"2025-12-01T12:00:00", 3000.0);
+		when(flights.getFlight(10L)).thenReturn(flight);
 
 		TicketResponse resp = service.downloadTicket("PNR1");
 
 		assertEquals("PNR1", resp.getPnr());
+		assertEquals("6E", resp.getFlightDetails().getAirlineCode());
 	}
 
 	@Test
@@ -163,21 +499,76 @@ class BookingServiceImplTest {
 	}
 
 	@Test
-	void testFlightFallback() {
-		Object result = service.flightFallback(10L, new RuntimeException("x"));
-		assertEquals(null, result);
+	void testGetTicketServesStoredBytes() {
+		byte[] body = "{\"pnr\":\"PNR1\"}".getBytes(StandardCharsets.UTF_8);
+		when(tickets.findByPnr("PNR1")).thenReturn(new BookingTicket(1L, "PNR1", body, "\"t1\"", null, null));
+
+		RenderedTicket ticket = service.getTicket("PNR1");
+
+		assertArrayEquals(body, ticket.body());
+		assertEquals("\"t1\"", ticket.etag());
+		verifyNoInteractions(repo);
 	}
 
 	@Test
-	void testSeatUpdateFallback() {
-		String result = service.seatUpdateFallback(10L, 2, new RuntimeException("x"));
-		assertEquals("Flight Service Down - Cannot Update Seats", result);
+	void testGetTicketStoresTicketOfOlderBooking() {
+		Booking b = new Booking(1L, "PNR1", "abc@gmail.com", "P", 1, 10L, LocalDateTime.now(), "BOOKED", 1000.0,
+				"{\"pnr\":\"PNR1\"}", LocalDate.now().plusDays(1), null, null);
+		when(repo.findByPnr("PNR1")).thenReturn(b);
+		when(tickets.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+		RenderedTicket ticket = service.getTicket("PNR1");
+
+		assertEquals("{\"pnr\":\"PNR1\"}", new String(ticket.body(), StandardCharsets.UTF_8));
+		assertEquals(BookingRules.etag(ticket.body()), ticket.etag());
+		verify(tickets).save(any());
 	}
 
 	@Test
-	void testRollbackFallback() {
-		String result = service.rollbackFallback(10L, 2, new RuntimeException("x"));
-		assertEquals("Flight Service Down - Rollback Pending", result);
+	void testGetTicketNotFound() {
+		assertThrows(BookingException.class, () -> service.getTicket("X"));
+	}
+
+	@Test
+	void testGetDownloadRendersOnceThenServesStored() throws Exception {
+		Booking b = new Booking(1L, "PNR1", "abc@gmail.com", "P", 1, 10L, LocalDateTime.now(), "BOOKED", 1000.0, "{}",
+				LocalDate.now().plusDays(1), null, null);
+		BookingTicket stored = new BookingTicket(1L, "PNR1", "{}".getBytes(StandardCharsets.UTF_8), "\"t1\"", null,
+				null);
+		when(tickets.findByPnr("PNR1")).thenReturn(stored);
+		when(repo.findById(1L)).thenReturn(Optional.of(b));
+		when(flights.getFlight(10L)).thenReturn(new FlightSnapshot(10L, "Indigo", "6E", "HYD", "BLR",
+				"2025-12-01T10:00:00", "2025-12-01T12:00:00", 3000.0));
+
+		RenderedTicket first = service.getDownload("PNR1");
+		RenderedTicket second = service.getDownload("PNR1");
+
+		JsonNode json = new ObjectMapper().readTree(first.body());
+		assertEquals("PNR1", json.get("pnr").asText());
+		assertEquals("6E", json.get("flightDetails").get("airlineCode").asText());
+		assertArrayEquals(first.body(), stored.getDownload());
+		assertArrayEquals(first.body(), second.body());
+		assertEquals(first.etag(), second.etag());
+		verify(flights, times(1)).getFlight(10L);
+		verify(tickets, times(1)).save(stored);
+	}
+
+	@Test
+	void testGetDownloadWithoutFlightIsNotKept() {
+		Booking b = new Booking(1L, "PNR1", "abc@gmail.com", "P", 1, 10L, LocalDateTime.now(), "BOOKED", 1000.0, "{}",
+				LocalDate.now().plusDays(1), null, null);
+		when(tickets.findByPnr("PNR1")).thenReturn(new BookingTicket(1L, "PNR1", new byte[0], "\"t1\"", null, null));
+		when(repo.findById(1L)).thenReturn(Optional.of(b));
+
+		RenderedTicket ticket = service.getDownload("PNR1");
+
+		assertNotNull(ticket.body());
+		verify(tickets, never()).save(any());
+	}
+
+	private static BookingSummary summary(Long id) {
+		return new BookingSummary(id, "PNR" + id, 10L, 1, "BOOKED", 1000.0, LocalDate.of(2025, 12, 1),
+				LocalDateTime.now());
 	}
 
 }
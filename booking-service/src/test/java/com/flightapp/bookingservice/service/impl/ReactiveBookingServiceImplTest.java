@@ -0,0 +1,299 @@
+package com.flightapp.bookingservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cloud.openfeign.FeignAutoConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.bookingservice.cancellation.FlightCancellationJob;
+import com.flightapp.bookingservice.config.ReactiveConfig;
+import com.flightapp.bookingservice.domain.Booking;
+import com.flightapp.bookingservice.domain.OutboxEvent;
+import com.flightapp.bookingservice.dto.BookingRequest;
+import com.flightapp.bookingservice.dto.FlightCancellationProgress;
+import com.flightapp.bookingservice.dto.FlightLoadReport;
+import com.flightapp.bookingservice.dto.RenderedTicket;
+import com.flightapp.bookingservice.dto.TicketResponse;
+import com.flightapp.bookingservice.exception.BookingException;
+import com.flightapp.bookingservice.feign.FlightGateway;
+import com.flightapp.bookingservice.feign.SingleFlight;
+import com.flightapp.bookingservice.load.FlightLoadTracker;
+import com.flightapp.bookingservice.outbox.OutboxRelay;
+import com.flightapp.bookingservice.pnr.PnrGenerator;
+import com.flightapp.bookingservice.repository.BookingRepository;
+import com.flightapp.bookingservice.repository.BookingTicketRepository;
+import com.flightapp.bookingservice.repository.FlightLoadRepository;
+import com.flightapp.bookingservice.repository.OutboxRepository;
+import com.flightapp.bookingservice.repository.PassengerRepository;
+import com.flightapp.bookingservice.service.BookingService;
+import com.flightapp.bookingservice.service.ReactiveBookingService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * The reactive mode against the same H2 database the JPA side uses (R2DBC and
+ * JDBC share the in-memory testdb) and a stub flight-service. Tests that
+ * need calls to overlap make the stub hold them. The load comparison, which
+ * delays every call by a second, runs with the benchmark profile
+ * ({@code mvn test -Pbenchmark}); it counts calls in flight at the stub rather
+ * than wall-clock time, which on a small build agent is all CPU. The context
+ * is closed afterwards so its relay does not keep polling the shared database
+ * under the other tests.
+ */
+@ActiveProfiles({ "test", "reactive" })
+@DataJpaTest(showSql = false, properties = "spring.main.web-application-type=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(FeignAutoConfiguration.class)
+@Import({ ReactiveConfig.class, ReactiveBookingServiceImpl.class, BookingServiceImpl.class, OutboxRelay.class,
+		PnrGenerator.class, FlightLoadTracker.class,
+		FlightCancellationJob.class, SingleFlight.class, FlightGateway.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@DirtiesContext
+class ReactiveBookingServiceImplTest {
+
+	private static final long FLIGHT_SERVICE_MS = 1000;
+	private static final int DOWNLOADS = 300;
+	private static final int SERVLET_THREADS = 50;
+
+	@Autowired
+	private ReactiveBookingService reactive;
+
+	@Autowired
+	private BookingService blocking;
+
+	@Autowired
+	private BookingRepository bookings;
+
+	@Autowired
+	private OutboxRepository outbox;
+
+	@Autowired
+	private BookingTicketRepository tickets;
+
+	@Autowired
+	private PassengerRepository passengers;
+
+	@Autowired
+	private FlightLoadRepository loadRows;
+
+	private static HttpServer flightService;
+	private static final AtomicInteger inFlight = new AtomicInteger();
+	private static final AtomicInteger peakInFlight = new AtomicInteger();
+	private static volatile long flightServiceMs;
+	private static volatile int holdUntilInFlight;
+
+	@BeforeAll
+	static void startFlightService() throws IOException {
+		System.setProperty("sun.net.httpserver.nodelay", "true");
+		flightService = HttpServer.create(new InetSocketAddress("localhost", 0), 2 * DOWNLOADS);
+		flightService.setExecutor(Executors.newCachedThreadPool());
+		flightService.createContext("/api/flight", ReactiveBookingServiceImplTest::respond);
+		flightService.start();
+	}
+
+	@AfterAll
+	static void stopFlightService() {
+		flightService.stop(0);
+	}
+
+	@DynamicPropertySource
+	static void flightServiceUrl(DynamicPropertyRegistry registry) {
+		String url = "http://localhost:" + flightService.getAddress().getPort();
+		registry.add("spring.r2dbc.url", () -> "r2dbc:h2:mem:///testdb");
+		registry.add("spring.r2dbc.username", () -> "sa");
+		registry.add("booking.reactive.flight-service-url", () -> url);
+		registry.add("spring.cloud.openfeign.client.config.flight-service.url", () -> url);
+	}
+
+	@AfterEach
+	void cleanup() {
+		flightServiceMs = 0;
+		holdUntilInFlight = 0;
+		outbox.deleteAll();
+		tickets.deleteAll();
+		passengers.deleteAll();
+		bookings.deleteAll();
+		loadRows.deleteAll();
+	}
+
+	@Test
+	void testBookReplayAndCancel() throws Exception {
+		Booking booked = reactive.bookTicket(10L, request(2), "key-1").block();
+
+		assertNotNull(booked.getId());
+		assertEquals(booked.getPnr(), bookings.findById(booked.getId()).orElseThrow().getPnr());
+		awaitStatus(booked.getId(), "BOOKED");
+		assertEquals(2, reactive.getManifest(10L).collectList().block().size());
+		assertEquals(booked.getPnr(), blocking.getManifest(10L).get(0).getPnr());
+		FlightLoadReport load = reactive.getFlightLoad(10L).block();
+		assertEquals(1, load.getBookings());
+		assertEquals(2, load.getBookedSeats());
+		assertEquals(0, load.getPendingSeats());
+
+		assertEquals(booked.getPnr(), reactive.bookTicket(10L, request(2), "key-1").block().getPnr());
+		assertThrows(BookingException.class, () -> reactive.bookTicket(10L, request(1), "key-1").block());
+		BookingRequest mismatched = request(3);
+		mismatched.setPassengerDetails("A:M:30");
+		assertThrows(BookingException.class, () -> reactive.bookTicket(10L, mismatched, null).block());
+
+		assertEquals(1, reactive.getHistory("r@gmail.com", null, null).block().getBookings().size());
+		assertEquals(booked.getPnr(), reactive.streamHistory("r@gmail.com").blockFirst().getPnr());
+		assertTrue(reactive.getTicketJson(booked.getPnr()).block().contains(booked.getPnr()));
+		assertEquals("6E", reactive.downloadTicket(booked.getPnr()).block().getFlightDetails().getAirlineCode());
+
+		RenderedTicket ticket = reactive.getTicket(booked.getPnr()).block();
+		assertEquals(reactive.getTicketJson(booked.getPnr()).block(), new String(ticket.body(), StandardCharsets.UTF_8));
+		RenderedTicket download = reactive.getDownload(booked.getPnr()).block();
+		assertTrue(new String(download.body(), StandardCharsets.UTF_8).contains("\"airlineCode\":\"6E\""));
+		assertArrayEquals(download.body(), tickets.findByPnr(booked.getPnr()).getDownload());
+		assertEquals(download.etag(), reactive.getDownload(booked.getPnr()).block().etag());
+		assertEquals(download.etag(), blocking.getDownload(booked.getPnr()).etag());
+
+		assertEquals("Cancelled: " + booked.getPnr(), reactive.cancelBooking(booked.getPnr()).block());
+		assertEquals("CANCELLED", bookings.findById(booked.getId()).orElseThrow().getStatus());
+		load = reactive.rebuildFlightLoad(10L).block();
+		assertEquals(0, load.getBookings());
+		assertEquals(2, load.getCancelledSeats());
+		assertEquals(load.getCancelledSeats(), blocking.getFlightLoad(10L).getCancelledSeats());
+		assertTrue(outbox.findAll().stream().anyMatch(e -> OutboxEvent.RELEASE_SEATS.equals(e.getType())
+				&& booked.getId().equals(e.getBookingId())));
+		assertThrows(BookingException.class, () -> reactive.cancelBooking(booked.getPnr()).block());
+		assertThrows(BookingException.class, () -> reactive.getTicketJson("PNR-NONE").block());
+	}
+
+	@Test
+	void testCancelFlight() throws Exception {
+		Booking b = bookings.save(new Booking(null, "PNR-FLIGHT", "r@gmail.com", "A:M:30", 1, 20L,
+				LocalDateTime.now(), "BOOKED", 1000.0, "{}", LocalDate.now().plusDays(5), null, null));
+
+		reactive.cancelFlight(20L).block();
+		for (int i = 0; i < 100 && reactive.getFlightCancellation(20L).block().isRunning(); i++) {
+			Thread.sleep(50);
+		}
+
+		FlightCancellationProgress progress = reactive.getFlightCancellation(20L).block();
+		assertEquals(FlightCancellationProgress.DONE, progress.getStatus());
+		assertEquals(1, progress.getCancelled());
+		assertEquals("CANCELLED", bookings.findById(b.getId()).orElseThrow().getStatus());
+		assertThrows(BookingException.class, () -> reactive.getFlightCancellation(21L).block());
+	}
+
+	/** The stub answers only once all downloads are waiting on it, so none may wait for another. */
+	@Test
+	void testConcurrentDownloadsDoNotWaitForEachOther() {
+		String pnr = loadBooking();
+		reactive.downloadTicket(pnr).block();
+
+		holdUntilInFlight = 20;
+		peakInFlight.set(0);
+		List<TicketResponse> downloads = Flux.range(0, 20).flatMap(i -> reactive.downloadTicket(pnr), 20).collectList()
+				.block();
+
+		assertEquals(20, downloads.size());
+		assertTrue(downloads.stream().allMatch(t -> "6E".equals(t.getFlightDetails().getAirlineCode())));
+		assertEquals(20, peakInFlight.get());
+	}
+
+	@Tag("benchmark")
+	@Test
+	void testDownloadsAtHighConcurrency() throws Exception {
+		String pnr = loadBooking();
+		// first calls set up Feign and Netty
+		blocking.downloadTicket(pnr);
+		reactive.downloadTicket(pnr).block();
+
+		flightServiceMs = FLIGHT_SERVICE_MS;
+		ExecutorService tomcat = Executors.newFixedThreadPool(SERVLET_THREADS);
+		peakInFlight.set(0);
+		List<Future<TicketResponse>> tickets = new ArrayList<>();
+		for (int i = 0; i < DOWNLOADS; i++) {
+			tickets.add(tomcat.submit(() -> blocking.downloadTicket(pnr)));
+		}
+		for (Future<TicketResponse> t : tickets) {
+			assertNotNull(t.get().getFlightDetails());
+		}
+		int servletPeak = peakInFlight.getAndSet(0);
+		tomcat.shutdown();
+
+		List<TicketResponse> reactiveTickets = Flux.range(0, DOWNLOADS)
+				.flatMap(i -> reactive.downloadTicket(pnr), DOWNLOADS).collectList().block();
+		int reactivePeak = peakInFlight.get();
+
+		assertEquals(DOWNLOADS, reactiveTickets.size());
+		assertTrue(reactiveTickets.stream().allMatch(t -> t.getFlightDetails() != null));
+		assertTrue(servletPeak <= SERVLET_THREADS);
+		assertTrue(reactivePeak > SERVLET_THREADS, "the reactive mode must not be bounded by a thread per request");
+	}
+
+	private String loadBooking() {
+		return bookings.save(new Booking(null, "PNR-LOAD", "r@gmail.com", "A:M:30", 1, 10L, LocalDateTime.now(),
+				"BOOKED", 1000.0, "{}", LocalDate.now().plusDays(5), null, null)).getPnr();
+	}
+
+	private void awaitStatus(Long bookingId, String status) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!status.equals(bookings.findById(bookingId).orElseThrow().getStatus()) && System.nanoTime() < deadline) {
+			Thread.sleep(20);
+		}
+		assertEquals(status, bookings.findById(bookingId).orElseThrow().getStatus());
+	}
+
+	private static BookingRequest request(int seats) {
+		return new BookingRequest("r@gmail.com", seats, String.join(";", Collections.nCopies(seats, "A:M:30")), 1000.0,
+				LocalDate.now().plusDays(5), null, null);
+	}
+
+	private static void respond(HttpExchange exchange) throws IOException {
+		peakInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+		try {
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+			while (peakInFlight.get() < holdUntilInFlight && System.nanoTime() < deadline) {
+				Thread.sleep(5);
+			}
+			Thread.sleep(flightServiceMs);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			inFlight.decrementAndGet();
+		}
+		boolean get = "GET".equals(exchange.getRequestMethod());
+		byte[] body = (get ? "{\"id\":10,\"airlineCode\":\"6E\"}" : "Seats Updated").getBytes(StandardCharsets.UTF_8);
+		exchange.getResponseHeaders().add("Content-Type", get ? "application/json" : "text/plain");
+		exchange.sendResponseHeaders(200, body.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(body);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package com.flightapp.flightservice.cache;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps the flight caches of all replicas in step. Local changes are
+ * announced on the {@link InvalidationBus} once they are committed, tagged
+ * with the flight's version, and invalidations from other replicas evict the
+ * matching entries here unless a newer version of that flight was already
+ * seen. The versions seen are kept for at most
+ * {@code flight.cache.invalidation.max-tracked} flights, each for
+ * {@code flight.cache.invalidation.tracked-ttl} after its last message;
+ * forgetting one only means a late duplicate evicts once more.
+ */
+@Component
+public class FlightCacheInvalidator {
+
+	private final InvalidationBus bus;
+	private final CacheManager cacheManager;
+	private final FlightRepository repo;
+	private final String origin = UUID.randomUUID().toString();
+	private final com.github.benmanes.caffeine.cache.Cache<Long, Long> lastSeen;
+
+	public FlightCacheInvalidator(InvalidationBus bus, CacheManager cacheManager, FlightRepository repo,
+			@Value("${flight.cache.invalidation.max-tracked:100000}") long maxTracked,
+			@Value("${flight.cache.invalidation.tracked-ttl:10m}") Duration trackedTtl) {
+		this.bus = bus;
+		this.cacheManager = cacheManager;
+		this.repo = repo;
+		this.lastSeen = Caffeine.newBuilder().maximumSize(maxTracked).expireAfterAccess(trackedTtl).build();
+		bus.subscribe(this::onInvalidation);
+	}
+
+	/**
+	 * Evicts here as well: @CacheEvict runs when the service method returns,
+	 * which is before commit when the call joined an outer transaction, and a
+	 * read in between would cache the old row again. The version is read after
+	 * the commit, so it is at least the one this change wrote.
+	 */
+	@TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+	public void onFlightChanged(FlightChangedEvent event) {
+		evict(event.flightId(), event.routeChanged());
+		long version = repo.findVersionById(event.flightId()).orElse(0L);
+		bus.publish(new FlightInvalidation(event.flightId(), version, origin, event.routeChanged()));
+	}
+
+	void onInvalidation(FlightInvalidation invalidation) {
+		if (origin.equals(invalidation.origin())) {
+			return;
+		}
+
+		// a redelivered or overtaken message has already been acted on
+		boolean[] fresh = new boolean[1];
+		lastSeen.asMap().compute(invalidation.flightId(), (id, seen) -> {
+			fresh[0] = seen == null || invalidation.version() > seen;
+			return fresh[0] ? invalidation.version() : seen;
+		});
+		if (!fresh[0]) {
+			return;
+		}
+
+		evict(invalidation.flightId(), invalidation.routeChanged());
+	}
+
+	private void evict(Long flightId, boolean routeChanged) {
+		Cache flights = cacheManager.getCache(CacheConfig.FLIGHTS);
+		if (flights != null && flightId != null) {
+			flights.evict(flightId);
+		}
+		if (routeChanged) {
+			Cache searches = cacheManager.getCache(CacheConfig.FLIGHT_SEARCH);
+			if (searches != null) {
+				searches.clear();
+			}
+		}
+	}
+
+	long tracked() {
+		lastSeen.cleanUp();
+		return lastSeen.estimatedSize();
+	}
+
+	String origin() {
+		return origin;
+	}
+}
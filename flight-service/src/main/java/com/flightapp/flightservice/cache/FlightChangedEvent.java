@@ -0,0 +1,17 @@
+package com.flightapp.flightservice.cache;
+
+/**
+ * Published inside flight-service after a Flight's seats or a route's
+ * inventory changed. {@code routeChanged} is set when cached searches must be
+ * dropped as well, e.g. after a new flight was added.
+ */
+public record FlightChangedEvent(Long flightId, boolean routeChanged) {
+
+	public static FlightChangedEvent seats(Long flightId) {
+		return new FlightChangedEvent(flightId, false);
+	}
+
+	public static FlightChangedEvent route(Long flightId) {
+		return new FlightChangedEvent(flightId, true);
+	}
+}
@@ -0,0 +1,28 @@
+package com.flightapp.flightservice.cache;
+
+/**
+ * Invalidation message exchanged between flight-service replicas. On the wire
+ * it is a single short line: {@code S|R:flightId:version:origin}.
+ *
+ * @param flightId     flight whose cached row is stale
+ * @param version      the flight's {@code @Version} once the change was
+ *                     committed, lets receivers drop redeliveries and
+ *                     messages overtaken by a later change
+ * @param origin       id of the publishing replica
+ * @param routeChanged whether cached searches must be dropped too
+ */
+public record FlightInvalidation(Long flightId, long version, String origin, boolean routeChanged) {
+
+	public String encode() {
+		return (routeChanged ? "R" : "S") + ":" + flightId + ":" + version + ":" + origin;
+	}
+
+	public static FlightInvalidation decode(String line) {
+		String[] parts = line.split(":", 4);
+		if (parts.length != 4) {
+			throw new IllegalArgumentException("Malformed invalidation: " + line);
+		}
+		return new FlightInvalidation(Long.valueOf(parts[1]), Long.parseLong(parts[2]), parts[3],
+				"R".equals(parts[0]));
+	}
+}
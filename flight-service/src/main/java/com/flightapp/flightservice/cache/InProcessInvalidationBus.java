@@ -0,0 +1,30 @@
+package com.flightapp.flightservice.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers invalidations to every subscriber in the same JVM. Used for a
+ * single instance, and in tests as a stand-in broker shared by several
+ * simulated replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "flight.cache.invalidation.transport", havingValue = "local", matchIfMissing = true)
+public class InProcessInvalidationBus implements InvalidationBus {
+
+	private final List<Consumer<FlightInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+	@Override
+	public void publish(FlightInvalidation invalidation) {
+		subscribers.forEach(s -> s.accept(invalidation));
+	}
+
+	@Override
+	public void subscribe(Consumer<FlightInvalidation> subscriber) {
+		subscribers.add(subscriber);
+	}
+}
@@ -0,0 +1,15 @@
+package com.flightapp.flightservice.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Fan-out channel between flight-service replicas. Chosen with
+ * {@code flight.cache.invalidation.transport}: {@code local} (default, a
+ * single process) or {@code rabbit}.
+ */
+public interface InvalidationBus {
+
+	void publish(FlightInvalidation invalidation);
+
+	void subscribe(Consumer<FlightInvalidation> subscriber);
+}
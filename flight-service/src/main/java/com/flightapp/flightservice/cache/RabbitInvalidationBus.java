@@ -0,0 +1,59 @@
+package com.flightapp.flightservice.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.ExchangeTypes;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Broadcasts invalidations through a RabbitMQ fanout exchange. Every replica
+ * listens on its own auto-deleted queue bound to the exchange, so each
+ * message reaches all running instances once.
+ */
+@Component
+@ConditionalOnProperty(name = "flight.cache.invalidation.transport", havingValue = "rabbit")
+public class RabbitInvalidationBus implements InvalidationBus {
+
+	static final String EXCHANGE = "flight.cache.invalidation";
+
+	private static final Logger log = LoggerFactory.getLogger(RabbitInvalidationBus.class);
+
+	private final RabbitTemplate template;
+	private final List<Consumer<FlightInvalidation>> subscribers = new CopyOnWriteArrayList<>();
+
+	public RabbitInvalidationBus(RabbitTemplate template) {
+		this.template = template;
+	}
+
+	@Override
+	public void publish(FlightInvalidation invalidation) {
+		try {
+			template.convertAndSend(EXCHANGE, "", invalidation.encode());
+		} catch (RuntimeException e) {
+			// other replicas fall back to their cache TTL
+			log.warn("Could not publish invalidation for flight {}: {}", invalidation.flightId(), e.getMessage());
+		}
+	}
+
+	@Override
+	public void subscribe(Consumer<FlightInvalidation> subscriber) {
+		subscribers.add(subscriber);
+	}
+
+	@RabbitListener(bindings = @QueueBinding(value = @Queue(exclusive = "true", autoDelete = "true"),
+			exchange = @Exchange(value = EXCHANGE, type = ExchangeTypes.FANOUT)))
+	public void onMessage(String body) {
+		FlightInvalidation invalidation = FlightInvalidation.decode(body);
+		subscribers.forEach(s -> s.accept(invalidation));
+	}
+}
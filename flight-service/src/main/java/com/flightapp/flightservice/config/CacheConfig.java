@@ -0,0 +1,48 @@
+package com.flightapp.flightservice.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Bounded Caffeine caches for flight reads. All caches record statistics, so
+ * hits, misses and evictions show up under {@code cache.*} on
+ * /actuator/metrics.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+	/** Flight rows by id. */
+	public static final String FLIGHTS = "flights";
+
+	/** Flight ids (plus next cursor) per normalized search. */
+	public static final String FLIGHT_SEARCH = "flightSearch";
+
+	/** Results of recently completed idempotent requests, in front of idempotency_keys. */
+	public static final String IDEMPOTENCY = "idempotency";
+
+	@Bean
+	public CacheManager cacheManager(@Value("${flight.cache.flights.max-size:10000}") long flightsMaxSize,
+			@Value("${flight.cache.flights.ttl:60s}") Duration flightsTtl,
+			@Value("${flight.cache.search.max-size:2000}") long searchMaxSize,
+			@Value("${flight.cache.search.ttl:30s}") Duration searchTtl,
+			@Value("${flight.idempotency.cache.max-size:50000}") long idempotencyMaxSize,
+			@Value("${flight.idempotency.cache.ttl:10m}") Duration idempotencyTtl) {
+		CaffeineCacheManager manager = new CaffeineCacheManager();
+		manager.registerCustomCache(FLIGHTS, Caffeine.newBuilder().maximumSize(flightsMaxSize)
+				.expireAfterWrite(flightsTtl).recordStats().build());
+		manager.registerCustomCache(FLIGHT_SEARCH, Caffeine.newBuilder().maximumSize(searchMaxSize)
+				.expireAfterWrite(searchTtl).recordStats().build());
+		manager.registerCustomCache(IDEMPOTENCY, Caffeine.newBuilder().maximumSize(idempotencyMaxSize)
+				.expireAfterWrite(idempotencyTtl).recordStats().build());
+		return manager;
+	}
+}
@@ -2,25 +2,54 @@ package com.flightapp.flightservice.controller;
 
 import com.flightapp.flightservice.domain.Flight;
 
+import com.flightapp.flightservice.dto.BulkLoadResult;
 import com.flightapp.flightservice.dto.FlightInventoryRequest;
+import com.flightapp.flightservice.dto.FlightResponse;
 import com.flightapp.flightservice.dto.FlightSearchRequest;
+import com.flightapp.flightservice.dto.FlightSearchResult;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import com.flightapp.flightservice.dto.SeatBatchRequest;
+import com.flightapp.flightservice.dto.SeatHoldRequest;
+import com.flightapp.flightservice.dto.SeatHoldResponse;
+import com.flightapp.flightservice.dto.SeatReservationRequest;
+import com.flightapp.flightservice.dto.SeatResponse;
+import com.flightapp.flightservice.hold.SeatHoldService;
+import com.flightapp.flightservice.idempotency.IdempotencyService;
+import com.flightapp.flightservice.service.FlightBulkLoadService;
 import com.flightapp.flightservice.service.FlightService;
 
 import jakarta.validation.Valid;
 
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/flight")
 public class FlightController {
 
+	private static final String NDJSON = "application/x-ndjson";
+	private static final String CSV = "text/csv";
+
+	private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
 	private final FlightService service;
+	private final FlightBulkLoadService bulkLoader;
+	private final IdempotencyService idempotency;
+	private final SeatHoldService holds;
 
-	public FlightController(FlightService service) {
+	public FlightController(FlightService service, FlightBulkLoadService bulkLoader, IdempotencyService idempotency,
+			SeatHoldService holds) {
 		this.service = service;
+		this.bulkLoader = bulkLoader;
+		this.idempotency = idempotency;
+		this.holds = holds;
 	}
 
 	@PostMapping("/airline/inventory/add")
@@ -42,23 +71,58 @@ public class FlightController {
 	            .body(saved.getId());
 	}
 
+	@PostMapping(value = "/airline/inventory/bulk", consumes = { NDJSON, CSV })
+	public ResponseEntity<BulkLoadResult> bulkLoad(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+			InputStream body) throws IOException {
+		FlightBulkLoadService.Format format = contentType.isCompatibleWith(MediaType.valueOf(CSV))
+				? FlightBulkLoadService.Format.CSV
+				: FlightBulkLoadService.Format.NDJSON;
+
+		BulkLoadResult result = bulkLoader.load(body, format);
+
+		return ResponseEntity
+	            .status(result.getLoaded() > 0 || result.getReceived() == 0 ? 201 : 400)
+	            .body(result);
+	}
+
 	@PostMapping("/search")
 	public ResponseEntity<List<Flight>> search(@Valid @RequestBody FlightSearchRequest req) {
-		return ResponseEntity.ok(service.search(req.getFrom(), req.getTo()));
+		FlightSearchResult result = service.search(req);
+		ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+		if (result.getNextCursor() != null) {
+			response.header("X-Next-Cursor", result.getNextCursor());
+		}
+		return response.body(result.getFlights());
 	}
 
+	/**
+	 * Tagged with the row version plus the seats on offer, which in ledger
+	 * mode move ahead of the row between flushes. Spring MVC answers a
+	 * matching If-None-Match with 304 and no body.
+	 */
 	@GetMapping("/get/{id}")
 	public ResponseEntity<?> getFlight(@PathVariable Long id) {
 		Flight flight = service.getFlight(id);
 		if (flight == null) {
 			return ResponseEntity.notFound().build();
 		}
-		return ResponseEntity.ok(flight);
+		return ResponseEntity.ok().eTag(flight.getVersion() + "-" + flight.getAvailableSeats()).body(flight);
+	}
+
+	@GetMapping("/snapshot/{id}")
+	public ResponseEntity<FlightSnapshot> getFlightSnapshot(@PathVariable Long id) {
+		FlightSnapshot snapshot = service.getFlightSnapshot(id);
+		if (snapshot == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(snapshot);
 	}
 
 	@PutMapping("/update-seats/{flightId}/{count}")
-	public ResponseEntity<?> updateSeats(@PathVariable Long flightId, @PathVariable Integer count) {
-		String response = service.updateSeats(flightId, count);
+	public ResponseEntity<?> updateSeats(@PathVariable Long flightId, @PathVariable Integer count,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		String response = idempotency.execute(idempotencyKey, "update-seats:" + flightId + ":" + count,
+				() -> service.updateSeats(flightId, count));
 
 		if ("Flight Not Found".equals(response)) {
 			return ResponseEntity.notFound().build();
@@ -71,15 +135,115 @@ public class FlightController {
 		return ResponseEntity.ok(response);
 	}
 
+	@PutMapping("/update-seats/batch")
+	public ResponseEntity<?> updateSeats(@Valid @RequestBody SeatBatchRequest req) {
+		String response = service.updateSeats(req.getUpdates());
+
+		if ("Flight Not Found".equals(response)) {
+			return ResponseEntity.status(404).body(response);
+		}
+
+		if ("Not Enough Seats".equals(response)) {
+			return ResponseEntity.badRequest().body(response);
+		}
+
+		return ResponseEntity.ok(response);
+	}
+
 	@PutMapping("/rollback-seats/{flightId}/{count}")
-	public ResponseEntity<?> rollbackSeats(@PathVariable Long flightId, @PathVariable Integer count) {
+	public ResponseEntity<?> rollbackSeats(@PathVariable Long flightId, @PathVariable Integer count,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+
+		String response = idempotency.execute(idempotencyKey, "rollback-seats:" + flightId + ":" + count,
+				() -> service.rollbackSeats(flightId, count));
+
+		if ("Flight Not Found".equals(response)) {
+			return ResponseEntity.notFound().build();
+		}
 
-		String response = service.rollbackSeats(flightId, count);
+		return ResponseEntity.ok(response);
+	}
+
+	@GetMapping("/{flightId}/seats")
+	public ResponseEntity<?> getSeatMap(@PathVariable Long flightId) {
+		FlightResponse seatMap = service.getSeatMap(flightId);
+		if (seatMap == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.ok(seatMap);
+	}
+
+	/**
+	 * With an Idempotency-Key the seat numbers handed out are recorded, so a
+	 * retry gets the same seats back instead of a second set.
+	 */
+	@PostMapping("/{flightId}/seats/reserve")
+	public ResponseEntity<?> reserveSeats(@PathVariable Long flightId, @Valid @RequestBody SeatReservationRequest req,
+			@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+		boolean byNumber = req.getSeatNumbers() != null && !req.getSeatNumbers().isEmpty();
+		if (!byNumber && req.getCount() == null) {
+			return ResponseEntity.badRequest().body("Seat count or seat numbers are required");
+		}
+
+		Supplier<List<SeatResponse>> reserve = () -> byNumber ? service.reserveSeats(flightId, req.getSeatNumbers())
+				: service.reserveSeats(flightId, req.getSeatType(), req.getCount());
+		if (idempotencyKey == null || idempotencyKey.isBlank()) {
+			List<SeatResponse> seats = reserve.get();
+			return seats == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(seats);
+		}
 
+		String request = "reserve-seats:" + flightId + ":"
+				+ (byNumber ? String.join(",", req.getSeatNumbers()) : req.getSeatType() + ":" + req.getCount());
+		String response = idempotency.execute(idempotencyKey, request, () -> {
+			List<SeatResponse> seats = reserve.get();
+			return seats == null ? "Flight Not Found"
+					: String.join(",", seats.stream().map(SeatResponse::getSeatNumber).toList());
+		});
 		if ("Flight Not Found".equals(response)) {
 			return ResponseEntity.notFound().build();
 		}
+		return ResponseEntity.ok(service.getSeats(flightId, List.of(response.split(","))));
+	}
 
+	@PutMapping("/{flightId}/seats/release")
+	public ResponseEntity<?> releaseSeats(@PathVariable Long flightId, @RequestBody SeatReservationRequest req) {
+		if (req.getSeatNumbers() == null || req.getSeatNumbers().isEmpty()) {
+			return ResponseEntity.badRequest().body("Seat numbers are required");
+		}
+
+		String response = service.releaseSeats(flightId, req.getSeatNumbers());
+		if ("Flight Not Found".equals(response)) {
+			return ResponseEntity.notFound().build();
+		}
 		return ResponseEntity.ok(response);
 	}
-}
\ No newline at end of file
+
+	/** Takes seats for a while; they come back by themselves unless the hold is confirmed first. */
+	@PostMapping("/{flightId}/holds")
+	public ResponseEntity<?> holdSeats(@PathVariable Long flightId, @Valid @RequestBody SeatHoldRequest req) {
+		SeatHoldResponse hold = holds.hold(flightId, req.getSeats(), req.getTtlSeconds());
+		if (hold == null) {
+			return ResponseEntity.notFound().build();
+		}
+		return ResponseEntity.status(201).body(hold);
+	}
+
+	@GetMapping("/holds/{holdId}")
+	public ResponseEntity<SeatHoldResponse> getHold(@PathVariable Long holdId) {
+		return holdOrNotFound(holds.getHold(holdId));
+	}
+
+	@PutMapping("/holds/{holdId}/confirm")
+	public ResponseEntity<SeatHoldResponse> confirmHold(@PathVariable Long holdId) {
+		return holdOrNotFound(holds.confirm(holdId));
+	}
+
+	@PutMapping("/holds/{holdId}/release")
+	public ResponseEntity<SeatHoldResponse> releaseHold(@PathVariable Long holdId) {
+		return holdOrNotFound(holds.release(holdId));
+	}
+
+	private static ResponseEntity<SeatHoldResponse> holdOrNotFound(SeatHoldResponse hold) {
+		return hold == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(hold);
+	}
+}
@@ -1,33 +1,55 @@
 package com.flightapp.flightservice.domain;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "flights")
+@Table(name = "flights", indexes = @Index(name = "idx_flight_route_departure", columnList = "from_place, to_place, departure_at"))
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class Flight {
 
+	public static final int ID_BLOCK = 50;
+
+	/**
+	 * Drawn from a pooled sequence (a table on MySQL) so Hibernate can hand
+	 * out ids in blocks and batch inserts; IDENTITY forces one round trip per
+	 * row.
+	 */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "flight_seq")
+	@SequenceGenerator(name = "flight_seq", sequenceName = "flight_seq", allocationSize = Flight.ID_BLOCK)
 	private Long id;
 
 	private String airlineName;
 
 	private String airlineCode;
 
+	@Column(name = "from_place")
 	private String fromPlace;
 
+	@Column(name = "to_place")
 	private String toPlace;
 	private String departureDateTime;
 	private String arrivalDateTime;
@@ -35,4 +57,51 @@ public class Flight {
 	private Double price;
 	private Integer availableSeats;
 
+	/**
+	 * departureDateTime as a real timestamp, kept in step with the string on
+	 * every write so searches can range-filter and sort on it.
+	 */
+	@JsonIgnore
+	@Column(name = "departure_at")
+	private LocalDateTime departureAt;
+
+	/**
+	 * Bumped on every write, the seat counter statements included, so a save
+	 * of a stale copy fails instead of writing old seats back, and GET
+	 * /get/{id} can hand it out as an ETag. Null on rows stored before the
+	 * column existed until DepartureBackfillRunner sets it.
+	 */
+	@Version
+	private Long version;
+
+	/**
+	 * A departure that cannot be read is refused rather than stored without
+	 * departure_at, where no search would ever find the flight.
+	 */
+	@PrePersist
+	@PreUpdate
+	void syncDepartureAt() {
+		departureAt = parseDateTime(departureDateTime);
+		if (departureAt == null && departureDateTime != null && !departureDateTime.isBlank()) {
+			throw new IllegalArgumentException("Invalid departure date/time: " + departureDateTime);
+		}
+	}
+
+	/**
+	 * Accepts ISO-8601 date-times with or without seconds, the same with a
+	 * space instead of the 'T', or a bare date. Returns {@code null} for
+	 * anything else.
+	 */
+	public static LocalDateTime parseDateTime(String value) {
+		if (value == null || value.isBlank()) {
+			return null;
+		}
+
+		String v = value.trim().replace(' ', 'T');
+		try {
+			return v.length() == 10 ? LocalDate.parse(v).atStartOfDay() : LocalDateTime.parse(v);
+		} catch (DateTimeParseException e) {
+			return null;
+		}
+	}
 }
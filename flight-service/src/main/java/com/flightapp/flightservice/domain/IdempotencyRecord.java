@@ -0,0 +1,40 @@
+package com.flightapp.flightservice.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Outcome of a request sent with an Idempotency-Key. {@code request}
+ * identifies what the key was first used for, so a key cannot be replayed
+ * against a different flight or seat count.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_created", columnList = "created_at"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+
+	@Id
+	@Column(name = "idempotency_key", length = 100)
+	private String idempotencyKey;
+
+	@Column(length = 255)
+	private String request;
+
+	@Column(length = 100)
+	private String result;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+}
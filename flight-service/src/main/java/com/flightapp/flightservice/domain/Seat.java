@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
-@Table(name = "flight_seats")
+@Table(name = "flight_seats", indexes = @Index(name = "uk_seat_flight_number", columnList = "flight_id, seat_number", unique = true))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -15,7 +15,7 @@ public class Seat {
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
 
-	@Column(nullable = false)
+	@Column(name = "seat_number", nullable = false)
 	private String seatNumber;
 
 	@Enumerated(EnumType.STRING)
@@ -25,7 +25,7 @@ public class Seat {
 	@Column(nullable = false)
 	private boolean booked;
 
-	@ManyToOne
+	@ManyToOne(fetch = FetchType.LAZY)
 	@JoinColumn(name = "flight_id")
 	private Flight flight;
 }
@@ -0,0 +1,54 @@
+package com.flightapp.flightservice.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Seats taken from a flight for a limited time. A HELD hold ends exactly once:
+ * CONFIRMED keeps the seats, RELEASED and EXPIRED hand them back.
+ */
+@Entity
+@Table(name = "seat_holds", indexes = @Index(name = "idx_seat_hold_status", columnList = "status, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHold {
+
+	public static final String HELD = "HELD";
+	public static final String CONFIRMED = "CONFIRMED";
+	public static final String RELEASED = "RELEASED";
+	public static final String EXPIRED = "EXPIRED";
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_hold_seq")
+	@SequenceGenerator(name = "seat_hold_seq", sequenceName = "seat_hold_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "flight_id", nullable = false)
+	private Long flightId;
+
+	@Column(nullable = false)
+	private Integer seats;
+
+	@Column(length = 20, nullable = false)
+	private String status;
+
+	@Column(name = "expires_at", nullable = false)
+	private LocalDateTime expiresAt;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+}
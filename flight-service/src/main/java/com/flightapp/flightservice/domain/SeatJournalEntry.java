@@ -0,0 +1,44 @@
+package com.flightapp.flightservice.domain;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * A seat change the ledger inventory has acknowledged but not yet folded into
+ * flights.available_seats. The row commits before the caller gets its answer
+ * and is deleted in the transaction that applies it, so the flight's seats
+ * are always the column plus whatever is still journaled.
+ */
+@Entity
+@Table(name = "seat_ledger_journal")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatJournalEntry {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_journal_seq")
+	@SequenceGenerator(name = "seat_journal_seq", sequenceName = "seat_journal_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "flight_id", nullable = false)
+	private Long flightId;
+
+	@Column(nullable = false)
+	private Integer delta;
+
+	@Column(name = "created_at")
+	private LocalDateTime createdAt;
+}
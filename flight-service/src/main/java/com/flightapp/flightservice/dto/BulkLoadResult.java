@@ -0,0 +1,29 @@
+package com.flightapp.flightservice.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLoadResult {
+
+	private int received;
+	private int loaded;
+	private int rejected;
+
+	/** Only the first errors are listed; {@link #rejected} has the full count. */
+	private List<RowError> errors = new ArrayList<>();
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class RowError {
+		private long line;
+		private String message;
+	}
+}
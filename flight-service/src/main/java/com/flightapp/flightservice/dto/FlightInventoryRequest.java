@@ -24,6 +24,7 @@ public class FlightInventoryRequest {
 	private String toPlace;
 
 	@NotBlank(message = "Departure date/time is required")
+	@Pattern(regexp = "\\d{4}-\\d{2}-\\d{2}([T ]\\d{2}:\\d{2}(:\\d{2})?)?", message = "Departure date/time must be yyyy-MM-ddTHH:mm[:ss]")
 	private String departureDateTime;
 
 	@NotBlank(message = "Arrival date/time is required")
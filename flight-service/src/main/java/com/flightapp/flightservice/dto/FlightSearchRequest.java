@@ -1,6 +1,11 @@
 package com.flightapp.flightservice.dto;
 
+import java.time.LocalDate;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -13,4 +18,20 @@ public class FlightSearchRequest {
 
     @NotBlank(message = "To place is required")
     private String to;
+
+    /** First departure day to include; open-ended when absent. */
+    private LocalDate departureFrom;
+
+    /** Last departure day to include; open-ended when absent. */
+    private LocalDate departureTo;
+
+    @Pattern(regexp = "(?i)asc|desc", message = "Sort must be ASC or DESC")
+    private String sort = "ASC";
+
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit cannot exceed 100")
+    private Integer limit = 20;
+
+    /** Opaque position returned in the X-Next-Cursor header of the previous page. */
+    private String cursor;
 }
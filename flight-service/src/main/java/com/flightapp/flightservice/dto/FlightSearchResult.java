@@ -0,0 +1,16 @@
+package com.flightapp.flightservice.dto;
+
+import java.util.List;
+
+import com.flightapp.flightservice.domain.Flight;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class FlightSearchResult {
+	private List<Flight> flights;
+
+	/** Cursor for the next page, or {@code null} on the last page. */
+	private String nextCursor;
+}
@@ -0,0 +1,23 @@
+package com.flightapp.flightservice.dto;
+
+import lombok.*;
+
+/**
+ * The part of a Flight other services keep on their side (tickets, booking
+ * confirmations). Seat availability is left out on purpose: it is stale the
+ * moment it is copied.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightSnapshot {
+    private Long id;
+    private String airlineName;
+    private String airlineCode;
+    private String fromPlace;
+    private String toPlace;
+    private String departureDateTime;
+    private String arrivalDateTime;
+    private Double price;
+}
@@ -0,0 +1,19 @@
+package com.flightapp.flightservice.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatBatchRequest {
+
+	@NotEmpty(message = "At least one seat update is required")
+	@Size(max = 100, message = "A batch cannot touch more than 100 flights")
+	private List<@Valid SeatUpdate> updates;
+}
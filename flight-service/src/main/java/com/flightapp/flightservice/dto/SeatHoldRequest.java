@@ -0,0 +1,22 @@
+package com.flightapp.flightservice.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldRequest {
+
+	@NotNull(message = "Seat count is required")
+	@Min(value = 1, message = "At least 1 seat must be held")
+	@Max(value = 10, message = "You cannot hold more than 10 seats at once")
+	private Integer seats;
+
+	/** How long to hold the seats; {@code flight.holds.ttl} when absent, at most {@code flight.holds.max-ttl}. */
+	@Min(value = 1, message = "Hold time must be at least 1 second")
+	private Integer ttlSeconds;
+}
@@ -0,0 +1,17 @@
+package com.flightapp.flightservice.dto;
+
+import java.time.LocalDateTime;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatHoldResponse {
+    private Long id;
+    private Long flightId;
+    private Integer seats;
+    private String status;
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,30 @@
+package com.flightapp.flightservice.dto;
+
+import java.util.List;
+
+import com.flightapp.flightservice.domain.SeatType;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatReservationRequest {
+
+	private SeatType seatType = SeatType.REGULAR;
+
+	@Min(value = 1, message = "At least 1 seat must be reserved")
+	@Max(value = 10, message = "You cannot reserve more than 10 seats at once")
+	private Integer count;
+
+	/**
+	 * Bounded like {@code count}, and each number in length, so a keyed
+	 * request and the seats it got fit the idempotency record's columns.
+	 */
+	@Size(max = 10, message = "You cannot reserve more than 10 seats at once")
+	private List<@Size(max = 8, message = "Seat numbers are at most 8 characters") String> seatNumbers;
+}
@@ -0,0 +1,21 @@
+package com.flightapp.flightservice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+/**
+ * One leg of a batch seat update. A negative delta takes seats from the
+ * flight, a positive one gives them back.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatUpdate {
+
+	@NotNull(message = "Flight id is required")
+	private Long flightId;
+
+	@NotNull(message = "Seat delta is required")
+	private Integer delta;
+}
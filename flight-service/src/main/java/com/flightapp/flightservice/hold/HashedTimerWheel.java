@@ -0,0 +1,209 @@
+package com.flightapp.flightservice.hold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * A hashed timer wheel: {@code wheelSize} buckets, one per tick of
+ * {@code tickMillis}, each a linked list of timeouts that fall on it in this
+ * or a later turn of the wheel. Scheduling and cancelling are O(1) and only
+ * enqueue; the thread that calls {@link #advance} owns the buckets, files new
+ * timeouts, unlinks cancelled ones and walks the single bucket of each tick
+ * that has passed. The cost of a tick is the size of one bucket, not the
+ * number of outstanding timeouts, so millions of them cost memory but no
+ * polling.
+ * <p>
+ * A timeout never fires before its deadline and at most one tick after it,
+ * plus however late {@code advance} is called. Expired payloads of one
+ * {@code advance} are handed to the callback together.
+ */
+public class HashedTimerWheel<T> {
+
+	private final long tickMillis;
+	private final int mask;
+	private final Bucket<T>[] wheel;
+	private final Consumer<List<T>> onExpired;
+	private final LongSupplier clock;
+	private final long startMillis;
+
+	private final Queue<Timeout<T>> added = new ConcurrentLinkedQueue<>();
+	private final Queue<Timeout<T>> cancelled = new ConcurrentLinkedQueue<>();
+	private final AtomicLong pending = new AtomicLong();
+
+	/** The next tick to process; only touched by the advancing thread. */
+	private long tick;
+
+	public HashedTimerWheel(long tickMillis, int wheelSize, Consumer<List<T>> onExpired) {
+		this(tickMillis, wheelSize, onExpired, System::currentTimeMillis);
+	}
+
+	@SuppressWarnings("unchecked")
+	HashedTimerWheel(long tickMillis, int wheelSize, Consumer<List<T>> onExpired, LongSupplier clock) {
+		if (tickMillis <= 0 || wheelSize <= 0) {
+			throw new IllegalArgumentException("tick and wheel size must be positive");
+		}
+		int size = Integer.highestOneBit(wheelSize - 1) << 1;
+		this.tickMillis = tickMillis;
+		this.mask = Math.max(size, 1) - 1;
+		this.wheel = new Bucket[mask + 1];
+		for (int i = 0; i < wheel.length; i++) {
+			wheel[i] = new Bucket<>();
+		}
+		this.onExpired = onExpired;
+		this.clock = clock;
+		this.startMillis = clock.getAsLong();
+	}
+
+	/** Safe from any thread. The payload is passed to the callback once the deadline has passed. */
+	public Timeout<T> schedule(T payload, long deadlineMillis) {
+		Timeout<T> timeout = new Timeout<>(this, payload, deadlineMillis);
+		pending.incrementAndGet();
+		added.add(timeout);
+		return timeout;
+	}
+
+	/** Timeouts scheduled and neither fired nor cancelled yet. */
+	public long pending() {
+		return pending.get();
+	}
+
+	/** Processes every tick up to the clock's current time. Call from one thread only. */
+	public void advance() {
+		long now = clock.getAsLong();
+		long last = Math.floorDiv(now - startMillis, tickMillis);
+		if (last < tick) {
+			return;
+		}
+
+		List<T> expired = new ArrayList<>();
+		transferAdded();
+		removeCancelled();
+		while (tick <= last) {
+			expire(wheel[(int) (tick & mask)], expired);
+			tick++;
+		}
+		if (!expired.isEmpty()) {
+			onExpired.accept(expired);
+		}
+	}
+
+	private void transferAdded() {
+		Timeout<T> t;
+		while ((t = added.poll()) != null) {
+			if (t.state.get() != Timeout.WAITING) {
+				continue;
+			}
+			// the tick whose start is at or after the deadline, so nothing fires early
+			long due = Math.max(ceilDiv(t.deadlineMillis - startMillis, tickMillis), tick);
+			t.rounds = (due - tick) / wheel.length;
+			wheel[(int) (due & mask)].add(t);
+		}
+	}
+
+	private void removeCancelled() {
+		Timeout<T> t;
+		while ((t = cancelled.poll()) != null) {
+			if (t.bucket != null) {
+				t.bucket.remove(t);
+			}
+		}
+	}
+
+	private void expire(Bucket<T> bucket, List<T> expired) {
+		Timeout<T> t = bucket.head;
+		while (t != null) {
+			Timeout<T> next = t.next;
+			if (t.rounds <= 0) {
+				bucket.remove(t);
+				if (t.state.compareAndSet(Timeout.WAITING, Timeout.EXPIRED)) {
+					pending.decrementAndGet();
+					expired.add(t.payload);
+				}
+			} else {
+				t.rounds--;
+			}
+			t = next;
+		}
+	}
+
+	private static long ceilDiv(long x, long y) {
+		return -Math.floorDiv(-x, y);
+	}
+
+	public static final class Timeout<T> {
+
+		private static final int WAITING = 0;
+		private static final int CANCELLED = 1;
+		private static final int EXPIRED = 2;
+
+		private final HashedTimerWheel<T> wheel;
+		private final T payload;
+		private final long deadlineMillis;
+		private final AtomicInteger state = new AtomicInteger(WAITING);
+
+		// owned by the advancing thread
+		private long rounds;
+		private Bucket<T> bucket;
+		private Timeout<T> next;
+		private Timeout<T> prev;
+
+		private Timeout(HashedTimerWheel<T> wheel, T payload, long deadlineMillis) {
+			this.wheel = wheel;
+			this.payload = payload;
+			this.deadlineMillis = deadlineMillis;
+		}
+
+		public T payload() {
+			return payload;
+		}
+
+		/** Returns false when the timeout has already fired or been cancelled. */
+		public boolean cancel() {
+			if (!state.compareAndSet(WAITING, CANCELLED)) {
+				return false;
+			}
+			wheel.pending.decrementAndGet();
+			wheel.cancelled.add(this);
+			return true;
+		}
+	}
+
+	private static final class Bucket<T> {
+
+		private Timeout<T> head;
+		private Timeout<T> tail;
+
+		void add(Timeout<T> t) {
+			t.bucket = this;
+			t.prev = tail;
+			if (tail == null) {
+				head = t;
+			} else {
+				tail.next = t;
+			}
+			tail = t;
+		}
+
+		void remove(Timeout<T> t) {
+			if (t.prev == null) {
+				head = t.next;
+			} else {
+				t.prev.next = t.next;
+			}
+			if (t.next == null) {
+				tail = t.prev;
+			} else {
+				t.next.prev = t.prev;
+			}
+			t.next = null;
+			t.prev = null;
+			t.bucket = null;
+		}
+	}
+}
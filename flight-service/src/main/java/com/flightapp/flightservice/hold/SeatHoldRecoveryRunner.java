@@ -0,0 +1,28 @@
+package com.flightapp.flightservice.hold;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/** Puts the holds still HELD in the database back on the expiry wheel after a restart. */
+@Component
+public class SeatHoldRecoveryRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(SeatHoldRecoveryRunner.class);
+
+	private final SeatHoldService holds;
+
+	public SeatHoldRecoveryRunner(SeatHoldService holds) {
+		this.holds = holds;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		int recovered = holds.recover();
+		if (recovered > 0) {
+			log.info("Recovered {} outstanding seat holds", recovered);
+		}
+	}
+}
@@ -0,0 +1,273 @@
+package com.flightapp.flightservice.hold;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.cache.FlightChangedEvent;
+import com.flightapp.flightservice.domain.SeatHold;
+import com.flightapp.flightservice.dto.SeatHoldResponse;
+import com.flightapp.flightservice.inventory.SeatInventory;
+import com.flightapp.flightservice.repository.SeatHoldRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Holds seats for a limited time. A hold takes its seats from the
+ * {@link SeatInventory} straight away, in the same transaction that stores
+ * it, and then either is confirmed (the seats stay taken), released, or
+ * expires; the last two hand the seats back in the transaction that ends the
+ * hold. Every ending is a guarded update on the HELD row, so a confirm racing
+ * the expiry cannot both win.
+ * <p>
+ * Deadlines live in a {@link HashedTimerWheel} rather than in a polled query:
+ * expiry touches the database only for holds that actually expire, a batch at
+ * a time. Holds still HELD are put back on the wheel at startup
+ * ({@link SeatHoldRecoveryRunner}), so a restart delays expiry but never loses
+ * it. With several replicas each one expires what it recovered or created;
+ * the guarded update makes a second attempt a no-op. With the ledger
+ * inventory the seats are taken in memory regardless of the transaction, as
+ * for every other seat change in that mode.
+ */
+@Component
+public class SeatHoldService {
+
+	private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+	static final int BATCH = 500;
+	private static final String SEATS_UPDATED = "Seats Updated";
+	private static final String FLIGHT_NOT_FOUND = "Flight Not Found";
+
+	private final SeatHoldRepository repo;
+	private final SeatInventory inventory;
+	private final ApplicationEventPublisher events;
+	private final TransactionTemplate tx;
+	private final Duration ttl;
+	private final Duration maxTtl;
+	private final Duration retention;
+	private final long retryMillis;
+
+	private final HashedTimerWheel<Held> wheel;
+	private final Map<Long, HashedTimerWheel.Timeout<Held>> timers = new ConcurrentHashMap<>();
+	private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "seat-hold-wheel");
+		t.setDaemon(true);
+		return t;
+	});
+
+	public SeatHoldService(SeatHoldRepository repo, SeatInventory inventory, ApplicationEventPublisher events,
+			PlatformTransactionManager txManager, @Value("${flight.holds.ttl:10m}") Duration ttl,
+			@Value("${flight.holds.max-ttl:30m}") Duration maxTtl,
+			@Value("${flight.holds.retention:7d}") Duration retention,
+			@Value("${flight.holds.tick-ms:100}") long tickMillis,
+			@Value("${flight.holds.wheel-size:512}") int wheelSize) {
+		this.repo = repo;
+		this.inventory = inventory;
+		this.events = events;
+		this.tx = new TransactionTemplate(txManager);
+		this.ttl = ttl;
+		this.maxTtl = maxTtl;
+		this.retention = retention;
+		this.retryMillis = Math.max(1000, 10 * tickMillis);
+		this.wheel = new HashedTimerWheel<>(tickMillis, wheelSize, this::expire);
+		ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Returns {@code null} when the flight does not exist and throws when it
+	 * has too few seats left.
+	 */
+	public SeatHoldResponse hold(Long flightId, Integer seats, Integer ttlSeconds) {
+		Duration holdFor = ttlSeconds == null ? ttl : Duration.ofSeconds(ttlSeconds);
+		if (holdFor.compareTo(maxTtl) > 0) {
+			holdFor = maxTtl;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		SeatHold hold = new SeatHold(null, flightId, seats, SeatHold.HELD, now.plus(holdFor), now);
+
+		String[] result = new String[1];
+		SeatHold saved = tx.execute(status -> {
+			SeatHold h = repo.save(hold);
+			result[0] = inventory.reserve(flightId, seats);
+			if (!SEATS_UPDATED.equals(result[0])) {
+				status.setRollbackOnly();
+				return null;
+			}
+			events.publishEvent(FlightChangedEvent.seats(flightId));
+			return h;
+		});
+
+		if (saved == null) {
+			if (FLIGHT_NOT_FOUND.equals(result[0])) {
+				return null;
+			}
+			throw new RuntimeException(result[0]);
+		}
+		schedule(saved);
+		return toResponse(saved);
+	}
+
+	public SeatHoldResponse getHold(Long holdId) {
+		return repo.findById(holdId).map(SeatHoldService::toResponse).orElse(null);
+	}
+
+	/** Keeps the seats for good. Returns {@code null} for an unknown hold. */
+	public SeatHoldResponse confirm(Long holdId) {
+		return end(holdId, SeatHold.CONFIRMED);
+	}
+
+	/** Hands the seats back now. Returns {@code null} for an unknown hold. */
+	public SeatHoldResponse release(Long holdId) {
+		return end(holdId, SeatHold.RELEASED);
+	}
+
+	/** Holds waiting on the wheel of this instance. */
+	public long outstanding() {
+		return wheel.pending();
+	}
+
+	private SeatHoldResponse end(Long holdId, String status) {
+		SeatHold hold = repo.findById(holdId).orElse(null);
+		if (hold == null) {
+			return null;
+		}
+
+		boolean ended = Boolean.TRUE.equals(tx.execute(s -> {
+			if (repo.end(holdId, status) == 0) {
+				return false;
+			}
+			if (!SeatHold.CONFIRMED.equals(status)) {
+				inventory.release(hold.getFlightId(), hold.getSeats());
+				events.publishEvent(FlightChangedEvent.seats(hold.getFlightId()));
+			}
+			return true;
+		}));
+
+		if (!ended) {
+			// a repeat of the same ending answers as the first one did
+			SeatHold current = repo.findById(holdId).orElseThrow();
+			if (status.equals(current.getStatus())) {
+				return toResponse(current);
+			}
+			throw new RuntimeException("Hold Already " + capitalize(current.getStatus()));
+		}
+
+		HashedTimerWheel.Timeout<Held> timer = timers.remove(holdId);
+		if (timer != null) {
+			timer.cancel();
+		}
+		hold.setStatus(status);
+		return toResponse(hold);
+	}
+
+	/**
+	 * Puts every HELD hold back on the wheel; those past their deadline expire
+	 * on the next tick. Returns how many were scheduled.
+	 */
+	public int recover() {
+		long afterId = 0;
+		int recovered = 0;
+		List<SeatHold> page;
+		do {
+			page = repo.findByStatusAndIdGreaterThanOrderByIdAsc(SeatHold.HELD, afterId, PageRequest.of(0, BATCH));
+			for (SeatHold h : page) {
+				if (!timers.containsKey(h.getId())) {
+					schedule(h);
+					recovered++;
+				}
+			}
+			if (!page.isEmpty()) {
+				afterId = page.get(page.size() - 1).getId();
+			}
+		} while (page.size() == BATCH);
+		return recovered;
+	}
+
+	@Scheduled(fixedDelayString = "${flight.holds.purge-interval-ms:3600000}")
+	public void purge() {
+		Integer removed = tx.execute(status -> repo.deleteEndedBefore(LocalDateTime.now().minus(retention)));
+		if (removed != null && removed > 0) {
+			log.debug("Purged {} ended seat holds", removed);
+		}
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		ticker.shutdownNow();
+	}
+
+	private void schedule(SeatHold h) {
+		long deadline = h.getExpiresAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+		timers.put(h.getId(), wheel.schedule(new Held(h.getId(), h.getFlightId(), h.getSeats()), deadline));
+	}
+
+	private void tick() {
+		try {
+			wheel.advance();
+		} catch (RuntimeException e) {
+			log.error("Seat hold expiry tick failed: {}", e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Runs on the wheel's thread. Each chunk ends its holds and returns their
+	 * seats, summed per flight and in flight order, in one transaction; a
+	 * chunk that fails goes back on the wheel to be tried again shortly.
+	 */
+	void expire(List<Held> expired) {
+		for (int from = 0; from < expired.size(); from += BATCH) {
+			List<Held> chunk = expired.subList(from, Math.min(from + BATCH, expired.size()));
+			Map<Long, Integer> returned = new TreeMap<>();
+			try {
+				tx.executeWithoutResult(status -> {
+					returned.clear();
+					for (Held h : chunk) {
+						if (repo.end(h.holdId(), SeatHold.EXPIRED) == 1) {
+							returned.merge(h.flightId(), h.seats(), Integer::sum);
+						}
+					}
+					returned.forEach((flightId, seats) -> {
+						inventory.release(flightId, seats);
+						events.publishEvent(FlightChangedEvent.seats(flightId));
+					});
+				});
+				chunk.forEach(h -> timers.remove(h.holdId()));
+				log.debug("Expired {} seat holds on {} flights", chunk.size(), returned.size());
+			} catch (RuntimeException e) {
+				log.warn("Expiring {} seat holds failed, retrying in {} ms: {}", chunk.size(), retryMillis,
+						e.getMessage());
+				long retryAt = System.currentTimeMillis() + retryMillis;
+				chunk.forEach(h -> timers.put(h.holdId(), wheel.schedule(h, retryAt)));
+			}
+		}
+	}
+
+	private static SeatHoldResponse toResponse(SeatHold h) {
+		return new SeatHoldResponse(h.getId(), h.getFlightId(), h.getSeats(), h.getStatus(), h.getExpiresAt());
+	}
+
+	private static String capitalize(String status) {
+		return status.charAt(0) + status.substring(1).toLowerCase();
+	}
+
+	/** What the wheel keeps per hold: enough to expire it without reading the row. */
+	record Held(long holdId, long flightId, int seats) {
+	}
+}
@@ -0,0 +1,107 @@
+package com.flightapp.flightservice.idempotency;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.IdempotencyRecord;
+import com.flightapp.flightservice.repository.IdempotencyRecordRepository;
+
+/**
+ * Runs a seat operation at most once per Idempotency-Key and answers repeats
+ * with the first result.
+ *
+ * The key row is inserted in the same transaction as the operation itself, so
+ * the seat change and its key commit or roll back together. A concurrent
+ * repeat blocks on the key's primary key until the first request commits, then
+ * reads its result. Completed results are also kept in the
+ * {@link CacheConfig#IDEMPOTENCY} cache, which makes the common client retry
+ * a memory lookup. Keys expire after {@code flight.idempotency.ttl}.
+ */
+@Component
+public class IdempotencyService {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+	private static final int MAX_KEY_LENGTH = 100;
+
+	private final IdempotencyRecordRepository repo;
+	private final TransactionTemplate tx;
+	private final CacheManager cacheManager;
+	private final Duration ttl;
+
+	public IdempotencyService(IdempotencyRecordRepository repo, PlatformTransactionManager txManager,
+			CacheManager cacheManager, @Value("${flight.idempotency.ttl:24h}") Duration ttl) {
+		this.repo = repo;
+		this.tx = new TransactionTemplate(txManager);
+		this.cacheManager = cacheManager;
+		this.ttl = ttl;
+	}
+
+	/**
+	 * @param key     the client's Idempotency-Key, or {@code null} to just run
+	 *                the operation
+	 * @param request what the key is used for, e.g. {@code update-seats:1:3}
+	 */
+	public String execute(String key, String request, Supplier<String> operation) {
+		if (key == null || key.isBlank()) {
+			return operation.get();
+		}
+		if (key.length() > MAX_KEY_LENGTH) {
+			throw new RuntimeException("Idempotency-Key must be at most " + MAX_KEY_LENGTH + " characters");
+		}
+
+		Cache cache = cacheManager.getCache(CacheConfig.IDEMPOTENCY);
+		Outcome cached = cache.get(key, Outcome.class);
+		if (cached != null) {
+			return replay(key, cached, request);
+		}
+
+		Outcome outcome;
+		try {
+			outcome = tx.execute(status -> {
+				repo.insert(key, request, LocalDateTime.now());
+				String result = operation.get();
+				repo.complete(key, result);
+				return new Outcome(request, result);
+			});
+		} catch (DataIntegrityViolationException e) {
+			IdempotencyRecord first = repo.findById(key).orElseThrow(() -> e);
+			outcome = new Outcome(first.getRequest(), first.getResult());
+			cache.put(key, outcome);
+			return replay(key, outcome, request);
+		}
+
+		cache.put(key, outcome);
+		return outcome.result();
+	}
+
+	@Scheduled(fixedDelayString = "${flight.idempotency.purge-interval-ms:600000}")
+	public void purge() {
+		Integer removed = tx.execute(status -> repo.deleteCreatedBefore(LocalDateTime.now().minus(ttl)));
+		if (removed != null && removed > 0) {
+			log.debug("Purged {} expired idempotency keys", removed);
+		}
+	}
+
+	private static String replay(String key, Outcome outcome, String request) {
+		if (!outcome.request().equals(request)) {
+			throw new RuntimeException("Idempotency-Key " + key + " was already used for a different request");
+		}
+		return outcome.result();
+	}
+
+	private record Outcome(String request, String result) {
+	}
+}
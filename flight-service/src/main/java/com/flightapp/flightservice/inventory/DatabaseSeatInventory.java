@@ -0,0 +1,61 @@
+package com.flightapp.flightservice.inventory;
+
+import java.util.Map;
+import java.util.SortedMap;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import com.flightapp.flightservice.repository.FlightRepository;
+
+@Component
+@ConditionalOnProperty(name = "flight.inventory.mode", havingValue = "database", matchIfMissing = true)
+public class DatabaseSeatInventory implements SeatInventory {
+
+	private final FlightRepository repo;
+
+	public DatabaseSeatInventory(FlightRepository repo) {
+		this.repo = repo;
+	}
+
+	@Override
+	@Transactional
+	public String reserve(Long flightId, Integer count) {
+		if (repo.decrementSeats(flightId, count) == 1) {
+			return "Seats Updated";
+		}
+
+		return repo.existsById(flightId) ? "Not Enough Seats" : "Flight Not Found";
+	}
+
+	@Override
+	@Transactional
+	public String release(Long flightId, Integer count) {
+		if (repo.incrementSeats(flightId, count) == 0)
+			return "Flight Not Found";
+
+		return "Seats Rolled Back";
+	}
+
+	@Override
+	@Transactional
+	public String apply(SortedMap<Long, Integer> deltas) {
+		for (Map.Entry<Long, Integer> e : deltas.entrySet()) {
+			Long flightId = e.getKey();
+			int delta = e.getValue();
+			int updated = delta < 0 ? repo.decrementSeats(flightId, -delta) : repo.incrementSeats(flightId, delta);
+			if (updated == 0) {
+				TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+				return delta < 0 && repo.existsById(flightId) ? "Not Enough Seats" : "Flight Not Found";
+			}
+		}
+		return "Seats Updated";
+	}
+
+	@Override
+	public Integer available(Long flightId) {
+		return null;
+	}
+}
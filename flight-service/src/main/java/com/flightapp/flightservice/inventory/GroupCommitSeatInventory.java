@@ -0,0 +1,241 @@
+package com.flightapp.flightservice.inventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.SortedMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.repository.FlightRepository;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Group commit for seat reservations on top of {@link DatabaseSeatInventory}.
+ * A reservation joins its flight's queue and waits up to
+ * {@code flight.inventory.group-commit.max-wait-ms}; the queue is then decided
+ * in arrival order against the locked row and written with one decrement and
+ * one commit, and each caller gets its own "Seats Updated" or "Not Enough
+ * Seats". Reservations that arrive while a flight's group is committing form
+ * the next group, so a hot flight is no longer held to one commit per
+ * reservation. Releases and batches go straight to the database inventory,
+ * as do reservations made inside a caller's transaction.
+ * <p>
+ * Off unless {@code flight.inventory.group-commit.enabled=true}, and only
+ * created with {@code flight.inventory.mode=database}: the ledger already
+ * answers from memory. A flight's queue is dropped once it has drained.
+ */
+@Component
+@Primary
+@ConditionalOnExpression("${flight.inventory.group-commit.enabled:false} "
+		+ "and '${flight.inventory.mode:database}' == 'database'")
+public class GroupCommitSeatInventory implements SeatInventory, MeterBinder {
+
+	private static final Logger log = LoggerFactory.getLogger(GroupCommitSeatInventory.class);
+
+	private static final String SEATS_UPDATED = "Seats Updated";
+	private static final String NOT_ENOUGH_SEATS = "Not Enough Seats";
+	private static final String FLIGHT_NOT_FOUND = "Flight Not Found";
+
+	private final DatabaseSeatInventory database;
+	private final FlightRepository repo;
+	private final TransactionTemplate tx;
+	private final long maxWaitMillis;
+	private final int maxBatch;
+	private final ScheduledThreadPoolExecutor flusher;
+
+	private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+	private final LongAdder requests = new LongAdder();
+	private final LongAdder commits = new LongAdder();
+
+	public GroupCommitSeatInventory(DatabaseSeatInventory database, FlightRepository repo,
+			PlatformTransactionManager txManager,
+			@Value("${flight.inventory.group-commit.max-wait-ms:2}") long maxWaitMillis,
+			@Value("${flight.inventory.group-commit.max-batch:256}") int maxBatch,
+			@Value("${flight.inventory.group-commit.threads:4}") int threads) {
+		this.database = database;
+		this.repo = repo;
+		this.tx = new TransactionTemplate(txManager);
+		this.maxWaitMillis = maxWaitMillis;
+		this.maxBatch = maxBatch;
+		AtomicInteger n = new AtomicInteger();
+		this.flusher = new ScheduledThreadPoolExecutor(threads, r -> {
+			Thread t = new Thread(r, "seat-group-commit-" + n.incrementAndGet());
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * A caller already in a transaction (a seat hold, an update under an
+	 * Idempotency-Key) needs the seats to commit or roll back with its own
+	 * work, so it reserves in that transaction as before.
+	 */
+	@Override
+	public String reserve(Long flightId, Integer count) {
+		if (count == null || count <= 0) {
+			throw new RuntimeException("Seat count must be positive");
+		}
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return database.reserve(flightId, count);
+		}
+		try {
+			return submit(flightId, count).join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException r) {
+				throw r;
+			}
+			throw e;
+		}
+	}
+
+	@Override
+	public String release(Long flightId, Integer count) {
+		return database.release(flightId, count);
+	}
+
+	@Override
+	public String apply(SortedMap<Long, Integer> deltas) {
+		return database.apply(deltas);
+	}
+
+	@Override
+	public Integer available(Long flightId) {
+		return database.available(flightId);
+	}
+
+	/** Queues a reservation; the future completes once its group has committed. */
+	CompletableFuture<String> submit(Long flightId, int count) {
+		requests.increment();
+		Lane lane = lanes.computeIfAbsent(flightId, Lane::new);
+		Pending p = new Pending(count, new CompletableFuture<>());
+		lane.queue.add(p);
+		if (lane.scheduled.compareAndSet(false, true)) {
+			flusher.schedule(() -> flush(lane), maxWaitMillis, TimeUnit.MILLISECONDS);
+		}
+		return p.result;
+	}
+
+	int lanes() {
+		return lanes.size();
+	}
+
+	public long requests() {
+		return requests.sum();
+	}
+
+	public long commits() {
+		return commits.sum();
+	}
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		FunctionCounter.builder("seats.group.commit.requests", requests, LongAdder::sum)
+				.description("Seat reservations queued for group commit").register(registry);
+		FunctionCounter.builder("seats.group.commit.commits", commits, LongAdder::sum)
+				.description("Transactions that committed a group of reservations").register(registry);
+	}
+
+	@PreDestroy
+	public void shutdown() throws InterruptedException {
+		// groups already waiting still commit
+		flusher.shutdown();
+		flusher.awaitTermination(5, TimeUnit.SECONDS);
+	}
+
+	/**
+	 * Commits what is queued for a flight. Reservations that arrive meanwhile
+	 * see the lane as scheduled and wait; whoever finds them queued once the
+	 * commit is done runs the next group straight away.
+	 */
+	private void flush(Lane lane) {
+		List<Pending> group = new ArrayList<>();
+		Pending p;
+		while (group.size() < maxBatch && (p = lane.queue.poll()) != null) {
+			group.add(p);
+		}
+		if (!group.isEmpty()) {
+			commit(lane.flightId, group);
+		}
+		lane.scheduled.set(false);
+		if (lane.queue.isEmpty()) {
+			// a reservation that still finds this lane is served by the check below
+			lanes.remove(lane.flightId, lane);
+		}
+		if (!lane.queue.isEmpty() && lane.scheduled.compareAndSet(false, true)) {
+			flusher.execute(() -> flush(lane));
+		}
+	}
+
+	private void commit(Long flightId, List<Pending> group) {
+		String[] results = new String[group.size()];
+		try {
+			tx.executeWithoutResult(status -> {
+				Integer available = repo.lockAvailableSeats(flightId).orElse(null);
+				if (available == null) {
+					Arrays.fill(results, FLIGHT_NOT_FOUND);
+					return;
+				}
+				int left = available;
+				for (int i = 0; i < results.length; i++) {
+					int count = group.get(i).count();
+					if (count <= left) {
+						left -= count;
+						results[i] = SEATS_UPDATED;
+					} else {
+						results[i] = NOT_ENOUGH_SEATS;
+					}
+				}
+				if (left < available) {
+					repo.decrementSeats(flightId, available - left);
+				}
+			});
+			commits.increment();
+		} catch (RuntimeException e) {
+			log.warn("Group commit of {} reservations on flight {} failed: {}", group.size(), flightId,
+					e.getMessage());
+			group.forEach(g -> g.result().completeExceptionally(e));
+			return;
+		}
+		for (int i = 0; i < results.length; i++) {
+			group.get(i).result().complete(results[i]);
+		}
+	}
+
+	private static final class Lane {
+
+		private final Long flightId;
+		private final Queue<Pending> queue = new ConcurrentLinkedQueue<>();
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+
+		private Lane(Long flightId) {
+			this.flightId = flightId;
+		}
+	}
+
+	private record Pending(int count, CompletableFuture<String> result) {
+	}
+}
@@ -0,0 +1,30 @@
+package com.flightapp.flightservice.inventory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/** Applies the seat changes a previous run journaled but did not get to flush. */
+@Component
+@ConditionalOnProperty(name = "flight.inventory.mode", havingValue = "ledger")
+public class LedgerReplayRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(LedgerReplayRunner.class);
+
+	private final LedgerSeatInventory ledger;
+
+	public LedgerReplayRunner(LedgerSeatInventory ledger) {
+		this.ledger = ledger;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		int replayed = ledger.replay();
+		if (replayed > 0) {
+			log.info("Replayed {} journaled seat changes", replayed);
+		}
+	}
+}
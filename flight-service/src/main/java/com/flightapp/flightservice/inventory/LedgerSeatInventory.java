@@ -0,0 +1,341 @@
+package com.flightapp.flightservice.inventory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.SeatJournalEntry;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatJournalRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Keeps availableSeats per flight in memory and decides seat updates with a
+ * CAS on a per-flight counter, so a sold-out flight turns callers away
+ * without touching the database and reservations on a hot flight never queue
+ * on its row lock.
+ *
+ * Every accepted change is appended to seat_ledger_journal in the caller's
+ * transaction (or one of its own) and is only acknowledged once that commits;
+ * if it rolls back, seats taken in memory are handed back, and seats given
+ * back only become available after the commit. Every
+ * {@code flight.inventory.ledger.flush-interval-ms} the journal is folded into
+ * the flights table, one delta per flight, in the transaction that deletes
+ * the entries it applied. A flight's counter is loaded as its seat column
+ * plus its journaled entries, and whatever a crash left in the journal is
+ * applied at startup by {@link LedgerReplayRunner}.
+ *
+ * Counters not touched for {@code flight.inventory.ledger.idle-evict-ms} are
+ * dropped and reloaded on next use. The ledger assumes it is the only writer
+ * of a flight's seat counter, so run a single flight-service instance in this
+ * mode.
+ */
+@Component
+@ConditionalOnProperty(name = "flight.inventory.mode", havingValue = "ledger")
+public class LedgerSeatInventory implements SeatInventory {
+
+	private static final Logger log = LoggerFactory.getLogger(LedgerSeatInventory.class);
+
+	private final FlightRepository repo;
+	private final SeatJournalRepository journal;
+	private final TransactionTemplate tx;
+	private final TransactionTemplate loadTx;
+	private final int flushBatch;
+	private final long idleEvictNanos;
+	private final Map<Long, Slot> slots = new ConcurrentHashMap<>();
+	// a counter is loaded from the column plus the journal, never halfway through a flush
+	private final ReentrantLock flushLock = new ReentrantLock();
+
+	public LedgerSeatInventory(FlightRepository repo, SeatJournalRepository journal,
+			PlatformTransactionManager txManager,
+			@Value("${flight.inventory.ledger.flush-batch:1000}") int flushBatch,
+			@Value("${flight.inventory.ledger.idle-evict-ms:600000}") long idleEvictMillis) {
+		this.repo = repo;
+		this.journal = journal;
+		this.tx = new TransactionTemplate(txManager);
+		this.loadTx = new TransactionTemplate(txManager);
+		this.loadTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.loadTx.setReadOnly(true);
+		this.flushBatch = flushBatch;
+		this.idleEvictNanos = TimeUnit.MILLISECONDS.toNanos(idleEvictMillis);
+	}
+
+	@Override
+	public String reserve(Long flightId, Integer count) {
+		return tx.execute(status -> {
+			Slot slot = acquire(flightId);
+			if (slot == null) {
+				return "Flight Not Found";
+			}
+			if (!take(slot, count)) {
+				return "Not Enough Seats";
+			}
+			journal(flightId, -count);
+			return "Seats Updated";
+		});
+	}
+
+	@Override
+	public String release(Long flightId, Integer count) {
+		return tx.execute(status -> {
+			Slot slot = acquire(flightId);
+			if (slot == null) {
+				return "Flight Not Found";
+			}
+			give(slot, count);
+			journal(flightId, count);
+			return "Seats Rolled Back";
+		});
+	}
+
+	/**
+	 * Takes seats first and gives them back if a later flight refuses; the
+	 * rollback of the batch's transaction undoes both the journal entries and
+	 * the counters. Readers may see seats taken by a batch that then fails.
+	 */
+	@Override
+	public String apply(SortedMap<Long, Integer> deltas) {
+		return tx.execute(status -> {
+			Map<Long, Slot> touched = new HashMap<>();
+			for (Long flightId : deltas.keySet()) {
+				Slot slot = acquire(flightId);
+				if (slot == null) {
+					status.setRollbackOnly();
+					return "Flight Not Found";
+				}
+				touched.put(flightId, slot);
+			}
+
+			for (Map.Entry<Long, Integer> e : deltas.entrySet()) {
+				if (e.getValue() < 0 && !take(touched.get(e.getKey()), -e.getValue())) {
+					status.setRollbackOnly();
+					return "Not Enough Seats";
+				}
+			}
+			deltas.forEach((flightId, delta) -> {
+				if (delta > 0) {
+					give(touched.get(flightId), delta);
+				}
+				if (delta != 0) {
+					journal(flightId, delta);
+				}
+			});
+			return "Seats Updated";
+		});
+	}
+
+	@Override
+	public Integer available(Long flightId) {
+		Slot slot = slots.get(flightId);
+		return slot == null ? null : slot.available.get();
+	}
+
+	/**
+	 * Applies what the journal holds to the flights table and drops counters
+	 * that have been idle for long enough.
+	 */
+	@Scheduled(fixedDelayString = "${flight.inventory.ledger.flush-interval-ms:200}")
+	public void flush() {
+		replay();
+		evictIdle();
+	}
+
+	/**
+	 * Applies every committed journal entry, oldest first, a page per
+	 * transaction. A page that fails stays journaled for the next flush.
+	 *
+	 * @return the number of entries applied
+	 */
+	public int replay() {
+		int applied = 0;
+		flushLock.lock();
+		try {
+			int n;
+			do {
+				n = tx.execute(status -> applyJournal());
+				applied += n;
+			} while (n == flushBatch);
+		} catch (RuntimeException e) {
+			log.error("Seat ledger flush failed after {} entries, will retry: {}", applied, e.getMessage());
+		} finally {
+			flushLock.unlock();
+		}
+		return applied;
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		flush();
+	}
+
+	int cached() {
+		return slots.size();
+	}
+
+	private int applyJournal() {
+		List<SeatJournalEntry> entries = journal.findByOrderByIdAsc(PageRequest.of(0, flushBatch));
+		if (entries.isEmpty()) {
+			return 0;
+		}
+
+		Map<Long, Integer> deltas = new HashMap<>();
+		List<Long> ids = new ArrayList<>(entries.size());
+		for (SeatJournalEntry e : entries) {
+			deltas.merge(e.getFlightId(), e.getDelta(), Integer::sum);
+			ids.add(e.getId());
+		}
+		deltas.forEach((flightId, delta) -> {
+			if (delta != 0) {
+				repo.adjustSeats(flightId, delta);
+			}
+		});
+		journal.deleteAllByIdInBatch(ids);
+		log.debug("Applied {} journaled seat changes to {} flights", entries.size(), deltas.size());
+		return entries.size();
+	}
+
+	private void evictIdle() {
+		long now = System.nanoTime();
+		slots.forEach((flightId, slot) -> {
+			if (now - slot.lastUsed > idleEvictNanos && slot.users.compareAndSet(0, -1)) {
+				slots.remove(flightId, slot);
+			}
+		});
+	}
+
+	/**
+	 * The flight's counter, held until the current transaction completes so it
+	 * cannot be evicted and reloaded while the transaction's journal entries
+	 * are still uncommitted.
+	 */
+	private Slot acquire(Long flightId) {
+		while (true) {
+			Slot slot = slots.get(flightId);
+			if (slot == null) {
+				slot = load(flightId);
+				if (slot == null) {
+					return null;
+				}
+			}
+			if (slot.enter()) {
+				Slot held = slot;
+				afterCompletion(committed -> held.leave());
+				return slot;
+			}
+			// evicted in the meantime
+			slots.remove(flightId, slot);
+		}
+	}
+
+	private Slot load(Long flightId) {
+		flushLock.lock();
+		try {
+			Slot existing = slots.get(flightId);
+			if (existing != null) {
+				return existing;
+			}
+			Integer seats = loadTx.execute(status -> {
+				Flight f = repo.findById(flightId).orElse(null);
+				return f == null ? null : (int) (f.getAvailableSeats() + journal.pendingDelta(flightId));
+			});
+			if (seats == null) {
+				return null;
+			}
+			Slot slot = new Slot(seats);
+			slots.put(flightId, slot);
+			return slot;
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	/** Taken now and given back if the transaction rolls back. */
+	private boolean take(Slot slot, int count) {
+		int current;
+		do {
+			current = slot.available.get();
+			if (current < count) {
+				return false;
+			}
+		} while (!slot.available.compareAndSet(current, current - count));
+
+		afterCompletion(committed -> {
+			if (!committed) {
+				slot.available.addAndGet(count);
+			}
+		});
+		return true;
+	}
+
+	/** Given back once the transaction commits, so no one can take seats that might not be returned. */
+	private void give(Slot slot, int count) {
+		afterCompletion(committed -> {
+			if (committed) {
+				slot.available.addAndGet(count);
+			}
+		});
+	}
+
+	private void journal(Long flightId, int delta) {
+		journal.save(new SeatJournalEntry(null, flightId, delta, LocalDateTime.now()));
+	}
+
+	private static void afterCompletion(Consumer<Boolean> action) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				action.accept(status == STATUS_COMMITTED);
+			}
+		});
+	}
+
+	private static final class Slot {
+		private final AtomicInteger available;
+		// transactions holding the counter; -1 once evicted
+		private final AtomicInteger users = new AtomicInteger();
+		private volatile long lastUsed = System.nanoTime();
+
+		private Slot(int available) {
+			this.available = new AtomicInteger(available);
+		}
+
+		private boolean enter() {
+			int n;
+			do {
+				n = users.get();
+				if (n < 0) {
+					return false;
+				}
+			} while (!users.compareAndSet(n, n + 1));
+			return true;
+		}
+
+		private void leave() {
+			lastUsed = System.nanoTime();
+			users.decrementAndGet();
+		}
+	}
+}
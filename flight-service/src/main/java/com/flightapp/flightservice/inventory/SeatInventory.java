@@ -0,0 +1,28 @@
+package com.flightapp.flightservice.inventory;
+
+import java.util.SortedMap;
+
+/**
+ * Source of truth for a flight's seat counter. Selected with
+ * {@code flight.inventory.mode} ({@code database} by default, or
+ * {@code ledger}).
+ */
+public interface SeatInventory {
+
+	String reserve(Long flightId, Integer count);
+
+	String release(Long flightId, Integer count);
+
+	/**
+	 * Applies signed seat deltas to several flights as one unit: either every
+	 * delta lands or none does. Flights are visited in key order so concurrent
+	 * batches always lock rows in the same sequence.
+	 */
+	String apply(SortedMap<Long, Integer> deltas);
+
+	/**
+	 * Seats currently available according to this inventory, or {@code null}
+	 * when the persisted Flight row is already authoritative.
+	 */
+	Integer available(Long flightId);
+}
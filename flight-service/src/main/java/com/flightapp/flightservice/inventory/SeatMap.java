@@ -0,0 +1,262 @@
+package com.flightapp.flightservice.inventory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.flightapp.flightservice.domain.Seat;
+import com.flightapp.flightservice.domain.SeatType;
+
+/**
+ * Booked/free state of every seat on one flight, one bit per seat, split into
+ * a partition per {@link SeatType}. Seats are claimed with a CAS on the word
+ * holding their bit, so concurrent reservations never block each other and
+ * never hand out the same seat twice.
+ */
+public class SeatMap {
+
+	private static final int MAX_ATTEMPTS = 16;
+
+	private final Map<SeatType, Partition> partitions = new EnumMap<>(SeatType.class);
+	private final Map<String, Slot> bySeatNumber = new HashMap<>();
+
+	public SeatMap(List<Seat> seats) {
+		Map<SeatType, List<Seat>> grouped = new EnumMap<>(SeatType.class);
+		for (Seat s : seats) {
+			grouped.computeIfAbsent(s.getSeatType(), t -> new ArrayList<>()).add(s);
+		}
+
+		grouped.forEach((type, list) -> {
+			Partition p = new Partition(type, list);
+			partitions.put(type, p);
+			for (int i = 0; i < list.size(); i++) {
+				bySeatNumber.put(list.get(i).getSeatNumber(), new Slot(p, i));
+			}
+		});
+	}
+
+	/**
+	 * Claims {@code count} free seats of the given type, preferring a block of
+	 * adjacent seats in one row and falling back to the first free seats
+	 * otherwise. Returns {@code null} when not enough seats are free.
+	 */
+	public List<Claim> claim(SeatType type, int count) {
+		Partition p = partitions.get(type);
+		if (p == null || count <= 0) {
+			return null;
+		}
+
+		for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+			int start = p.findRun(count);
+			if (start < 0) {
+				break;
+			}
+			List<Claim> claimed = p.claimRange(start, count);
+			if (claimed != null) {
+				return claimed;
+			}
+		}
+
+		return p.claimAny(count);
+	}
+
+	/**
+	 * Claims exactly the given seats, or none of them if any is already taken
+	 * or unknown.
+	 */
+	public List<Claim> claim(List<String> seatNumbers) {
+		List<Claim> claimed = new ArrayList<>();
+		for (String number : seatNumbers) {
+			Slot slot = bySeatNumber.get(number);
+			if (slot == null || !slot.partition.tryClaim(slot.index)) {
+				claimed.forEach(this::release);
+				return null;
+			}
+			claimed.add(slot.partition.claimAt(slot.index));
+		}
+		return claimed;
+	}
+
+	/**
+	 * Frees the given seats and returns the ones that were actually booked.
+	 */
+	public List<Claim> release(List<String> seatNumbers) {
+		List<Claim> released = new ArrayList<>();
+		for (String number : seatNumbers) {
+			Slot slot = bySeatNumber.get(number);
+			if (slot != null && slot.partition.tryRelease(slot.index)) {
+				released.add(slot.partition.claimAt(slot.index));
+			}
+		}
+		return released;
+	}
+
+	public int free(SeatType type) {
+		Partition p = partitions.get(type);
+		return p == null ? 0 : p.size - p.bookedCount();
+	}
+
+	public int size() {
+		int size = 0;
+		for (Partition p : partitions.values()) {
+			size += p.size;
+		}
+		return size;
+	}
+
+	/**
+	 * Snapshot of every seat in layout order, grouped by seat type.
+	 */
+	public List<Claim> seats() {
+		List<Claim> all = new ArrayList<>(size());
+		for (Partition p : partitions.values()) {
+			for (int i = 0; i < p.size; i++) {
+				all.add(p.claimAt(i));
+			}
+		}
+		return all;
+	}
+
+	private void release(Claim c) {
+		Slot slot = bySeatNumber.get(c.seatNumber());
+		slot.partition.tryRelease(slot.index);
+	}
+
+	public record Claim(Long seatId, String seatNumber, SeatType seatType, boolean booked) {
+	}
+
+	private record Slot(Partition partition, int index) {
+	}
+
+	private static final class Partition {
+		private final SeatType type;
+		private final int size;
+		private final long[] ids;
+		private final String[] numbers;
+		private final int[] rows;
+		private final AtomicLongArray bits;
+
+		private Partition(SeatType type, List<Seat> seats) {
+			this.type = type;
+			this.size = seats.size();
+			this.ids = new long[size];
+			this.numbers = new String[size];
+			this.rows = new int[size];
+			this.bits = new AtomicLongArray((size + 63) >>> 6);
+
+			for (int i = 0; i < size; i++) {
+				Seat s = seats.get(i);
+				ids[i] = s.getId();
+				numbers[i] = s.getSeatNumber();
+				rows[i] = rowOf(s.getSeatNumber());
+				if (s.isBooked()) {
+					bits.set(i >>> 6, bits.get(i >>> 6) | (1L << i));
+				}
+			}
+		}
+
+		private boolean isBooked(int i) {
+			return (bits.get(i >>> 6) & (1L << i)) != 0;
+		}
+
+		private int findRun(int count) {
+			int run = 0;
+			for (int i = 0; i < size; i++) {
+				if (isBooked(i) || (run > 0 && rows[i] != rows[i - 1])) {
+					run = isBooked(i) ? 0 : 1;
+				} else {
+					run++;
+				}
+				if (run == count) {
+					return i - count + 1;
+				}
+			}
+			return -1;
+		}
+
+		private List<Claim> claimRange(int start, int count) {
+			for (int i = start; i < start + count; i++) {
+				if (!tryClaim(i)) {
+					for (int j = start; j < i; j++) {
+						tryRelease(j);
+					}
+					return null;
+				}
+			}
+			List<Claim> claimed = new ArrayList<>(count);
+			for (int i = start; i < start + count; i++) {
+				claimed.add(claimAt(i));
+			}
+			return claimed;
+		}
+
+		private List<Claim> claimAny(int count) {
+			List<Integer> taken = new ArrayList<>(count);
+			for (int i = 0; i < size && taken.size() < count; i++) {
+				if (!isBooked(i) && tryClaim(i)) {
+					taken.add(i);
+				}
+			}
+			if (taken.size() < count) {
+				taken.forEach(this::tryRelease);
+				return null;
+			}
+			List<Claim> claimed = new ArrayList<>(count);
+			taken.forEach(i -> claimed.add(claimAt(i)));
+			return claimed;
+		}
+
+		private boolean tryClaim(int i) {
+			int word = i >>> 6;
+			long mask = 1L << i;
+			while (true) {
+				long current = bits.get(word);
+				if ((current & mask) != 0) {
+					return false;
+				}
+				if (bits.compareAndSet(word, current, current | mask)) {
+					return true;
+				}
+			}
+		}
+
+		private boolean tryRelease(int i) {
+			int word = i >>> 6;
+			long mask = 1L << i;
+			while (true) {
+				long current = bits.get(word);
+				if ((current & mask) == 0) {
+					return false;
+				}
+				if (bits.compareAndSet(word, current, current & ~mask)) {
+					return true;
+				}
+			}
+		}
+
+		private int bookedCount() {
+			int booked = 0;
+			for (int w = 0; w < bits.length(); w++) {
+				booked += Long.bitCount(bits.get(w));
+			}
+			return booked;
+		}
+
+		private Claim claimAt(int i) {
+			return new Claim(ids[i], numbers[i], type, isBooked(i));
+		}
+
+		private static int rowOf(String seatNumber) {
+			int row = 0;
+			int i = 0;
+			while (i < seatNumber.length() && Character.isDigit(seatNumber.charAt(i))) {
+				row = row * 10 + (seatNumber.charAt(i) - '0');
+				i++;
+			}
+			return i == 0 ? -1 : row;
+		}
+	}
+}
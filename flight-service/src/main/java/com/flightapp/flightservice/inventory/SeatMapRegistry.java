@@ -0,0 +1,138 @@
+package com.flightapp.flightservice.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.Seat;
+import com.flightapp.flightservice.domain.SeatType;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatRepository;
+
+/**
+ * Holds one {@link SeatMap} per flight as a read cache of flight_seats. The
+ * map picks candidate seats without a query, but a seat only counts as booked
+ * once {@link #book} has flipped its row from free to booked, so instances
+ * sharing the database never hand out the same seat. A map is read again
+ * when a booking finds it stale, and at the latest
+ * {@code flight.seats.refresh-ms} after it was loaded, which is how seats
+ * freed through another instance come back.
+ * <p>
+ * A flight without seat rows gets a generated REGULAR layout sized to its
+ * remaining availableSeats. The unique (flight_id, seat_number) index lets
+ * only one instance store it; the others read the winner's rows.
+ */
+@Component
+public class SeatMapRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(SeatMapRegistry.class);
+	private static final String SEAT_LETTERS = "ABCDEFGHJK";
+
+	private final FlightRepository flightRepo;
+	private final SeatRepository seatRepo;
+	private final TransactionTemplate layoutTx;
+	private final int seatsPerRow;
+	private final long refreshNanos;
+
+	private final Map<Long, Cached> maps = new ConcurrentHashMap<>();
+
+	public SeatMapRegistry(FlightRepository flightRepo, SeatRepository seatRepo, PlatformTransactionManager txManager,
+			@Value("${flight.seats.per-row:6}") int seatsPerRow,
+			@Value("${flight.seats.refresh-ms:5000}") long refreshMillis) {
+		if (seatsPerRow < 1) {
+			throw new IllegalArgumentException("flight.seats.per-row must be at least 1, was " + seatsPerRow);
+		}
+		this.flightRepo = flightRepo;
+		this.seatRepo = seatRepo;
+		this.layoutTx = new TransactionTemplate(txManager);
+		this.layoutTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.seatsPerRow = Math.min(seatsPerRow, SEAT_LETTERS.length());
+		this.refreshNanos = TimeUnit.MILLISECONDS.toNanos(refreshMillis);
+	}
+
+	/**
+	 * Returns the seat map of a flight, or {@code null} if the flight does not
+	 * exist.
+	 */
+	public SeatMap forFlight(Long flightId) {
+		Cached cached = maps.get(flightId);
+		if (cached != null && System.nanoTime() - cached.loadedAt() < refreshNanos) {
+			return cached.map();
+		}
+
+		Flight flight = flightRepo.findById(flightId).orElse(null);
+		if (flight == null) {
+			maps.remove(flightId);
+			return null;
+		}
+		return maps.compute(flightId, (id, current) -> current != null && current != cached ? current
+				: new Cached(load(flight), System.nanoTime())).map();
+	}
+
+	/**
+	 * Marks the claimed seats booked in flight_seats. Must run in the
+	 * transaction that also takes the seats off the flight's counter. Returns
+	 * {@code false} when another booking got to one of them first; the map is
+	 * then dropped and the caller has to roll back.
+	 */
+	public boolean book(Long flightId, List<SeatMap.Claim> claims) {
+		List<String> numbers = claims.stream().map(SeatMap.Claim::seatNumber).toList();
+		if (seatRepo.claim(flightId, numbers) == numbers.size()) {
+			return true;
+		}
+		evict(flightId);
+		return false;
+	}
+
+	/**
+	 * Frees those of the given seats that are booked in flight_seats and
+	 * returns how many that were. Must run in the transaction that puts them
+	 * back on the flight's counter.
+	 */
+	public int free(Long flightId, List<String> seatNumbers) {
+		return seatRepo.free(flightId, seatNumbers);
+	}
+
+	public void evict(Long flightId) {
+		maps.remove(flightId);
+	}
+
+	private SeatMap load(Flight flight) {
+		List<Seat> seats = seatRepo.findByFlightIdOrderByIdAsc(flight.getId());
+		if (seats.isEmpty()) {
+			try {
+				seats = layoutTx.execute(status -> seatRepo.saveAll(layout(flight)));
+				log.info("Generated {} seats for flight {}", seats.size(), flight.getId());
+			} catch (DataIntegrityViolationException e) {
+				// generated by another instance at the same time
+				seats = seatRepo.findByFlightIdOrderByIdAsc(flight.getId());
+			}
+		}
+		return new SeatMap(seats);
+	}
+
+	private List<Seat> layout(Flight flight) {
+		int total = flight.getAvailableSeats() == null ? 0 : flight.getAvailableSeats();
+		List<Seat> seats = new ArrayList<>(total);
+		for (int i = 0; i < total; i++) {
+			String number = (i / seatsPerRow + 1) + String.valueOf(SEAT_LETTERS.charAt(i % seatsPerRow));
+			seats.add(new Seat(null, number, SeatType.REGULAR, false, flight));
+		}
+		return seats;
+	}
+
+	private record Cached(SeatMap map, long loadedAt) {
+	}
+}
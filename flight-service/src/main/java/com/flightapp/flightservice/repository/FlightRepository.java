@@ -1,11 +1,86 @@
 package com.flightapp.flightservice.repository;
 
 import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FlightRepository extends JpaRepository<Flight, Long> {
+
+	/** JPQL bulk updates leave @Version alone, so the seat statements bump it themselves. */
+	String NEXT_VERSION = "f.version = COALESCE(f.version, 0) + 1 ";
+
 	List<Flight> findByFromPlaceAndToPlace(String fromPlace, String toPlace);
+
+	/**
+	 * One page of a route in departure order, starting strictly after the
+	 * (departure, id) position of the previous page. Served by
+	 * idx_flight_route_departure.
+	 */
+	@Query("SELECT f FROM Flight f WHERE f.fromPlace = :from AND f.toPlace = :to "
+			+ "AND f.departureAt >= :start AND f.departureAt < :end "
+			+ "AND (f.departureAt > :afterDeparture OR (f.departureAt = :afterDeparture AND f.id > :afterId)) "
+			+ "ORDER BY f.departureAt ASC, f.id ASC")
+	List<Flight> searchAfter(@Param("from") String from, @Param("to") String to, @Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end, @Param("afterDeparture") LocalDateTime afterDeparture,
+			@Param("afterId") Long afterId, Pageable page);
+
+	@Query("SELECT f FROM Flight f WHERE f.fromPlace = :from AND f.toPlace = :to "
+			+ "AND f.departureAt >= :start AND f.departureAt < :end "
+			+ "AND (f.departureAt < :beforeDeparture OR (f.departureAt = :beforeDeparture AND f.id < :beforeId)) "
+			+ "ORDER BY f.departureAt DESC, f.id DESC")
+	List<Flight> searchBefore(@Param("from") String from, @Param("to") String to, @Param("start") LocalDateTime start,
+			@Param("end") LocalDateTime end, @Param("beforeDeparture") LocalDateTime beforeDeparture,
+			@Param("beforeId") Long beforeId, Pageable page);
+
+	/** Only the snapshot columns, straight into the DTO without a managed entity. */
+	@Query("SELECT new com.flightapp.flightservice.dto.FlightSnapshot(f.id, f.airlineName, f.airlineCode, "
+			+ "f.fromPlace, f.toPlace, f.departureDateTime, f.arrivalDateTime, f.price) FROM Flight f WHERE f.id = :id")
+	Optional<FlightSnapshot> findSnapshotById(@Param("id") Long id);
+
+	List<Flight> findByDepartureAtIsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable page);
+
+	@Query("SELECT f.version FROM Flight f WHERE f.id = :id")
+	Optional<Long> findVersionById(@Param("id") Long id);
+
+	@Transactional
+	@Modifying
+	@Query("UPDATE Flight f SET f.version = 0 WHERE f.version IS NULL")
+	int initVersions();
+
+	/**
+	 * Takes seats in a single guarded statement, so two concurrent bookings can
+	 * never both pass the availability check. Returns 0 when the flight is
+	 * missing or does not have enough seats left. Like every seat statement
+	 * here it bumps the version, which bulk updates do not do by themselves.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Flight f SET f.availableSeats = f.availableSeats - :count, " + NEXT_VERSION
+			+ "WHERE f.id = :id AND f.availableSeats >= :count")
+	int decrementSeats(@Param("id") Long id, @Param("count") Integer count);
+
+	/**
+	 * Reads the seat counter and locks the row until the transaction ends, so
+	 * a group of reservations can be decided against it and written with one
+	 * decrement. Empty when the flight does not exist.
+	 */
+	@Query(value = "SELECT available_seats FROM flights WHERE id = :id FOR UPDATE", nativeQuery = true)
+	Optional<Integer> lockAvailableSeats(@Param("id") Long id);
+
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + :count, " + NEXT_VERSION + "WHERE f.id = :id")
+	int incrementSeats(@Param("id") Long id, @Param("count") Integer count);
+
+	@Modifying
+	@Query("UPDATE Flight f SET f.availableSeats = f.availableSeats + :delta, " + NEXT_VERSION + "WHERE f.id = :id")
+	int adjustSeats(@Param("id") Long id, @Param("delta") Integer delta);
 }
@@ -0,0 +1,30 @@
+package com.flightapp.flightservice.repository;
+
+import com.flightapp.flightservice.domain.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+	/**
+	 * Plain INSERT rather than save(), which would merge: a second request with
+	 * the same key has to block on the primary key until the first one commits
+	 * and then fail, not overwrite it.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO idempotency_keys (idempotency_key, request, created_at) VALUES (:key, :request, :createdAt)", nativeQuery = true)
+	int insert(@Param("key") String key, @Param("request") String request, @Param("createdAt") LocalDateTime createdAt);
+
+	@Modifying
+	@Query("UPDATE IdempotencyRecord r SET r.result = :result WHERE r.idempotencyKey = :key")
+	int complete(@Param("key") String key, @Param("result") String result);
+
+	@Modifying
+	@Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :before")
+	int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
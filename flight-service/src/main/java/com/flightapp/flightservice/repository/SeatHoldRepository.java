@@ -0,0 +1,31 @@
+package com.flightapp.flightservice.repository;
+
+import com.flightapp.flightservice.domain.SeatHold;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+
+	/**
+	 * Ends a hold that is still HELD. Confirm, release and expiry all go
+	 * through here, so whichever commits first wins and the others update
+	 * nothing.
+	 */
+	@Modifying(flushAutomatically = true, clearAutomatically = true)
+	@Query("UPDATE SeatHold h SET h.status = :status WHERE h.id = :id AND h.status = 'HELD'")
+	int end(@Param("id") Long id, @Param("status") String status);
+
+	/** One page of holds in a status, by id; served by idx_seat_hold_status. */
+	List<SeatHold> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long afterId, Pageable page);
+
+	@Modifying
+	@Query("DELETE FROM SeatHold h WHERE h.status <> 'HELD' AND h.createdAt < :before")
+	int deleteEndedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,20 @@
+package com.flightapp.flightservice.repository;
+
+import com.flightapp.flightservice.domain.SeatJournalEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface SeatJournalRepository extends JpaRepository<SeatJournalEntry, Long> {
+
+	/** The oldest entries still to be applied, a page at a time. */
+	List<SeatJournalEntry> findByOrderByIdAsc(Pageable page);
+
+	/** Net change journaled for a flight and not yet in its seat column. */
+	@Query("SELECT COALESCE(SUM(j.delta), 0) FROM SeatJournalEntry j WHERE j.flightId = :flightId")
+	long pendingDelta(@Param("flightId") Long flightId);
+}
@@ -0,0 +1,27 @@
+package com.flightapp.flightservice.repository;
+
+import com.flightapp.flightservice.domain.Seat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SeatRepository extends JpaRepository<Seat, Long> {
+	List<Seat> findByFlightIdOrderByIdAsc(Long flightId);
+
+	/** Books the seats that are still free; the caller compares the count with what it asked for. */
+	@Modifying
+	@Query("UPDATE Seat s SET s.booked = true WHERE s.flight.id = :flightId AND s.seatNumber IN :numbers "
+			+ "AND s.booked = false")
+	int claim(@Param("flightId") Long flightId, @Param("numbers") Collection<String> seatNumbers);
+
+	@Modifying
+	@Query("UPDATE Seat s SET s.booked = false WHERE s.flight.id = :flightId AND s.seatNumber IN :numbers "
+			+ "AND s.booked = true")
+	int free(@Param("flightId") Long flightId, @Param("numbers") Collection<String> seatNumbers);
+}
@@ -0,0 +1,16 @@
+package com.flightapp.flightservice.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.flightapp.flightservice.dto.BulkLoadResult;
+
+public interface FlightBulkLoadService {
+
+    enum Format {
+        NDJSON, CSV
+    }
+
+    BulkLoadResult load(InputStream body, Format format) throws IOException;
+
+}
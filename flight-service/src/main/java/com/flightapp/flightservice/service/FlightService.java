@@ -3,17 +3,39 @@ package com.flightapp.flightservice.service;
 import java.util.List;
 
 import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.SeatType;
+import com.flightapp.flightservice.dto.FlightResponse;
+import com.flightapp.flightservice.dto.FlightSearchRequest;
+import com.flightapp.flightservice.dto.FlightSearchResult;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import com.flightapp.flightservice.dto.SeatResponse;
+import com.flightapp.flightservice.dto.SeatUpdate;
 
 public interface FlightService {
 
     Flight addInventory(Flight flight);
 
-    List<Flight> search(String from, String to);
+    FlightSearchResult search(FlightSearchRequest req);
 
     Flight getFlight(Long id);
 
+    FlightSnapshot getFlightSnapshot(Long id);
+
     String updateSeats(Long flightId, Integer count);
 
 	String rollbackSeats(Long flightId, Integer count);
 
+    String updateSeats(List<SeatUpdate> updates);
+
+    FlightResponse getSeatMap(Long flightId);
+
+    /** The given seats of a flight, as handed out to a reservation. */
+    List<SeatResponse> getSeats(Long flightId, List<String> seatNumbers);
+
+    List<SeatResponse> reserveSeats(Long flightId, SeatType seatType, Integer count);
+
+    List<SeatResponse> reserveSeats(Long flightId, List<String> seatNumbers);
+
+    String releaseSeats(Long flightId, List<String> seatNumbers);
+
 }
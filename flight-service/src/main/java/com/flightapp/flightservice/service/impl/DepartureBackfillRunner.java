@@ -0,0 +1,92 @@
+package com.flightapp.flightservice.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+/**
+ * Fills departure_at for flights stored before the column existed, so they
+ * show up in date-filtered searches, and starts their version at 0. Rows
+ * whose departureDateTime cannot be parsed are left as they are and logged
+ * by id, since no search finds them until someone corrects the value.
+ * <p>
+ * The runner saves whole entities while bookings keep changing seats, so a
+ * page whose rows moved on since it was read fails its version check; it is
+ * read again and retried a few times, then left for the next start.
+ */
+@Component
+public class DepartureBackfillRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(DepartureBackfillRunner.class);
+	private static final int BATCH = 500;
+	private static final int MAX_ATTEMPTS = 3;
+
+	private final FlightRepository repo;
+
+	public DepartureBackfillRunner(FlightRepository repo) {
+		this.repo = repo;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		repo.initVersions();
+
+		long afterId = 0;
+		int filled = 0;
+		List<Long> unparseable = new ArrayList<>();
+		List<Flight> batch;
+		do {
+			batch = List.of();
+			for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+				batch = repo.findByDepartureAtIsNullAndIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, BATCH));
+				try {
+					filled += fill(batch, unparseable);
+					break;
+				} catch (OptimisticLockingFailureException e) {
+					if (attempt == MAX_ATTEMPTS) {
+						log.warn("Skipped backfilling {} flights after {} after {} conflicting updates", batch.size(),
+								afterId, MAX_ATTEMPTS);
+					}
+				}
+			}
+			if (!batch.isEmpty()) {
+				afterId = batch.get(batch.size() - 1).getId();
+			}
+		} while (batch.size() == BATCH);
+
+		if (filled > 0) {
+			log.info("Backfilled departure_at for {} flights", filled);
+		}
+		if (!unparseable.isEmpty()) {
+			log.warn("{} flights have no readable departureDateTime and are left out of searches: {}",
+					unparseable.size(), unparseable);
+		}
+	}
+
+	/** Saves the rows that could be filled; the ids of the others go to {@code unparseable}. */
+	private int fill(List<Flight> batch, List<Long> unparseable) {
+		List<Flight> filled = new ArrayList<>(batch.size());
+		List<Long> skipped = new ArrayList<>();
+		for (Flight f : batch) {
+			f.setDepartureAt(Flight.parseDateTime(f.getDepartureDateTime()));
+			if (f.getDepartureAt() != null) {
+				filled.add(f);
+			} else {
+				skipped.add(f.getId());
+			}
+		}
+		repo.saveAll(filled);
+		unparseable.addAll(skipped);
+		return filled.size();
+	}
+}
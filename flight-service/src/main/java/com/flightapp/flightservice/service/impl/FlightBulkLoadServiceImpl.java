@@ -0,0 +1,224 @@
+package com.flightapp.flightservice.service.impl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flightapp.flightservice.cache.FlightChangedEvent;
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.dto.BulkLoadResult;
+import com.flightapp.flightservice.dto.FlightInventoryRequest;
+import com.flightapp.flightservice.service.FlightBulkLoadService;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Streams a schedule file row by row, validates each row like a single
+ * addInventory call would, and persists the valid rows in chunks of
+ * {@code flight.bulk.batch-size}. Each chunk is one transaction and one JDBC
+ * batch; a chunk the database refuses is reported row by row and the load
+ * carries on with the next one.
+ */
+@Service
+public class FlightBulkLoadServiceImpl implements FlightBulkLoadService {
+
+	private static final Logger log = LoggerFactory.getLogger(FlightBulkLoadServiceImpl.class);
+	private static final int MAX_REPORTED_ERRORS = 1000;
+
+	private final EntityManager em;
+	private final TransactionTemplate tx;
+	private final Validator validator;
+	private final ObjectMapper mapper;
+	private final CacheManager cacheManager;
+	private final ApplicationEventPublisher events;
+	private final int batchSize;
+
+	public FlightBulkLoadServiceImpl(EntityManager em, PlatformTransactionManager txManager, Validator validator,
+			ObjectMapper mapper, CacheManager cacheManager, ApplicationEventPublisher events,
+			@Value("${flight.bulk.batch-size:500}") int batchSize) {
+		this.em = em;
+		this.tx = new TransactionTemplate(txManager);
+		this.validator = validator;
+		this.mapper = mapper;
+		this.cacheManager = cacheManager;
+		this.events = events;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public BulkLoadResult load(InputStream body, Format format) throws IOException {
+		BulkLoadResult result = new BulkLoadResult();
+		BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+
+		long lineNo = 0;
+		List<String> header = null;
+		if (format == Format.CSV) {
+			String first = reader.readLine();
+			lineNo++;
+			if (first == null) {
+				return result;
+			}
+			header = splitCsv(first.strip());
+		}
+
+		List<Flight> chunk = new ArrayList<>(batchSize);
+		List<Long> chunkLines = new ArrayList<>(batchSize);
+		Long lastId = null;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNo++;
+			if (line.isBlank()) {
+				continue;
+			}
+			result.setReceived(result.getReceived() + 1);
+
+			FlightInventoryRequest row;
+			try {
+				row = header == null ? mapper.readValue(line, FlightInventoryRequest.class)
+						: mapper.convertValue(csvRow(header, line), FlightInventoryRequest.class);
+			} catch (IOException | IllegalArgumentException e) {
+				reject(result, lineNo, "Unreadable row");
+				continue;
+			}
+
+			Set<ConstraintViolation<FlightInventoryRequest>> violations = validator.validate(row);
+			if (!violations.isEmpty()) {
+				reject(result, lineNo, violations.stream().map(v -> v.getPropertyPath() + ": " + v.getMessage())
+						.sorted().collect(Collectors.joining("; ")));
+				continue;
+			}
+			// the pattern lets through dates such as 2025-02-30, which the entity would refuse with the whole chunk
+			if (Flight.parseDateTime(row.getDepartureDateTime()) == null) {
+				reject(result, lineNo, "departureDateTime: Invalid departure date/time");
+				continue;
+			}
+
+			chunk.add(toFlight(row));
+			chunkLines.add(lineNo);
+			if (chunk.size() == batchSize) {
+				lastId = write(chunk, chunkLines, result, lastId);
+			}
+		}
+		lastId = write(chunk, chunkLines, result, lastId);
+
+		if (result.getLoaded() > 0) {
+			Cache searches = cacheManager.getCache(CacheConfig.FLIGHT_SEARCH);
+			if (searches != null) {
+				searches.clear();
+			}
+			// one route change is enough to drop the search caches of the other replicas
+			events.publishEvent(FlightChangedEvent.route(lastId));
+		}
+		log.info("Bulk load: {} rows received, {} loaded, {} rejected", result.getReceived(), result.getLoaded(),
+				result.getRejected());
+		return result;
+	}
+
+	private Long write(List<Flight> chunk, List<Long> chunkLines, BulkLoadResult result, Long lastId) {
+		if (chunk.isEmpty()) {
+			return lastId;
+		}
+
+		try {
+			tx.executeWithoutResult(status -> {
+				em.unwrap(Session.class).setJdbcBatchSize(batchSize);
+				chunk.forEach(em::persist);
+				em.flush();
+				em.clear();
+			});
+			result.setLoaded(result.getLoaded() + chunk.size());
+			lastId = chunk.get(chunk.size() - 1).getId();
+		} catch (RuntimeException e) {
+			log.warn("Bulk load chunk of {} rows failed: {}", chunk.size(), e.getMessage());
+			chunkLines.forEach(l -> reject(result, l, "Not stored: " + e.getMessage()));
+		}
+		chunk.clear();
+		chunkLines.clear();
+		return lastId;
+	}
+
+	private static void reject(BulkLoadResult result, long line, String message) {
+		result.setRejected(result.getRejected() + 1);
+		if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+			result.getErrors().add(new BulkLoadResult.RowError(line, message));
+		}
+	}
+
+	private static Flight toFlight(FlightInventoryRequest req) {
+		Flight flight = new Flight();
+		flight.setAirlineName(req.getAirlineName());
+		flight.setAirlineCode(req.getAirlineCode());
+		flight.setFromPlace(req.getFromPlace());
+		flight.setToPlace(req.getToPlace());
+		flight.setDepartureDateTime(req.getDepartureDateTime());
+		flight.setArrivalDateTime(req.getArrivalDateTime());
+		flight.setPrice(req.getPrice());
+		flight.setAvailableSeats(req.getAvailableSeats());
+		return flight;
+	}
+
+	private static Map<String, String> csvRow(List<String> header, String line) {
+		List<String> values = splitCsv(line);
+		if (values.size() != header.size()) {
+			throw new IllegalArgumentException("Expected " + header.size() + " columns");
+		}
+
+		Map<String, String> row = new LinkedHashMap<>();
+		for (int i = 0; i < header.size(); i++) {
+			row.put(header.get(i), values.get(i).isEmpty() ? null : values.get(i));
+		}
+		return row;
+	}
+
+	/** RFC 4180 fields: comma separated, optionally double-quoted with "" as an escaped quote. */
+	static List<String> splitCsv(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString().trim());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString().trim());
+		return fields;
+	}
+}
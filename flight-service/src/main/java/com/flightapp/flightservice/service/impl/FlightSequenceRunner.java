@@ -0,0 +1,48 @@
+package com.flightapp.flightservice.service.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.flightapp.flightservice.domain.Flight;
+
+/**
+ * Flight ids used to come from an auto-increment column. On MySQL the new
+ * flight_seq is a one-row table that starts at 1, so move it past the ids
+ * already in use before anything is inserted. A no-op once it is ahead, and
+ * on databases with native sequences.
+ */
+@Component
+public class FlightSequenceRunner implements ApplicationRunner {
+
+	private static final Logger log = LoggerFactory.getLogger(FlightSequenceRunner.class);
+
+	private final JdbcTemplate jdbc;
+
+	public FlightSequenceRunner(JdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	@Override
+	public void run(ApplicationArguments args) {
+		Long maxId = jdbc.queryForObject("SELECT MAX(id) FROM flights", Long.class);
+		if (maxId == null) {
+			return;
+		}
+
+		// leave a whole block of headroom so either pooled optimizer stays clear of existing rows
+		long next = maxId + Flight.ID_BLOCK + 1;
+		try {
+			int moved = jdbc.update("UPDATE flight_seq SET next_val = ? WHERE next_val < ?", next, next);
+			if (moved > 0) {
+				log.info("Moved flight_seq past existing flight ids to {}", next);
+			}
+		} catch (DataAccessException e) {
+			log.debug("flight_seq is not a table here, nothing to align: {}", e.getMessage());
+		}
+	}
+}
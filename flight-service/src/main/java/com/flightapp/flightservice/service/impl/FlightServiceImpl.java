@@ -1,65 +1,411 @@
 package com.flightapp.flightservice.service.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.flightapp.flightservice.cache.FlightChangedEvent;
+import com.flightapp.flightservice.cache.SingleFlight;
+import com.flightapp.flightservice.config.CacheConfig;
 import com.flightapp.flightservice.domain.Flight;
 import com.flightapp.flightservice.domain.Seat;
+import com.flightapp.flightservice.domain.SeatType;
+import com.flightapp.flightservice.dto.FlightResponse;
+import com.flightapp.flightservice.dto.FlightSearchRequest;
+import com.flightapp.flightservice.dto.FlightSearchResult;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import com.flightapp.flightservice.dto.SeatResponse;
+import com.flightapp.flightservice.dto.SeatUpdate;
+import com.flightapp.flightservice.inventory.SeatInventory;
+import com.flightapp.flightservice.inventory.SeatMap;
+import com.flightapp.flightservice.inventory.SeatMapRegistry;
 import com.flightapp.flightservice.repository.FlightRepository;
 import com.flightapp.flightservice.service.FlightService;
 
 @Service
 public class FlightServiceImpl implements FlightService {
 
+	private static final LocalDateTime EARLIEST_DEPARTURE = LocalDateTime.of(1970, 1, 1, 0, 0);
+	private static final LocalDateTime LATEST_DEPARTURE = LocalDateTime.of(9999, 12, 31, 0, 0);
+	private static final int DEFAULT_SEARCH_LIMIT = 20;
+	private static final int MAX_SEAT_ATTEMPTS = 3;
+	private static final String SEATS_TAKEN = "Seats Taken";
+
 	private final FlightRepository repo;
+	private final SeatInventory inventory;
+	private final SeatMapRegistry seatMaps;
+	private final CacheManager cacheManager;
+	private final ApplicationEventPublisher events;
+	private final SingleFlight reads;
+	private final TransactionTemplate tx;
 
-	public FlightServiceImpl(FlightRepository repo) {
+	public FlightServiceImpl(FlightRepository repo, SeatInventory inventory, SeatMapRegistry seatMaps,
+			CacheManager cacheManager, ApplicationEventPublisher events, SingleFlight reads,
+			PlatformTransactionManager txManager) {
 		this.repo = repo;
+		this.inventory = inventory;
+		this.seatMaps = seatMaps;
+		this.cacheManager = cacheManager;
+		this.events = events;
+		this.reads = reads;
+		this.tx = new TransactionTemplate(txManager);
 	}
 
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.FLIGHT_SEARCH, allEntries = true)
 	public Flight addInventory(Flight flight) {
-		return repo.save(flight);
+		Flight saved = repo.save(flight);
+		events.publishEvent(FlightChangedEvent.route(saved.getId()));
+		return saved;
 	}
 
+	/**
+	 * Search pages are cached as flight ids and filled in from the flights
+	 * cache, so a seat change only has to evict the one flight it touched and
+	 * cached searches keep showing current availability.
+	 */
 	@Override
-	public List<Flight> search(String from, String to) {
-		return repo.findByFromPlaceAndToPlace(from, to);
+	public FlightSearchResult search(FlightSearchRequest req) {
+		SearchKey key = SearchKey.of(req);
+		Cache searchCache = cacheManager.getCache(CacheConfig.FLIGHT_SEARCH);
+		SearchPage cached = searchCache.get(key, SearchPage.class);
+		if (cached != null) {
+			return new FlightSearchResult(hydrate(cached.ids()), cached.nextCursor());
+		}
+
+		FlightSearchResult result = querySearch(req);
+		Cache flightCache = cacheManager.getCache(CacheConfig.FLIGHTS);
+		result.getFlights().forEach(f -> flightCache.putIfAbsent(f.getId(), f));
+		searchCache.put(key, new SearchPage(result.getFlights().stream().map(Flight::getId).toList(),
+				result.getNextCursor()));
+		return result;
+	}
+
+	private FlightSearchResult querySearch(FlightSearchRequest req) {
+		LocalDateTime start = req.getDepartureFrom() == null ? EARLIEST_DEPARTURE
+				: req.getDepartureFrom().atStartOfDay();
+		LocalDateTime end = req.getDepartureTo() == null ? LATEST_DEPARTURE
+				: req.getDepartureTo().plusDays(1).atStartOfDay();
+		int limit = req.getLimit() == null ? DEFAULT_SEARCH_LIMIT : req.getLimit();
+		Pageable page = PageRequest.of(0, limit + 1);
+
+		LocalDateTime cursorDeparture = null;
+		Long cursorId = null;
+		if (req.getCursor() != null && !req.getCursor().isBlank()) {
+			SearchCursor position = decodeCursor(req.getCursor());
+			cursorDeparture = position.departureAt();
+			cursorId = position.id();
+		}
+
+		List<Flight> rows;
+		if ("desc".equalsIgnoreCase(req.getSort())) {
+			rows = repo.searchBefore(req.getFrom(), req.getTo(), start, end,
+					cursorDeparture == null ? end : cursorDeparture, cursorId == null ? Long.MAX_VALUE : cursorId,
+					page);
+		} else {
+			rows = repo.searchAfter(req.getFrom(), req.getTo(), start, end,
+					cursorDeparture == null ? start : cursorDeparture, cursorId == null ? Long.MIN_VALUE : cursorId,
+					page);
+		}
+
+		String nextCursor = null;
+		if (rows.size() > limit) {
+			rows = new ArrayList<>(rows.subList(0, limit));
+			Flight last = rows.get(limit - 1);
+			nextCursor = encodeCursor(last.getDepartureAt() + "|" + last.getId());
+		}
+
+		rows.forEach(this::applyInventory);
+		return new FlightSearchResult(rows, nextCursor);
+	}
+
+	private List<Flight> hydrate(List<Long> ids) {
+		Cache flightCache = cacheManager.getCache(CacheConfig.FLIGHTS);
+		Map<Long, Flight> found = new HashMap<>();
+		List<Long> missing = new ArrayList<>();
+		for (Long id : ids) {
+			Flight f = flightCache.get(id, Flight.class);
+			if (f != null) {
+				found.put(id, f);
+			} else {
+				missing.add(id);
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			for (Flight f : repo.findAllById(missing)) {
+				applyInventory(f);
+				flightCache.putIfAbsent(f.getId(), f);
+				found.put(f.getId(), f);
+			}
+		}
+
+		List<Flight> flights = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Flight f = found.get(id);
+			if (f != null) {
+				flights.add(f);
+			}
+		}
+		return flights;
 	}
 
+	/**
+	 * A miss is shared: when a flight goes on sale the requests that miss
+	 * together wait on one findById and all cache its result.
+	 */
 	@Override
+	@Cacheable(cacheNames = CacheConfig.FLIGHTS, key = "#id", unless = "#result == null")
 	public Flight getFlight(Long id) {
-		return repo.findById(id).orElse(null);
+		return reads.execute("flight:" + id, () -> {
+			Flight f = repo.findById(id).orElse(null);
+			if (f != null) {
+				applyInventory(f);
+			}
+			return f;
+		});
+	}
+
+	/**
+	 * Built from the cached Flight when there is one, otherwise read with a
+	 * column projection that skips entity hydration, shared between the
+	 * callers that miss at the same time.
+	 */
+	@Override
+	public FlightSnapshot getFlightSnapshot(Long id) {
+		Flight cached = cacheManager.getCache(CacheConfig.FLIGHTS).get(id, Flight.class);
+		if (cached != null) {
+			return new FlightSnapshot(cached.getId(), cached.getAirlineName(), cached.getAirlineCode(),
+					cached.getFromPlace(), cached.getToPlace(), cached.getDepartureDateTime(),
+					cached.getArrivalDateTime(), cached.getPrice());
+		}
+		return reads.execute("snapshot:" + id, () -> repo.findSnapshotById(id).orElse(null));
+	}
+
+	private void applyInventory(Flight f) {
+		Integer available = inventory.available(f.getId());
+		if (available != null) {
+			f.setAvailableSeats(available);
+		}
 	}
 
 	@Override
+	@CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
 	public String updateSeats(Long flightId, Integer count) {
-		Flight f = repo.findById(flightId).orElse(null);
-		if (f == null) {
-			return "Flight Not Found";
+		String result = inventory.reserve(flightId, count);
+		if ("Seats Updated".equals(result)) {
+			events.publishEvent(FlightChangedEvent.seats(flightId));
 		}
+		return result;
+	}
 
-		if (f.getAvailableSeats() < count) {
-			return "Not Enough Seats";
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
+	public String rollbackSeats(Long flightId, Integer count) {
+		String result = inventory.release(flightId, count);
+		if ("Seats Rolled Back".equals(result)) {
+			events.publishEvent(FlightChangedEvent.seats(flightId));
 		}
+		return result;
+	}
 
-		f.setAvailableSeats(f.getAvailableSeats() - count);
-		repo.save(f);
+	/**
+	 * Several legs of one itinerary in a single round trip. Updates for the
+	 * same flight are netted out first; the result is all-or-nothing.
+	 */
+	@Override
+	public String updateSeats(List<SeatUpdate> updates) {
+		SortedMap<Long, Integer> deltas = new TreeMap<>();
+		updates.forEach(u -> deltas.merge(u.getFlightId(), u.getDelta(), Integer::sum));
 
-		return "Seats Updated";
+		String result = inventory.apply(deltas);
+		Cache flightCache = cacheManager.getCache(CacheConfig.FLIGHTS);
+		deltas.keySet().forEach(flightCache::evict);
+		if ("Seats Updated".equals(result)) {
+			deltas.keySet().forEach(id -> events.publishEvent(FlightChangedEvent.seats(id)));
+		}
+		return result;
 	}
 
 	@Override
-	public String rollbackSeats(Long flightId, Integer count) {
-		Flight f = repo.findById(flightId).orElse(null);
-		if (f == null)
+	public FlightResponse getSeatMap(Long flightId) {
+		Flight f = getFlight(flightId);
+		SeatMap map = seatMaps.forFlight(flightId);
+		if (f == null || map == null) {
+			return null;
+		}
+
+		List<SeatResponse> seats = map.seats().stream().map(this::toResponse).toList();
+		return new FlightResponse(f.getId(), f.getAirlineName(), f.getAirlineCode(), f.getFromPlace(), f.getToPlace(),
+				f.getDepartureDateTime(), f.getArrivalDateTime(), f.getPrice(), map.size(), seats);
+	}
+
+	@Override
+	public List<SeatResponse> getSeats(Long flightId, List<String> seatNumbers) {
+		SeatMap map = seatMaps.forFlight(flightId);
+		if (map == null) {
+			return null;
+		}
+
+		Set<String> wanted = Set.copyOf(seatNumbers);
+		return map.seats().stream().filter(c -> wanted.contains(c.seatNumber()))
+				.map(c -> new SeatResponse(c.seatId(), c.seatNumber(), c.seatType().name(), true)).toList();
+	}
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
+	public List<SeatResponse> reserveSeats(Long flightId, SeatType seatType, Integer count) {
+		return reserve(flightId, map -> map.claim(seatType, count), "Not Enough Seats");
+	}
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
+	public List<SeatResponse> reserveSeats(Long flightId, List<String> seatNumbers) {
+		return reserve(flightId, map -> map.claim(seatNumbers),
+				"Seats Not Available: " + String.join(",", seatNumbers));
+	}
+
+	@Override
+	@CacheEvict(cacheNames = CacheConfig.FLIGHTS, key = "#flightId")
+	public String releaseSeats(Long flightId, List<String> seatNumbers) {
+		SeatMap map = seatMaps.forFlight(flightId);
+		if (map == null) {
 			return "Flight Not Found";
+		}
+
+		int freed = tx.execute(status -> {
+			int n = seatMaps.free(flightId, seatNumbers);
+			if (n > 0) {
+				inventory.release(flightId, n);
+			}
+			return n;
+		});
+		if (freed == seatNumbers.size()) {
+			map.release(seatNumbers);
+		} else {
+			// some of them were not booked here; let the next reader see what is
+			seatMaps.evict(flightId);
+		}
+		if (freed > 0) {
+			events.publishEvent(FlightChangedEvent.seats(flightId));
+		}
+		return "Seats Released";
+	}
+
+	/**
+	 * Picks seats from the flight's map, then books them in flight_seats and
+	 * takes them off the counter in one transaction. The map may be behind
+	 * bookings made through another instance; when the database has already
+	 * given one of the picked seats away the map is reloaded and the pick
+	 * retried. Inside a caller's transaction (an Idempotency-Key) there is no
+	 * retry, as that transaction is already marked for rollback.
+	 */
+	private List<SeatResponse> reserve(Long flightId, Function<SeatMap, List<SeatMap.Claim>> pick, String refusal) {
+		for (int attempt = 1;; attempt++) {
+			SeatMap map = seatMaps.forFlight(flightId);
+			if (map == null) {
+				return null;
+			}
+			List<SeatMap.Claim> claims = pick.apply(map);
+			if (claims == null) {
+				throw new RuntimeException(refusal);
+			}
 
-		f.setAvailableSeats(f.getAvailableSeats() + count);
-		repo.save(f);
+			String result = tx.execute(status -> {
+				releaseOnRollback(map, claims);
+				if (!seatMaps.book(flightId, claims)) {
+					status.setRollbackOnly();
+					return SEATS_TAKEN;
+				}
+				String r = inventory.reserve(flightId, claims.size());
+				if (!"Seats Updated".equals(r)) {
+					status.setRollbackOnly();
+				}
+				return r;
+			});
+
+			if (SEATS_TAKEN.equals(result) && attempt < MAX_SEAT_ATTEMPTS
+					&& !TransactionSynchronizationManager.isActualTransactionActive()) {
+				continue;
+			}
+			if (!"Seats Updated".equals(result)) {
+				throw new RuntimeException(SEATS_TAKEN.equals(result) ? refusal : result);
+			}
+			events.publishEvent(FlightChangedEvent.seats(flightId));
+			return claims.stream().map(this::toResponse).toList();
+		}
+	}
+
+	private static void releaseOnRollback(SeatMap map, List<SeatMap.Claim> claims) {
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				if (status != STATUS_COMMITTED) {
+					map.release(claims.stream().map(SeatMap.Claim::seatNumber).toList());
+				}
+			}
+		});
+	}
+
+	private SeatResponse toResponse(SeatMap.Claim c) {
+		return new SeatResponse(c.seatId(), c.seatNumber(), c.seatType().name(), c.booked());
+	}
+
+	private static String encodeCursor(String position) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/** Any cursor this service did not hand out, however it is broken, is reported the same way. */
+	private static SearchCursor decodeCursor(String cursor) {
+		try {
+			String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+			if (parts.length != 2) {
+				throw new IllegalArgumentException();
+			}
+			return new SearchCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+		} catch (IllegalArgumentException | DateTimeParseException e) {
+			throw new RuntimeException("Invalid search cursor");
+		}
+	}
+
+	private record SearchCursor(LocalDateTime departureAt, Long id) {
+	}
+
+	private record SearchKey(String from, String to, LocalDate departureFrom, LocalDate departureTo, String sort,
+			int limit, String cursor) {
+
+		static SearchKey of(FlightSearchRequest req) {
+			return new SearchKey(req.getFrom(), req.getTo(), req.getDepartureFrom(), req.getDepartureTo(),
+					"desc".equalsIgnoreCase(req.getSort()) ? "DESC" : "ASC",
+					req.getLimit() == null ? DEFAULT_SEARCH_LIMIT : req.getLimit(),
+					req.getCursor() == null || req.getCursor().isBlank() ? null : req.getCursor());
+		}
+	}
 
-		return "Seats Rolled Back";
+	private record SearchPage(List<Long> ids, String nextCursor) {
 	}
-}
\ No newline at end of file
+}
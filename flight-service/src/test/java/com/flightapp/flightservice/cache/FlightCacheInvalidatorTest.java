@@ -0,0 +1,114 @@
+package com.flightapp.flightservice.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+class FlightCacheInvalidatorTest {
+
+    private InProcessInvalidationBus broker;
+    private CacheManager cachesA;
+    private CacheManager cachesB;
+    private FlightCacheInvalidator replicaA;
+    private FlightCacheInvalidator replicaB;
+    private FlightRepository repo;
+
+    @BeforeEach
+    void setup() {
+        broker = new InProcessInvalidationBus();
+        cachesA = new ConcurrentMapCacheManager(CacheConfig.FLIGHTS, CacheConfig.FLIGHT_SEARCH);
+        cachesB = new ConcurrentMapCacheManager(CacheConfig.FLIGHTS, CacheConfig.FLIGHT_SEARCH);
+        repo = mock(FlightRepository.class);
+        when(repo.findVersionById(any())).thenReturn(Optional.of(3L));
+        replicaA = new FlightCacheInvalidator(broker, cachesA, repo, 100, Duration.ofMinutes(10));
+        replicaB = new FlightCacheInvalidator(broker, cachesB, repo, 100, Duration.ofMinutes(10));
+
+        for (CacheManager m : new CacheManager[] { cachesA, cachesB }) {
+            m.getCache(CacheConfig.FLIGHTS).put(1L, "flight-1");
+            m.getCache(CacheConfig.FLIGHTS).put(2L, "flight-2");
+            m.getCache(CacheConfig.FLIGHT_SEARCH).put("HYD-BLR", "ids");
+        }
+    }
+
+    @Test
+    void testSeatChangeEvictsFlightOnOtherReplicas() {
+        replicaA.onFlightChanged(FlightChangedEvent.seats(1L));
+
+        assertNull(cachesB.getCache(CacheConfig.FLIGHTS).get(1L));
+        assertNotNull(cachesB.getCache(CacheConfig.FLIGHTS).get(2L));
+        assertNotNull(cachesB.getCache(CacheConfig.FLIGHT_SEARCH).get("HYD-BLR"));
+        assertNull(cachesA.getCache(CacheConfig.FLIGHTS).get(1L));
+        assertNotNull(cachesA.getCache(CacheConfig.FLIGHTS).get(2L));
+    }
+
+    @Test
+    void testRouteChangeDropsSearches() {
+        replicaB.onFlightChanged(FlightChangedEvent.route(3L));
+
+        assertNull(cachesA.getCache(CacheConfig.FLIGHT_SEARCH).get("HYD-BLR"));
+        assertNotNull(cachesA.getCache(CacheConfig.FLIGHTS).get(1L));
+    }
+
+    @Test
+    void testStaleRedeliveryIsIgnored() {
+        replicaB.onInvalidation(new FlightInvalidation(1L, 5, replicaA.origin(), false));
+        cachesB.getCache(CacheConfig.FLIGHTS).put(1L, "reloaded");
+
+        replicaB.onInvalidation(new FlightInvalidation(1L, 4, replicaA.origin(), false));
+        replicaB.onInvalidation(new FlightInvalidation(1L, 5, replicaA.origin(), false));
+
+        assertNotNull(cachesB.getCache(CacheConfig.FLIGHTS).get(1L));
+    }
+
+    @Test
+    void testInvalidationCarriesTheFlightVersion() {
+        List<FlightInvalidation> sent = new ArrayList<>();
+        broker.subscribe(sent::add);
+        when(repo.findVersionById(1L)).thenReturn(Optional.of(17L));
+
+        replicaA.onFlightChanged(FlightChangedEvent.seats(1L));
+
+        assertEquals(17L, sent.get(0).version());
+    }
+
+    @Test
+    void testOlderVersionFromAnotherReplicaIsIgnored() {
+        replicaB.onInvalidation(new FlightInvalidation(1L, 9, replicaA.origin(), false));
+        cachesB.getCache(CacheConfig.FLIGHTS).put(1L, "reloaded");
+
+        replicaB.onInvalidation(new FlightInvalidation(1L, 8, "replica-c", false));
+
+        assertNotNull(cachesB.getCache(CacheConfig.FLIGHTS).get(1L));
+    }
+
+    @Test
+    void testSeenVersionsAreBounded() {
+        FlightCacheInvalidator small = new FlightCacheInvalidator(broker, cachesB, repo, 2, Duration.ofMinutes(10));
+        for (long id = 1; id <= 50; id++) {
+            small.onInvalidation(new FlightInvalidation(id, 1, replicaA.origin(), false));
+        }
+
+        assertTrue(small.tracked() <= 2, small.tracked() + " flights tracked");
+    }
+
+    @Test
+    void testWireFormatRoundTrip() {
+        FlightInvalidation inv = new FlightInvalidation(42L, 7L, "node-a", true);
+
+        assertEquals("R:42:7:node-a", inv.encode());
+        assertEquals(inv, FlightInvalidation.decode(inv.encode()));
+        assertThrows(IllegalArgumentException.class, () -> FlightInvalidation.decode("garbage"));
+    }
+}
@@ -0,0 +1,111 @@
+package com.flightapp.flightservice.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTest {
+
+	private final SingleFlight reads = new SingleFlight();
+	private final ExecutorService pool = Executors.newFixedThreadPool(8);
+
+	@AfterEach
+	void stop() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void testCallersOfARunningLoadShareIt() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger loads = new AtomicInteger();
+
+		Future<String> first = pool.submit(() -> reads.execute("flight:1", () -> {
+			loads.incrementAndGet();
+			await(release);
+			return "loaded";
+		}));
+		awaitInFlight();
+		List<Future<String>> joined = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			joined.add(pool.submit(() -> reads.execute("flight:1", () -> "own load")));
+		}
+		while (reads.calls() < 6) {
+			Thread.sleep(1);
+		}
+		release.countDown();
+
+		assertEquals("loaded", first.get());
+		for (Future<String> f : joined) {
+			assertEquals("loaded", f.get());
+		}
+		assertEquals(1, loads.get());
+		assertEquals(6, reads.calls());
+		assertEquals(1, reads.loads());
+	}
+
+	@Test
+	void testDifferentKeysAndLaterCallsLoadAgain() {
+		assertEquals("a", reads.execute("flight:1", () -> "a"));
+		assertEquals("b", reads.execute("flight:1", () -> "b"));
+		assertEquals("c", reads.execute("flight:2", () -> "c"));
+		assertNull(reads.execute("flight:3", () -> null));
+		assertEquals(4, reads.loads());
+	}
+
+	@Test
+	void testFailureReachesEveryCallerAndIsNotKept() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		Future<String> first = pool.submit(() -> reads.execute("flight:1", () -> {
+			await(release);
+			throw new IllegalStateException("db down");
+		}));
+		awaitInFlight();
+		Future<String> joined = pool.submit(() -> reads.execute("flight:1", () -> "own load"));
+		while (reads.calls() < 2) {
+			Thread.sleep(1);
+		}
+		release.countDown();
+
+		for (Future<String> f : List.of(first, joined)) {
+			Exception e = assertThrows(Exception.class, f::get);
+			assertInstanceOf(IllegalStateException.class, e.getCause());
+		}
+		assertEquals("recovered", reads.execute("flight:1", () -> "recovered"));
+	}
+
+	@Test
+	void testMetrics() {
+		SimpleMeterRegistry registry = new SimpleMeterRegistry();
+		reads.bindTo(registry);
+		reads.execute("flight:1", () -> "a");
+
+		assertEquals(1, registry.get("singleflight.calls").tag("result", "loaded").functionCounter().count());
+		assertEquals(0, registry.get("singleflight.calls").tag("result", "shared").functionCounter().count());
+		assertEquals(0, registry.get("singleflight.in.flight").gauge().value());
+	}
+
+	private void awaitInFlight() throws InterruptedException {
+		while (reads.loads() == 0) {
+			Thread.sleep(1);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -1,15 +1,27 @@
 package com.flightapp.flightservice.controller;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.SeatType;
+import com.flightapp.flightservice.dto.BulkLoadResult;
 import com.flightapp.flightservice.dto.FlightInventoryRequest;
+import com.flightapp.flightservice.dto.FlightSearchResult;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import com.flightapp.flightservice.dto.SeatHoldResponse;
+import com.flightapp.flightservice.dto.SeatResponse;
+import com.flightapp.flightservice.hold.SeatHoldService;
+import com.flightapp.flightservice.idempotency.IdempotencyService;
+import com.flightapp.flightservice.service.FlightBulkLoadService;
 import com.flightapp.flightservice.service.FlightService;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -17,7 +29,11 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.http.MediaType;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
 
 @WebMvcTest(controllers = FlightController.class)
 @AutoConfigureMockMvc(addFilters = false)
@@ -29,6 +45,22 @@ class FlightControllerTest {
 	@MockBean
 	private FlightService service;
 
+	@MockBean
+	private FlightBulkLoadService bulkLoader;
+
+	@MockBean
+	private IdempotencyService idempotency;
+
+	@MockBean
+	private SeatHoldService holds;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void runOperationsDirectly() {
+		when(idempotency.execute(any(), any(), any()))
+				.thenAnswer(inv -> ((Supplier<String>) inv.getArgument(2)).get());
+	}
+
 	@Test
 	void testAddInventory() throws Exception {
 		Flight f = new Flight();
@@ -50,6 +82,31 @@ class FlightControllerTest {
 				""")).andExpect(status().isOk()).andExpect(jsonPath("$.id").value(1));
 	}
 
+	@Test
+	void testBulkLoadNdjson() throws Exception {
+		when(bulkLoader.load(any(), eq(FlightBulkLoadService.Format.NDJSON)))
+				.thenReturn(new BulkLoadResult(2, 1, 1, List.of(new BulkLoadResult.RowError(2, "price: Price is required"))));
+
+		mockMvc.perform(post("/api/flight/airline/inventory/bulk").contentType("application/x-ndjson")
+				.content("{}\n{}\n")).andExpect(status().isCreated()).andExpect(jsonPath("$.loaded").value(1))
+				.andExpect(jsonPath("$.errors[0].line").value(2));
+	}
+
+	@Test
+	void testBulkLoadCsvNothingLoaded() throws Exception {
+		when(bulkLoader.load(any(), eq(FlightBulkLoadService.Format.CSV)))
+				.thenReturn(new BulkLoadResult(1, 0, 1, List.of(new BulkLoadResult.RowError(2, "Unreadable row"))));
+
+		mockMvc.perform(post("/api/flight/airline/inventory/bulk").contentType("text/csv").content("a,b\n1\n"))
+				.andExpect(status().isBadRequest()).andExpect(jsonPath("$.rejected").value(1));
+	}
+
+	@Test
+	void testBulkLoadUnsupportedType() throws Exception {
+		mockMvc.perform(post("/api/flight/airline/inventory/bulk").contentType(MediaType.APPLICATION_JSON)
+				.content("[]")).andExpect(status().isUnsupportedMediaType());
+	}
+
 	@Test
 	void testSearch() throws Exception {
 
@@ -64,7 +121,7 @@ class FlightControllerTest {
 		f.setPrice(3000.0);
 		f.setAvailableSeats(50);
 
-		when(service.search("A", "B")).thenReturn(List.of(f));
+		when(service.search(any())).thenReturn(new FlightSearchResult(List.of(f), null));
 
 		String body = """
 				{
@@ -74,7 +131,34 @@ class FlightControllerTest {
 				""";
 
 		mockMvc.perform(post("/api/flight/search").contentType(MediaType.APPLICATION_JSON).content(body))
-				.andExpect(status().isOk()).andExpect(jsonPath("$[0].airlineName").value("Indigo"));
+				.andExpect(status().isOk()).andExpect(jsonPath("$[0].airlineName").value("Indigo"))
+				.andExpect(header().doesNotExist("X-Next-Cursor"));
+	}
+
+	@Test
+	void testSearch_withWindowAndNextCursor() throws Exception {
+		when(service.search(any())).thenReturn(new FlightSearchResult(List.of(new Flight()), "abc"));
+
+		String body = """
+				{
+				  "from": "A",
+				  "to": "B",
+				  "departureFrom": "2025-12-01",
+				  "departureTo": "2025-12-31",
+				  "sort": "desc",
+				  "limit": 1
+				}
+				""";
+
+		mockMvc.perform(post("/api/flight/search").contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().isOk()).andExpect(header().string("X-Next-Cursor", "abc"));
+	}
+
+	@Test
+	void testSearch_limitTooLarge() throws Exception {
+		mockMvc.perform(post("/api/flight/search").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"from\":\"A\",\"to\":\"B\",\"limit\":1000}")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.limit").exists());
 	}
 
 	@Test
@@ -117,6 +201,20 @@ class FlightControllerTest {
 				.andExpect(status().isBadRequest()).andExpect(content().string("Boom"));
 	}
 
+	@Test
+	void testGetFlightSnapshot() throws Exception {
+		when(service.getFlightSnapshot(5L)).thenReturn(new FlightSnapshot(5L, "Indigo", "6E", "HYD", "BLR",
+				"2025-12-01T10:00:00", "2025-12-01T12:00:00", 3000.0));
+
+		mockMvc.perform(get("/api/flight/snapshot/5")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.airlineCode").value("6E")).andExpect(jsonPath("$.availableSeats").doesNotExist());
+	}
+
+	@Test
+	void testGetFlightSnapshot_notFound() throws Exception {
+		mockMvc.perform(get("/api/flight/snapshot/6")).andExpect(status().isNotFound());
+	}
+
 	@Test
 	void testGetFlight_found() throws Exception {
 		Flight f = new Flight();
@@ -155,4 +253,166 @@ class FlightControllerTest {
 		mockMvc.perform(put("/api/flight/update-seats/1/3")).andExpect(status().isBadRequest())
 				.andExpect(content().string("Not Enough Seats"));
 	}
+
+	@Test
+	void testUpdateSeatsBatch() throws Exception {
+		when(service.updateSeats(anyList())).thenReturn("Seats Updated");
+
+		mockMvc.perform(put("/api/flight/update-seats/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"updates\":[{\"flightId\":1,\"delta\":-2},{\"flightId\":2,\"delta\":-2}]}"))
+				.andExpect(status().isOk()).andExpect(content().string("Seats Updated"));
+	}
+
+	@Test
+	void testUpdateSeatsBatchNotEnough() throws Exception {
+		when(service.updateSeats(anyList())).thenReturn("Not Enough Seats");
+
+		mockMvc.perform(put("/api/flight/update-seats/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"updates\":[{\"flightId\":1,\"delta\":-20}]}")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testUpdateSeatsBatchEmpty() throws Exception {
+		mockMvc.perform(put("/api/flight/update-seats/batch").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"updates\":[]}")).andExpect(status().isBadRequest())
+				.andExpect(jsonPath("$.updates").exists());
+	}
+
+	@Test
+	void testUpdateSeatsPassesIdempotencyKey() throws Exception {
+		doReturn("Seats Updated").when(idempotency).execute(eq("key-1"), eq("update-seats:1:3"), any());
+
+		mockMvc.perform(put("/api/flight/update-seats/1/3").header("Idempotency-Key", "key-1"))
+				.andExpect(status().isOk()).andExpect(content().string("Seats Updated"));
+		verify(service, never()).updateSeats(1L, 3);
+	}
+
+	@Test
+	void testReserveSeatsByType() throws Exception {
+		when(service.reserveSeats(1L, SeatType.BUSINESS, 2)).thenReturn(
+				List.of(new SeatResponse(1L, "1A", "BUSINESS", true), new SeatResponse(2L, "1B", "BUSINESS", true)));
+
+		mockMvc.perform(post("/api/flight/1/seats/reserve").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"seatType\":\"BUSINESS\",\"count\":2}")).andExpect(status().isOk())
+				.andExpect(jsonPath("$[1].seatNumber").value("1B"));
+	}
+
+	@Test
+	void testReserveSeatsWithIdempotencyKeyAnswersTheSeatsHandedOut() throws Exception {
+		doReturn("1C,1D").when(idempotency).execute(eq("key-2"), eq("reserve-seats:1:REGULAR:2"), any());
+		when(service.getSeats(1L, List.of("1C", "1D"))).thenReturn(
+				List.of(new SeatResponse(3L, "1C", "REGULAR", true), new SeatResponse(4L, "1D", "REGULAR", true)));
+
+		mockMvc.perform(post("/api/flight/1/seats/reserve").header("Idempotency-Key", "key-2")
+				.contentType(MediaType.APPLICATION_JSON).content("{\"count\":2}")).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].seatNumber").value("1C"));
+		verify(service, never()).reserveSeats(1L, SeatType.REGULAR, 2);
+	}
+
+	/** Ten of the longest seat numbers on the longest flight id still fit the idempotency record. */
+	@Test
+	void testReserveSeatsByNumberIsBoundedForTheIdempotencyRecord() throws Exception {
+		List<String> ten = IntStream.range(0, 10).mapToObj(i -> "1234567" + (char) ('A' + i)).toList();
+		doReturn(String.join(",", ten)).when(idempotency).execute(eq("key-3"), any(), any());
+		String flight = "/api/flight/" + Long.MAX_VALUE + "/seats/reserve";
+
+		mockMvc.perform(post(flight).header("Idempotency-Key", "key-3").contentType(MediaType.APPLICATION_JSON)
+				.content(seatNumbers(ten))).andExpect(status().isOk());
+		ArgumentCaptor<String> request = ArgumentCaptor.forClass(String.class);
+		verify(idempotency).execute(eq("key-3"), request.capture(), any());
+		assertTrue(request.getValue().length() <= 255);
+		assertTrue(String.join(",", ten).length() <= 100);
+
+		List<String> eleven = new ArrayList<>(ten);
+		eleven.add("1234567K");
+		mockMvc.perform(post(flight).header("Idempotency-Key", "key-4").contentType(MediaType.APPLICATION_JSON)
+				.content(seatNumbers(eleven))).andExpect(status().isBadRequest());
+		mockMvc.perform(post(flight).header("Idempotency-Key", "key-5").contentType(MediaType.APPLICATION_JSON)
+				.content(seatNumbers(List.of("123456789")))).andExpect(status().isBadRequest());
+		verify(idempotency, never()).execute(eq("key-4"), any(), any());
+		verify(idempotency, never()).execute(eq("key-5"), any(), any());
+	}
+
+	private static String seatNumbers(List<String> numbers) {
+		return "{\"seatNumbers\":[\"" + String.join("\",\"", numbers) + "\"]}";
+	}
+
+	@Test
+	void testReserveSeatsFlightNotFound() throws Exception {
+		when(service.reserveSeats(1L, List.of("1A"))).thenReturn(null);
+
+		mockMvc.perform(post("/api/flight/1/seats/reserve").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"seatNumbers\":[\"1A\"]}")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void testReleaseSeats() throws Exception {
+		when(service.releaseSeats(1L, List.of("1A"))).thenReturn("Seats Released");
+
+		mockMvc.perform(put("/api/flight/1/seats/release").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"seatNumbers\":[\"1A\"]}")).andExpect(status().isOk())
+				.andExpect(content().string("Seats Released"));
+	}
+
+	@Test
+	void testHoldSeats() throws Exception {
+		when(holds.hold(1L, 2, 60)).thenReturn(
+				new SeatHoldResponse(7L, 1L, 2, "HELD", LocalDateTime.of(2025, 1, 1, 10, 1)));
+
+		mockMvc.perform(post("/api/flight/1/holds").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"seats\":2,\"ttlSeconds\":60}")).andExpect(status().isCreated())
+				.andExpect(jsonPath("$.id").value(7)).andExpect(jsonPath("$.status").value("HELD"));
+	}
+
+	@Test
+	void testHoldSeatsValidatesCount() throws Exception {
+		mockMvc.perform(post("/api/flight/1/holds").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"seats\":0}")).andExpect(status().isBadRequest());
+		verifyNoInteractions(holds);
+	}
+
+	@Test
+	void testHoldSeatsFlightNotFound() throws Exception {
+		when(holds.hold(99L, 2, null)).thenReturn(null);
+
+		mockMvc.perform(post("/api/flight/99/holds").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"seats\":2}")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void testConfirmHold() throws Exception {
+		when(holds.confirm(7L)).thenReturn(new SeatHoldResponse(7L, 1L, 2, "CONFIRMED", null));
+
+		mockMvc.perform(put("/api/flight/holds/7/confirm")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("CONFIRMED"));
+	}
+
+	@Test
+	void testConfirmExpiredHold() throws Exception {
+		when(holds.confirm(7L)).thenThrow(new RuntimeException("Hold Already Expired"));
+
+		mockMvc.perform(put("/api/flight/holds/7/confirm")).andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void testReleaseUnknownHold() throws Exception {
+		when(holds.release(8L)).thenReturn(null);
+
+		mockMvc.perform(put("/api/flight/holds/8/release")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void testGetFlightIsTaggedWithItsVersion() throws Exception {
+		Flight f = new Flight();
+		f.setId(1L);
+		f.setAvailableSeats(40);
+		f.setVersion(7L);
+		when(service.getFlight(1L)).thenReturn(f);
+
+		mockMvc.perform(get("/api/flight/get/1")).andExpect(status().isOk())
+				.andExpect(header().string("ETag", "\"7-40\"")).andExpect(jsonPath("$.version").value(7));
+		mockMvc.perform(get("/api/flight/get/1").header("If-None-Match", "\"7-40\""))
+				.andExpect(status().isNotModified()).andExpect(content().string(""));
+		mockMvc.perform(get("/api/flight/get/1").header("If-None-Match", "\"6-41\"")).andExpect(status().isOk());
+	}
 }
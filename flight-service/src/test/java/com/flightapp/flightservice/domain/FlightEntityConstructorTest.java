@@ -19,12 +19,37 @@ class FlightEntityConstructorTest {
                 "2025-01-01T10:00",
                 "2025-01-01T12:00",
                 3000.0,
-                100
+                100,
+                LocalDateTime.of(2025, 1, 1, 10, 0),
+                3L
         );
 
         assertEquals(1L, f.getId());
         assertEquals("Indigo", f.getAirlineName());
         assertEquals("6E", f.getAirlineCode());
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), f.getDepartureAt());
+        assertEquals(3L, f.getVersion());
+    }
+
+    @Test
+    void testParseDateTime() {
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0), Flight.parseDateTime("2025-01-01T10:00"));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 10, 0, 30), Flight.parseDateTime("2025-01-01 10:00:30"));
+        assertEquals(LocalDateTime.of(2025, 1, 1, 0, 0), Flight.parseDateTime("2025-01-01"));
+        assertNull(Flight.parseDateTime("tomorrow"));
+        assertNull(Flight.parseDateTime(null));
+    }
+
+    /** Stored without departure_at, the flight would never turn up in a search. */
+    @Test
+    void testUnreadableDepartureIsRefused() {
+        Flight f = new Flight();
+        f.setDepartureDateTime("2025-02-30T10:00");
+        assertThrows(IllegalArgumentException.class, f::syncDepartureAt);
+
+        f.setDepartureDateTime(null);
+        f.syncDepartureAt();
+        assertNull(f.getDepartureAt());
     }
 
     @Test
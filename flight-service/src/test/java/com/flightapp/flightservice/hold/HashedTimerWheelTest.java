@@ -0,0 +1,148 @@
+package com.flightapp.flightservice.hold;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class HashedTimerWheelTest {
+
+	private static final long TICK = 100;
+	private static final long START = 1_000_000;
+
+	private final AtomicLong now = new AtomicLong(START);
+	private final List<Long> fired = new ArrayList<>();
+	private final HashedTimerWheel<Long> wheel = new HashedTimerWheel<>(TICK, 8, fired::addAll, now::get);
+
+	@Test
+	void testFiresAfterTheDeadlineAndWithinATick() {
+		wheel.schedule(250L, START + 250);
+
+		advanceTo(START + 249);
+		assertTrue(fired.isEmpty());
+		advanceTo(START + 300);
+		assertEquals(List.of(250L), fired);
+		assertEquals(0, wheel.pending());
+	}
+
+	@Test
+	void testDeadlinesBeyondOneTurnWaitForTheirRound() {
+		// 8 buckets of 100 ms: 2,350 ms is almost three turns away
+		wheel.schedule(2350L, START + 2350);
+		wheel.schedule(350L, START + 350);
+
+		advanceTo(START + 400);
+		assertEquals(List.of(350L), fired);
+		advanceTo(START + 2300);
+		assertEquals(List.of(350L), fired);
+		advanceTo(START + 2400);
+		assertEquals(List.of(350L, 2350L), fired);
+	}
+
+	@Test
+	void testPastDeadlineFiresOnTheNextTick() {
+		advanceTo(START + 1000);
+		wheel.schedule(1L, START);
+
+		advanceTo(START + 1099);
+		assertTrue(fired.isEmpty());
+		advanceTo(START + 1100);
+		assertEquals(List.of(1L), fired);
+	}
+
+	@Test
+	void testCatchesUpAfterAStall() {
+		wheel.schedule(500L, START + 500);
+		wheel.schedule(5000L, START + 5000);
+
+		now.set(START + 10_000);
+		wheel.advance();
+		assertEquals(List.of(500L, 5000L), fired);
+	}
+
+	@Test
+	void testCancelledTimeoutsNeverFire() {
+		HashedTimerWheel.Timeout<Long> early = wheel.schedule(1L, START + 100);
+		HashedTimerWheel.Timeout<Long> late = wheel.schedule(2L, START + 500);
+		assertTrue(early.cancel());
+		wheel.advance();
+		assertTrue(late.cancel());
+		assertFalse(late.cancel());
+
+		advanceTo(START + 1000);
+		assertTrue(fired.isEmpty());
+		assertEquals(0, wheel.pending());
+
+		HashedTimerWheel.Timeout<Long> done = wheel.schedule(3L, START + 1100);
+		advanceTo(START + 1200);
+		assertFalse(done.cancel());
+		assertEquals(List.of(3L), fired);
+	}
+
+	@Test
+	void testManyTimeoutsExpireOnTime() {
+		expireHalfOnTime(10_000, 64, 60_000);
+	}
+
+	/**
+	 * A million holds spread over ten minutes on the production geometry, half
+	 * of them confirmed (cancelled) along the way: every other one fires
+	 * exactly once, never early and never more than a tick late. Run with
+	 * {@code mvn test -Pbenchmark}.
+	 */
+	@Test
+	@Tag("benchmark")
+	void testMillionsOfTimeoutsExpireOnTime() {
+		expireHalfOnTime(1_000_000, 512, 600_000);
+	}
+
+	private void expireHalfOnTime(int count, int buckets, long span) {
+		List<long[]> late = new ArrayList<>();
+		long[] deadlines = new long[count];
+		boolean[] seen = new boolean[count];
+		HashedTimerWheel<Integer> big = new HashedTimerWheel<>(TICK, buckets, batch -> {
+			for (int i : batch) {
+				assertFalse(seen[i], "fired twice: " + i);
+				seen[i] = true;
+				long lag = now.get() - deadlines[i];
+				if (lag < 0 || lag > TICK) {
+					late.add(new long[] { i, lag });
+				}
+			}
+		}, now::get);
+
+		Random random = new Random(42);
+		List<HashedTimerWheel.Timeout<Integer>> timeouts = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			deadlines[i] = START + 1 + random.nextInt((int) span);
+			timeouts.add(big.schedule(i, deadlines[i]));
+		}
+		for (int i = 0; i < count; i += 2) {
+			timeouts.get(i).cancel();
+		}
+		for (long t = START; t <= START + span + TICK; t += TICK) {
+			now.set(t);
+			big.advance();
+		}
+
+		assertTrue(late.isEmpty(), () -> late.size() + " fired off time, first " + late.get(0)[0]);
+		for (int i = 0; i < count; i++) {
+			assertEquals(i % 2 == 1, seen[i], "timeout " + i);
+		}
+		assertEquals(0, big.pending());
+	}
+
+	private void advanceTo(long millis) {
+		for (long t = now.get(); t <= millis; t += TICK / 4) {
+			now.set(t);
+			wheel.advance();
+		}
+		now.set(millis);
+		wheel.advance();
+	}
+}
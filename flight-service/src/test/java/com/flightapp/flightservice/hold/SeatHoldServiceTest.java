@@ -0,0 +1,166 @@
+package com.flightapp.flightservice.hold;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.SeatHold;
+import com.flightapp.flightservice.dto.SeatHoldResponse;
+import com.flightapp.flightservice.inventory.DatabaseSeatInventory;
+import com.flightapp.flightservice.inventory.SeatInventory;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatHoldRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = "flight.holds.tick-ms=20")
+@Import({ CacheConfig.class, DatabaseSeatInventory.class, SeatHoldService.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatHoldServiceTest {
+
+	@Autowired
+	private SeatHoldService service;
+
+	@Autowired
+	private SeatHoldRepository holds;
+
+	@Autowired
+	private FlightRepository flights;
+
+	@Autowired
+	private SeatInventory inventory;
+
+	@AfterEach
+	void cleanup() {
+		holds.deleteAll();
+		flights.deleteAll();
+	}
+
+	@Test
+	void testHoldTakesSeatsAndConfirmKeepsThem() {
+		Long flightId = flights.save(flightWithSeats(10)).getId();
+
+		SeatHoldResponse hold = service.hold(flightId, 3, 60);
+		assertEquals(SeatHold.HELD, hold.getStatus());
+		assertEquals(7, seats(flightId));
+
+		assertEquals(SeatHold.CONFIRMED, service.confirm(hold.getId()).getStatus());
+		assertEquals(SeatHold.CONFIRMED, service.confirm(hold.getId()).getStatus());
+		assertEquals(7, seats(flightId));
+		assertEquals(0, service.outstanding());
+	}
+
+	@Test
+	void testReleaseReturnsSeatsOnce() {
+		Long flightId = flights.save(flightWithSeats(10)).getId();
+		Long holdId = service.hold(flightId, 4, 60).getId();
+
+		assertEquals(SeatHold.RELEASED, service.release(holdId).getStatus());
+		assertEquals(SeatHold.RELEASED, service.release(holdId).getStatus());
+		assertEquals(10, seats(flightId));
+
+		RuntimeException e = assertThrows(RuntimeException.class, () -> service.confirm(holdId));
+		assertEquals("Hold Already Released", e.getMessage());
+	}
+
+	@Test
+	void testHoldRejectedWithoutEnoughSeats() {
+		Long flightId = flights.save(flightWithSeats(2)).getId();
+
+		RuntimeException e = assertThrows(RuntimeException.class, () -> service.hold(flightId, 3, 60));
+		assertEquals("Not Enough Seats", e.getMessage());
+		assertEquals(2, seats(flightId));
+		assertEquals(0, holds.count());
+	}
+
+	@Test
+	void testHoldOnUnknownFlight() {
+		assertNull(service.hold(999_999L, 1, 60));
+		assertEquals(0, holds.count());
+		assertNull(service.confirm(123L));
+	}
+
+	@Test
+	void testExpiredHoldGivesSeatsBack() throws Exception {
+		Long flightId = flights.save(flightWithSeats(10)).getId();
+		Long holdId = service.hold(flightId, 5, 1).getId();
+		assertEquals(5, seats(flightId));
+
+		await(() -> seats(flightId) == 10);
+		assertEquals(SeatHold.EXPIRED, holds.findById(holdId).orElseThrow().getStatus());
+		RuntimeException e = assertThrows(RuntimeException.class, () -> service.confirm(holdId));
+		assertEquals("Hold Already Expired", e.getMessage());
+	}
+
+	@Test
+	void testLateExpiryOfAConfirmedHoldChangesNothing() {
+		Long flightId = flights.save(flightWithSeats(10)).getId();
+		Long holdId = service.hold(flightId, 2, 60).getId();
+		service.confirm(holdId);
+
+		service.expire(List.of(new SeatHoldService.Held(holdId, flightId, 2)));
+
+		assertEquals(8, seats(flightId));
+		assertEquals(SeatHold.CONFIRMED, holds.findById(holdId).orElseThrow().getStatus());
+	}
+
+	@Test
+	void testRecoverReschedulesHoldsLeftByARestart() throws Exception {
+		Long flightId = flights.save(flightWithSeats(10)).getId();
+		LocalDateTime now = LocalDateTime.now();
+		// as if another instance took the seats and went away before they expired
+		inventory.reserve(flightId, 6);
+		Long overdue = holds.save(new SeatHold(null, flightId, 4, SeatHold.HELD, now.minusMinutes(1), now)).getId();
+		Long later = holds.save(new SeatHold(null, flightId, 2, SeatHold.HELD, now.plusMinutes(5), now)).getId();
+
+		assertEquals(2, service.recover());
+		await(() -> seats(flightId) == 8);
+		// after the expiry, since a recover that reads the row just before it commits puts it back on the wheel
+		assertEquals(0, service.recover());
+
+		assertEquals(SeatHold.EXPIRED, holds.findById(overdue).orElseThrow().getStatus());
+		assertEquals(SeatHold.HELD, holds.findById(later).orElseThrow().getStatus());
+		assertEquals(1, service.outstanding());
+
+		service.release(later);
+		assertEquals(10, seats(flightId));
+		assertEquals(0, service.outstanding());
+	}
+
+	private int seats(Long flightId) {
+		return flights.findById(flightId).orElseThrow().getAvailableSeats();
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		long giveUp = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean()) {
+			assertTrue(System.currentTimeMillis() < giveUp, "timed out");
+			Thread.sleep(20);
+		}
+	}
+
+	private static Flight flightWithSeats(int seats) {
+		Flight f = new Flight();
+		f.setAirlineName("Indigo");
+		f.setAirlineCode("6E");
+		f.setFromPlace("HYD");
+		f.setToPlace("BLR");
+		f.setDepartureDateTime("2025-12-01T10:00:00");
+		f.setArrivalDateTime("2025-12-01T12:00:00");
+		f.setPrice(3000.0);
+		f.setAvailableSeats(seats);
+		return f;
+	}
+}
@@ -0,0 +1,163 @@
+package com.flightapp.flightservice.idempotency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.IdempotencyRecord;
+import com.flightapp.flightservice.inventory.DatabaseSeatInventory;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.IdempotencyRecordRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({ CacheConfig.class, IdempotencyService.class, DatabaseSeatInventory.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+	@Autowired
+	private IdempotencyService idempotency;
+
+	@Autowired
+	private DatabaseSeatInventory inventory;
+
+	@Autowired
+	private FlightRepository flights;
+
+	@Autowired
+	private IdempotencyRecordRepository records;
+
+	@Autowired
+	private CacheManager cacheManager;
+
+	@AfterEach
+	void cleanup() {
+		records.deleteAll();
+		flights.deleteAll();
+		cacheManager.getCache(CacheConfig.IDEMPOTENCY).clear();
+	}
+
+	@Test
+	void testRetryReplaysFirstResult() {
+		Long id = flightWithSeats(10);
+
+		assertEquals("Seats Updated", reserve("k1", id, 3));
+		assertEquals("Seats Updated", reserve("k1", id, 3));
+
+		// same again with only the table to go on
+		cacheManager.getCache(CacheConfig.IDEMPOTENCY).clear();
+		assertEquals("Seats Updated", reserve("k1", id, 3));
+
+		assertEquals(7, flights.findById(id).orElseThrow().getAvailableSeats());
+		assertEquals(1, records.count());
+	}
+
+	@Test
+	void testRefusalIsReplayedToo() {
+		Long id = flightWithSeats(2);
+
+		assertEquals("Not Enough Seats", reserve("k2", id, 3));
+		flights.findById(id).ifPresent(f -> {
+			f.setAvailableSeats(5);
+			flights.save(f);
+		});
+		assertEquals("Not Enough Seats", reserve("k2", id, 3));
+		assertEquals(5, flights.findById(id).orElseThrow().getAvailableSeats());
+	}
+
+	@Test
+	void testConcurrentRetriesRunOnce() throws Exception {
+		Long id = flightWithSeats(100);
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<String>> results = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			results.add(pool.submit(() -> {
+				start.await();
+				return reserve("k3", id, 4);
+			}));
+		}
+		start.countDown();
+		for (Future<String> r : results) {
+			assertEquals("Seats Updated", r.get());
+		}
+		pool.shutdown();
+
+		assertEquals(96, flights.findById(id).orElseThrow().getAvailableSeats());
+	}
+
+	@Test
+	void testKeyReusedForAnotherRequest() {
+		Long id = flightWithSeats(10);
+		reserve("k4", id, 1);
+
+		assertThrows(RuntimeException.class, () -> reserve("k4", id, 2));
+		assertEquals(9, flights.findById(id).orElseThrow().getAvailableSeats());
+	}
+
+	@Test
+	void testFailedOperationLeavesNoKey() {
+		assertThrows(IllegalStateException.class, () -> idempotency.execute("k5", "update-seats:1:1", () -> {
+			throw new IllegalStateException("boom");
+		}));
+		assertFalse(records.existsById("k5"));
+		assertEquals("ok", idempotency.execute("k5", "update-seats:1:1", () -> "ok"));
+	}
+
+	@Test
+	void testNoKeyJustRuns() {
+		Long id = flightWithSeats(10);
+		idempotency.execute(null, "update-seats", () -> inventory.reserve(id, 1));
+		idempotency.execute(null, "update-seats", () -> inventory.reserve(id, 1));
+
+		assertEquals(8, flights.findById(id).orElseThrow().getAvailableSeats());
+		assertEquals(0, records.count());
+	}
+
+	@Test
+	void testPurgeDropsExpiredKeys() {
+		records.save(new IdempotencyRecord("old", "update-seats:1:1", "Seats Updated", LocalDateTime.now().minusDays(2)));
+		records.save(new IdempotencyRecord("new", "update-seats:1:1", "Seats Updated", LocalDateTime.now()));
+
+		idempotency.purge();
+
+		assertFalse(records.existsById("old"));
+		assertTrue(records.existsById("new"));
+	}
+
+	private String reserve(String key, Long flightId, int count) {
+		return idempotency.execute(key, "update-seats:" + flightId + ":" + count,
+				() -> inventory.reserve(flightId, count));
+	}
+
+	private Long flightWithSeats(int seats) {
+		Flight f = new Flight();
+		f.setAirlineName("Indigo");
+		f.setAirlineCode("6E");
+		f.setFromPlace("HYD");
+		f.setToPlace("BLR");
+		f.setDepartureDateTime("2025-12-01T10:00:00");
+		f.setArrivalDateTime("2025-12-01T12:00:00");
+		f.setPrice(3000.0);
+		f.setAvailableSeats(seats);
+		return flights.save(f).getId();
+	}
+}
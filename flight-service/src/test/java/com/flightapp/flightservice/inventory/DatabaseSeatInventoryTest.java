@@ -0,0 +1,68 @@
+package com.flightapp.flightservice.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.flightapp.flightservice.repository.FlightRepository;
+
+class DatabaseSeatInventoryTest {
+
+    @Mock
+    private FlightRepository repo;
+
+    @InjectMocks
+    private DatabaseSeatInventory inventory;
+
+    public DatabaseSeatInventoryTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testReserve_success() {
+        when(repo.decrementSeats(1L, 5)).thenReturn(1);
+
+        assertEquals("Seats Updated", inventory.reserve(1L, 5));
+        verify(repo, never()).findById(any());
+        verify(repo, never()).save(any());
+    }
+
+    @Test
+    void testReserve_notEnoughSeats() {
+        when(repo.decrementSeats(1L, 5)).thenReturn(0);
+        when(repo.existsById(1L)).thenReturn(true);
+
+        assertEquals("Not Enough Seats", inventory.reserve(1L, 5));
+    }
+
+    @Test
+    void testReserve_flightNotFound() {
+        when(repo.decrementSeats(99L, 2)).thenReturn(0);
+        when(repo.existsById(99L)).thenReturn(false);
+
+        assertEquals("Flight Not Found", inventory.reserve(99L, 2));
+    }
+
+    @Test
+    void testRelease_success() {
+        when(repo.incrementSeats(2L, 3)).thenReturn(1);
+
+        assertEquals("Seats Rolled Back", inventory.release(2L, 3));
+    }
+
+    @Test
+    void testRelease_flightNotFound() {
+        when(repo.incrementSeats(10L, 2)).thenReturn(0);
+
+        assertEquals("Flight Not Found", inventory.release(10L, 2));
+    }
+
+    @Test
+    void testAvailable_deferToRow() {
+        assertNull(inventory.available(1L));
+    }
+}
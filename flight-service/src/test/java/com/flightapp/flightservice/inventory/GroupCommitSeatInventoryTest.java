@@ -0,0 +1,208 @@
+package com.flightapp.flightservice.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = { "flight.inventory.group-commit.enabled=true",
+		"flight.inventory.group-commit.max-wait-ms=5" })
+@Import({ DatabaseSeatInventory.class, GroupCommitSeatInventory.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GroupCommitSeatInventoryTest {
+
+	private static final int THREADS = 32;
+	private static final int PER_THREAD = 100;
+
+	@Autowired
+	private SeatInventory inventory;
+
+	@Autowired
+	private GroupCommitSeatInventory grouped;
+
+	@Autowired
+	private DatabaseSeatInventory direct;
+
+	@Autowired
+	private FlightRepository repo;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@AfterEach
+	void cleanup() {
+		repo.deleteAll();
+	}
+
+	@Test
+	void testGroupIsDecidedInArrivalOrder() {
+		Long id = repo.save(flightWithSeats(5)).getId();
+
+		CompletableFuture<String> first = grouped.submit(id, 3);
+		CompletableFuture<String> second = grouped.submit(id, 3);
+		CompletableFuture<String> third = grouped.submit(id, 2);
+
+		assertEquals("Seats Updated", first.join());
+		assertEquals("Not Enough Seats", second.join());
+		assertEquals("Seats Updated", third.join());
+		assertEquals(0, seats(id));
+	}
+
+	@Test
+	void testUnknownFlight() {
+		assertSame(grouped, inventory);
+		assertEquals("Flight Not Found", inventory.reserve(999_999L, 1));
+	}
+
+	@Test
+	void testReservationInsideATransactionRollsBackWithIt() {
+		Long id = repo.save(flightWithSeats(5)).getId();
+		long queued = grouped.requests();
+
+		new TransactionTemplate(txManager).executeWithoutResult(status -> {
+			assertEquals("Seats Updated", inventory.reserve(id, 2));
+			status.setRollbackOnly();
+		});
+
+		assertEquals(queued, grouped.requests());
+		assertEquals(5, seats(id));
+	}
+
+	@Test
+	void testNonPositiveCountIsRejected() {
+		Long id = repo.save(flightWithSeats(5)).getId();
+		long queued = grouped.requests();
+
+		assertThrows(RuntimeException.class, () -> inventory.reserve(id, 0));
+		assertThrows(RuntimeException.class, () -> inventory.reserve(id, -3));
+
+		assertEquals(queued, grouped.requests());
+		assertEquals(5, seats(id));
+	}
+
+	@Test
+	void testDrainedLaneIsDropped() throws Exception {
+		Long id = repo.save(flightWithSeats(5)).getId();
+
+		assertEquals("Seats Updated", inventory.reserve(id, 1));
+
+		for (int i = 0; i < 100 && grouped.lanes() > 0; i++) {
+			Thread.sleep(10);
+		}
+		assertEquals(0, grouped.lanes());
+		assertEquals("Seats Updated", inventory.reserve(id, 1));
+		assertEquals(3, seats(id));
+	}
+
+	@Test
+	void testNotCreatedWithTheLedger() {
+		new ApplicationContextRunner()
+				.withPropertyValues("flight.inventory.group-commit.enabled=true", "flight.inventory.mode=ledger")
+				.withUserConfiguration(GroupCommitSeatInventory.class)
+				.run(context -> assertTrue(context.getBeansOfType(GroupCommitSeatInventory.class).isEmpty()));
+	}
+
+	@Test
+	void testParallelReservesNeverOversell() throws Exception {
+		Long id = repo.save(flightWithSeats(100)).getId();
+		long requests = grouped.requests();
+
+		assertEquals(100, hammer(8, 25, () -> grouped.reserve(id, 1)));
+		assertEquals(0, seats(id));
+		assertEquals(200, grouped.requests() - requests);
+	}
+
+	/**
+	 * 3,200 one-seat reservations from 32 threads on one flight with 2,000
+	 * seats, reserved one transaction each and then in groups. Both sell
+	 * exactly 2,000; the grouped run does it in a small fraction of the
+	 * commits. Run with {@code mvn test -Pbenchmark}.
+	 */
+	@Test
+	@Tag("benchmark")
+	void testGroupsCommitFarLessOftenThanRequestsArrive() throws Exception {
+		int seats = 2000;
+		Long directId = repo.save(flightWithSeats(seats)).getId();
+		Long groupedId = repo.save(flightWithSeats(seats)).getId();
+
+		int directSold = hammer(THREADS, PER_THREAD, () -> direct.reserve(directId, 1));
+
+		long requests = grouped.requests();
+		long commits = grouped.commits();
+		int groupedSold = hammer(THREADS, PER_THREAD, () -> grouped.reserve(groupedId, 1));
+		requests = grouped.requests() - requests;
+		commits = grouped.commits() - commits;
+
+		assertEquals(seats, directSold);
+		assertEquals(seats, groupedSold);
+		assertEquals(0, seats(directId));
+		assertEquals(0, seats(groupedId));
+		assertEquals(THREADS * PER_THREAD, requests);
+		assertTrue(commits * 4 <= requests, commits + " commits for " + requests + " requests");
+	}
+
+	private int hammer(int threads, int perThread, Supplier<String> reserve) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch go = new CountDownLatch(1);
+		List<Future<Integer>> sold = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			sold.add(pool.submit(() -> {
+				go.await();
+				int n = 0;
+				for (int i = 0; i < perThread; i++) {
+					if ("Seats Updated".equals(reserve.get())) {
+						n++;
+					}
+				}
+				return n;
+			}));
+		}
+		go.countDown();
+		int total = 0;
+		for (Future<Integer> f : sold) {
+			total += f.get();
+		}
+		pool.shutdown();
+		return total;
+	}
+
+	private int seats(Long id) {
+		return repo.findById(id).orElseThrow().getAvailableSeats();
+	}
+
+	private static Flight flightWithSeats(int seats) {
+		Flight f = new Flight();
+		f.setAirlineName("Indigo");
+		f.setAirlineCode("6E");
+		f.setFromPlace("HYD");
+		f.setToPlace("BLR");
+		f.setDepartureDateTime("2025-12-01T10:00:00");
+		f.setArrivalDateTime("2025-12-01T12:00:00");
+		f.setPrice(3000.0);
+		f.setAvailableSeats(seats);
+		return f;
+	}
+}
@@ -0,0 +1,194 @@
+package com.flightapp.flightservice.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatJournalRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest(properties = { "flight.inventory.mode=ledger", "flight.inventory.ledger.flush-interval-ms=3600000" })
+@Import(LedgerSeatInventory.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class LedgerSeatInventoryTest {
+
+	@Autowired
+	private LedgerSeatInventory ledger;
+
+	@Autowired
+	private FlightRepository repo;
+
+	@Autowired
+	private SeatJournalRepository journal;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@AfterEach
+	void cleanup() {
+		ledger.replay();
+		journal.deleteAll();
+		repo.deleteAll();
+	}
+
+	@Test
+	void testChangesAreJournaledAndFlushedOnce() {
+		Long id = repo.save(flightWithSeats(10)).getId();
+
+		assertEquals("Seats Updated", ledger.reserve(id, 4));
+		assertEquals("Not Enough Seats", ledger.reserve(id, 7));
+		assertEquals("Seats Rolled Back", ledger.release(id, 1));
+
+		assertEquals(7, ledger.available(id));
+		assertEquals(2, journal.count());
+		assertEquals(10, seats(id));
+
+		assertEquals(2, ledger.replay());
+		assertEquals(0, ledger.replay());
+		assertEquals(0, journal.count());
+		assertEquals(7, seats(id));
+		assertEquals(7, ledger.available(id));
+	}
+
+	@Test
+	void testBatchThatFailsLeavesNothingBehind() {
+		Long first = repo.save(flightWithSeats(10)).getId();
+		Long second = repo.save(flightWithSeats(1)).getId();
+
+		assertEquals("Not Enough Seats", ledger.apply(new TreeMap<>(Map.of(first, -3, second, -2))));
+		assertEquals(10, ledger.available(first));
+		assertEquals(1, ledger.available(second));
+		assertEquals(0, journal.count());
+
+		assertEquals("Seats Updated", ledger.apply(new TreeMap<>(Map.of(first, 2, second, -1))));
+		assertEquals(12, ledger.available(first));
+		assertEquals(0, ledger.available(second));
+	}
+
+	@Test
+	void testUnknownFlight() {
+		assertEquals("Flight Not Found", ledger.reserve(999_999L, 1));
+		assertEquals("Flight Not Found", ledger.release(999_999L, 1));
+		assertNull(ledger.available(999_999L));
+		assertEquals(0, journal.count());
+	}
+
+	@Test
+	void testCallerRollbackUndoesTheChange() {
+		Long id = repo.save(flightWithSeats(10)).getId();
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+
+		tx.executeWithoutResult(status -> {
+			assertEquals("Seats Updated", ledger.reserve(id, 4));
+			assertEquals(6, ledger.available(id));
+			status.setRollbackOnly();
+		});
+		assertEquals(10, ledger.available(id));
+
+		tx.executeWithoutResult(status -> {
+			ledger.release(id, 5);
+			// not available to anyone until the release commits
+			assertEquals(10, ledger.available(id));
+			status.setRollbackOnly();
+		});
+		assertEquals(10, ledger.available(id));
+		assertEquals(0, journal.count());
+	}
+
+	/**
+	 * A second inventory over the same tables stands in for the process that
+	 * starts after a crash: acknowledged changes were never flushed, yet the
+	 * restarted counter has them and replay puts them in the seat column.
+	 */
+	@Test
+	void testAcknowledgedChangesSurviveACrash() {
+		Long id = repo.save(flightWithSeats(10)).getId();
+		ledger.reserve(id, 3);
+		ledger.reserve(id, 2);
+
+		LedgerSeatInventory restarted = new LedgerSeatInventory(repo, journal, txManager, 1, 600_000);
+		assertEquals("Not Enough Seats", restarted.reserve(id, 6));
+		assertEquals(5, restarted.available(id));
+
+		assertEquals(2, restarted.replay());
+		assertEquals(5, seats(id));
+		assertEquals(0, journal.count());
+	}
+
+	@Test
+	void testIdleCountersAreDroppedAndReloaded() {
+		Long id = repo.save(flightWithSeats(10)).getId();
+		LedgerSeatInventory evicting = new LedgerSeatInventory(repo, journal, txManager, 1000, 0);
+
+		evicting.reserve(id, 4);
+		assertEquals(1, evicting.cached());
+		evicting.flush();
+		assertEquals(0, evicting.cached());
+		assertNull(evicting.available(id));
+
+		assertEquals("Not Enough Seats", evicting.reserve(id, 7));
+		assertEquals(6, evicting.available(id));
+	}
+
+	@Test
+	void testParallelReservesNeverOversell() throws Exception {
+		Long id = repo.save(flightWithSeats(10)).getId();
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		AtomicInteger sold = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < 500; i++) {
+			futures.add(pool.submit(() -> {
+				if ("Seats Updated".equals(ledger.reserve(id, 1))) {
+					sold.incrementAndGet();
+				}
+			}));
+		}
+		for (Future<?> f : futures) {
+			f.get();
+		}
+		pool.shutdown();
+
+		assertEquals(10, sold.get());
+		assertEquals(0, ledger.available(id));
+		ledger.replay();
+		assertEquals(0, seats(id));
+	}
+
+	private int seats(Long id) {
+		return repo.findById(id).orElseThrow().getAvailableSeats();
+	}
+
+	private static Flight flightWithSeats(int seats) {
+		Flight f = new Flight();
+		f.setAirlineName("Indigo");
+		f.setAirlineCode("6E");
+		f.setFromPlace("HYD");
+		f.setToPlace("BLR");
+		f.setDepartureDateTime("2025-12-01T10:00:00");
+		f.setArrivalDateTime("2025-12-01T12:00:00");
+		f.setPrice(3000.0);
+		f.setAvailableSeats(seats);
+		return f;
+	}
+}
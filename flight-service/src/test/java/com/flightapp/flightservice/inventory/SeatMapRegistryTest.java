@@ -0,0 +1,125 @@
+package com.flightapp.flightservice.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.Seat;
+import com.flightapp.flightservice.domain.SeatType;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.repository.SeatRepository;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import(SeatMapRegistry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class SeatMapRegistryTest {
+
+    @Autowired
+    private FlightRepository flightRepo;
+
+    @Autowired
+    private SeatRepository seatRepo;
+
+    @Autowired
+    private SeatMapRegistry registry;
+
+    @Autowired
+    private PlatformTransactionManager txManager;
+
+    @AfterEach
+    void cleanup() {
+        seatRepo.deleteAll();
+        flightRepo.deleteAll();
+    }
+
+    @Test
+    void testGeneratesLayoutAndBooksInTheDatabase() {
+        Long id = flightWithSeats(8);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        SeatMap map = registry.forFlight(id);
+        assertEquals(8, map.size());
+        assertSame(map, registry.forFlight(id));
+
+        List<SeatMap.Claim> claims = map.claim(SeatType.REGULAR, 2);
+        assertEquals(Boolean.TRUE, tx.execute(status -> registry.book(id, claims)));
+
+        List<Seat> rows = seatRepo.findByFlightIdOrderByIdAsc(id);
+        assertEquals(List.of("1A", "1B", "1C", "1D", "1E", "1F", "2A", "2B"),
+                rows.stream().map(Seat::getSeatNumber).toList());
+        assertEquals(2, rows.stream().filter(Seat::isBooked).count());
+
+        assertEquals(Integer.valueOf(1), tx.execute(status -> registry.free(id, List.of("1A", "2B"))));
+        assertEquals(1, seatRepo.findByFlightIdOrderByIdAsc(id).stream().filter(Seat::isBooked).count());
+    }
+
+    /** Two registries over one database stand in for two flight-service instances. */
+    @Test
+    void testSecondInstanceCannotBookTheSameSeat() {
+        Long id = flightWithSeats(6);
+        SeatMapRegistry other = new SeatMapRegistry(flightRepo, seatRepo, txManager, 6, 60_000);
+        TransactionTemplate tx = new TransactionTemplate(txManager);
+
+        SeatMap mine = registry.forFlight(id);
+        SeatMap theirs = other.forFlight(id);
+        assertEquals(6, seatRepo.findByFlightIdOrderByIdAsc(id).size());
+
+        List<SeatMap.Claim> first = mine.claim(List.of("1A", "1B"));
+        List<SeatMap.Claim> second = theirs.claim(List.of("1B", "1C"));
+        assertNotNull(second);
+
+        assertEquals(Boolean.TRUE, tx.execute(status -> registry.book(id, first)));
+        assertEquals(Boolean.FALSE, tx.execute(status -> {
+            boolean booked = other.book(id, second);
+            status.setRollbackOnly();
+            return booked;
+        }));
+
+        assertNotSame(theirs, other.forFlight(id));
+        assertNull(other.forFlight(id).claim(List.of("1B")));
+        assertEquals(List.of("1A", "1B"), seatRepo.findByFlightIdOrderByIdAsc(id).stream().filter(Seat::isBooked)
+                .map(Seat::getSeatNumber).toList());
+    }
+
+    @Test
+    void testSeatNumbersAreUniquePerFlight() {
+        Long id = flightWithSeats(2);
+        registry.forFlight(id);
+        Flight flight = flightRepo.findById(id).orElseThrow();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> seatRepo.save(new Seat(null, "1A", SeatType.REGULAR, false, flight)));
+    }
+
+    @Test
+    void testSeatsPerRowMustBePositive() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> new SeatMapRegistry(flightRepo, seatRepo, txManager, 0, 60_000));
+        assertTrue(e.getMessage().contains("flight.seats.per-row"));
+    }
+
+    @Test
+    void testUnknownFlight() {
+        assertNull(registry.forFlight(12345L));
+    }
+
+    private Long flightWithSeats(int seats) {
+        Flight f = new Flight();
+        f.setAvailableSeats(seats);
+        return flightRepo.save(f).getId();
+    }
+}
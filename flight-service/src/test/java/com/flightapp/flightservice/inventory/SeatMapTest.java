@@ -0,0 +1,122 @@
+package com.flightapp.flightservice.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.Test;
+
+import com.flightapp.flightservice.domain.Seat;
+import com.flightapp.flightservice.domain.SeatType;
+
+class SeatMapTest {
+
+    private static List<Seat> layout(int rows, SeatType type, long firstId) {
+        return layout(1, rows, type, firstId);
+    }
+
+    private static List<Seat> layout(int firstRow, int rows, SeatType type, long firstId) {
+        List<Seat> seats = new ArrayList<>();
+        long id = firstId;
+        for (int r = firstRow; r < firstRow + rows; r++) {
+            for (char c : "ABCDEF".toCharArray()) {
+                seats.add(new Seat(id++, r + String.valueOf(c), type, false, null));
+            }
+        }
+        return seats;
+    }
+
+    @Test
+    void testClaimAdjacentSeatsInOneRow() {
+        List<Seat> seats = layout(2, SeatType.REGULAR, 1);
+        seats.get(1).setBooked(true); // 1B
+        SeatMap map = new SeatMap(seats);
+
+        List<SeatMap.Claim> claims = map.claim(SeatType.REGULAR, 3);
+
+        assertEquals(List.of("1C", "1D", "1E"), claims.stream().map(SeatMap.Claim::seatNumber).toList());
+        assertEquals(8, map.free(SeatType.REGULAR));
+    }
+
+    @Test
+    void testRunDoesNotCrossRows() {
+        List<Seat> seats = layout(2, SeatType.REGULAR, 1);
+        seats.get(2).setBooked(true); // 1C
+        seats.get(8).setBooked(true); // 2C
+        SeatMap map = new SeatMap(seats);
+
+        List<SeatMap.Claim> claims = map.claim(SeatType.REGULAR, 3);
+
+        assertEquals(List.of("1D", "1E", "1F"), claims.stream().map(SeatMap.Claim::seatNumber).toList());
+    }
+
+    @Test
+    void testFallsBackToScatteredSeats() {
+        List<Seat> seats = layout(1, SeatType.REGULAR, 1);
+        seats.get(1).setBooked(true);
+        seats.get(3).setBooked(true);
+        SeatMap map = new SeatMap(seats);
+
+        List<SeatMap.Claim> claims = map.claim(SeatType.REGULAR, 3);
+
+        assertEquals(List.of("1A", "1C", "1E"), claims.stream().map(SeatMap.Claim::seatNumber).toList());
+        assertNull(map.claim(SeatType.REGULAR, 2));
+        assertEquals(1, map.free(SeatType.REGULAR));
+    }
+
+    @Test
+    void testPartitionsBySeatType() {
+        List<Seat> seats = new ArrayList<>(layout(1, SeatType.BUSINESS, 1));
+        seats.addAll(layout(2, 2, SeatType.REGULAR, 100));
+        SeatMap map = new SeatMap(seats);
+
+        assertNull(map.claim(SeatType.PREMIUM, 1));
+        assertNull(map.claim(SeatType.BUSINESS, 7));
+        assertEquals(SeatType.BUSINESS, map.claim(SeatType.BUSINESS, 2).get(0).seatType());
+        assertEquals(12, map.free(SeatType.REGULAR));
+        assertEquals(18, map.size());
+    }
+
+    @Test
+    void testClaimSpecificSeatsIsAllOrNothing() {
+        SeatMap map = new SeatMap(layout(1, SeatType.REGULAR, 1));
+
+        assertNotNull(map.claim(List.of("1A")));
+        assertNull(map.claim(List.of("1B", "1A")));
+        assertNull(map.claim(List.of("9Z")));
+        assertEquals(5, map.free(SeatType.REGULAR));
+
+        assertEquals(1, map.release(List.of("1A", "1B")).size());
+        assertEquals(6, map.free(SeatType.REGULAR));
+    }
+
+    @Test
+    void testConcurrentClaimsNeverShareASeat() throws Exception {
+        SeatMap map = new SeatMap(layout(50, SeatType.REGULAR, 1));
+        Set<String> taken = ConcurrentHashMap.newKeySet();
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+
+        for (int i = 0; i < 1000; i++) {
+            futures.add(pool.submit(() -> {
+                List<SeatMap.Claim> claims = map.claim(SeatType.REGULAR, 2);
+                if (claims != null) {
+                    claims.forEach(c -> assertTrue(taken.add(c.seatNumber())));
+                }
+            }));
+        }
+        for (Future<?> f : futures) {
+            f.get();
+        }
+        pool.shutdown();
+
+        assertEquals(300, taken.size());
+        assertEquals(0, map.free(SeatType.REGULAR));
+    }
+}
@@ -0,0 +1,116 @@
+package com.flightapp.flightservice.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+
+@ActiveProfiles("test")
+@DataJpaTest
+class FlightRepositoryTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    @Autowired
+    private FlightRepository repo;
+
+    @BeforeEach
+    void setup() {
+        save("HYD", "BLR", "2025-12-03T09:00");
+        save("HYD", "BLR", "2025-12-01T18:00");
+        save("HYD", "BLR", "2025-12-01T06:00");
+        save("HYD", "BLR", "2025-12-01T06:00");
+        save("HYD", "DEL", "2025-12-01T06:00");
+    }
+
+    private Flight save(String from, String to, String departure) {
+        Flight f = new Flight();
+        f.setFromPlace(from);
+        f.setToPlace(to);
+        f.setDepartureDateTime(departure);
+        f.setAvailableSeats(10);
+        return repo.save(f);
+    }
+
+    @Test
+    void testDepartureAtFilledOnSave() {
+        Flight f = save("A", "B", "2025-12-01 10:15");
+        assertEquals(LocalDateTime.of(2025, 12, 1, 10, 15), f.getDepartureAt());
+    }
+
+    @Test
+    void testKeysetPagesWalkRouteInDepartureOrder() {
+        List<Flight> first = repo.searchAfter("HYD", "BLR", START, END, START, Long.MIN_VALUE, PageRequest.of(0, 2));
+        assertEquals(2, first.size());
+        assertEquals(first.get(0).getDepartureAt(), first.get(1).getDepartureAt());
+        assertTrue(first.get(0).getId() < first.get(1).getId());
+
+        Flight last = first.get(1);
+        List<Flight> second = repo.searchAfter("HYD", "BLR", START, END, last.getDepartureAt(), last.getId(),
+                PageRequest.of(0, 2));
+        assertEquals(List.of("2025-12-01T18:00", "2025-12-03T09:00"),
+                second.stream().map(Flight::getDepartureDateTime).toList());
+    }
+
+    @Test
+    void testDateWindowAndDescendingOrder() {
+        LocalDateTime from = LocalDateTime.of(2025, 12, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 12, 2, 0, 0);
+
+        List<Flight> page = repo.searchBefore("HYD", "BLR", from, to, to, Long.MAX_VALUE, PageRequest.of(0, 10));
+
+        assertEquals(List.of("2025-12-01T18:00", "2025-12-01T06:00", "2025-12-01T06:00"),
+                page.stream().map(Flight::getDepartureDateTime).toList());
+    }
+
+    @Test
+    void testSnapshotProjection() {
+        Flight f = save("HYD", "GOI", "2025-12-05T07:30");
+
+        FlightSnapshot snapshot = repo.findSnapshotById(f.getId()).orElseThrow();
+        assertEquals(f.getId(), snapshot.getId());
+        assertEquals("GOI", snapshot.getToPlace());
+        assertEquals("2025-12-05T07:30", snapshot.getDepartureDateTime());
+        assertTrue(repo.findSnapshotById(-1L).isEmpty());
+    }
+
+    @Test
+    void testSeatStatementsBumpTheVersion() {
+        Flight f = save("HYD", "GOI", "2025-12-05T07:30");
+        assertEquals(0L, repo.findById(f.getId()).orElseThrow().getVersion());
+
+        repo.decrementSeats(f.getId(), 3);
+        repo.incrementSeats(f.getId(), 1);
+        repo.adjustSeats(f.getId(), -1);
+        assertEquals(0, repo.decrementSeats(f.getId(), 100));
+
+        Flight current = repo.findById(f.getId()).orElseThrow();
+        assertEquals(7, current.getAvailableSeats());
+        assertEquals(3L, current.getVersion());
+    }
+
+    @Test
+    void testSavingAStaleCopyFailsInsteadOfUndoingSeats() {
+        Flight stale = save("HYD", "GOI", "2025-12-05T07:30");
+        repo.flush();
+
+        // clears the persistence context, so the copy we hold is detached and out of date
+        repo.decrementSeats(stale.getId(), 4);
+        stale.setPrice(999.0);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> repo.saveAndFlush(stale));
+        assertEquals(6, repo.findById(stale.getId()).orElseThrow().getAvailableSeats());
+    }
+}
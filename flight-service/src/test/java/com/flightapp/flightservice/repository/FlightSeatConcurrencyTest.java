@@ -0,0 +1,210 @@
+package com.flightapp.flightservice.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.flightapp.flightservice.cache.SingleFlight;
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.dto.SeatUpdate;
+import com.flightapp.flightservice.inventory.DatabaseSeatInventory;
+import com.flightapp.flightservice.inventory.SeatMapRegistry;
+import com.flightapp.flightservice.service.FlightService;
+import com.flightapp.flightservice.service.impl.FlightServiceImpl;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({ CacheConfig.class, FlightServiceImpl.class, DatabaseSeatInventory.class, SeatMapRegistry.class,
+		SingleFlight.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightSeatConcurrencyTest {
+
+	private static final int SEATS = 50;
+	private static final int REQUESTS = 300;
+	private static final int THREADS = 8;
+
+	@Autowired
+	private FlightRepository repo;
+
+	@Autowired
+	private FlightService service;
+
+	@Autowired
+	private PlatformTransactionManager txManager;
+
+	@AfterEach
+	void cleanup() {
+		repo.deleteAll();
+	}
+
+	@Test
+	void testParallelDecrementsNeverOversell() throws Exception {
+		Long id = repo.save(flightWithSeats(SEATS)).getId();
+
+		Result atomic = hammer(REQUESTS, () -> service.updateSeats(id, 1));
+
+		assertEquals(SEATS, atomic.sold);
+		assertEquals(REQUESTS - SEATS, atomic.rejected);
+		assertEquals(0, repo.findById(id).orElseThrow().getAvailableSeats());
+	}
+
+	@Test
+	void testBatchUpdateIsAllOrNothing() {
+		Long outbound = repo.save(flightWithSeats(5)).getId();
+		Long inbound = repo.save(flightWithSeats(1)).getId();
+
+		String refused = service.updateSeats(List.of(new SeatUpdate(outbound, -2), new SeatUpdate(inbound, -2)));
+		assertEquals("Not Enough Seats", refused);
+		assertEquals(5, repo.findById(outbound).orElseThrow().getAvailableSeats());
+		assertEquals(1, repo.findById(inbound).orElseThrow().getAvailableSeats());
+
+		String missing = service.updateSeats(List.of(new SeatUpdate(outbound, -1), new SeatUpdate(-1L, 1)));
+		assertEquals("Flight Not Found", missing);
+		assertEquals(5, repo.findById(outbound).orElseThrow().getAvailableSeats());
+
+		String booked = service.updateSeats(List.of(new SeatUpdate(outbound, -2), new SeatUpdate(inbound, -1),
+				new SeatUpdate(outbound, 1)));
+		assertEquals("Seats Updated", booked);
+		assertEquals(4, repo.findById(outbound).orElseThrow().getAvailableSeats());
+		assertEquals(0, repo.findById(inbound).orElseThrow().getAvailableSeats());
+	}
+
+	/**
+	 * The findById / check / save sequence the service used before the guarded
+	 * update. It oversold while flights had no version column; now a save over
+	 * a row changed since it was read fails instead, so every seat it reports
+	 * sold is gone from the row and the rest of the callers are turned away.
+	 */
+	@Test
+	void testReadModifyWriteNeitherOversellsNorLosesUpdates() throws Exception {
+		Long id = repo.save(flightWithSeats(SEATS)).getId();
+
+		Result legacy = hammer(REQUESTS, readModifyWrite(id));
+
+		assertTrue(legacy.sold > 0);
+		assertTrue(legacy.sold <= SEATS, "read-modify-write oversold: " + legacy.sold);
+		assertEquals(REQUESTS, legacy.sold + legacy.rejected);
+		assertEquals(SEATS - legacy.sold, repo.findById(id).orElseThrow().getAvailableSeats());
+	}
+
+	/**
+	 * Selling 500 seats to 500 callers both ways, each read-modify-write caller
+	 * trying again after a version conflict as a client would: the guarded
+	 * update sells out in less time. Run with {@code mvn test -Pbenchmark}.
+	 */
+	@Test
+	@Tag("benchmark")
+	void testAtomicDecrementOutpacesReadModifyWrite() throws Exception {
+		int seats = SEATS * 10;
+		Long legacyId = repo.save(flightWithSeats(seats)).getId();
+		Long atomicId = repo.save(flightWithSeats(seats)).getId();
+
+		Callable<String> readModifyWrite = readModifyWrite(legacyId);
+		Result legacy = hammer(seats, () -> {
+			while (true) {
+				try {
+					return readModifyWrite.call();
+				} catch (OptimisticLockingFailureException e) {
+					// someone else sold a seat in between, read again
+				}
+			}
+		});
+		Result atomic = hammer(seats, () -> service.updateSeats(atomicId, 1));
+
+		assertEquals(seats, legacy.sold);
+		assertEquals(seats, atomic.sold);
+		assertTrue(atomic.throughput() > legacy.throughput(), String.format(
+				"guarded update %.0f seats/s, read-modify-write %.0f seats/s", atomic.throughput(),
+				legacy.throughput()));
+	}
+
+	private Callable<String> readModifyWrite(Long flightId) {
+		TransactionTemplate tx = new TransactionTemplate(txManager);
+		return () -> tx.execute(status -> {
+			Flight f = repo.findById(flightId).orElseThrow();
+			if (f.getAvailableSeats() < 1) {
+				return "Not Enough Seats";
+			}
+			f.setAvailableSeats(f.getAvailableSeats() - 1);
+			repo.save(f);
+			return "Seats Updated";
+		});
+	}
+
+	private Result hammer(int requests, Callable<String> call) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger sold = new AtomicInteger();
+		AtomicInteger rejected = new AtomicInteger();
+		List<Future<?>> futures = new ArrayList<>();
+
+		for (int i = 0; i < requests; i++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				String res = call.call();
+				if ("Seats Updated".equals(res)) {
+					sold.incrementAndGet();
+				} else {
+					rejected.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		for (Future<?> f : futures) {
+			try {
+				f.get();
+			} catch (Exception e) {
+				// version conflicts and lock timeouts in the baseline count as failed bookings
+				rejected.incrementAndGet();
+			}
+		}
+		long elapsed = System.nanoTime() - began;
+		pool.shutdown();
+
+		return new Result(sold.get(), rejected.get(), elapsed);
+	}
+
+	private static Flight flightWithSeats(int seats) {
+		Flight f = new Flight();
+		f.setAirlineName("Indigo");
+		f.setAirlineCode("6E");
+		f.setFromPlace("HYD");
+		f.setToPlace("BLR");
+		f.setDepartureDateTime("2025-12-01T10:00:00");
+		f.setArrivalDateTime("2025-12-01T12:00:00");
+		f.setPrice(3000.0);
+		f.setAvailableSeats(seats);
+		return f;
+	}
+
+	private record Result(int sold, int rejected, long elapsedNanos) {
+		double throughput() {
+			return sold / (elapsedNanos / 1_000_000_000.0);
+		}
+	}
+}
@@ -0,0 +1,76 @@
+package com.flightapp.flightservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.repository.FlightRepository;
+
+class DepartureBackfillRunnerTest {
+
+    @Mock
+    private FlightRepository repo;
+
+    @InjectMocks
+    private DepartureBackfillRunner runner;
+
+    public DepartureBackfillRunnerTest() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testPageIsReadAgainAfterAConflict() {
+        Flight stale = flight(1L, 0L);
+        Flight fresh = flight(1L, 1L);
+        when(repo.findByDepartureAtIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenReturn(List.of(stale), List.of(fresh));
+        when(repo.saveAll(List.of(stale))).thenThrow(new ObjectOptimisticLockingFailureException(Flight.class, 1L));
+
+        runner.run(null);
+
+        verify(repo).initVersions();
+        verify(repo).saveAll(List.of(fresh));
+        assertNotNull(fresh.getDepartureAt());
+    }
+
+    @Test
+    void testPageIsSkippedAfterRepeatedConflicts() {
+        when(repo.findByDepartureAtIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any()))
+                .thenAnswer(inv -> List.of(flight(1L, 0L)));
+        when(repo.saveAll(any())).thenThrow(new ObjectOptimisticLockingFailureException(Flight.class, 1L));
+
+        assertDoesNotThrow(() -> runner.run(null));
+        verify(repo, times(3)).saveAll(any());
+    }
+
+    @Test
+    void testUnparseableRowsAreNotSaved() {
+        Flight good = flight(1L, 0L);
+        Flight bad = flight(2L, 0L);
+        bad.setDepartureDateTime("next monday");
+        when(repo.findByDepartureAtIsNullAndIdGreaterThanOrderByIdAsc(eq(0L), any())).thenReturn(List.of(good, bad));
+
+        runner.run(null);
+
+        verify(repo).saveAll(List.of(good));
+        assertNull(bad.getDepartureAt());
+    }
+
+    private static Flight flight(Long id, Long version) {
+        Flight f = new Flight();
+        f.setId(id);
+        f.setDepartureDateTime("2025-12-01T10:00");
+        f.setAvailableSeats(10);
+        f.setVersion(version);
+        return f;
+    }
+}
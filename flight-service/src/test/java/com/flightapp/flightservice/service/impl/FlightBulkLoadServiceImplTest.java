@@ -0,0 +1,156 @@
+package com.flightapp.flightservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.dto.BulkLoadResult;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.service.FlightBulkLoadService;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@ImportAutoConfiguration({ JacksonAutoConfiguration.class, ValidationAutoConfiguration.class })
+@Import({ CacheConfig.class, FlightBulkLoadServiceImpl.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightBulkLoadServiceImplTest {
+
+	private static final int SINGLE_ROWS = 1_000;
+	private static final int BULK_ROWS = 20_000;
+
+	@Autowired
+	private FlightBulkLoadService loader;
+
+	@Autowired
+	private FlightRepository repo;
+
+	@AfterEach
+	void cleanup() {
+		repo.deleteAllInBatch();
+	}
+
+	@Test
+	void testNdjsonReportsBadRowsAndLoadsTheRest() throws Exception {
+		String body = row(1) + "\n"
+				+ "{\"airlineName\":\"Indigo\",\"airlineCode\":\"6E\",\"fromPlace\":\"HYD\",\"toPlace\":\"BLR\"}\n"
+				+ "\n"
+				+ "not json\n"
+				+ row(2) + "\n";
+
+		BulkLoadResult result = loader.load(stream(body), FlightBulkLoadService.Format.NDJSON);
+
+		assertEquals(4, result.getReceived());
+		assertEquals(2, result.getLoaded());
+		assertEquals(2, result.getRejected());
+		assertEquals(2, result.getErrors().get(0).getLine());
+		assertTrue(result.getErrors().get(0).getMessage().contains("price: Price is required"));
+		assertEquals(4, result.getErrors().get(1).getLine());
+		assertEquals(2, repo.count());
+		assertTrue(repo.findAll().stream().allMatch(f -> f.getDepartureAt() != null));
+	}
+
+	@Test
+	void testCsvWithQuotedFields() throws Exception {
+		String body = "airlineName,airlineCode,fromPlace,toPlace,departureDateTime,arrivalDateTime,price,availableSeats\r\n"
+				+ "\"Air India, Express\",IX,HYD,BLR,2025-12-01T10:00:00,2025-12-01T12:00:00,3000.5,180\r\n"
+				+ "Indigo,6E,HYD,BLR,2025-12-01T10:00:00,2025-12-01T12:00:00,-1,180\r\n"
+				+ "Indigo,6E,HYD\r\n";
+
+		BulkLoadResult result = loader.load(stream(body), FlightBulkLoadService.Format.CSV);
+
+		assertEquals(1, result.getLoaded());
+		assertEquals(List.of(3L, 4L), result.getErrors().stream().map(BulkLoadResult.RowError::getLine).toList());
+		Flight f = repo.findAll().get(0);
+		assertEquals("Air India, Express", f.getAirlineName());
+		assertEquals(3000.5, f.getPrice());
+	}
+
+	/** The pattern passes a date that does not exist; only its own row is refused, not the chunk. */
+	@Test
+	void testImpossibleDepartureRejectsOnlyItsRow() throws Exception {
+		String body = row(1) + "\n" + row(2).replace("2025-12-03", "2025-02-30") + "\n" + row(3) + "\n";
+
+		BulkLoadResult result = loader.load(stream(body), FlightBulkLoadService.Format.NDJSON);
+
+		assertEquals(2, result.getLoaded());
+		assertEquals(1, result.getRejected());
+		assertEquals(2, result.getErrors().get(0).getLine());
+		assertTrue(result.getErrors().get(0).getMessage().startsWith("departureDateTime"));
+		assertEquals(2, repo.count());
+	}
+
+	@Test
+	void testLoadsAcrossSeveralBatches() throws Exception {
+		BulkLoadResult result = loader.load(stream(rows(1_201)), FlightBulkLoadService.Format.NDJSON);
+
+		assertEquals(1_201, result.getReceived());
+		assertEquals(1_201, result.getLoaded());
+		assertTrue(result.getErrors().isEmpty());
+		assertEquals(1_201, repo.count());
+	}
+
+	/** Run with {@code mvn test -Pbenchmark}. */
+	@Test
+	@Tag("benchmark")
+	void testBulkLoadOutpacesOneSavePerFlight() throws Exception {
+		long began = System.nanoTime();
+		for (int i = 0; i < SINGLE_ROWS; i++) {
+			Flight f = new Flight();
+			f.setAirlineName("Indigo");
+			f.setAirlineCode("6E");
+			f.setFromPlace("HYD");
+			f.setToPlace("BLR");
+			f.setDepartureDateTime("2025-12-01T10:00:00");
+			f.setArrivalDateTime("2025-12-01T12:00:00");
+			f.setPrice(3000.0);
+			f.setAvailableSeats(180);
+			repo.save(f);
+		}
+		double singleRate = SINGLE_ROWS / ((System.nanoTime() - began) / 1_000_000_000.0);
+
+		String body = rows(BULK_ROWS);
+		began = System.nanoTime();
+		BulkLoadResult result = loader.load(stream(body), FlightBulkLoadService.Format.NDJSON);
+		double bulkRate = BULK_ROWS / ((System.nanoTime() - began) / 1_000_000_000.0);
+
+		assertEquals(BULK_ROWS, result.getLoaded());
+		assertEquals(SINGLE_ROWS + BULK_ROWS, repo.count());
+		assertTrue(bulkRate > singleRate, "bulk load must beat one save per flight");
+	}
+
+	private static String rows(int count) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			body.append(row(i)).append('\n');
+		}
+		return body.toString();
+	}
+
+	private static String row(int i) {
+		return "{\"airlineName\":\"Indigo\",\"airlineCode\":\"6E\",\"fromPlace\":\"HYD\",\"toPlace\":\"BLR\","
+				+ "\"departureDateTime\":\"2025-12-" + String.format("%02d", i % 28 + 1) + "T10:00:00\","
+				+ "\"arrivalDateTime\":\"2025-12-01T12:00:00\",\"price\":3000.0,\"availableSeats\":180}";
+	}
+
+	private static InputStream stream(String body) {
+		return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+	}
+}
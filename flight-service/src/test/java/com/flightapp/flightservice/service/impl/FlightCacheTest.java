@@ -0,0 +1,203 @@
+package com.flightapp.flightservice.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.flightapp.flightservice.cache.SingleFlight;
+import com.flightapp.flightservice.config.CacheConfig;
+import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.dto.FlightSearchRequest;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import com.flightapp.flightservice.inventory.DatabaseSeatInventory;
+import com.flightapp.flightservice.inventory.SeatMapRegistry;
+import com.flightapp.flightservice.repository.FlightRepository;
+import com.flightapp.flightservice.service.FlightService;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+@ActiveProfiles("test")
+@DataJpaTest
+@Import({ CacheConfig.class, FlightServiceImpl.class, DatabaseSeatInventory.class, SeatMapRegistry.class,
+		SingleFlight.class })
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class FlightCacheTest {
+
+    @SpyBean
+    private FlightRepository repo;
+
+    @Autowired
+    private FlightService service;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private SingleFlight reads;
+
+    @AfterEach
+    void cleanup() {
+        repo.deleteAll();
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+    }
+
+    private Flight flight(int seats) {
+        Flight f = new Flight();
+        f.setFromPlace("HYD");
+        f.setToPlace("BLR");
+        f.setDepartureDateTime("2025-12-01T10:00");
+        f.setAvailableSeats(seats);
+        return service.addInventory(f);
+    }
+
+    private FlightSearchRequest route() {
+        FlightSearchRequest req = new FlightSearchRequest();
+        req.setFrom("HYD");
+        req.setTo("BLR");
+        return req;
+    }
+
+    @Test
+    void testGetFlightIsReadThroughAndEvictedBySeatChanges() {
+        Long id = flight(10).getId();
+
+        service.getFlight(id);
+        service.getFlight(id);
+        verify(repo, times(1)).findById(id);
+
+        service.updateSeats(id, 3);
+        assertEquals(7, service.getFlight(id).getAvailableSeats());
+
+        service.rollbackSeats(id, 1);
+        assertEquals(8, service.getFlight(id).getAvailableSeats());
+        verify(repo, times(3)).findById(id);
+    }
+
+    @Test
+    void testCachedSearchSeesSeatChangesAndNewInventory() {
+        Long id = flight(10).getId();
+
+        assertEquals(10, service.search(route()).getFlights().get(0).getAvailableSeats());
+        service.updateSeats(id, 4);
+        assertEquals(6, service.search(route()).getFlights().get(0).getAvailableSeats());
+        verify(repo, times(1)).searchAfter(any(), any(), any(), any(), any(), any(), any());
+
+        flight(5);
+        assertEquals(2, service.search(route()).getFlights().size());
+        verify(repo, times(2)).searchAfter(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testStatsAreRecorded() {
+        Long id = flight(10).getId();
+        @SuppressWarnings("unchecked")
+        Cache<Object, Object> native_ = (Cache<Object, Object>) cacheManager.getCache(CacheConfig.FLIGHTS)
+                .getNativeCache();
+        // the cache outlives each test, and so do its counts
+        CacheStats before = native_.stats();
+
+        service.getFlight(id);
+        service.getFlight(id);
+
+        CacheStats stats = native_.stats().minus(before);
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    /** The read only returns once all eight callers have arrived, so they all share it. */
+    @Test
+    void testConcurrentReadsOfOneFlightShareOneLoad() throws Exception {
+        Flight saved = flight(10);
+        Long id = saved.getId();
+        long before = reads.calls();
+        doAnswer(inv -> {
+            for (int i = 0; i < 500 && reads.calls() - before < 8; i++) {
+                Thread.sleep(10);
+            }
+            return Optional.of(saved);
+        }).when(repo).findById(id);
+
+        List<Integer> seats = stampede(8, () -> service.getFlight(id).getAvailableSeats());
+
+        assertEquals(List.of(10, 10, 10, 10, 10, 10, 10, 10), seats);
+        assertEquals(8, reads.calls() - before);
+        verify(repo, times(1)).findById(id);
+    }
+
+    /**
+     * A sale: 200 requests for one uncached flight land together while the
+     * database takes 50 ms to answer. They share a handful of reads, and the
+     * snapshots booking-service asks for collapse the same way. Run with
+     * {@code mvn test -Pbenchmark}.
+     */
+    @Test
+    @Tag("benchmark")
+    void testStampedeOnOneFlightSharesTheRead() throws Exception {
+        Flight saved = flight(10);
+        Long id = saved.getId();
+        FlightSnapshot snapshot = repo.findSnapshotById(id).orElseThrow();
+        doAnswer(inv -> {
+            Thread.sleep(50);
+            return Optional.of(saved);
+        }).when(repo).findById(id);
+        doAnswer(inv -> {
+            Thread.sleep(50);
+            return Optional.of(snapshot);
+        }).when(repo).findSnapshotById(id);
+
+        long calls = reads.calls();
+        long loads = reads.loads();
+        List<Integer> seats = stampede(200, () -> service.getFlight(id).getAvailableSeats());
+        cacheManager.getCache(CacheConfig.FLIGHTS).clear();
+        List<Integer> snapshots = stampede(200, () -> service.getFlightSnapshot(id) == null ? 0 : 1);
+        calls = reads.calls() - calls;
+        loads = reads.loads() - loads;
+
+        assertTrue(seats.stream().allMatch(s -> s == 10));
+        assertTrue(snapshots.stream().allMatch(s -> s == 1));
+        verify(repo, atMost(10)).findById(id);
+        verify(repo, atMost(11)).findSnapshotById(id);
+        assertTrue(calls >= 20 * loads, "collapse ratio " + calls + "/" + loads);
+    }
+
+    private static <T> List<T> stampede(int callers, Callable<T> call) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < callers; i++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                return call.call();
+            }));
+        }
+        go.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> f : futures) {
+            results.add(f.get());
+        }
+        pool.shutdown();
+        return results;
+    }
+}
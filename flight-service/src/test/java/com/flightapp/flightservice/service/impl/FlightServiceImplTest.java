@@ -3,15 +3,44 @@ package com.flightapp.flightservice.service.impl;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
 
+import com.flightapp.flightservice.cache.FlightChangedEvent;
+import com.flightapp.flightservice.cache.SingleFlight;
+import com.flightapp.flightservice.config.CacheConfig;
 import com.flightapp.flightservice.domain.Flight;
+import com.flightapp.flightservice.domain.Seat;
+import com.flightapp.flightservice.domain.SeatType;
+import com.flightapp.flightservice.dto.FlightResponse;
+import com.flightapp.flightservice.dto.FlightSearchRequest;
+import com.flightapp.flightservice.dto.FlightSearchResult;
+import com.flightapp.flightservice.dto.FlightSnapshot;
+import com.flightapp.flightservice.dto.SeatResponse;
+import com.flightapp.flightservice.dto.SeatUpdate;
+import com.flightapp.flightservice.inventory.SeatInventory;
+import com.flightapp.flightservice.inventory.SeatMap;
+import com.flightapp.flightservice.inventory.SeatMapRegistry;
 import com.flightapp.flightservice.repository.FlightRepository;
 
 class FlightServiceImplTest {
@@ -19,6 +48,24 @@ class FlightServiceImplTest {
     @Mock
     private FlightRepository repo;
 
+    @Mock
+    private SeatInventory inventory;
+
+    @Mock
+    private SeatMapRegistry seatMaps;
+
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @Spy
+    private SingleFlight reads = new SingleFlight();
+
+    @Spy
+    private PlatformTransactionManager txManager = new LocalTransactionManager();
+
     @InjectMocks
     private FlightServiceImpl service;
 
@@ -34,15 +81,131 @@ class FlightServiceImplTest {
 
         Flight saved = service.addInventory(f);
         assertEquals(1L, saved.getId());
+        verify(events).publishEvent(FlightChangedEvent.route(1L));
     }
 
     @Test
     void testSearch() {
         Flight f = new Flight();
-        when(repo.findByFromPlaceAndToPlace("A", "B")).thenReturn(List.of(f));
+        f.setId(1L);
+        when(repo.searchAfter(eq("A"), eq("B"), any(), any(), any(), eq(Long.MIN_VALUE), any()))
+                .thenReturn(List.of(f));
+
+        FlightSearchRequest req = new FlightSearchRequest();
+        req.setFrom("A");
+        req.setTo("B");
+
+        FlightSearchResult result = service.search(req);
+        assertEquals(1, result.getFlights().size());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void testSearch_servedFromCacheWithFreshFlights() {
+        Flight f = new Flight();
+        f.setId(7L);
+        f.setAvailableSeats(10);
+        when(repo.searchAfter(eq("A"), eq("B"), any(), any(), any(), any(), any())).thenReturn(List.of(f));
+
+        FlightSearchRequest req = new FlightSearchRequest();
+        req.setFrom("A");
+        req.setTo("B");
+        service.search(req);
+
+        Flight updated = new Flight();
+        updated.setId(7L);
+        updated.setAvailableSeats(4);
+        cacheManager.getCache("flights").evict(7L);
+        when(repo.findAllById(List.of(7L))).thenReturn(List.of(updated));
+        when(inventory.available(7L)).thenReturn(null);
+
+        FlightSearchRequest again = new FlightSearchRequest();
+        again.setFrom("A");
+        again.setTo("B");
+        again.setSort("asc");
+        FlightSearchResult result = service.search(again);
+
+        assertEquals(4, result.getFlights().get(0).getAvailableSeats());
+        verify(repo, times(1)).searchAfter(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSearch_pagesWithCursor() {
+        Flight f1 = new Flight(1L, "Indigo", "6E", "A", "B", "2025-12-01T10:00", null, 100.0, 5,
+                LocalDateTime.of(2025, 12, 1, 10, 0), 0L);
+        Flight f2 = new Flight(2L, "Indigo", "6E", "A", "B", "2025-12-02T10:00", null, 100.0, 5,
+                LocalDateTime.of(2025, 12, 2, 10, 0), 0L);
+        when(repo.searchBefore(eq("A"), eq("B"), eq(LocalDateTime.of(2025, 12, 1, 0, 0)),
+                eq(LocalDateTime.of(2025, 12, 4, 0, 0)), eq(LocalDateTime.of(2025, 12, 4, 0, 0)),
+                eq(Long.MAX_VALUE), eq(PageRequest.of(0, 2)))).thenReturn(List.of(f2, f1));
+
+        FlightSearchRequest req = new FlightSearchRequest();
+        req.setFrom("A");
+        req.setTo("B");
+        req.setDepartureFrom(LocalDate.of(2025, 12, 1));
+        req.setDepartureTo(LocalDate.of(2025, 12, 3));
+        req.setSort("desc");
+        req.setLimit(1);
+
+        FlightSearchResult result = service.search(req);
+        assertEquals(List.of(f2), result.getFlights());
+        assertNotNull(result.getNextCursor());
+
+        req.setCursor(result.getNextCursor());
+        service.search(req);
+        verify(repo).searchBefore(eq("A"), eq("B"), any(), any(), eq(LocalDateTime.of(2025, 12, 2, 10, 0)), eq(2L),
+                any());
+    }
+
+    @Test
+    void testSearch_invalidCursor() {
+        FlightSearchRequest req = new FlightSearchRequest();
+        req.setFrom("A");
+        req.setTo("B");
+        req.setCursor("###");
+
+        assertThrows(RuntimeException.class, () -> service.search(req));
+    }
+
+    /** Valid Base64 around fields that do not parse is as invalid as any other cursor. */
+    @Test
+    void testSearch_tamperedCursor() {
+        FlightSearchRequest req = new FlightSearchRequest();
+        req.setFrom("A");
+        req.setTo("B");
+
+        for (String position : List.of("tomorrow|1", "2025-12-01T10:00|one")) {
+            req.setCursor(Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(position.getBytes(StandardCharsets.UTF_8)));
+            RuntimeException e = assertThrows(RuntimeException.class, () -> service.search(req));
+            assertEquals("Invalid search cursor", e.getMessage());
+        }
+        verifyNoInteractions(repo);
+    }
+
+    @Test
+    void testGetFlightSnapshot_projectedWhenNotCached() {
+        FlightSnapshot snapshot = new FlightSnapshot(10L, "Indigo", "6E", "HYD", "BLR", "2025-12-01T10:00:00",
+                "2025-12-01T12:00:00", 3000.0);
+        when(repo.findSnapshotById(10L)).thenReturn(Optional.of(snapshot));
+
+        assertSame(snapshot, service.getFlightSnapshot(10L));
+        verify(repo, never()).findById(any());
+    }
+
+    @Test
+    void testGetFlightSnapshot_fromCachedFlight() {
+        Flight f = new Flight();
+        f.setId(10L);
+        f.setAirlineName("Indigo");
+        f.setPrice(3000.0);
+        cacheManager.getCache(CacheConfig.FLIGHTS).put(10L, f);
 
-        List<Flight> result = service.search("A", "B");
-        assertEquals(1, result.size());
+        FlightSnapshot snapshot = service.getFlightSnapshot(10L);
+
+        assertEquals("Indigo", snapshot.getAirlineName());
+        assertEquals(3000.0, snapshot.getPrice());
+        verifyNoInteractions(repo);
     }
 
     @Test
@@ -55,6 +218,17 @@ class FlightServiceImplTest {
         assertNotNull(result);
     }
 
+    @Test
+    void testGetFlight_seatsFromInventory() {
+        Flight f = new Flight();
+        f.setId(10L);
+        f.setAvailableSeats(50);
+        when(repo.findById(10L)).thenReturn(Optional.of(f));
+        when(inventory.available(10L)).thenReturn(42);
+
+        assertEquals(42, service.getFlight(10L).getAvailableSeats());
+    }
+
     @Test
     void testGetFlight_notFound() {
         when(repo.findById(100L)).thenReturn(Optional.empty());
@@ -63,49 +237,156 @@ class FlightServiceImplTest {
     }
 
     @Test
-    void testUpdateSeats_success() {
-        Flight f = new Flight();
-        f.setAvailableSeats(10);
-        when(repo.findById(1L)).thenReturn(Optional.of(f));
+    void testUpdateSeats_delegatesToInventory() {
+        when(inventory.reserve(1L, 5)).thenReturn("Seats Updated");
 
         String res = service.updateSeats(1L, 5);
         assertEquals("Seats Updated", res);
-        assertEquals(5, f.getAvailableSeats());
+        verify(repo, never()).save(any());
+        verify(events).publishEvent(FlightChangedEvent.seats(1L));
     }
 
     @Test
     void testUpdateSeats_notEnoughSeats() {
-        Flight f = new Flight();
-        f.setAvailableSeats(3);
-        when(repo.findById(1L)).thenReturn(Optional.of(f));
+        when(inventory.reserve(1L, 5)).thenReturn("Not Enough Seats");
 
         String res = service.updateSeats(1L, 5);
         assertEquals("Not Enough Seats", res);
+        verify(events, never()).publishEvent(any());
     }
 
     @Test
-    void testUpdateSeats_flightNotFound() {
-        when(repo.findById(99L)).thenReturn(Optional.empty());
+    void testUpdateSeatsBatch_netsDeltasPerFlight() {
+        when(inventory.apply(any())).thenReturn("Seats Updated");
 
-        String res = service.updateSeats(99L, 2);
-        assertEquals("Flight Not Found", res);
+        String res = service.updateSeats(
+                List.of(new SeatUpdate(2L, -2), new SeatUpdate(1L, -1), new SeatUpdate(2L, 1)));
+
+        assertEquals("Seats Updated", res);
+        verify(inventory).apply(new TreeMap<>(Map.of(1L, -1, 2L, -1)));
+        verify(events).publishEvent(FlightChangedEvent.seats(1L));
+        verify(events).publishEvent(FlightChangedEvent.seats(2L));
     }
 
     @Test
-    void testRollbackSeats_success() {
-        Flight f = new Flight();
-        f.setAvailableSeats(5);
-        when(repo.findById(2L)).thenReturn(Optional.of(f));
+    void testUpdateSeatsBatch_refusedPublishesNothing() {
+        when(inventory.apply(any())).thenReturn("Not Enough Seats");
+
+        assertEquals("Not Enough Seats", service.updateSeats(List.of(new SeatUpdate(1L, -9))));
+        verify(events, never()).publishEvent(any());
+    }
+
+    @Test
+    void testRollbackSeats_delegatesToInventory() {
+        when(inventory.release(2L, 3)).thenReturn("Seats Rolled Back");
 
         String res = service.rollbackSeats(2L, 3);
         assertEquals("Seats Rolled Back", res);
-        assertEquals(8, f.getAvailableSeats());
+    }
+
+    private SeatMap twoSeats() {
+        return new SeatMap(List.of(new Seat(1L, "1A", SeatType.REGULAR, false, null),
+                new Seat(2L, "1B", SeatType.REGULAR, false, null)));
+    }
+
+    @Test
+    void testReserveSeats_success() {
+        SeatMap map = twoSeats();
+        when(seatMaps.forFlight(1L)).thenReturn(map);
+        when(seatMaps.book(eq(1L), any())).thenReturn(true);
+        when(inventory.reserve(1L, 2)).thenReturn("Seats Updated");
+
+        List<SeatResponse> seats = service.reserveSeats(1L, SeatType.REGULAR, 2);
+
+        assertEquals(2, seats.size());
+        assertEquals("1A", seats.get(0).getSeatNumber());
+        assertEquals(0, map.free(SeatType.REGULAR));
+    }
+
+    @Test
+    void testReserveSeats_counterRejectsReleasesBits() {
+        SeatMap map = twoSeats();
+        when(seatMaps.forFlight(1L)).thenReturn(map);
+        when(seatMaps.book(eq(1L), any())).thenReturn(true);
+        when(inventory.reserve(1L, 1)).thenReturn("Not Enough Seats");
+
+        assertThrows(RuntimeException.class, () -> service.reserveSeats(1L, List.of("1A")));
+        assertEquals(2, map.free(SeatType.REGULAR));
     }
 
     @Test
-    void testRollbackSeats_flightNotFound() {
-        when(repo.findById(10L)).thenReturn(Optional.empty());
-        String res = service.rollbackSeats(10L, 2);
-        assertEquals("Flight Not Found", res);
+    void testReserveSeats_seatTakenElsewherePicksAgain() {
+        SeatMap stale = twoSeats();
+        SeatMap reloaded = new SeatMap(List.of(new Seat(1L, "1A", SeatType.REGULAR, true, null),
+                new Seat(2L, "1B", SeatType.REGULAR, false, null)));
+        when(seatMaps.forFlight(1L)).thenReturn(stale, reloaded);
+        when(seatMaps.book(eq(1L), any())).thenReturn(false, true);
+        when(inventory.reserve(1L, 1)).thenReturn("Seats Updated");
+
+        List<SeatResponse> seats = service.reserveSeats(1L, SeatType.REGULAR, 1);
+
+        assertEquals("1B", seats.get(0).getSeatNumber());
+        assertEquals(2, stale.free(SeatType.REGULAR));
+        verify(inventory, times(1)).reserve(1L, 1);
+    }
+
+    @Test
+    void testReserveSeats_flightNotFound() {
+        when(seatMaps.forFlight(9L)).thenReturn(null);
+        assertNull(service.reserveSeats(9L, SeatType.REGULAR, 1));
+    }
+
+    @Test
+    void testReleaseSeats() {
+        SeatMap map = twoSeats();
+        map.claim(List.of("1A"));
+        when(seatMaps.forFlight(1L)).thenReturn(map);
+        when(seatMaps.free(1L, List.of("1A", "1B"))).thenReturn(1);
+
+        assertEquals("Seats Released", service.releaseSeats(1L, List.of("1A", "1B")));
+        verify(inventory).release(1L, 1);
+        verify(seatMaps).evict(1L);
+    }
+
+    @Test
+    void testGetSeats() {
+        when(seatMaps.forFlight(1L)).thenReturn(twoSeats());
+
+        List<SeatResponse> seats = service.getSeats(1L, List.of("1B"));
+        assertEquals(1, seats.size());
+        assertEquals(2L, seats.get(0).getId());
+        assertTrue(seats.get(0).isBooked());
+    }
+
+    @Test
+    void testGetSeatMap() {
+        Flight f = new Flight();
+        f.setId(1L);
+        when(repo.findById(1L)).thenReturn(Optional.of(f));
+        when(seatMaps.forFlight(1L)).thenReturn(twoSeats());
+
+        FlightResponse resp = service.getSeatMap(1L);
+        assertEquals(2, resp.getTotalSeats());
+        assertEquals(2, resp.getSeats().size());
+    }
+
+    /** Runs the service's transactions, synchronizations included, without a database. */
+    static class LocalTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
     }
 }